@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.is.key.manager.tokenpersistence.processor.InMemoryTokenProvider;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link InMemoryTokenProvider#getVerifiedAccessToken(String, boolean)}, for active, expired and
+ * tampered JWT access tokens. The revocation checks of the active tokens run against the embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AccessTokenValidationBenchmark {
+
+    private static final int TOKEN_COUNT = 1024;
+
+    /**
+     * Whether the verified access token cache is enabled, which skips the signature verification and the direct
+     * revocation check of the tokens validated before.
+     */
+    @Param({"false", "true"})
+    public boolean verifiedAccessTokenCache;
+
+    private InMemoryTokenProvider tokenProvider;
+    private String[] activeTokens;
+    private String[] expiredTokens;
+    private String[] tamperedTokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkEnvironment environment = BenchmarkEnvironment.init(Collections.singletonMap(
+                "OAuth.TokenPersistence.VerifiedAccessTokenCache.Enable", String.valueOf(verifiedAccessTokenCache)));
+        BenchmarkTokens tokens = environment.getTokens();
+        long now = System.currentTimeMillis();
+        activeTokens = new String[TOKEN_COUNT];
+        expiredTokens = new String[TOKEN_COUNT];
+        tamperedTokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            activeTokens[i] = tokens.createAccessToken(BenchmarkEnvironment.CONSUMER_KEY,
+                    BenchmarkEnvironment.USER_ID, now, now + TimeUnit.DAYS.toMillis(1));
+            expiredTokens[i] = tokens.createAccessToken(BenchmarkEnvironment.CONSUMER_KEY,
+                    BenchmarkEnvironment.USER_ID, now - TimeUnit.HOURS.toMillis(2), now - TimeUnit.HOURS.toMillis(1));
+            tamperedTokens[i] = BenchmarkTokens.tamper(activeTokens[i]);
+        }
+        tokenProvider = new InMemoryTokenProvider();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        tokenProvider.destroy();
+    }
+
+    @Benchmark
+    public AccessTokenDO validateActiveToken(TenantFlowState tenantFlow, TokenCursor cursor)
+            throws IdentityOAuth2Exception {
+
+        return tokenProvider.getVerifiedAccessToken(cursor.next(activeTokens), false);
+    }
+
+    @Benchmark
+    public AccessTokenDO validateExpiredToken(TenantFlowState tenantFlow, TokenCursor cursor)
+            throws IdentityOAuth2Exception {
+
+        return tokenProvider.getVerifiedAccessToken(cursor.next(expiredTokens), true);
+    }
+
+    @Benchmark
+    public Object validateTamperedToken(TenantFlowState tenantFlow, TokenCursor cursor) {
+
+        try {
+            return tokenProvider.getVerifiedAccessToken(cursor.next(tamperedTokens), false);
+        } catch (IdentityOAuth2Exception e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.apache.commons.lang.StringEscapeUtils;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.AuthenticatedUserCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.SignatureVerifierCache;
+import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import javax.naming.Context;
+import javax.sql.DataSource;
+
+/**
+ * Process wide environment of the benchmarks, which replaces the OSGi services and the server configuration used by
+ * the token persistence classes with in-process stand-ins:
+ * <ul>
+ *     <li>A temporary Carbon home holding an identity.xml built from the given properties, as the caches and the
+ *     optional features of the token persistence are configured once, when their classes are loaded.</li>
+ *     <li>An embedded H2 database with the revocation tables of the identity database and the tables of the token
+ *     persistence, bound under the identity data source name through {@link InMemoryInitialContextFactory}.</li>
+ *     <li>A realm service which only resolves the super tenant, with the user of the tokens preloaded into the
+ *     authenticated user cache so that the user store is never queried.</li>
+ *     <li>The verifier of the in-process signing key preloaded into the signature verifier cache, in place of the
+ *     signer certificate of the resident identity provider.</li>
+ * </ul>
+ * The environment is set up once per JVM. As each benchmark runs in its own forked JVM, a benchmark can configure the
+ * token persistence through the properties given to {@link #init(Map)} before it touches any of its classes.
+ */
+public final class BenchmarkEnvironment {
+
+    public static final String TENANT_DOMAIN = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+    public static final int TENANT_ID = MultitenantConstants.SUPER_TENANT_ID;
+    public static final String USERNAME = "admin";
+    public static final String USER_ID = "3e5b1f5a-0c2d-4b7e-9f61-2a8d4c7e9b10";
+    public static final String USER_STORE_DOMAIN = "PRIMARY";
+    public static final String CONSUMER_KEY = "benchmarkConsumerKey";
+    private static final String DATA_SOURCE_NAME = "jdbc/WSO2IdentityDB";
+    private static final String DATABASE_URL = "jdbc:h2:mem:WSO2IdentityDB;DB_CLOSE_DELAY=-1";
+    private static final int MAX_CONNECTIONS = 128;
+    private static final String[] SCHEMA_SCRIPTS = {"dbscripts/identity-h2.sql", "dbscripts/token-persistence/h2.sql"};
+    private static final String XML_NAMESPACE = "http://wso2.org/projects/carbon/carbon.xml";
+    private static BenchmarkEnvironment instance;
+
+    private final BenchmarkTokens tokens;
+    private final DataSource dataSource;
+
+    private BenchmarkEnvironment(Map<String, String> properties) throws IOException, SQLException {
+
+        Map<String, String> configuration = new TreeMap<>();
+        configuration.put("JDBCPersistenceManager.DataSource.Name", DATA_SOURCE_NAME);
+        configuration.put("OAuth.OpenIDConnect.IDTokenIssuerID", BenchmarkTokens.ISSUER);
+        configuration.put("OAuth.TokenPersistence.SignatureVerifierCache.Enable", "true");
+        configuration.put("OAuth.TokenPersistence.AuthenticatedUserCache.Enable", "true");
+        // The preloaded entries should outlive the longest benchmark run.
+        configuration.put("OAuth.TokenPersistence.SignatureVerifierCache.TimeToLiveInSeconds", "86400");
+        configuration.put("OAuth.TokenPersistence.AuthenticatedUserCache.TimeToLiveInSeconds", "86400");
+        configuration.putAll(properties);
+        createCarbonHome(configuration);
+
+        JdbcConnectionPool connectionPool = JdbcConnectionPool.create(DATABASE_URL, "wso2carbon", "wso2carbon");
+        connectionPool.setMaxConnections(MAX_CONNECTIONS);
+        dataSource = connectionPool;
+        createSchema();
+        InMemoryInitialContextFactory.bind(DATA_SOURCE_NAME, dataSource);
+        System.setProperty(Context.INITIAL_CONTEXT_FACTORY, InMemoryInitialContextFactory.class.getName());
+
+        ServiceReferenceHolder.getInstance().setRealmService(createRealmService());
+        tokens = new BenchmarkTokens();
+        SignatureVerifierCache verifierCache = SignatureVerifierCache.getInstance();
+        verifierCache.put(TENANT_DOMAIN, BenchmarkTokens.ISSUER, BenchmarkTokens.KEY_ID, BenchmarkTokens.ALGORITHM,
+                tokens.getVerifier(), verifierCache.getInvalidationStamp());
+        AuthenticatedUserCache userCache = AuthenticatedUserCache.getInstance();
+        userCache.put(USER_ID, TENANT_DOMAIN, TENANT_DOMAIN, false, USERNAME, createAuthenticatedUser(),
+                userCache.getInvalidationStamp());
+    }
+
+    /**
+     * Set up the environment, if it is not set up already in this JVM.
+     *
+     * @param properties identity.xml properties of the benchmark, eg: OAuth.TokenPersistence.X.Enable. These are
+     *                   only applied by the first call.
+     * @return Benchmark environment.
+     */
+    public static synchronized BenchmarkEnvironment init(Map<String, String> properties) {
+
+        if (instance == null) {
+            try {
+                instance = new BenchmarkEnvironment(properties);
+            } catch (IOException | SQLException e) {
+                throw new IllegalStateException("Error while setting up the benchmark environment.", e);
+            }
+        }
+        return instance;
+    }
+
+    public BenchmarkTokens getTokens() {
+
+        return tokens;
+    }
+
+    public DataSource getDataSource() {
+
+        return dataSource;
+    }
+
+    /**
+     * Run an update statement against the embedded identity database.
+     *
+     * @param sql        SQL statement.
+     * @param parameters Statement parameters.
+     */
+    public void executeUpdate(String sql, Object... parameters) {
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error while running the statement: " + sql, e);
+        }
+    }
+
+    /**
+     * Start the super tenant flow on the current thread, as the Carbon caches are scoped by the tenant of the flow.
+     */
+    public static void startTenantFlow() {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        carbonContext.setTenantDomain(TENANT_DOMAIN);
+        carbonContext.setTenantId(TENANT_ID);
+    }
+
+    public static void endTenantFlow() {
+
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    public static AuthenticatedUser createAuthenticatedUser() {
+
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setUserName(USERNAME);
+        authenticatedUser.setUserStoreDomain(USER_STORE_DOMAIN);
+        authenticatedUser.setTenantDomain(TENANT_DOMAIN);
+        authenticatedUser.setUserId(USER_ID);
+        authenticatedUser.setAuthenticatedSubjectIdentifier(USERNAME);
+        return authenticatedUser;
+    }
+
+    private static void createCarbonHome(Map<String, String> configuration) throws IOException {
+
+        Path carbonHome = Files.createTempDirectory("km-benchmarks-carbon-home");
+        Path configDirectory = carbonHome.resolve("repository").resolve("conf");
+        Files.createDirectories(configDirectory.resolve("identity"));
+        Files.write(configDirectory.resolve("carbon.xml"), ("<Server xmlns=\"" + XML_NAMESPACE + "\">"
+                + "<HostName>localhost</HostName><Ports><Offset>0</Offset></Ports></Server>")
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(configDirectory.resolve("identity").resolve("identity.xml"),
+                toIdentityXml(configuration).getBytes(StandardCharsets.UTF_8));
+        System.setProperty("carbon.home", carbonHome.toString());
+        System.setProperty("carbon.config.dir.path", configDirectory.toString());
+    }
+
+    /**
+     * Build an identity.xml holding the given properties, whose dot separated keys are the paths of the elements.
+     */
+    private static String toIdentityXml(Map<String, String> configuration) {
+
+        Map<String, Object> root = new TreeMap<>();
+        for (Map.Entry<String, String> property : configuration.entrySet()) {
+            String[] path = property.getKey().split("\\.");
+            Map<String, Object> element = root;
+            for (int i = 0; i < path.length - 1; i++) {
+                element = childElement(element, path[i]);
+            }
+            element.put(path[path.length - 1], property.getValue());
+        }
+        StringBuilder xml = new StringBuilder("<Server xmlns=\"").append(XML_NAMESPACE).append("\">");
+        appendElements(xml, root);
+        return xml.append("</Server>").toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> childElement(Map<String, Object> element, String name) {
+
+        return (Map<String, Object>) element.computeIfAbsent(name, key -> new TreeMap<String, Object>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendElements(StringBuilder xml, Map<String, Object> elements) {
+
+        for (Map.Entry<String, Object> element : elements.entrySet()) {
+            xml.append('<').append(element.getKey()).append('>');
+            if (element.getValue() instanceof Map) {
+                appendElements(xml, (Map<String, Object>) element.getValue());
+            } else {
+                xml.append(StringEscapeUtils.escapeXml(String.valueOf(element.getValue())));
+            }
+            xml.append("</").append(element.getKey()).append('>');
+        }
+    }
+
+    private void createSchema() throws IOException, SQLException {
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String script : SCHEMA_SCRIPTS) {
+                for (String sql : readStatements(script)) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static String[] readStatements(String script) throws IOException {
+
+        try (InputStream inputStream = BenchmarkEnvironment.class.getClassLoader().getResourceAsStream(script)) {
+            if (inputStream == null) {
+                throw new IOException("Database script not found: " + script);
+            }
+            StringBuilder sql = new StringBuilder();
+            Scanner scanner = new Scanner(inputStream, StandardCharsets.UTF_8.name());
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine().trim();
+                if (!line.startsWith("--")) {
+                    sql.append(line).append('\n');
+                }
+            }
+            return sql.toString().trim().split(";\\s*");
+        }
+    }
+
+    private static RealmService createRealmService() {
+
+        TenantManager tenantManager = createStub(TenantManager.class, method -> {
+            switch (method.getName()) {
+                case "getTenantId":
+                    return TENANT_ID;
+                case "getDomain":
+                    return TENANT_DOMAIN;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        return createStub(RealmService.class, method -> {
+            if ("getTenantManager".equals(method.getName())) {
+                return tenantManager;
+            }
+            // The users of the tokens are resolved from the authenticated user cache instead.
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private static <T> T createStub(Class<T> type, Function<Method, Object> handler) {
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        switch (method.getName()) {
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return type.getSimpleName() + " stub";
+                        }
+                    }
+                    return handler.apply(method);
+                }));
+    }
+}
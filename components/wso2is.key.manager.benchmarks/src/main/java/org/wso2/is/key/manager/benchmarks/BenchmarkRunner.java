@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks under 1, 8 and 64 threads, and writes the results of each thread count to
+ * jmh-result-{threads}-threads.json, which serve as the baseline to compare a performance change against.
+ * <p>
+ * Usage: java -jar benchmarks.jar [benchmark regex]. The thread counts and the result directory can be changed with
+ * the benchmark.threads (eg: 1,8,64) and benchmark.result.dir system properties. The regular JMH command line is
+ * available through org.openjdk.jmh.Main, eg: java -cp benchmarks.jar org.openjdk.jmh.Main -t 8.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_THREADS = "1,8,64";
+
+    private BenchmarkRunner() {
+
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+        File resultDirectory = new File(System.getProperty("benchmark.result.dir", "."));
+        for (String threadCount : System.getProperty("benchmark.threads", DEFAULT_THREADS).split(",")) {
+            int threads = Integer.parseInt(threadCount.trim());
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDirectory, "jmh-result-" + threads + "-threads.json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
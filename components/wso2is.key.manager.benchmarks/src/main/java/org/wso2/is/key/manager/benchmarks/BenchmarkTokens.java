@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.wso2.carbon.identity.oauth.common.OAuthConstants;
+import org.wso2.carbon.identity.oauth2.OAuth2Constants;
+import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues the JWT access and refresh tokens validated by the benchmarks, with the claims of the tokens issued by the
+ * key manager. The tokens are signed with an RSA key generated in-process, whose verifier is preloaded into the
+ * signature verifier cache in place of the signer certificate of the resident identity provider.
+ */
+public final class BenchmarkTokens {
+
+    public static final String ISSUER = "https://localhost:9443/oauth2/token";
+    public static final String KEY_ID = "benchmark-signing-key";
+    public static final String ALGORITHM = JWSAlgorithm.RS256.getName();
+    private static final String SCOPE = "default openid";
+    private static final int KEY_SIZE = 2048;
+
+    private final KeyPair keyPair;
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+    private final JWSHeader header;
+
+    public BenchmarkTokens() {
+
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(KEY_SIZE);
+            keyPair = keyPairGenerator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Error while generating the benchmark signing key.", e);
+        }
+        signer = new RSASSASigner(keyPair.getPrivate());
+        verifier = new RSASSAVerifier((RSAPublicKey) keyPair.getPublic());
+        header = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).keyID(KEY_ID).build();
+    }
+
+    public KeyPair getKeyPair() {
+
+        return keyPair;
+    }
+
+    public JWSSigner getSigner() {
+
+        return signer;
+    }
+
+    public JWSVerifier getVerifier() {
+
+        return verifier;
+    }
+
+    /**
+     * Issue a JWT access token.
+     *
+     * @param consumerKey Consumer key of the app of the token.
+     * @param entityId    Entity ID of the token.
+     * @param issuedTime  Issued time in milliseconds.
+     * @param expiryTime  Expiry time in milliseconds.
+     * @return Signed JWT.
+     */
+    public String createAccessToken(String consumerKey, String entityId, long issuedTime, long expiryTime) {
+
+        return sign(createClaimsSet(consumerKey, entityId, issuedTime, expiryTime).build());
+    }
+
+    /**
+     * Issue a JWT refresh token.
+     *
+     * @param consumerKey Consumer key of the app of the token.
+     * @param entityId    Entity ID of the token.
+     * @param issuedTime  Issued time in milliseconds.
+     * @param expiryTime  Expiry time in milliseconds.
+     * @return Signed JWT.
+     */
+    public String createRefreshToken(String consumerKey, String entityId, long issuedTime, long expiryTime) {
+
+        return sign(createClaimsSet(consumerKey, entityId, issuedTime, expiryTime)
+                .claim(PersistenceConstants.JWTClaim.TOKEN_TYPE_ELEM, PersistenceConstants.REFRESH_TOKEN)
+                .build());
+    }
+
+    /**
+     * Get a copy of the given token with a signature which does not match its header and payload.
+     *
+     * @param token Signed JWT.
+     * @return Tampered JWT.
+     */
+    public static String tamper(String token) {
+
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char[] characters = token.toCharArray();
+        characters[signatureStart] = characters[signatureStart] == 'A' ? 'B' : 'A';
+        return new String(characters);
+    }
+
+    private JWTClaimsSet.Builder createClaimsSet(String consumerKey, String entityId, long issuedTime,
+                                                 long expiryTime) {
+
+        Map<String, String> realm = new HashMap<>();
+        realm.put(OAuthConstants.OIDCClaims.SIGNING_TENANT, BenchmarkEnvironment.TENANT_DOMAIN);
+        return new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(BenchmarkEnvironment.USERNAME)
+                .audience(Collections.singletonList(consumerKey))
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date(issuedTime))
+                .notBeforeTime(new Date(issuedTime))
+                .expirationTime(new Date(expiryTime))
+                .claim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY, consumerKey)
+                .claim(PersistenceConstants.JWTClaim.CLIENT_ID, consumerKey)
+                .claim(PersistenceConstants.JWTClaim.SCOPE, SCOPE)
+                .claim(PersistenceConstants.JWTClaim.APP_DOMAIN, BenchmarkEnvironment.TENANT_DOMAIN)
+                .claim(PersistenceConstants.JWTClaim.USER_DOMAIN, BenchmarkEnvironment.TENANT_DOMAIN)
+                .claim(PersistenceConstants.JWTClaim.IS_CONSENTED, false)
+                .claim(OAuth2Constants.ENTITY_ID, entityId)
+                .claim(OAuthConstants.OIDCClaims.REALM, realm);
+    }
+
+    private String sign(JWTClaimsSet claimsSet) {
+
+        SignedJWT signedJWT = new SignedJWT(header, claimsSet);
+        try {
+            signedJWT.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Error while signing the benchmark token.", e);
+        }
+        return signedJWT.serialize();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.naming.Context;
+import javax.naming.Name;
+import javax.naming.NameNotFoundException;
+import javax.naming.OperationNotSupportedException;
+import javax.naming.spi.InitialContextFactory;
+
+/**
+ * In-process JNDI context factory, which stands in for the Carbon data source registry so that the identity database
+ * lookups of the key manager resolve to the embedded database of the benchmarks. Only the lookups are supported.
+ */
+public class InMemoryInitialContextFactory implements InitialContextFactory {
+
+    private static final Map<String, Object> bindings = new ConcurrentHashMap<>();
+
+    /**
+     * Bind an object to be returned by the lookups of the given name.
+     *
+     * @param name   JNDI name, eg: jdbc/WSO2IdentityDB.
+     * @param object Bound object.
+     */
+    public static void bind(String name, Object object) {
+
+        bindings.put(name, object);
+    }
+
+    @Override
+    public Context getInitialContext(Hashtable<?, ?> environment) {
+
+        Hashtable<?, ?> contextEnvironment = environment != null ? environment : new Hashtable<>();
+        return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[]{Context.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "lookup":
+                            String name = args[0] instanceof Name ? args[0].toString() : (String) args[0];
+                            Object object = bindings.get(name);
+                            if (object == null) {
+                                throw new NameNotFoundException(name);
+                            }
+                            return object;
+                        case "getEnvironment":
+                            return contextEnvironment;
+                        case "close":
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return InMemoryInitialContextFactory.class.getSimpleName() + bindings.keySet();
+                        default:
+                            throw new OperationNotSupportedException(method.getName());
+                    }
+                });
+    }
+}
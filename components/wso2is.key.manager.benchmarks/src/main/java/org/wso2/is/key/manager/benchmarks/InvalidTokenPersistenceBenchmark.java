@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.dao.DBInvalidTokenPersistence;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationCheck;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the revocation lookups of {@link DBInvalidTokenPersistence} against the embedded H2 database, seeded
+ * with invalid tokens and with app and subject entity revocation events of other clients and users. The tokens looked
+ * up are not revoked, which is the common case and makes every lookup run all of its queries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InvalidTokenPersistenceBenchmark {
+
+    private static final int INVALID_TOKEN_COUNT = 10000;
+    private static final int REVOKED_ENTITY_COUNT = 1000;
+    private static final int BATCH_SIZE = 100;
+    private static final String ORGANIZATION = "10084a8d-113f-4211-a0d5-efe36b082211";
+    private static final String INSERT_APP_REVOKED_EVENT = "INSERT INTO IDN_APP_REVOKED_EVENT (EVENT_ID, "
+            + "CONSUMER_KEY, TIME_REVOKED, ORGANIZATION) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_SUBJECT_ENTITY_REVOKED_EVENT = "INSERT INTO IDN_SUBJECT_ENTITY_REVOKED_EVENT "
+            + "(EVENT_ID, ENTITY_ID, ENTITY_TYPE, TIME_REVOKED, ORGANIZATION) VALUES (?, ?, ?, ?, ?)";
+
+    private DBInvalidTokenPersistence invalidTokenPersistence;
+    private String[] invalidTokens;
+    private String[] validTokens;
+    private List<RevocationCheck> revocationChecks;
+    private Date tokenIssuedTime;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IdentityOAuth2Exception {
+
+        BenchmarkEnvironment environment = BenchmarkEnvironment.init(Collections.emptyMap());
+        invalidTokenPersistence = DBInvalidTokenPersistence.getInstance();
+        invalidTokenPersistence.init();
+        long now = System.currentTimeMillis();
+        Timestamp revokedTime = new Timestamp(now - TimeUnit.HOURS.toMillis(1));
+        tokenIssuedTime = new Date(now);
+        invalidTokens = new String[INVALID_TOKEN_COUNT];
+        validTokens = new String[INVALID_TOKEN_COUNT];
+        for (int i = 0; i < INVALID_TOKEN_COUNT; i++) {
+            invalidTokens[i] = UUID.randomUUID().toString();
+            validTokens[i] = UUID.randomUUID().toString();
+            invalidTokenPersistence.addInvalidToken(invalidTokens[i], BenchmarkEnvironment.CONSUMER_KEY,
+                    now + TimeUnit.DAYS.toMillis(1));
+        }
+        for (int i = 0; i < REVOKED_ENTITY_COUNT; i++) {
+            environment.executeUpdate(INSERT_APP_REVOKED_EVENT, UUID.randomUUID().toString(),
+                    "revokedConsumerKey" + i, revokedTime, ORGANIZATION);
+            environment.executeUpdate(INSERT_SUBJECT_ENTITY_REVOKED_EVENT, UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString(), "USER_ID", revokedTime, ORGANIZATION);
+        }
+        revocationChecks = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            revocationChecks.add(new RevocationCheck(validTokens[i], BenchmarkEnvironment.CONSUMER_KEY,
+                    BenchmarkEnvironment.USER_ID, tokenIssuedTime));
+        }
+    }
+
+    @Benchmark
+    public boolean isInvalidTokenHit(TokenCursor cursor) throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.isInvalidToken(cursor.next(invalidTokens), BenchmarkEnvironment.CONSUMER_KEY);
+    }
+
+    @Benchmark
+    public boolean isInvalidTokenMiss(TokenCursor cursor) throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.isInvalidToken(cursor.next(validTokens), BenchmarkEnvironment.CONSUMER_KEY);
+    }
+
+    @Benchmark
+    public boolean isTokenRevokedForConsumerKey() throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.isTokenRevokedForConsumerKey(BenchmarkEnvironment.CONSUMER_KEY,
+                tokenIssuedTime);
+    }
+
+    @Benchmark
+    public boolean isTokenRevokedForSubjectEntity() throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.isTokenRevokedForSubjectEntity(BenchmarkEnvironment.USER_ID, tokenIssuedTime);
+    }
+
+    @Benchmark
+    public RevocationStatus checkRevocationStatus(TokenCursor cursor) throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.checkRevocationStatus(cursor.next(validTokens),
+                BenchmarkEnvironment.CONSUMER_KEY, BenchmarkEnvironment.USER_ID, tokenIssuedTime);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<RevocationStatus> checkRevocationStatuses() throws IdentityOAuth2Exception {
+
+        return invalidTokenPersistence.checkRevocationStatuses(revocationChecks);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.is.key.manager.tokenpersistence.utils.JWTClaimsReader;
+
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading the claims used to reject a JWT early with {@link JWTClaimsReader}, against parsing the token
+ * and its claims set in full as the validation did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JWTClaimsReaderBenchmark {
+
+    private static final int TOKEN_COUNT = 1024;
+
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkTokens benchmarkTokens = BenchmarkEnvironment.init(Collections.emptyMap()).getTokens();
+        long now = System.currentTimeMillis();
+        tokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            tokens[i] = benchmarkTokens.createAccessToken(BenchmarkEnvironment.CONSUMER_KEY,
+                    BenchmarkEnvironment.USER_ID, now, now + TimeUnit.DAYS.toMillis(1));
+        }
+    }
+
+    @Benchmark
+    public JWTClaimsReader.Claims readClaims(TokenCursor cursor) {
+
+        return JWTClaimsReader.read(cursor.next(tokens));
+    }
+
+    @Benchmark
+    public JWTClaimsSet parseClaimsSet(TokenCursor cursor) throws ParseException {
+
+        return SignedJWT.parse(cursor.next(tokens)).getJWTClaimsSet();
+    }
+}
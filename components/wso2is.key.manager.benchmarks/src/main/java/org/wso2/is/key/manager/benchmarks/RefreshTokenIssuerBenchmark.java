@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.oauth.cache.AppInfoCache;
+import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.authz.OAuthAuthzReqMessageContext;
+import org.wso2.carbon.identity.oauth2.dto.OAuth2AccessTokenReqDTO;
+import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
+import org.wso2.is.key.manager.tokenpersistence.issuer.ExtendedJWTTokenIssuer;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the JWT refresh tokens built by {@link ExtendedJWTTokenIssuer}, both the claim set alone and the
+ * signed token. The app of the client is preloaded into the app info cache in place of the app DAO, and the tokens are
+ * signed with the in-process key in place of the tenant keystore.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RefreshTokenIssuerBenchmark {
+
+    private static final String GRANT_TYPE = "password";
+    private static final String[] SCOPES = {"default", "openid"};
+    private static final long REFRESH_TOKEN_VALIDITY_PERIOD_IN_SECONDS = 86400;
+
+    private BenchmarkJWTTokenIssuer tokenIssuer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IdentityOAuth2Exception {
+
+        BenchmarkEnvironment environment = BenchmarkEnvironment.init(Collections.emptyMap());
+        OAuthAppDO oAuthAppDO = new OAuthAppDO();
+        oAuthAppDO.setOauthConsumerKey(BenchmarkEnvironment.CONSUMER_KEY);
+        oAuthAppDO.setApplicationName("BenchmarkApplication");
+        oAuthAppDO.setAppOwner(BenchmarkEnvironment.createAuthenticatedUser());
+        oAuthAppDO.setRefreshTokenExpiryTime(REFRESH_TOKEN_VALIDITY_PERIOD_IN_SECONDS);
+        oAuthAppDO.setAudiences(new String[]{BenchmarkEnvironment.CONSUMER_KEY});
+        BenchmarkEnvironment.startTenantFlow();
+        try {
+            AppInfoCache.getInstance().addToCache(BenchmarkEnvironment.CONSUMER_KEY, oAuthAppDO);
+        } finally {
+            BenchmarkEnvironment.endTenantFlow();
+        }
+        tokenIssuer = new BenchmarkJWTTokenIssuer(environment.getTokens().getSigner());
+    }
+
+    /**
+     * Per thread token request, as the message context of a request is not shared between threads.
+     */
+    @State(Scope.Thread)
+    public static class TokenRequest {
+
+        private OAuthTokenReqMessageContext tokenReqMessageContext;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+
+            OAuth2AccessTokenReqDTO tokenReqDTO = new OAuth2AccessTokenReqDTO();
+            tokenReqDTO.setClientId(BenchmarkEnvironment.CONSUMER_KEY);
+            tokenReqDTO.setTenantDomain(BenchmarkEnvironment.TENANT_DOMAIN);
+            tokenReqDTO.setGrantType(GRANT_TYPE);
+            tokenReqMessageContext = new OAuthTokenReqMessageContext(tokenReqDTO);
+            tokenReqMessageContext.setAuthorizedUser(BenchmarkEnvironment.createAuthenticatedUser());
+            tokenReqMessageContext.setScope(SCOPES);
+        }
+    }
+
+    @Benchmark
+    public JWTClaimsSet createRefreshTokenClaimsSet(TenantFlowState tenantFlow, TokenRequest request)
+            throws IdentityOAuth2Exception {
+
+        return tokenIssuer.createClaimsSet(request.tokenReqMessageContext);
+    }
+
+    @Benchmark
+    public String buildRefreshToken(TenantFlowState tenantFlow, TokenRequest request)
+            throws IdentityOAuth2Exception {
+
+        return tokenIssuer.buildRefreshToken(request.tokenReqMessageContext);
+    }
+
+    /**
+     * Token issuer which signs the tokens with the given signer instead of the key of the tenant keystore.
+     */
+    static class BenchmarkJWTTokenIssuer extends ExtendedJWTTokenIssuer {
+
+        private final JWSSigner signer;
+        private final JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT)
+                .keyID(BenchmarkTokens.KEY_ID).build();
+
+        BenchmarkJWTTokenIssuer(JWSSigner signer) throws IdentityOAuth2Exception {
+
+            this.signer = signer;
+        }
+
+        JWTClaimsSet createClaimsSet(OAuthTokenReqMessageContext tokenReqMessageContext)
+                throws IdentityOAuth2Exception {
+
+            return createJWTClaimSetForRefreshTokens(null, tokenReqMessageContext,
+                    tokenReqMessageContext.getOauth2AccessTokenReqDTO().getClientId());
+        }
+
+        String buildRefreshToken(OAuthTokenReqMessageContext tokenReqMessageContext) throws IdentityOAuth2Exception {
+
+            return buildJWTTokenForRefreshTokens(tokenReqMessageContext);
+        }
+
+        @Override
+        protected String signJWT(JWTClaimsSet jwtClaimsSet, OAuthTokenReqMessageContext tokenContext,
+                                 OAuthAuthzReqMessageContext authorizationContext) throws IdentityOAuth2Exception {
+
+            SignedJWT signedJWT = new SignedJWT(header, jwtClaimsSet);
+            try {
+                signedJWT.sign(signer);
+            } catch (JOSEException e) {
+                throw new IdentityOAuth2Exception("Error while signing the benchmark token.", e);
+            }
+            return signedJWT.serialize();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.carbon.identity.oauth2.model.RefreshTokenValidationDataDO;
+import org.wso2.is.key.manager.tokenpersistence.processor.InMemoryTokenProvider;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the JWT refresh token validation of {@link InMemoryTokenProvider}, through both the refresh grant
+ * path, which validates the consumer key of the request, and the lookup path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RefreshTokenValidationBenchmark {
+
+    private static final int TOKEN_COUNT = 1024;
+
+    private InMemoryTokenProvider tokenProvider;
+    private String[] refreshTokens;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkTokens tokens = BenchmarkEnvironment.init(Collections.emptyMap()).getTokens();
+        long now = System.currentTimeMillis();
+        refreshTokens = new String[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            refreshTokens[i] = tokens.createRefreshToken(BenchmarkEnvironment.CONSUMER_KEY,
+                    BenchmarkEnvironment.USER_ID, now, now + TimeUnit.DAYS.toMillis(1));
+        }
+        tokenProvider = new InMemoryTokenProvider();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        tokenProvider.destroy();
+    }
+
+    @Benchmark
+    public RefreshTokenValidationDataDO validateRefreshTokenOfClient(TenantFlowState tenantFlow, TokenCursor cursor)
+            throws IdentityOAuth2Exception {
+
+        return tokenProvider.getVerifiedRefreshToken(cursor.next(refreshTokens), BenchmarkEnvironment.CONSUMER_KEY);
+    }
+
+    @Benchmark
+    public AccessTokenDO validateRefreshToken(TenantFlowState tenantFlow, TokenCursor cursor)
+            throws IdentityOAuth2Exception {
+
+        return tokenProvider.getVerifiedRefreshToken(cursor.next(refreshTokens));
+    }
+}
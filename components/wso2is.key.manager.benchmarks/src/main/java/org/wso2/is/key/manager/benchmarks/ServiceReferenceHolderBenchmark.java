@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link ServiceReferenceHolder#getInvalidTokenPersistenceService()}, which is read on every token
+ * validation. The lookups are measured alone, and along with a thread registering and unregistering a persistence
+ * service as the OSGi service tracking does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceReferenceHolderBenchmark {
+
+    private static final int SERVICE_RANKING = 10;
+
+    private ServiceReferenceHolder serviceReferenceHolder;
+    private InvalidTokenPersistenceService registeredService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        BenchmarkEnvironment.init(Collections.emptyMap());
+        serviceReferenceHolder = ServiceReferenceHolder.getInstance();
+        // The registered service is only compared by identity, hence none of its methods are called.
+        registeredService = (InvalidTokenPersistenceService) Proxy.newProxyInstance(
+                InvalidTokenPersistenceService.class.getClassLoader(),
+                new Class<?>[]{InvalidTokenPersistenceService.class}, (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public InvalidTokenPersistenceService getService() {
+
+        return serviceReferenceHolder.getInvalidTokenPersistenceService();
+    }
+
+    @Benchmark
+    @Group("registration")
+    @GroupThreads(7)
+    public InvalidTokenPersistenceService getServiceWhileRegistering() {
+
+        return serviceReferenceHolder.getInvalidTokenPersistenceService();
+    }
+
+    @Benchmark
+    @Group("registration")
+    @GroupThreads(1)
+    public void registerService() {
+
+        serviceReferenceHolder.addInvalidTokenPersistenceService(registeredService, SERVICE_RANKING);
+        serviceReferenceHolder.removeInvalidTokenPersistenceService(registeredService);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.SignatureVerifierCache;
+import org.wso2.is.key.manager.tokenpersistence.issuer.TenantJWTSigner;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of issuing and verifying refresh tokens signed with an RSA 2048, a P-256 (ES256) and an Ed25519 (EdDSA)
+ * key, with the signers of {@link TenantJWTSigner} and the verifiers of {@link SignatureVerifierCache}. EdDSA needs a
+ * Java 15 or later runtime.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    private static final int TOKEN_COUNT = 1024;
+    private static final int RSA_KEY_SIZE = 2048;
+    private static final String EC_CURVE = "secp256r1";
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private TenantJWTSigner signer;
+    private JWSVerifier verifier;
+    private JWTClaimsSet claimsSet;
+    private SignedJWT[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws GeneralSecurityException, JOSEException, ParseException {
+
+        BenchmarkEnvironment.init(Collections.emptyMap());
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        KeyPair keyPair = generateKeyPair(jwsAlgorithm);
+        signer = new TenantJWTSigner(jwsAlgorithm, keyPair.getPrivate(), BenchmarkTokens.KEY_ID, null,
+                Runtime.getRuntime().availableProcessors());
+        verifier = SignatureVerifierCache.createVerifier(keyPair.getPublic(), algorithm);
+        if (verifier == null) {
+            throw new IllegalStateException("No verifier for algorithm: " + algorithm);
+        }
+        long now = System.currentTimeMillis();
+        claimsSet = new JWTClaimsSet.Builder()
+                .issuer(BenchmarkTokens.ISSUER)
+                .subject(BenchmarkEnvironment.USERNAME)
+                .audience(Collections.singletonList(BenchmarkEnvironment.CONSUMER_KEY))
+                .issueTime(new Date(now))
+                .expirationTime(new Date(now + TimeUnit.DAYS.toMillis(1)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim(PersistenceConstants.JWTClaim.CLIENT_ID, BenchmarkEnvironment.CONSUMER_KEY)
+                .claim(PersistenceConstants.JWTClaim.TOKEN_TYPE_ELEM, PersistenceConstants.REFRESH_TOKEN)
+                .build();
+        tokens = new SignedJWT[TOKEN_COUNT];
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            tokens[i] = SignedJWT.parse(signer.sign(new JWTClaimsSet.Builder(claimsSet)
+                    .jwtID(UUID.randomUUID().toString()).build()));
+        }
+    }
+
+    @Benchmark
+    public String issue() throws JOSEException {
+
+        return signer.sign(claimsSet);
+    }
+
+    @Benchmark
+    public boolean verify(TokenCursor cursor) throws JOSEException {
+
+        return cursor.next(tokens).verify(verifier);
+    }
+
+    private static KeyPair generateKeyPair(JWSAlgorithm algorithm) throws GeneralSecurityException {
+
+        KeyPairGenerator keyPairGenerator;
+        if (JWSAlgorithm.RS256.equals(algorithm)) {
+            keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(RSA_KEY_SIZE);
+        } else if (JWSAlgorithm.ES256.equals(algorithm)) {
+            keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec(EC_CURVE));
+        } else if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            keyPairGenerator = KeyPairGenerator.getInstance("Ed25519");
+        } else {
+            throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+        }
+        return keyPairGenerator.generateKeyPair();
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per thread cursor over the tokens of a benchmark, so that the threads validate different tokens instead of all of
+ * them hitting the same cache entry.
+ */
+@State(Scope.Thread)
+public class TokenCursor {
+
+    private int position = (int) Thread.currentThread().getId();
+
+    /**
+     * Get the next token of the given tokens.
+     *
+     * @param tokens Tokens of the benchmark.
+     * @param <T>    Type of the tokens, eg: the serialized or the parsed tokens.
+     * @return Next token.
+     */
+    public <T> T next(T[] tokens) {
+
+        position = (position + 1) % tokens.length;
+        return tokens[position];
+    }
+}
@@ -0,0 +1,50 @@
+package org.wso2.is.key.manager.operations.endpoint;
+
+import org.wso2.is.key.manager.operations.endpoint.dto.ErrorDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationRequestDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultListDTO;
+import org.wso2.is.key.manager.operations.endpoint.ValidateTokensApiService;
+import org.wso2.is.key.manager.operations.endpoint.impl.ValidateTokensApiServiceImpl;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+import io.swagger.annotations.*;
+import java.io.InputStream;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.jaxrs.ext.multipart.Attachment;
+import org.apache.cxf.jaxrs.ext.multipart.Multipart;
+
+import java.util.Map;
+import java.util.List;
+import javax.validation.constraints.*;
+@Path("/validate-tokens")
+
+@Api(description = "the validate-tokens API")
+@Consumes({ "application/json" })
+@Produces({ "application/json" })
+
+
+public class ValidateTokensApi  {
+
+  @Context MessageContext securityContext;
+
+ValidateTokensApiService delegate = new ValidateTokensApiServiceImpl();
+
+
+    @POST
+    
+    @Consumes({ "application/json" })
+    @Produces({ "application/json" })
+    @ApiOperation(value = "Validating Access Tokens ", notes = "Validating a batch of access tokens. The tokens are validated in parallel, and the result of each token is returned in the order of the given tokens. ", response = TokenValidationResultListDTO.class, tags={  })
+    @ApiResponses(value = { 
+        @ApiResponse(code = 200, message = "Validation results returned.", response = TokenValidationResultListDTO.class),
+        @ApiResponse(code = 400, message = "Bad Request", response = ErrorDTO.class),
+        @ApiResponse(code = 500, message = "Server Error", response = ErrorDTO.class) })
+    public Response validateTokensPost(@ApiParam(value = "Access tokens to validate." ,required=true) TokenValidationRequestDTO tokenValidationRequest){
+        return delegate.validateTokensPost(tokenValidationRequest, securityContext);
+    }
+}
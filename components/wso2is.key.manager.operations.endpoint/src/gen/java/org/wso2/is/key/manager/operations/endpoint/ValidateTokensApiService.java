@@ -0,0 +1,25 @@
+package org.wso2.is.key.manager.operations.endpoint;
+
+import org.wso2.is.key.manager.operations.endpoint.*;
+import org.wso2.is.key.manager.operations.endpoint.dto.*;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.jaxrs.ext.multipart.Attachment;
+import org.apache.cxf.jaxrs.ext.multipart.Multipart;
+
+
+import org.wso2.is.key.manager.operations.endpoint.dto.ErrorDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationRequestDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultListDTO;
+
+import java.util.List;
+
+import java.io.InputStream;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+
+public interface ValidateTokensApiService {
+      public Response validateTokensPost(TokenValidationRequestDTO tokenValidationRequest, MessageContext messageContext) ;
+}
@@ -0,0 +1,77 @@
+package org.wso2.is.key.manager.operations.endpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+
+
+
+public class TokenValidationRequestDTO   {
+  
+    private List<String> tokens = new ArrayList<>();
+
+  /**
+   * Access tokens to validate 
+   **/
+  public TokenValidationRequestDTO tokens(List<String> tokens) {
+    this.tokens = tokens;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Access tokens to validate ")
+  @JsonProperty("tokens")
+  public List<String> getTokens() {
+    return tokens;
+  }
+  public void setTokens(List<String> tokens) {
+    this.tokens = tokens;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TokenValidationRequestDTO tokenValidationRequest = (TokenValidationRequestDTO) o;
+    return Objects.equals(tokens, tokenValidationRequest.tokens);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(tokens);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class TokenValidationRequestDTO {\n");
+    
+    sb.append("    tokens: ").append(toIndentedString(tokens)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
@@ -0,0 +1,182 @@
+package org.wso2.is.key.manager.operations.endpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.*;
+
+
+import io.swagger.annotations.*;
+import java.util.Objects;
+
+import javax.xml.bind.annotation.*;
+
+
+
+public class TokenValidationResultDTO   {
+  
+    private Boolean active = null;
+    private String consumerKey = null;
+    private String authorizedUser = null;
+    private List<String> scopes = new ArrayList<>();
+    private Long issuedTime = null;
+    private Long validityPeriod = null;
+
+  /**
+   * Whether the token is active 
+   **/
+  public TokenValidationResultDTO active(Boolean active) {
+    this.active = active;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Whether the token is active ")
+  @JsonProperty("active")
+  public Boolean isActive() {
+    return active;
+  }
+  public void setActive(Boolean active) {
+    this.active = active;
+  }
+
+  /**
+   * Consumer key of the app of the token 
+   **/
+  public TokenValidationResultDTO consumerKey(String consumerKey) {
+    this.consumerKey = consumerKey;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Consumer key of the app of the token ")
+  @JsonProperty("consumer_key")
+  public String getConsumerKey() {
+    return consumerKey;
+  }
+  public void setConsumerKey(String consumerKey) {
+    this.consumerKey = consumerKey;
+  }
+
+  /**
+   * Authorized user of the token 
+   **/
+  public TokenValidationResultDTO authorizedUser(String authorizedUser) {
+    this.authorizedUser = authorizedUser;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Authorized user of the token ")
+  @JsonProperty("authorized_user")
+  public String getAuthorizedUser() {
+    return authorizedUser;
+  }
+  public void setAuthorizedUser(String authorizedUser) {
+    this.authorizedUser = authorizedUser;
+  }
+
+  /**
+   * Scopes of the token 
+   **/
+  public TokenValidationResultDTO scopes(List<String> scopes) {
+    this.scopes = scopes;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Scopes of the token ")
+  @JsonProperty("scopes")
+  public List<String> getScopes() {
+    return scopes;
+  }
+  public void setScopes(List<String> scopes) {
+    this.scopes = scopes;
+  }
+
+  /**
+   * Issued time of the token in milliseconds 
+   **/
+  public TokenValidationResultDTO issuedTime(Long issuedTime) {
+    this.issuedTime = issuedTime;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Issued time of the token in milliseconds ")
+  @JsonProperty("issued_time")
+  public Long getIssuedTime() {
+    return issuedTime;
+  }
+  public void setIssuedTime(Long issuedTime) {
+    this.issuedTime = issuedTime;
+  }
+
+  /**
+   * Validity period of the token in milliseconds 
+   **/
+  public TokenValidationResultDTO validityPeriod(Long validityPeriod) {
+    this.validityPeriod = validityPeriod;
+    return this;
+  }
+
+  
+  @ApiModelProperty(value = "Validity period of the token in milliseconds ")
+  @JsonProperty("validity_period")
+  public Long getValidityPeriod() {
+    return validityPeriod;
+  }
+  public void setValidityPeriod(Long validityPeriod) {
+    this.validityPeriod = validityPeriod;
+  }
+
+
+  @Override
+  public boolean equals(java.lang.Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TokenValidationResultDTO tokenValidationResult = (TokenValidationResultDTO) o;
+    return Objects.equals(active, tokenValidationResult.active) &&
+        Objects.equals(consumerKey, tokenValidationResult.consumerKey) &&
+        Objects.equals(authorizedUser, tokenValidationResult.authorizedUser) &&
+        Objects.equals(scopes, tokenValidationResult.scopes) &&
+        Objects.equals(issuedTime, tokenValidationResult.issuedTime) &&
+        Objects.equals(validityPeriod, tokenValidationResult.validityPeriod);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(active, consumerKey, authorizedUser, scopes, issuedTime, validityPeriod);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("class TokenValidationResultDTO {\n");
+    
+    sb.append("    active: ").append(toIndentedString(active)).append("\n");
+    sb.append("    consumerKey: ").append(toIndentedString(consumerKey)).append("\n");
+    sb.append("    authorizedUser: ").append(toIndentedString(authorizedUser)).append("\n");
+    sb.append("    scopes: ").append(toIndentedString(scopes)).append("\n");
+    sb.append("    issuedTime: ").append(toIndentedString(issuedTime)).append("\n");
+    sb.append("    validityPeriod: ").append(toIndentedString(validityPeriod)).append("\n");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  /**
+   * Convert the given object to string with each line indented by 4 spaces
+   * (except the first line).
+   */
+  private String toIndentedString(java.lang.Object o) {
+    if (o == null) {
+      return "null";
+    }
+    return o.toString().replace("\n", "\n    ");
+  }
+}
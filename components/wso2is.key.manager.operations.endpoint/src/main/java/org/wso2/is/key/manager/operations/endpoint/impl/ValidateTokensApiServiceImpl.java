@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.operations.endpoint.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.is.key.manager.operations.endpoint.ValidateTokensApiService;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationRequestDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultListDTO;
+import org.wso2.is.key.manager.operations.endpoint.userinfo.util.UserInfoUtil;
+import org.wso2.is.key.manager.tokenpersistence.model.BatchTokenValidationService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.core.Response;
+
+/**
+ * Service Implementation for the batch validation of access tokens.
+ */
+public class ValidateTokensApiServiceImpl implements ValidateTokensApiService {
+
+    private static final Log log = LogFactory.getLog(ValidateTokensApiServiceImpl.class);
+
+    /**
+     * This method validates the given access tokens in a single call.
+     *
+     * @param tokenValidationRequest {@link TokenValidationRequestDTO} with the access tokens
+     * @return validation result of each token, in the order of the given tokens
+     */
+    public Response validateTokensPost(TokenValidationRequestDTO tokenValidationRequest,
+                                       MessageContext messageContext) {
+
+        List<String> tokens = tokenValidationRequest != null ? tokenValidationRequest.getTokens() : null;
+        if (tokens == null || tokens.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(UserInfoUtil.getError(Response.Status.BAD_REQUEST.toString(),
+                            "Could not validate the tokens because the tokens are empty", null))
+                    .build();
+        }
+        BatchTokenValidationService batchTokenValidationService = getBatchTokenValidationService();
+        if (batchTokenValidationService == null) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(UserInfoUtil.getError(Response.Status.INTERNAL_SERVER_ERROR.toString(),
+                            "Batch token validation is not available", null))
+                    .build();
+        }
+        if (tokens.size() > batchTokenValidationService.getMaxBatchSize()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(UserInfoUtil.getError(Response.Status.BAD_REQUEST.toString(),
+                            "Could not validate the tokens because the batch is too large",
+                            "The maximum number of tokens in a batch is "
+                                    + batchTokenValidationService.getMaxBatchSize()))
+                    .build();
+        }
+        List<AccessTokenDO> accessTokenDOs;
+        try {
+            accessTokenDOs = batchTokenValidationService.getVerifiedAccessTokens(tokens);
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while validating a batch of access tokens", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(UserInfoUtil.getError(Response.Status.INTERNAL_SERVER_ERROR.toString(),
+                            "Error while validating the tokens", e.getMessage()))
+                    .build();
+        }
+        List<TokenValidationResultDTO> results = new ArrayList<>(accessTokenDOs.size());
+        for (AccessTokenDO accessTokenDO : accessTokenDOs) {
+            results.add(getTokenValidationResult(accessTokenDO));
+        }
+        TokenValidationResultListDTO resultList = new TokenValidationResultListDTO();
+        resultList.setCount(results.size());
+        resultList.setList(results);
+        return Response.ok().entity(resultList).build();
+    }
+
+    private TokenValidationResultDTO getTokenValidationResult(AccessTokenDO accessTokenDO) {
+
+        TokenValidationResultDTO result = new TokenValidationResultDTO();
+        if (accessTokenDO == null) {
+            result.setActive(false);
+            return result;
+        }
+        result.setActive(true);
+        result.setConsumerKey(accessTokenDO.getConsumerKey());
+        if (accessTokenDO.getAuthzUser() != null) {
+            result.setAuthorizedUser(accessTokenDO.getAuthzUser().toFullQualifiedUsername());
+        }
+        if (accessTokenDO.getScope() != null) {
+            result.setScopes(Arrays.asList(accessTokenDO.getScope()));
+        }
+        if (accessTokenDO.getIssuedTime() != null) {
+            result.setIssuedTime(accessTokenDO.getIssuedTime().getTime());
+        }
+        result.setValidityPeriod(accessTokenDO.getValidityPeriodInMillis());
+        return result;
+    }
+
+    private BatchTokenValidationService getBatchTokenValidationService() {
+
+        return (BatchTokenValidationService) PrivilegedCarbonContext
+                .getThreadLocalCarbonContext().getOSGiService(BatchTokenValidationService.class, null);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.operations.endpoint.impl;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+import org.wso2.is.key.manager.operations.endpoint.dto.ErrorDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationRequestDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultDTO;
+import org.wso2.is.key.manager.operations.endpoint.dto.TokenValidationResultListDTO;
+import org.wso2.is.key.manager.operations.endpoint.userinfo.util.UserInfoUtil;
+import org.wso2.is.key.manager.tokenpersistence.model.BatchTokenValidationService;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.ws.rs.core.Response;
+
+/**
+ * This class tests the ValidateTokensApiServiceImpl class for the batch validation of access tokens.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({UserInfoUtil.class, PrivilegedCarbonContext.class})
+public class ValidateTokensApiServiceImplTest {
+
+    private static final int MAX_BATCH_SIZE = 3;
+
+    private ValidateTokensApiServiceImpl validateTokensService;
+    private MessageContext messageContext;
+    private BatchTokenValidationService batchTokenValidationService;
+    private PrivilegedCarbonContext privilegedCarbonContext;
+
+    @Before
+    public void init() {
+
+        System.setProperty("carbon.home", "1234");
+
+        validateTokensService = new ValidateTokensApiServiceImpl();
+
+        PowerMockito.mockStatic(UserInfoUtil.class);
+        PowerMockito.mockStatic(PrivilegedCarbonContext.class);
+
+        messageContext = Mockito.mock(MessageContext.class);
+        privilegedCarbonContext = Mockito.mock(PrivilegedCarbonContext.class);
+        batchTokenValidationService = Mockito.mock(BatchTokenValidationService.class);
+        ErrorDTO errorDto = Mockito.mock(ErrorDTO.class);
+
+        PowerMockito.when(UserInfoUtil.getError(Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(errorDto);
+        PowerMockito.when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(privilegedCarbonContext);
+        Mockito.when(privilegedCarbonContext.getOSGiService(BatchTokenValidationService.class, null))
+                .thenReturn(batchTokenValidationService);
+        Mockito.when(batchTokenValidationService.getMaxBatchSize()).thenReturn(MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Testing when valid and invalid tokens are validated in a batch
+     */
+    @Test
+    public void testValidateTokensPostWithValidAndInvalidTokens() throws Exception {
+
+        AccessTokenDO firstAccessToken = getAccessToken("consumerKey1");
+        AccessTokenDO secondAccessToken = getAccessToken("consumerKey2");
+        List<String> tokens = Arrays.asList("validToken1", "invalidToken", "validToken2");
+        Mockito.when(batchTokenValidationService.getVerifiedAccessTokens(tokens))
+                .thenReturn(Arrays.asList(firstAccessToken, null, secondAccessToken));
+
+        Response response = validateTokensService.validateTokensPost(getRequest(tokens), messageContext);
+
+        Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        TokenValidationResultListDTO resultList = (TokenValidationResultListDTO) response.getEntity();
+        Assert.assertEquals(Integer.valueOf(3), resultList.getCount());
+        // The results are in the order of the given tokens.
+        TokenValidationResultDTO firstResult = resultList.getList().get(0);
+        Assert.assertTrue(firstResult.isActive());
+        Assert.assertEquals("consumerKey1", firstResult.getConsumerKey());
+        Assert.assertEquals("admin@carbon.super", firstResult.getAuthorizedUser());
+        Assert.assertEquals(Collections.singletonList("default"), firstResult.getScopes());
+        Assert.assertEquals(Long.valueOf(1000L), firstResult.getIssuedTime());
+        Assert.assertEquals(Long.valueOf(3600000L), firstResult.getValidityPeriod());
+        TokenValidationResultDTO secondResult = resultList.getList().get(1);
+        Assert.assertFalse(secondResult.isActive());
+        Assert.assertNull(secondResult.getConsumerKey());
+        TokenValidationResultDTO thirdResult = resultList.getList().get(2);
+        Assert.assertTrue(thirdResult.isActive());
+        Assert.assertEquals("consumerKey2", thirdResult.getConsumerKey());
+    }
+
+    /**
+     * Testing when the list of tokens is empty
+     */
+    @Test
+    public void testValidateTokensPostWithEmptyTokens() throws Exception {
+
+        Response response = validateTokensService.validateTokensPost(getRequest(Collections.emptyList()),
+                messageContext);
+        Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+
+        response = validateTokensService.validateTokensPost(null, messageContext);
+        Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        Mockito.verify(batchTokenValidationService, Mockito.never()).getVerifiedAccessTokens(Mockito.anyList());
+    }
+
+    /**
+     * Testing when the batch is larger than the maximum batch size
+     */
+    @Test
+    public void testValidateTokensPostWithBatchOverMaxSize() throws Exception {
+
+        List<String> tokens = Arrays.asList("token1", "token2", "token3", "token4");
+
+        Response response = validateTokensService.validateTokensPost(getRequest(tokens), messageContext);
+
+        Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        Mockito.verify(batchTokenValidationService, Mockito.never()).getVerifiedAccessTokens(Mockito.anyList());
+    }
+
+    /**
+     * Testing when the batch token validation service is not available
+     */
+    @Test
+    public void testValidateTokensPostWithoutValidationService() {
+
+        Mockito.when(privilegedCarbonContext.getOSGiService(BatchTokenValidationService.class, null))
+                .thenReturn(null);
+
+        Response response = validateTokensService.validateTokensPost(getRequest(Arrays.asList("token1")),
+                messageContext);
+
+        Assert.assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+    }
+
+    /**
+     * Testing when the validation of the batch fails
+     */
+    @Test
+    public void testValidateTokensPostWithValidationError() throws Exception {
+
+        Mockito.when(batchTokenValidationService.getVerifiedAccessTokens(Mockito.anyList()))
+                .thenThrow(new IdentityOAuth2Exception("Error while checking the revocation status"));
+
+        Response response = validateTokensService.validateTokensPost(getRequest(Arrays.asList("token1")),
+                messageContext);
+
+        Assert.assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+    }
+
+    private static TokenValidationRequestDTO getRequest(List<String> tokens) {
+
+        TokenValidationRequestDTO request = new TokenValidationRequestDTO();
+        request.setTokens(tokens);
+        return request;
+    }
+
+    private static AccessTokenDO getAccessToken(String consumerKey) {
+
+        AccessTokenDO accessTokenDO = Mockito.mock(AccessTokenDO.class);
+        AuthenticatedUser authenticatedUser = Mockito.mock(AuthenticatedUser.class);
+        Mockito.when(authenticatedUser.toFullQualifiedUsername()).thenReturn("admin@carbon.super");
+        Mockito.when(accessTokenDO.getConsumerKey()).thenReturn(consumerKey);
+        Mockito.when(accessTokenDO.getAuthzUser()).thenReturn(authenticatedUser);
+        Mockito.when(accessTokenDO.getScope()).thenReturn(new String[]{"default"});
+        Mockito.when(accessTokenDO.getIssuedTime()).thenReturn(new Timestamp(1000L));
+        Mockito.when(accessTokenDO.getValidityPeriodInMillis()).thenReturn(3600000L);
+        return accessTokenDO;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the users resolved from the entity ID claim of the JWT tokens, so that the user store is not
+ * queried to resolve the user of every validated token. The users are keyed by the entity ID, the tenant domains of
+ * the app and the user, whether the user is federated and the subject, which are all the inputs of the resolution.
+ * <p>
+ * The users of an entity are removed when the tokens of the entity are revoked through this node, which is done on the
+ * user changes that revoke the tokens of the user, and when the app of a client ID is updated. The users of a user ID
+ * are also removed when the username is updated or the user is deleted through this node. Other changes, and the
+ * changes made through other nodes, are observed once the entries expire.
+ */
+public class AuthenticatedUserCache {
+
+    private static final Log log = LogFactory.getLog(AuthenticatedUserCache.class);
+    private static final String AUTHENTICATED_USER_CACHE_ENABLE =
+            "OAuth.TokenPersistence.AuthenticatedUserCache.Enable";
+    private static final String AUTHENTICATED_USER_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.AuthenticatedUserCache.MaxSize";
+    private static final String AUTHENTICATED_USER_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.AuthenticatedUserCache.TimeToLiveInSeconds";
+    private static final int DEFAULT_AUTHENTICATED_USER_CACHE_MAX_SIZE = 10000;
+    private static final long DEFAULT_AUTHENTICATED_USER_CACHE_TIME_TO_LIVE = 300;
+    private static final AuthenticatedUserCache instance = new AuthenticatedUserCache();
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<UserKey, AuthenticatedUser> cache;
+
+    private AuthenticatedUserCache() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(AUTHENTICATED_USER_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(AUTHENTICATED_USER_CACHE_MAX_SIZE,
+                    DEFAULT_AUTHENTICATED_USER_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(AUTHENTICATED_USER_CACHE_TIME_TO_LIVE,
+                    DEFAULT_AUTHENTICATED_USER_CACHE_TIME_TO_LIVE);
+            log.info(String.format("Authenticated user cache enabled with maximum size: %s and time to live: %ss.",
+                    maxSize, timeToLive));
+            cache = new TinyLfuCache<>("AuthenticatedUserCache", maxSize, TimeUnit.SECONDS.toMillis(timeToLive));
+        } else {
+            cache = null;
+        }
+    }
+
+    public static AuthenticatedUserCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get a copy of the cached user of the given entity.
+     *
+     * @param entityId         Entity ID claim of the token.
+     * @param appTenantDomain  Tenant domain of the app of the token.
+     * @param userTenantDomain Tenant domain of the user of the token.
+     * @param isFederated      Whether the user of the token is federated.
+     * @param subject          Subject claim of the token.
+     * @return Copy of the cached user, or {@code null} if the user is not in the cache.
+     */
+    public AuthenticatedUser get(String entityId, String appTenantDomain, String userTenantDomain,
+                                 boolean isFederated, String subject) {
+
+        if (cache == null || entityId == null) {
+            return null;
+        }
+        AuthenticatedUser authenticatedUser = cache.get(new UserKey(entityId, appTenantDomain, userTenantDomain,
+                isFederated, subject));
+        return authenticatedUser != null ? new AuthenticatedUser(authenticatedUser) : null;
+    }
+
+    /**
+     * Get the invalidation stamp to be passed to {@link #put}. This should be taken before the user is resolved.
+     *
+     * @return Invalidation stamp.
+     */
+    public long getInvalidationStamp() {
+
+        return cache != null ? cache.getInvalidationStamp() : 0;
+    }
+
+    /**
+     * Cache a copy of the user resolved for the given entity. The user is not cached if an entity was invalidated
+     * after the given stamp was taken, as the user could have been resolved before the change of the entity.
+     *
+     * @param entityId          Entity ID claim of the token.
+     * @param appTenantDomain   Tenant domain of the app of the token.
+     * @param userTenantDomain  Tenant domain of the user of the token.
+     * @param isFederated       Whether the user of the token is federated.
+     * @param subject           Subject claim of the token.
+     * @param authenticatedUser Resolved user.
+     * @param invalidationStamp Stamp returned by {@link #getInvalidationStamp()} before the user was resolved.
+     */
+    public void put(String entityId, String appTenantDomain, String userTenantDomain, boolean isFederated,
+                    String subject, AuthenticatedUser authenticatedUser, long invalidationStamp) {
+
+        if (cache != null && entityId != null) {
+            cache.putIfNotInvalidated(new UserKey(entityId, appTenantDomain, userTenantDomain, isFederated, subject),
+                    new AuthenticatedUser(authenticatedUser), invalidationStamp);
+        }
+    }
+
+    /**
+     * Remove the cached users of the given entity.
+     *
+     * @param entityId Entity ID (user ID or client ID).
+     */
+    public void invalidate(String entityId) {
+
+        if (cache != null && entityId != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Removing the cached authenticated users of entity: " + entityId);
+            }
+            cache.invalidateAll(key -> entityId.equals(key.entityId));
+        }
+    }
+
+    private static final class UserKey {
+
+        private final String entityId;
+        private final String appTenantDomain;
+        private final String userTenantDomain;
+        private final boolean isFederated;
+        private final String subject;
+
+        private UserKey(String entityId, String appTenantDomain, String userTenantDomain, boolean isFederated,
+                        String subject) {
+
+            this.entityId = entityId;
+            this.appTenantDomain = appTenantDomain;
+            this.userTenantDomain = userTenantDomain;
+            this.isFederated = isFederated;
+            this.subject = subject;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UserKey)) {
+                return false;
+            }
+            UserKey that = (UserKey) o;
+            return isFederated == that.isFederated && entityId.equals(that.entityId)
+                    && Objects.equals(appTenantDomain, that.appTenantDomain)
+                    && Objects.equals(userTenantDomain, that.userTenantDomain) && Objects.equals(subject, that.subject);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(entityId, appTenantDomain, userTenantDomain, isFederated, subject);
+        }
+    }
+}
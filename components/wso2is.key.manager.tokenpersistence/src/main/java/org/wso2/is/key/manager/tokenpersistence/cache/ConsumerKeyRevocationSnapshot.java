@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of the latest revocation time recorded in IDN_APP_REVOKED_EVENT for each consumer key. The
+ * snapshot only moves forward, i.e. a revocation time of a consumer key is never replaced by an older one.
+ */
+public class ConsumerKeyRevocationSnapshot {
+
+    private final Map<String, Long> revocationTimes = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    // Latest revocation time recorded in the snapshot. This is 0 until a revocation is recorded.
+    private final AtomicLong lastSeenRevocationTime = new AtomicLong();
+
+    /**
+     * Record a revocation of the given consumer key, either read from the database or persisted through this node,
+     * and advance the last seen revocation time used for the next delta load.
+     *
+     * @param consumerKey    Consumer key.
+     * @param revocationTime Revocation time in milliseconds.
+     */
+    public void update(String consumerKey, long revocationTime) {
+
+        revocationTimes.merge(consumerKey, revocationTime, Math::max);
+        lastSeenRevocationTime.accumulateAndGet(revocationTime, Math::max);
+    }
+
+    /**
+     * Check whether the tokens of the given consumer key issued at the given time are revoked.
+     *
+     * @param consumerKey     Consumer key.
+     * @param tokenIssuedTime Token issued time in milliseconds.
+     * @return {@code true} if the consumer key was revoked at or after the token issued time.
+     */
+    public boolean isRevoked(String consumerKey, long tokenIssuedTime) {
+
+        Long revocationTime = revocationTimes.get(consumerKey);
+        return revocationTime != null && revocationTime >= tokenIssuedTime;
+    }
+
+    /**
+     * Check whether the snapshot is fully loaded from the database and can be used to answer revocation checks.
+     *
+     * @return {@code true} if the snapshot is loaded.
+     */
+    public boolean isLoaded() {
+
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+
+        this.loaded = loaded;
+    }
+
+    /**
+     * Get the latest revocation time recorded in the snapshot.
+     *
+     * @return Revocation time in milliseconds, or 0 if no revocation is recorded yet.
+     */
+    public long getLastSeenRevocationTime() {
+
+        return lastSeenRevocationTime.get();
+    }
+
+    public int size() {
+
+        return revocationTimes.size();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the JWT access tokens which were rejected as malformed, badly signed or expired, keyed by the
+ * SHA-256 digest of the raw token. A repeated token is rejected from the cache without parsing it, resolving its user
+ * or verifying its signature again. The claims of a rejected token are not verified, so nothing but the token itself is
+ * rejected, and the tokens forged on behalf of a client do not affect the other tokens of the client.
+ * <p>
+ * Only the rejections which a later validation of the same token would repeat are cached. The rejections caused by
+ * errors such as an unavailable user store or a missing signer certificate are not cached.
+ */
+public class InvalidAccessTokenCache {
+
+    private static final Log log = LogFactory.getLog(InvalidAccessTokenCache.class);
+    private static final String INVALID_ACCESS_TOKEN_CACHE_ENABLE =
+            "OAuth.TokenPersistence.InvalidAccessTokenCache.Enable";
+    private static final String INVALID_ACCESS_TOKEN_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.InvalidAccessTokenCache.MaxSize";
+    private static final String INVALID_ACCESS_TOKEN_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.InvalidAccessTokenCache.TimeToLiveInSeconds";
+    private static final int DEFAULT_INVALID_ACCESS_TOKEN_CACHE_MAX_SIZE = 10000;
+    private static final long DEFAULT_INVALID_ACCESS_TOKEN_CACHE_TIME_TO_LIVE = 30;
+    private static final InvalidAccessTokenCache instance = new InvalidAccessTokenCache();
+
+    /**
+     * Reason for which a token was rejected.
+     */
+    public enum Rejection {
+
+        /**
+         * The token could not be parsed, or its signature is not valid.
+         */
+        INVALID,
+
+        /**
+         * The token is expired. This is only a rejection when the expired tokens are not requested.
+         */
+        EXPIRED
+    }
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<String, Rejection> cache;
+
+    private InvalidAccessTokenCache() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(INVALID_ACCESS_TOKEN_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(INVALID_ACCESS_TOKEN_CACHE_MAX_SIZE,
+                    DEFAULT_INVALID_ACCESS_TOKEN_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(INVALID_ACCESS_TOKEN_CACHE_TIME_TO_LIVE,
+                    DEFAULT_INVALID_ACCESS_TOKEN_CACHE_TIME_TO_LIVE);
+            log.info(String.format("Invalid access token cache enabled with maximum size: %s and time to live: %ss.",
+                    maxSize, timeToLive));
+            cache = new TinyLfuCache<>("InvalidAccessTokenCache", maxSize, TimeUnit.SECONDS.toMillis(timeToLive));
+        } else {
+            cache = null;
+        }
+    }
+
+    public static InvalidAccessTokenCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the reason for which the given raw token was rejected.
+     *
+     * @param token Raw JWT access token.
+     * @return Rejection, or {@code null} if the token is not in the cache.
+     */
+    public Rejection get(String token) {
+
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(getCacheKey(token));
+    }
+
+    /**
+     * Cache the rejection of the given raw token.
+     *
+     * @param token     Raw JWT access token.
+     * @param rejection Reason for which the token was rejected.
+     */
+    public void put(String token, Rejection rejection) {
+
+        if (cache != null) {
+            cache.put(getCacheKey(token), rejection);
+        }
+    }
+
+    private static String getCacheKey(String token) {
+
+        return DigestUtils.sha256Hex(token);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the invalid token digests derived from {@link TokenDigestUtil#getTokenKeyDigest}. A negative
+ * answer from {@link #mightContain(byte[])} means the token was never added to the filter, while a positive answer
+ * needs to be confirmed against the persistence layer. Additions are lock free and safe to be done concurrently with
+ * lookups.
+ */
+public class InvalidTokenFilter {
+
+    private static final int BITS_PER_WORD = 64;
+    private static final double LN_2 = Math.log(2);
+    private static final int MAX_WORDS = Integer.MAX_VALUE - 8;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctionCount;
+
+    /**
+     * Create a filter sized for the given number of insertions and expected false positive probability.
+     *
+     * @param expectedInsertions       Expected number of invalid tokens to be added to the filter.
+     * @param falsePositiveProbability Expected false positive probability when the filter holds the expected number
+     *                                 of insertions.
+     */
+    public InvalidTokenFilter(long expectedInsertions, double falsePositiveProbability) {
+
+        if (expectedInsertions <= 0) {
+            expectedInsertions = 1;
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability should be in the range (0, 1). Provided: "
+                    + falsePositiveProbability);
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (LN_2 * LN_2));
+        int wordCount = (int) Math.min(MAX_WORDS, Math.max(1, (optimalBits + BITS_PER_WORD - 1) / BITS_PER_WORD));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * BITS_PER_WORD;
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * LN_2));
+    }
+
+    /**
+     * Add a token digest to the filter.
+     *
+     * @param digest Token digest.
+     */
+    public void put(byte[] digest) {
+
+        long hash1 = getHash(digest, 0);
+        long hash2 = getHash(digest, Long.BYTES);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long bitIndex = getBitIndex(hash1 + i * hash2);
+            int wordIndex = (int) (bitIndex / BITS_PER_WORD);
+            long mask = 1L << (bitIndex % BITS_PER_WORD);
+            long word;
+            do {
+                word = words.get(wordIndex);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(wordIndex, word, word | mask));
+        }
+    }
+
+    /**
+     * Check whether the given token digest might have been added to the filter.
+     *
+     * @param digest Token digest.
+     * @return {@code false} if the digest was definitely not added, {@code true} otherwise.
+     */
+    public boolean mightContain(byte[] digest) {
+
+        long hash1 = getHash(digest, 0);
+        long hash2 = getHash(digest, Long.BYTES);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long bitIndex = getBitIndex(hash1 + i * hash2);
+            if ((words.get((int) (bitIndex / BITS_PER_WORD)) & (1L << (bitIndex % BITS_PER_WORD))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitSize() {
+
+        return bitSize;
+    }
+
+    public int getHashFunctionCount() {
+
+        return hashFunctionCount;
+    }
+
+    private long getBitIndex(long combinedHash) {
+
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private static long getHash(byte[] digest, int offset) {
+
+        long hash = 0;
+        for (int i = offset; i < offset + Long.BYTES && i < digest.length; i++) {
+            hash = (hash << Byte.SIZE) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.is.key.manager.tokenpersistence.issuer.TenantJWTSigner;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the signers of the JWTs issued by this node, keyed by the signing tenant domain and the
+ * signature algorithm. A cached signer lets a token be signed without resolving the private key and the certificate of
+ * the tenant from its keystore again.
+ * <p>
+ * The signers of a tenant are removed when the resident identity provider of the tenant is updated. A signing key
+ * rotated in the keystore is picked up once the entry expires after the configured time to live.
+ * <p>
+ * When the signature algorithm is taken from the signing key, each tenant signs with the algorithm of its own key, eg:
+ * ES256 for a P-256 key or EdDSA for an Ed25519 key, so that the tenants can be migrated from RSA one at a time.
+ */
+public class JWTSignerCache {
+
+    private static final Log log = LogFactory.getLog(JWTSignerCache.class);
+    private static final String JWT_SIGNER_CACHE_ENABLE = "OAuth.TokenPersistence.JWTSignerCache.Enable";
+    private static final String JWT_SIGNER_CACHE_MAX_SIZE = "OAuth.TokenPersistence.JWTSignerCache.MaxSize";
+    private static final String JWT_SIGNER_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.JWTSignerCache.TimeToLiveInSeconds";
+    private static final String JWT_SIGNER_CACHE_POOL_SIZE = "OAuth.TokenPersistence.JWTSignerCache.PoolSize";
+    private static final String JWT_SIGNER_CACHE_ALGORITHM_FROM_KEY =
+            "OAuth.TokenPersistence.JWTSignerCache.AlgorithmFromSigningKey";
+    private static final int DEFAULT_JWT_SIGNER_CACHE_MAX_SIZE = 1000;
+    private static final long DEFAULT_JWT_SIGNER_CACHE_TIME_TO_LIVE = 900;
+    private static final JWTSignerCache instance = new JWTSignerCache();
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<SignerKey, TenantJWTSigner> cache;
+    private final int poolSize;
+    private final boolean algorithmFromSigningKey;
+
+    private JWTSignerCache() {
+
+        poolSize = PersistenceConfigUtil.getIntProperty(JWT_SIGNER_CACHE_POOL_SIZE,
+                Runtime.getRuntime().availableProcessors());
+        algorithmFromSigningKey = PersistenceConfigUtil.getBooleanProperty(JWT_SIGNER_CACHE_ALGORITHM_FROM_KEY, false);
+        if (PersistenceConfigUtil.getBooleanProperty(JWT_SIGNER_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(JWT_SIGNER_CACHE_MAX_SIZE,
+                    DEFAULT_JWT_SIGNER_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(JWT_SIGNER_CACHE_TIME_TO_LIVE,
+                    DEFAULT_JWT_SIGNER_CACHE_TIME_TO_LIVE);
+            log.info(String.format("JWT signer cache enabled with maximum size: %s, time to live: %ss, signature "
+                    + "pool size: %s and signature algorithm from signing key: %s.", maxSize, timeToLive, poolSize,
+                    algorithmFromSigningKey));
+            cache = new TinyLfuCache<>("JWTSignerCache", maxSize, TimeUnit.SECONDS.toMillis(timeToLive));
+        } else {
+            cache = null;
+        }
+    }
+
+    public static JWTSignerCache getInstance() {
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return cache != null;
+    }
+
+    /**
+     * Get the maximum number of idle signatures to be pooled by a signer.
+     *
+     * @return Signature pool size.
+     */
+    public int getPoolSize() {
+
+        return poolSize;
+    }
+
+    /**
+     * Check whether the tokens of a tenant are signed with the algorithm of its signing key, instead of the signature
+     * algorithm configured for the server.
+     *
+     * @return {@code true} if the signature algorithm is taken from the signing key.
+     */
+    public boolean isAlgorithmFromSigningKey() {
+
+        return algorithmFromSigningKey;
+    }
+
+    /**
+     * Get the cached signer of the given tenant.
+     *
+     * @param tenantDomain Signing tenant domain.
+     * @param algorithm    Signature algorithm.
+     * @return Signer, or {@code null} if the signer is not in the cache.
+     */
+    public TenantJWTSigner get(String tenantDomain, String algorithm) {
+
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(new SignerKey(tenantDomain, algorithm));
+    }
+
+    /**
+     * Get the invalidation stamp to be passed to {@link #put(String, String, TenantJWTSigner, long)}. This should be
+     * taken before the signing key is resolved.
+     *
+     * @return Invalidation stamp.
+     */
+    public long getInvalidationStamp() {
+
+        return cache != null ? cache.getInvalidationStamp() : 0;
+    }
+
+    /**
+     * Cache the signer of the given tenant. The signer is not cached if a tenant was invalidated after the given stamp
+     * was taken, as it could have been built from a key which is no longer valid.
+     *
+     * @param tenantDomain      Signing tenant domain.
+     * @param algorithm         Signature algorithm.
+     * @param signer            Signer built from the signing key of the tenant.
+     * @param invalidationStamp Stamp returned by {@link #getInvalidationStamp()} before the key was resolved.
+     */
+    public void put(String tenantDomain, String algorithm, TenantJWTSigner signer, long invalidationStamp) {
+
+        if (cache != null) {
+            cache.putIfNotInvalidated(new SignerKey(tenantDomain, algorithm), signer, invalidationStamp);
+        }
+    }
+
+    /**
+     * Remove the signers of the given tenant, after its resident identity provider or keystore is changed.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        if (cache != null && tenantDomain != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Removing the cached JWT signers of tenant: " + tenantDomain);
+            }
+            cache.invalidateAll(key -> tenantDomain.equals(key.tenantDomain));
+        }
+    }
+
+    private static final class SignerKey {
+
+        private final String tenantDomain;
+        private final String algorithm;
+
+        private SignerKey(String tenantDomain, String algorithm) {
+
+            this.tenantDomain = tenantDomain;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SignerKey)) {
+                return false;
+            }
+            SignerKey that = (SignerKey) o;
+            return Objects.equals(tenantDomain, that.tenantDomain) && Objects.equals(algorithm, that.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, algorithm);
+        }
+    }
+}
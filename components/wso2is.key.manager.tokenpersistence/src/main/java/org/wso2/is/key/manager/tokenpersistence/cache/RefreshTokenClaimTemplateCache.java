@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.is.key.manager.tokenpersistence.issuer.RefreshTokenClaimTemplate;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the refresh token claim templates, keyed by the client ID and the tenant domain of the app. A
+ * cached template lets a refresh token be issued without loading the app, the issuer and the audience, and without
+ * deriving the refresh token lifetime of the app again.
+ * <p>
+ * The templates of a client are removed when its app is updated, revoked or removed on this node. An update on
+ * another node of the cluster is picked up once the entry expires after the configured time to live.
+ */
+public class RefreshTokenClaimTemplateCache {
+
+    private static final Log log = LogFactory.getLog(RefreshTokenClaimTemplateCache.class);
+    private static final String CLAIM_TEMPLATE_CACHE_ENABLE =
+            "OAuth.TokenPersistence.RefreshTokenClaimTemplateCache.Enable";
+    private static final String CLAIM_TEMPLATE_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.RefreshTokenClaimTemplateCache.MaxSize";
+    private static final String CLAIM_TEMPLATE_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.RefreshTokenClaimTemplateCache.TimeToLiveInSeconds";
+    private static final int DEFAULT_CLAIM_TEMPLATE_CACHE_MAX_SIZE = 10000;
+    private static final long DEFAULT_CLAIM_TEMPLATE_CACHE_TIME_TO_LIVE = 300;
+    private static final RefreshTokenClaimTemplateCache instance = new RefreshTokenClaimTemplateCache();
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<TemplateKey, RefreshTokenClaimTemplate> cache;
+
+    private RefreshTokenClaimTemplateCache() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(CLAIM_TEMPLATE_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(CLAIM_TEMPLATE_CACHE_MAX_SIZE,
+                    DEFAULT_CLAIM_TEMPLATE_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(CLAIM_TEMPLATE_CACHE_TIME_TO_LIVE,
+                    DEFAULT_CLAIM_TEMPLATE_CACHE_TIME_TO_LIVE);
+            log.info(String.format("Refresh token claim template cache enabled with maximum size: %s and time to "
+                    + "live: %ss.", maxSize, timeToLive));
+            cache = new TinyLfuCache<>("RefreshTokenClaimTemplateCache", maxSize,
+                    TimeUnit.SECONDS.toMillis(timeToLive));
+        } else {
+            cache = null;
+        }
+    }
+
+    public static RefreshTokenClaimTemplateCache getInstance() {
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return cache != null;
+    }
+
+    /**
+     * Get the cached claim template of the given client.
+     *
+     * @param consumerKey  Client ID of the app.
+     * @param tenantDomain Tenant domain of the app.
+     * @return Claim template, or {@code null} if the template is not in the cache.
+     */
+    public RefreshTokenClaimTemplate get(String consumerKey, String tenantDomain) {
+
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(new TemplateKey(consumerKey, tenantDomain));
+    }
+
+    /**
+     * Get the invalidation stamp to be passed to {@link #put(String, String, RefreshTokenClaimTemplate, long)}. This
+     * should be taken before the app is loaded.
+     *
+     * @return Invalidation stamp.
+     */
+    public long getInvalidationStamp() {
+
+        return cache != null ? cache.getInvalidationStamp() : 0;
+    }
+
+    /**
+     * Cache the claim template of the given client. The template is not cached if a client was invalidated after the
+     * given stamp was taken, as it could have been built from the app before it was updated.
+     *
+     * @param consumerKey       Client ID of the app.
+     * @param tenantDomain      Tenant domain of the app.
+     * @param template          Claim template built from the app.
+     * @param invalidationStamp Stamp returned by {@link #getInvalidationStamp()} before the app was loaded.
+     */
+    public void put(String consumerKey, String tenantDomain, RefreshTokenClaimTemplate template,
+                    long invalidationStamp) {
+
+        if (cache != null) {
+            cache.putIfNotInvalidated(new TemplateKey(consumerKey, tenantDomain), template, invalidationStamp);
+        }
+    }
+
+    /**
+     * Remove the claim templates of the given client, after its app is updated, revoked or removed.
+     *
+     * @param consumerKey Client ID of the app.
+     */
+    public void invalidate(String consumerKey) {
+
+        if (cache != null && consumerKey != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Removing the cached refresh token claim templates of client: " + consumerKey);
+            }
+            cache.invalidateAll(key -> consumerKey.equals(key.consumerKey));
+        }
+    }
+
+    private static final class TemplateKey {
+
+        private final String consumerKey;
+        private final String tenantDomain;
+
+        private TemplateKey(String consumerKey, String tenantDomain) {
+
+            this.consumerKey = consumerKey;
+            this.tenantDomain = tenantDomain;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TemplateKey)) {
+                return false;
+            }
+            TemplateKey that = (TemplateKey) o;
+            return Objects.equals(consumerKey, that.consumerKey) && Objects.equals(tenantDomain, that.tenantDomain);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(consumerKey, tenantDomain);
+        }
+    }
+}
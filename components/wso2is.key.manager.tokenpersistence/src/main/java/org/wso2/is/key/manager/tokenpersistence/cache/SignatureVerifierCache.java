@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.is.key.manager.tokenpersistence.utils.EdDSASignatureVerifier;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.security.PublicKey;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the signature verifiers built from the signer certificates of the resident identity providers,
+ * keyed by the signing tenant domain, the issuer, the signing key identifier (kid, or the x5t thumbprint) and the
+ * algorithm of the token. A cached verifier lets the signature of a token be verified without resolving the resident
+ * identity provider and decoding its certificate again.
+ * <p>
+ * The verifiers of a tenant are removed when the resident identity provider of the tenant is updated. A rotated
+ * signing key gets a new key identifier and so a new entry, while the tokens signed with the previous key keep using
+ * the entry of the previous key. The entries of a key removed from the keystore expire after the configured time to
+ * live.
+ */
+public class SignatureVerifierCache {
+
+    private static final Log log = LogFactory.getLog(SignatureVerifierCache.class);
+    private static final String SIGNATURE_VERIFIER_CACHE_ENABLE =
+            "OAuth.TokenPersistence.SignatureVerifierCache.Enable";
+    private static final String SIGNATURE_VERIFIER_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.SignatureVerifierCache.MaxSize";
+    private static final String SIGNATURE_VERIFIER_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.SignatureVerifierCache.TimeToLiveInSeconds";
+    private static final int DEFAULT_SIGNATURE_VERIFIER_CACHE_MAX_SIZE = 1000;
+    private static final long DEFAULT_SIGNATURE_VERIFIER_CACHE_TIME_TO_LIVE = 900;
+    private static final SignatureVerifierCache instance = new SignatureVerifierCache();
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<VerifierKey, JWSVerifier> cache;
+
+    private SignatureVerifierCache() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(SIGNATURE_VERIFIER_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(SIGNATURE_VERIFIER_CACHE_MAX_SIZE,
+                    DEFAULT_SIGNATURE_VERIFIER_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(SIGNATURE_VERIFIER_CACHE_TIME_TO_LIVE,
+                    DEFAULT_SIGNATURE_VERIFIER_CACHE_TIME_TO_LIVE);
+            log.info(String.format("Signature verifier cache enabled with maximum size: %s and time to live: %ss.",
+                    maxSize, timeToLive));
+            cache = new TinyLfuCache<>("SignatureVerifierCache", maxSize, TimeUnit.SECONDS.toMillis(timeToLive));
+        } else {
+            cache = null;
+        }
+    }
+
+    public static SignatureVerifierCache getInstance() {
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return cache != null;
+    }
+
+    /**
+     * Get the cached verifier of the given signing key.
+     *
+     * @param tenantDomain Signing tenant domain.
+     * @param issuer       Issuer of the token.
+     * @param keyId        Signing key identifier returned by {@link #getKeyId(JWSHeader)}.
+     * @param algorithm    Signature algorithm of the token.
+     * @return Verifier, or {@code null} if the key is not in the cache.
+     */
+    public JWSVerifier get(String tenantDomain, String issuer, String keyId, String algorithm) {
+
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(new VerifierKey(tenantDomain, issuer, keyId, algorithm));
+    }
+
+    /**
+     * Get the invalidation stamp to be passed to {@link #put(String, String, String, String, JWSVerifier, long)}. This
+     * should be taken before the signer certificate is resolved.
+     *
+     * @return Invalidation stamp.
+     */
+    public long getInvalidationStamp() {
+
+        return cache != null ? cache.getInvalidationStamp() : 0;
+    }
+
+    /**
+     * Cache the verifier of the given signing key. The verifier is not cached if a tenant was invalidated after the
+     * given stamp was taken, as it could have been built from a certificate which is no longer valid.
+     *
+     * @param tenantDomain      Signing tenant domain.
+     * @param issuer            Issuer of the token.
+     * @param keyId             Signing key identifier returned by {@link #getKeyId(JWSHeader)}.
+     * @param algorithm         Signature algorithm of the token.
+     * @param verifier          Verifier built from the signer certificate.
+     * @param invalidationStamp Stamp returned by {@link #getInvalidationStamp()} before the certificate was resolved.
+     */
+    public void put(String tenantDomain, String issuer, String keyId, String algorithm, JWSVerifier verifier,
+                    long invalidationStamp) {
+
+        if (cache != null) {
+            cache.putIfNotInvalidated(new VerifierKey(tenantDomain, issuer, keyId, algorithm), verifier,
+                    invalidationStamp);
+        }
+    }
+
+    /**
+     * Remove the verifiers of the given tenant, after its resident identity provider or keystore is changed.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        if (cache != null && tenantDomain != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Removing the cached signature verifiers of tenant: " + tenantDomain);
+            }
+            cache.invalidateAll(key -> tenantDomain.equals(key.tenantDomain));
+        }
+    }
+
+    /**
+     * Get the identifier of the signing key of a token, which is the key ID if present and the certificate thumbprint
+     * otherwise.
+     *
+     * @param header JWS header of the token.
+     * @return Signing key identifier, or an empty string if the header does not identify the key.
+     */
+    @SuppressWarnings("deprecation")
+    public static String getKeyId(JWSHeader header) {
+
+        if (header.getKeyID() != null) {
+            return header.getKeyID();
+        }
+        if (header.getX509CertSHA256Thumbprint() != null) {
+            return "x5t#S256:" + header.getX509CertSHA256Thumbprint();
+        }
+        if (header.getX509CertThumbprint() != null) {
+            return "x5t:" + header.getX509CertThumbprint();
+        }
+        return "";
+    }
+
+    /**
+     * Build a verifier for the public key of the given certificate.
+     *
+     * @param certificate Signer certificate.
+     * @param algorithm   Signature algorithm of the token.
+     * @return Verifier, or {@code null} if the algorithm or the key is not supported.
+     */
+    public static JWSVerifier createVerifier(X509Certificate certificate, String algorithm) {
+
+        return createVerifier(certificate.getPublicKey(), algorithm);
+    }
+
+    /**
+     * Build a verifier for the given public key. RSA, ECDSA and EdDSA (Ed25519) signatures are supported.
+     *
+     * @param publicKey Public key of the signer.
+     * @param algorithm Signature algorithm of the token.
+     * @return Verifier, or {@code null} if the algorithm or the key is not supported.
+     */
+    public static JWSVerifier createVerifier(PublicKey publicKey, String algorithm) {
+
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        try {
+            if (JWSAlgorithm.Family.RSA.contains(jwsAlgorithm) && publicKey instanceof RSAPublicKey) {
+                return new RSASSAVerifier((RSAPublicKey) publicKey);
+            } else if (JWSAlgorithm.Family.EC.contains(jwsAlgorithm) && publicKey instanceof ECPublicKey) {
+                return new ECDSAVerifier((ECPublicKey) publicKey);
+            } else if (JWSAlgorithm.EdDSA.equals(jwsAlgorithm) && EdDSASignatureVerifier.isEdDSAKey(publicKey)) {
+                return new EdDSASignatureVerifier(publicKey);
+            }
+        } catch (JOSEException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to build a verifier for algorithm: " + algorithm + " and key: "
+                        + publicKey.getAlgorithm(), e);
+            }
+        }
+        return null;
+    }
+
+    private static final class VerifierKey {
+
+        private final String tenantDomain;
+        private final String issuer;
+        private final String keyId;
+        private final String algorithm;
+
+        private VerifierKey(String tenantDomain, String issuer, String keyId, String algorithm) {
+
+            this.tenantDomain = tenantDomain;
+            this.issuer = issuer;
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VerifierKey)) {
+                return false;
+            }
+            VerifierKey that = (VerifierKey) o;
+            return Objects.equals(tenantDomain, that.tenantDomain) && Objects.equals(issuer, that.issuer)
+                    && Objects.equals(keyId, that.keyId) && Objects.equals(algorithm, that.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, issuer, keyId, algorithm);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory cache with a W-TinyLFU eviction policy. New entries are admitted to a small LRU window, and an
+ * entry leaving the window replaces the LRU victim of the main region only if it has been accessed more frequently
+ * than the victim, as estimated by a count-min sketch. This keeps frequently used entries cached when the key space is
+ * much larger than the cache. Entries expire after the given time to live.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class TinyLfuCache<K, V> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_ENTRIES_PER_SEGMENT = 256;
+    private static final int WINDOW_PERCENTAGE = 1;
+
+    private final String name;
+    private final long timeToLiveInMillis;
+    private final List<Segment> segments;
+    private final FrequencySketch sketch;
+    private final AtomicLong invalidationStamp = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Create a cache.
+     *
+     * @param name               Name of the cache used in logs.
+     * @param maximumSize        Maximum number of entries held by the cache.
+     * @param timeToLiveInMillis Time to live of an entry in milliseconds.
+     */
+    public TinyLfuCache(String name, int maximumSize, long timeToLiveInMillis) {
+
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of the cache: " + name + " should be positive.");
+        }
+        this.name = name;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && (long) segmentCount * 2 * MIN_ENTRIES_PER_SEGMENT <= maximumSize) {
+            segmentCount *= 2;
+        }
+        this.segments = new ArrayList<>(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+            segments.add(new Segment(Math.max(1, segmentSize)));
+        }
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * Get the value cached against the given key.
+     *
+     * @param key Key.
+     * @return Cached value, or {@code null} if the key is not cached or expired.
+     */
+    public V get(K key) {
+
+        sketch.increment(key.hashCode());
+        V value = segmentFor(key).get(key, System.currentTimeMillis());
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Cache the given value with the default time to live.
+     *
+     * @param key   Key.
+     * @param value Value.
+     */
+    public void put(K key, V value) {
+
+        put(key, value, timeToLiveInMillis);
+    }
+
+    /**
+     * Cache the given value with the given time to live. The time to live is capped at the default time to live.
+     *
+     * @param key                Key.
+     * @param value              Value.
+     * @param timeToLiveInMillis Time to live of the entry in milliseconds.
+     */
+    public void put(K key, V value, long timeToLiveInMillis) {
+
+        if (timeToLiveInMillis <= 0) {
+            return;
+        }
+        long expiryTime = System.currentTimeMillis() + Math.min(timeToLiveInMillis, this.timeToLiveInMillis);
+        segmentFor(key).put(key, value, expiryTime, -1);
+    }
+
+    /**
+     * Cache a value loaded from the underlying store, only if no entry was invalidated after the given stamp was
+     * taken. This avoids caching a value which was read before a concurrent invalidation.
+     *
+     * @param key               Key.
+     * @param value             Value.
+     * @param invalidationStamp Stamp returned by {@link #getInvalidationStamp()} before the value was loaded.
+     */
+    public void putIfNotInvalidated(K key, V value, long invalidationStamp) {
+
+        long expiryTime = System.currentTimeMillis() + timeToLiveInMillis;
+        segmentFor(key).put(key, value, expiryTime, invalidationStamp);
+    }
+
+    /**
+     * Cache a value loaded from the underlying store with the given time to live, only if no entry was invalidated
+     * after the given stamp was taken. The time to live is capped at the default time to live.
+     *
+     * @param key                Key.
+     * @param value              Value.
+     * @param timeToLiveInMillis Time to live of the entry in milliseconds.
+     * @param invalidationStamp  Stamp returned by {@link #getInvalidationStamp()} before the value was loaded.
+     */
+    public void putIfNotInvalidated(K key, V value, long timeToLiveInMillis, long invalidationStamp) {
+
+        if (timeToLiveInMillis <= 0) {
+            return;
+        }
+        long expiryTime = System.currentTimeMillis() + Math.min(timeToLiveInMillis, this.timeToLiveInMillis);
+        segmentFor(key).put(key, value, expiryTime, invalidationStamp);
+    }
+
+    /**
+     * Remove the entry of the given key.
+     *
+     * @param key Key.
+     */
+    public void invalidate(K key) {
+
+        invalidationStamp.incrementAndGet();
+        segmentFor(key).remove(key);
+    }
+
+    /**
+     * Remove all the entries with keys matching the given predicate.
+     *
+     * @param predicate Key predicate.
+     */
+    public void invalidateAll(Predicate<K> predicate) {
+
+        invalidationStamp.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.removeIf(predicate);
+        }
+    }
+
+    /**
+     * Remove all the entries.
+     */
+    public void invalidateAll() {
+
+        invalidateAll(key -> true);
+    }
+
+    /**
+     * Get the current invalidation stamp, to be used with {@link #putIfNotInvalidated(Object, Object, long)}.
+     *
+     * @return Invalidation stamp.
+     */
+    public long getInvalidationStamp() {
+
+        return invalidationStamp.get();
+    }
+
+    public long size() {
+
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    @Override
+    public String toString() {
+
+        return "TinyLfuCache{" +
+                "name='" + name + '\'' +
+                ", size=" + size() +
+                ", hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                '}';
+    }
+
+    private Segment segmentFor(K key) {
+
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments.get(hash & (segments.size() - 1));
+    }
+
+    /**
+     * Cache entry.
+     *
+     * @param <V> Value type.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiryTime;
+
+        Entry(V value, long expiryTime) {
+
+            this.value = value;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /**
+     * A segment of the cache holding an access ordered window and main region. All the operations on a segment are
+     * done while holding its lock.
+     */
+    private final class Segment {
+
+        private final Map<K, Entry<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<K, Entry<V>> main = new LinkedHashMap<>(16, 0.75f, true);
+        private final int windowCapacity;
+        private final int mainCapacity;
+
+        Segment(int capacity) {
+
+            this.windowCapacity = Math.max(1, capacity * WINDOW_PERCENTAGE / 100);
+            this.mainCapacity = Math.max(0, capacity - windowCapacity);
+        }
+
+        synchronized V get(K key, long currentTime) {
+
+            Map<K, Entry<V>> region = window;
+            Entry<V> entry = window.get(key);
+            if (entry == null) {
+                region = main;
+                entry = main.get(key);
+            }
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiryTime <= currentTime) {
+                region.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(K key, V value, long expiryTime, long expectedInvalidationStamp) {
+
+            if (expectedInvalidationStamp >= 0 && expectedInvalidationStamp != invalidationStamp.get()) {
+                return;
+            }
+            Entry<V> entry = new Entry<>(value, expiryTime);
+            if (main.containsKey(key)) {
+                main.put(key, entry);
+                return;
+            }
+            window.put(key, entry);
+            if (window.size() <= windowCapacity) {
+                return;
+            }
+            // Move the LRU entry of the window to the main region if it wins against the LRU entry of the main region.
+            Iterator<Map.Entry<K, Entry<V>>> windowIterator = window.entrySet().iterator();
+            Map.Entry<K, Entry<V>> candidate = windowIterator.next();
+            windowIterator.remove();
+            if (main.size() < mainCapacity) {
+                main.put(candidate.getKey(), candidate.getValue());
+                return;
+            }
+            if (mainCapacity == 0) {
+                evictionCount.increment();
+                return;
+            }
+            Iterator<Map.Entry<K, Entry<V>>> mainIterator = main.entrySet().iterator();
+            Map.Entry<K, Entry<V>> victim = mainIterator.next();
+            if (victim.getValue().expiryTime <= System.currentTimeMillis()
+                    || sketch.frequency(candidate.getKey().hashCode()) > sketch.frequency(victim.getKey().hashCode())) {
+                mainIterator.remove();
+                main.put(candidate.getKey(), candidate.getValue());
+            }
+            evictionCount.increment();
+        }
+
+        synchronized void remove(K key) {
+
+            if (window.remove(key) == null) {
+                main.remove(key);
+            }
+        }
+
+        synchronized void removeIf(Predicate<K> predicate) {
+
+            window.keySet().removeIf(predicate);
+            main.keySet().removeIf(predicate);
+        }
+
+        synchronized int size() {
+
+            return window.size() + main.size();
+        }
+    }
+
+    /**
+     * Count-min sketch with four bit counters used to estimate the access frequency of keys. The counters are halved
+     * periodically so that the estimates reflect the recent popularity of the keys. Updates are not synchronized as
+     * an approximate estimate is sufficient for the admission decision.
+     */
+    private static final class FrequencySketch {
+
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0x5b0bd7a9, 0x2f8d1b3d, 0xc2b2ae35};
+        private static final int SAMPLE_SIZE_FACTOR = 10;
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private final AtomicLong additions = new AtomicLong();
+
+        FrequencySketch(int maximumSize) {
+
+            int width = Integer.highestOneBit(Math.max(16, Math.min(1 << 24, maximumSize * 2)) - 1) << 1;
+            this.table = new byte[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = (int) Math.min(Integer.MAX_VALUE, (long) maximumSize * SAMPLE_SIZE_FACTOR);
+        }
+
+        void increment(int hashCode) {
+
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = indexOf(hashCode, i);
+                if (table[i][index] < MAX_COUNT) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && additions.incrementAndGet() >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hashCode) {
+
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, table[i][indexOf(hashCode, i)]);
+            }
+            return frequency;
+        }
+
+        private synchronized void reset() {
+
+            if (additions.get() < sampleSize) {
+                return;
+            }
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = (byte) (row[i] >>> 1);
+                }
+            }
+            additions.set(0);
+        }
+
+        private int indexOf(int hashCode, int row) {
+
+            int hash = (hashCode + SEEDS[row]) * 0x9e3779b9;
+            hash ^= hash >>> 16;
+            return hash & mask;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.is.key.manager.tokenpersistence.model.VerifiedAccessToken;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node local cache of the verified JWT access tokens, keyed by the SHA-256 digest of the raw token. A repeated token
+ * is served from the cache without parsing it, verifying its signature or resolving its user again. Only the
+ * indirect revocations are checked for a cached token, as the tokens revoked directly through this node are not
+ * served from the cache. As a token revoked directly through another node stays in the cache of this node until the
+ * entry expires, the time to live of the entries is capped by the configured maximum.
+ * <p>
+ * A direct revocation records the token identifier instead of searching the cache for the entry of the token, as the
+ * cache is keyed by the raw token. The cached entries of a recorded token identifier are rejected and removed on
+ * lookup. As the time to live of an entry is counted from the start of the verification of the token, an entry
+ * verified before a revocation always expires before the record of the revocation is dropped.
+ * <p>
+ * A cryptographic digest is used as the key, as a collision would serve the verified result of another token.
+ */
+public class VerifiedAccessTokenCache {
+
+    private static final Log log = LogFactory.getLog(VerifiedAccessTokenCache.class);
+    private static final String VERIFIED_ACCESS_TOKEN_CACHE_ENABLE =
+            "OAuth.TokenPersistence.VerifiedAccessTokenCache.Enable";
+    private static final String VERIFIED_ACCESS_TOKEN_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.VerifiedAccessTokenCache.MaxSize";
+    private static final String VERIFIED_ACCESS_TOKEN_CACHE_MAX_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.VerifiedAccessTokenCache.MaxTimeToLiveInSeconds";
+    private static final int DEFAULT_VERIFIED_ACCESS_TOKEN_CACHE_MAX_SIZE = 10000;
+    private static final long DEFAULT_VERIFIED_ACCESS_TOKEN_CACHE_MAX_TIME_TO_LIVE = 60;
+    private static final int MIN_REVOKED_TOKEN_PURGE_THRESHOLD = 1024;
+    private static final VerifiedAccessTokenCache instance = new VerifiedAccessTokenCache();
+
+    // This is null when the cache is not enabled.
+    private final TinyLfuCache<String, VerifiedAccessToken> cache;
+    private final long maxTimeToLiveInMillis;
+    /*
+     * Identifiers of the tokens revoked directly through this node, against the time until which an entry of the
+     * token verified before the revocation can be in the cache.
+     */
+    private final Map<String, Long> revokedTokenIdentifiers = new ConcurrentHashMap<>();
+    // Number of the recorded revocations above which the expired records are purged.
+    private volatile int revokedTokenPurgeThreshold = MIN_REVOKED_TOKEN_PURGE_THRESHOLD;
+
+    private VerifiedAccessTokenCache() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(VERIFIED_ACCESS_TOKEN_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(VERIFIED_ACCESS_TOKEN_CACHE_MAX_SIZE,
+                    DEFAULT_VERIFIED_ACCESS_TOKEN_CACHE_MAX_SIZE);
+            long maxTimeToLive = PersistenceConfigUtil.getLongProperty(VERIFIED_ACCESS_TOKEN_CACHE_MAX_TIME_TO_LIVE,
+                    DEFAULT_VERIFIED_ACCESS_TOKEN_CACHE_MAX_TIME_TO_LIVE);
+            log.info(String.format("Verified access token cache enabled with maximum size: %s and maximum time to "
+                    + "live: %ss.", maxSize, maxTimeToLive));
+            maxTimeToLiveInMillis = TimeUnit.SECONDS.toMillis(maxTimeToLive);
+            cache = new TinyLfuCache<>("VerifiedAccessTokenCache", maxSize, maxTimeToLiveInMillis);
+        } else {
+            maxTimeToLiveInMillis = 0;
+            cache = null;
+        }
+    }
+
+    public static VerifiedAccessTokenCache getInstance() {
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return cache != null;
+    }
+
+    /**
+     * Get the verified access token of the given raw token.
+     *
+     * @param token Raw JWT access token.
+     * @return Verified access token, or {@code null} if the token is not in the cache or revoked through this node.
+     */
+    public VerifiedAccessToken get(String token) {
+
+        if (cache == null) {
+            return null;
+        }
+        String cacheKey = getCacheKey(token);
+        VerifiedAccessToken verifiedToken = cache.get(cacheKey);
+        if (verifiedToken != null && isRevoked(verifiedToken.getTokenIdentifier())) {
+            cache.invalidate(cacheKey);
+            return null;
+        }
+        return verifiedToken;
+    }
+
+    /**
+     * Cache a verified access token until it expires, or until the maximum time to live elapses from the start of
+     * its verification if it expires after that. The token is not cached if it is already revoked through this node.
+     *
+     * @param token                 Raw JWT access token.
+     * @param verifiedToken         Verified access token.
+     * @param expiryTime            Expiry time of the token in milliseconds.
+     * @param verificationStartTime Time in milliseconds taken before the token was verified.
+     */
+    public void put(String token, VerifiedAccessToken verifiedToken, long expiryTime, long verificationStartTime) {
+
+        if (cache == null || isRevoked(verifiedToken.getTokenIdentifier())) {
+            return;
+        }
+        long cacheExpiryTime = Math.min(expiryTime, verificationStartTime + maxTimeToLiveInMillis);
+        cache.put(getCacheKey(token), verifiedToken, cacheExpiryTime - System.currentTimeMillis());
+    }
+
+    /**
+     * Remove the given raw token from the cache.
+     *
+     * @param token Raw JWT access token.
+     */
+    public void invalidate(String token) {
+
+        if (cache != null) {
+            cache.invalidate(getCacheKey(token));
+        }
+    }
+
+    /**
+     * Stop serving the cached token with the given token identifier, after the token is revoked directly. The
+     * revocation is recorded until all the entries of the token verified before the revocation are expired.
+     *
+     * @param tokenIdentifier Token identifier (JTI).
+     */
+    public void invalidateByTokenIdentifier(String tokenIdentifier) {
+
+        if (cache == null || tokenIdentifier == null) {
+            return;
+        }
+        long currentTime = System.currentTimeMillis();
+        revokedTokenIdentifiers.put(tokenIdentifier, currentTime + maxTimeToLiveInMillis);
+        if (revokedTokenIdentifiers.size() > revokedTokenPurgeThreshold) {
+            purgeExpiredRevocations(currentTime);
+        }
+    }
+
+    private boolean isRevoked(String tokenIdentifier) {
+
+        if (revokedTokenIdentifiers.isEmpty() || tokenIdentifier == null) {
+            return false;
+        }
+        Long cachedUntil = revokedTokenIdentifiers.get(tokenIdentifier);
+        return cachedUntil != null && cachedUntil > System.currentTimeMillis();
+    }
+
+    /**
+     * Remove the revocation records of which all the cached entries are expired. The threshold is raised with the
+     * number of the remaining records, so that the records are scanned only after as many revocations again.
+     */
+    private synchronized void purgeExpiredRevocations(long currentTime) {
+
+        if (revokedTokenIdentifiers.size() <= revokedTokenPurgeThreshold) {
+            return;
+        }
+        revokedTokenIdentifiers.values().removeIf(cachedUntil -> cachedUntil <= currentTime);
+        revokedTokenPurgeThreshold = Math.max(MIN_REVOKED_TOKEN_PURGE_THRESHOLD,
+                revokedTokenIdentifiers.size() * 2);
+    }
+
+    private static String getCacheKey(String token) {
+
+        return DigestUtils.sha256Hex(token);
+    }
+}
@@ -27,18 +27,51 @@ import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.ConsumerKeyRevocationSnapshot;
+import org.wso2.is.key.manager.tokenpersistence.cache.InvalidTokenFilter;
+import org.wso2.is.key.manager.tokenpersistence.cache.TinyLfuCache;
+import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidToken;
 import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationCheck;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationRule;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+import org.wso2.is.key.manager.tokenpersistence.utils.TimeOrderedIdUtil;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLSyntaxErrorException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
 
 import static org.wso2.carbon.identity.core.util.IdentityUtil.getProperty;
 
@@ -50,6 +83,140 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
     private static final DBInvalidTokenPersistence instance = new DBInvalidTokenPersistence();
     private static final String OAUTH_TOKEN_PERSISTENCE_RETRY_COUNT = "OAuth.TokenPersistence.RetryCount";
     private static final int DEFAULT_TOKEN_PERSIST_RETRY_COUNT = 5;
+    private static final String INVALID_TOKEN_FILTER_ENABLE = "OAuth.TokenPersistence.InvalidTokenFilter.Enable";
+    private static final String INVALID_TOKEN_FILTER_EXPECTED_INSERTIONS =
+            "OAuth.TokenPersistence.InvalidTokenFilter.ExpectedInsertions";
+    private static final String INVALID_TOKEN_FILTER_FALSE_POSITIVE_PROBABILITY =
+            "OAuth.TokenPersistence.InvalidTokenFilter.FalsePositiveProbability";
+    private static final String INVALID_TOKEN_FILTER_REFRESH_INTERVAL =
+            "OAuth.TokenPersistence.InvalidTokenFilter.RefreshIntervalInSeconds";
+    private static final String INVALID_TOKEN_FILTER_EXPIRED_TOKEN_RETENTION =
+            "OAuth.TokenPersistence.InvalidTokenFilter.ExpiredTokenRetentionInSeconds";
+    /*
+     * The invalid token filter answers definite negatives, and a token invalidated through another node is added to
+     * the filter of this node only at the next rebuild. Hence, the filter is enabled only when the deployment is
+     * declared as a single node with this property, as it would accept the tokens revoked through the other nodes
+     * until the next rebuild otherwise.
+     */
+    private static final String INVALID_TOKEN_FILTER_SINGLE_NODE =
+            "OAuth.TokenPersistence.InvalidTokenFilter.SingleNode";
+    private static final long DEFAULT_INVALID_TOKEN_FILTER_EXPECTED_INSERTIONS = 1000000;
+    private static final double DEFAULT_INVALID_TOKEN_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final long DEFAULT_INVALID_TOKEN_FILTER_REFRESH_INTERVAL = 300;
+    private static final long DEFAULT_INVALID_TOKEN_FILTER_EXPIRED_TOKEN_RETENTION = 86400;
+    private static final String CONSUMER_KEY_REVOCATION_SNAPSHOT_ENABLE =
+            "OAuth.TokenPersistence.ConsumerKeyRevocationSnapshot.Enable";
+    private static final String CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_INTERVAL =
+            "OAuth.TokenPersistence.ConsumerKeyRevocationSnapshot.RefreshIntervalInSeconds";
+    private static final String CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_OVERLAP =
+            "OAuth.TokenPersistence.ConsumerKeyRevocationSnapshot.RefreshOverlapInSeconds";
+    private static final long DEFAULT_CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_INTERVAL = 30;
+    private static final long DEFAULT_CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_OVERLAP = 60;
+    private static final String SUBJECT_ENTITY_REVOCATION_CACHE_ENABLE =
+            "OAuth.TokenPersistence.SubjectEntityRevocationCache.Enable";
+    private static final String SUBJECT_ENTITY_REVOCATION_CACHE_MAX_SIZE =
+            "OAuth.TokenPersistence.SubjectEntityRevocationCache.MaxSize";
+    private static final String SUBJECT_ENTITY_REVOCATION_CACHE_TIME_TO_LIVE =
+            "OAuth.TokenPersistence.SubjectEntityRevocationCache.TimeToLiveInSeconds";
+    private static final String SUBJECT_ENTITY_REVOCATION_CACHE_STATS_INTERVAL =
+            "OAuth.TokenPersistence.SubjectEntityRevocationCache.StatsLogIntervalInSeconds";
+    private static final int DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_MAX_SIZE = 100000;
+    private static final long DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_TIME_TO_LIVE = 60;
+    private static final long DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_STATS_INTERVAL = 300;
+    private static final String INVALID_TOKEN_WRITE_BEHIND_ENABLE =
+            "OAuth.TokenPersistence.InvalidTokenWriteBehind.Enable";
+    private static final String INVALID_TOKEN_WRITE_BEHIND_BUFFER_SIZE =
+            "OAuth.TokenPersistence.InvalidTokenWriteBehind.BufferSize";
+    private static final String INVALID_TOKEN_WRITE_BEHIND_BATCH_SIZE =
+            "OAuth.TokenPersistence.InvalidTokenWriteBehind.BatchSize";
+    private static final String INVALID_TOKEN_WRITE_BEHIND_MAX_LATENCY =
+            "OAuth.TokenPersistence.InvalidTokenWriteBehind.MaxLatencyInMillis";
+    private static final int DEFAULT_INVALID_TOKEN_WRITE_BEHIND_BUFFER_SIZE = 10000;
+    private static final int DEFAULT_INVALID_TOKEN_WRITE_BEHIND_BATCH_SIZE = 100;
+    private static final long DEFAULT_INVALID_TOKEN_WRITE_BEHIND_MAX_LATENCY = 50;
+    private static final String INVALID_TOKEN_PURGE_ENABLE = "OAuth.TokenPersistence.InvalidTokenPurge.Enable";
+    private static final String INVALID_TOKEN_PURGE_INTERVAL =
+            "OAuth.TokenPersistence.InvalidTokenPurge.IntervalInSeconds";
+    private static final String INVALID_TOKEN_PURGE_CHUNK_SIZE = "OAuth.TokenPersistence.InvalidTokenPurge.ChunkSize";
+    private static final String INVALID_TOKEN_PURGE_CHUNK_PAUSE =
+            "OAuth.TokenPersistence.InvalidTokenPurge.ChunkPauseInMillis";
+    private static final String INVALID_TOKEN_PURGE_EXPIRY_GRACE_PERIOD =
+            "OAuth.TokenPersistence.InvalidTokenPurge.ExpiryGracePeriodInSeconds";
+    private static final String INVALID_TOKEN_PURGE_LOCK_LEASE =
+            "OAuth.TokenPersistence.InvalidTokenPurge.LockLeaseInSeconds";
+    private static final String INVALID_TOKEN_PURGE_SINGLE_NODE =
+            "OAuth.TokenPersistence.InvalidTokenPurge.SingleNode";
+    private static final long DEFAULT_INVALID_TOKEN_PURGE_INTERVAL = 3600;
+    private static final int DEFAULT_INVALID_TOKEN_PURGE_CHUNK_SIZE = 500;
+    private static final long DEFAULT_INVALID_TOKEN_PURGE_CHUNK_PAUSE = 100;
+    private static final long DEFAULT_INVALID_TOKEN_PURGE_EXPIRY_GRACE_PERIOD = 300;
+    private static final long DEFAULT_INVALID_TOKEN_PURGE_LOCK_LEASE = 300;
+    private static final int SCHEDULER_POOL_SIZE = 2;
+    private static final String HASHED_INVALID_TOKENS_ENABLE = "OAuth.TokenPersistence.HashedInvalidTokens.Enable";
+    private static final String HASHED_INVALID_TOKENS_READ_PLAIN_FORMAT =
+            "OAuth.TokenPersistence.HashedInvalidTokens.ReadPlainFormat";
+    private static final String REVOCATION_EVENT_UPSERT_ENABLE = "OAuth.TokenPersistence.RevocationEventUpsert.Enable";
+    /*
+     * The read replica lag guard only tracks the writes made through this node. A token or revocation rule written
+     * through another node of the cluster is read from the replica right away, so the revocation is not seen by the
+     * lookups of this node until the replica catches up with the primary. Use a read replica only when the replica
+     * lag is an acceptable delay for the revocations made through the other nodes to take effect.
+     */
+    private static final String READ_REPLICA_DATA_SOURCE = "OAuth.TokenPersistence.ReadReplica.DataSourceJNDIName";
+    private static final String READ_REPLICA_LAG_GUARD_WINDOW =
+            "OAuth.TokenPersistence.ReadReplica.LagGuardWindowInSeconds";
+    private static final String READ_REPLICA_MAX_TRACKED_WRITES =
+            "OAuth.TokenPersistence.ReadReplica.MaxTrackedWrites";
+    private static final long DEFAULT_READ_REPLICA_LAG_GUARD_WINDOW = 5;
+    private static final int DEFAULT_READ_REPLICA_MAX_TRACKED_WRITES = 100000;
+    // Cached against the subject entities which do not have a revocation rule.
+    private static final long NO_REVOCATION_RULE = Long.MIN_VALUE;
+    private static final int SCAN_FETCH_SIZE = 1000;
+    private static final int REVOCATION_TYPE_INVALID_TOKEN = 1;
+    private static final int REVOCATION_TYPE_APP_REVOKED_EVENT = 2;
+    private static final int REVOCATION_TYPE_SUBJECT_ENTITY_REVOKED_EVENT = 3;
+    // Kept below the IN list limit of Oracle.
+    private static final int IN_LIST_CHUNK_SIZE = 500;
+
+    private ScheduledExecutorService scheduler;
+    private long invalidTokenFilterExpectedInsertions;
+    private double invalidTokenFilterFalsePositiveProbability;
+    private long invalidTokenFilterExpiredTokenRetentionInMillis;
+    /*
+     * Filter used to answer definite negatives of isInvalidToken without a database call. This is null until the
+     * filter is built for the first time, and the database is queried for every lookup until then.
+     */
+    private volatile InvalidTokenFilter invalidTokenFilter;
+    // Filter which is being built from the database while a rebuild is in progress.
+    private volatile InvalidTokenFilter rebuildingInvalidTokenFilter;
+    private long consumerKeyRevocationSnapshotRefreshOverlapInMillis;
+    // Snapshot of the consumer key revocation rules. This is null when the snapshot is not enabled.
+    private volatile ConsumerKeyRevocationSnapshot consumerKeyRevocationSnapshot;
+    /*
+     * Cache of the latest revocation time of each subject entity, including the entities without a revocation rule.
+     * This is null when the cache is not enabled.
+     */
+    private volatile TinyLfuCache<String, Long> subjectEntityRevocationCache;
+    // Write-behind buffer of the invalid tokens. This is null when the write-behind mode is not enabled.
+    private volatile InvalidTokenWriteBehindQueue invalidTokenWriteBehindQueue;
+    /*
+     * Whether the invalid tokens are stored in IDN_INVALID_TOKEN_DIGESTS keyed by the truncated digest of the token
+     * and consumer key, instead of IDN_INVALID_TOKENS. The plain format is read as well during the migration, until
+     * all the tokens stored in the plain format are expired.
+     */
+    private final boolean hashedInvalidTokensEnabled =
+            PersistenceConfigUtil.getBooleanProperty(HASHED_INVALID_TOKENS_ENABLE, false);
+    private final boolean plainInvalidTokensReadable = !hashedInvalidTokensEnabled
+            || PersistenceConfigUtil.getBooleanProperty(HASHED_INVALID_TOKENS_READ_PLAIN_FORMAT, true);
+    // Dialect of the identity database. This is resolved from the connection metadata on first use.
+    private volatile DatabaseDialect databaseDialect;
+    // Whether the revocation events are persisted with the dialect specific upsert queries.
+    private volatile boolean revocationEventUpsertEnabled =
+            PersistenceConfigUtil.getBooleanProperty(REVOCATION_EVENT_UPSERT_ENABLE, true);
+    // Task purging the expired invalid tokens. This is null when the purge is not enabled.
+    private volatile InvalidTokenPurgeTask invalidTokenPurgeTask;
+    // Router of the revocation lookups to the read replica. This is null when no read replica is configured.
+    private volatile ReadReplicaRouter readReplicaRouter;
 
     private DBInvalidTokenPersistence() {
 
@@ -60,6 +227,471 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
         return instance;
     }
 
+    /**
+     * Initialize the optional in-memory structures placed in front of the database. These are node local and are
+     * only refreshed from the database periodically. Hence, in a multi node deployment, a revocation rule persisted
+     * through another node is detected on this node only after the next refresh. The invalid token filter is only
+     * enabled on a deployment declared as a single node, as it would accept the tokens revoked through the other
+     * nodes until the next refresh.
+     */
+    public synchronized void init() {
+
+        if (scheduler != null) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        scheduler = Executors.newScheduledThreadPool(SCHEDULER_POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "InvalidTokenPersistenceScheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean invalidTokenFilterEnabled = PersistenceConfigUtil.getBooleanProperty(INVALID_TOKEN_FILTER_ENABLE,
+                false);
+        if (invalidTokenFilterEnabled
+                && !PersistenceConfigUtil.getBooleanProperty(INVALID_TOKEN_FILTER_SINGLE_NODE, false)) {
+            log.warn("Invalid token filter is not enabled, as the deployment is not declared as a single node with "
+                    + INVALID_TOKEN_FILTER_SINGLE_NODE + ". The filter of a node does not include the tokens "
+                    + "invalidated through the other nodes until it is rebuilt.");
+            invalidTokenFilterEnabled = false;
+        }
+        if (invalidTokenFilterEnabled) {
+            invalidTokenFilterExpectedInsertions = PersistenceConfigUtil.getLongProperty(
+                    INVALID_TOKEN_FILTER_EXPECTED_INSERTIONS, DEFAULT_INVALID_TOKEN_FILTER_EXPECTED_INSERTIONS);
+            invalidTokenFilterFalsePositiveProbability = PersistenceConfigUtil.getDoubleProperty(
+                    INVALID_TOKEN_FILTER_FALSE_POSITIVE_PROBABILITY,
+                    DEFAULT_INVALID_TOKEN_FILTER_FALSE_POSITIVE_PROBABILITY);
+            invalidTokenFilterExpiredTokenRetentionInMillis = TimeUnit.SECONDS.toMillis(
+                    PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_FILTER_EXPIRED_TOKEN_RETENTION,
+                            DEFAULT_INVALID_TOKEN_FILTER_EXPIRED_TOKEN_RETENTION));
+            long refreshInterval = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_FILTER_REFRESH_INTERVAL,
+                    DEFAULT_INVALID_TOKEN_FILTER_REFRESH_INTERVAL);
+            log.info(String.format("Invalid token filter enabled with expected insertions: %s, false positive "
+                            + "probability: %s and refresh interval: %ss.", invalidTokenFilterExpectedInsertions,
+                    invalidTokenFilterFalsePositiveProbability, refreshInterval));
+            scheduler.scheduleWithFixedDelay(this::refreshInvalidTokenFilter, 0, refreshInterval, TimeUnit.SECONDS);
+        }
+        if (PersistenceConfigUtil.getBooleanProperty(CONSUMER_KEY_REVOCATION_SNAPSHOT_ENABLE, false)) {
+            consumerKeyRevocationSnapshotRefreshOverlapInMillis = TimeUnit.SECONDS.toMillis(
+                    PersistenceConfigUtil.getLongProperty(CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_OVERLAP,
+                            DEFAULT_CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_OVERLAP));
+            long refreshInterval = PersistenceConfigUtil.getLongProperty(
+                    CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_INTERVAL,
+                    DEFAULT_CONSUMER_KEY_REVOCATION_SNAPSHOT_REFRESH_INTERVAL);
+            log.info(String.format("Consumer key revocation snapshot enabled with refresh interval: %ss.",
+                    refreshInterval));
+            consumerKeyRevocationSnapshot = new ConsumerKeyRevocationSnapshot();
+            // Load the snapshot during the activation, so that it is available before serving the first request.
+            refreshConsumerKeyRevocationSnapshot();
+            scheduler.scheduleWithFixedDelay(this::refreshConsumerKeyRevocationSnapshot, refreshInterval,
+                    refreshInterval, TimeUnit.SECONDS);
+        }
+        if (PersistenceConfigUtil.getBooleanProperty(SUBJECT_ENTITY_REVOCATION_CACHE_ENABLE, false)) {
+            int maxSize = PersistenceConfigUtil.getIntProperty(SUBJECT_ENTITY_REVOCATION_CACHE_MAX_SIZE,
+                    DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_MAX_SIZE);
+            long timeToLive = PersistenceConfigUtil.getLongProperty(SUBJECT_ENTITY_REVOCATION_CACHE_TIME_TO_LIVE,
+                    DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_TIME_TO_LIVE);
+            long statsInterval = PersistenceConfigUtil.getLongProperty(SUBJECT_ENTITY_REVOCATION_CACHE_STATS_INTERVAL,
+                    DEFAULT_SUBJECT_ENTITY_REVOCATION_CACHE_STATS_INTERVAL);
+            log.info(String.format("Subject entity revocation cache enabled with maximum size: %s and time to live: "
+                    + "%ss.", maxSize, timeToLive));
+            subjectEntityRevocationCache = new TinyLfuCache<>("SubjectEntityRevocationCache", maxSize,
+                    TimeUnit.SECONDS.toMillis(timeToLive));
+            if (statsInterval > 0) {
+                scheduler.scheduleWithFixedDelay(this::logSubjectEntityRevocationCacheStats, statsInterval,
+                        statsInterval, TimeUnit.SECONDS);
+            }
+        }
+        if (PersistenceConfigUtil.getBooleanProperty(INVALID_TOKEN_WRITE_BEHIND_ENABLE, false)) {
+            int bufferSize = PersistenceConfigUtil.getIntProperty(INVALID_TOKEN_WRITE_BEHIND_BUFFER_SIZE,
+                    DEFAULT_INVALID_TOKEN_WRITE_BEHIND_BUFFER_SIZE);
+            int batchSize = PersistenceConfigUtil.getIntProperty(INVALID_TOKEN_WRITE_BEHIND_BATCH_SIZE,
+                    DEFAULT_INVALID_TOKEN_WRITE_BEHIND_BATCH_SIZE);
+            long maxLatency = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_WRITE_BEHIND_MAX_LATENCY,
+                    DEFAULT_INVALID_TOKEN_WRITE_BEHIND_MAX_LATENCY);
+            log.info(String.format("Invalid token write-behind enabled with buffer size: %s, batch size: %s and "
+                    + "maximum latency: %sms.", bufferSize, batchSize, maxLatency));
+            invalidTokenWriteBehindQueue = new InvalidTokenWriteBehindQueue(bufferSize, batchSize, maxLatency,
+                    this::persistInvalidTokens);
+        }
+        if (PersistenceConfigUtil.getBooleanProperty(INVALID_TOKEN_PURGE_ENABLE, false)) {
+            long interval = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_PURGE_INTERVAL,
+                    DEFAULT_INVALID_TOKEN_PURGE_INTERVAL);
+            int chunkSize = PersistenceConfigUtil.getIntProperty(INVALID_TOKEN_PURGE_CHUNK_SIZE,
+                    DEFAULT_INVALID_TOKEN_PURGE_CHUNK_SIZE);
+            long chunkPause = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_PURGE_CHUNK_PAUSE,
+                    DEFAULT_INVALID_TOKEN_PURGE_CHUNK_PAUSE);
+            long gracePeriod = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_PURGE_EXPIRY_GRACE_PERIOD,
+                    DEFAULT_INVALID_TOKEN_PURGE_EXPIRY_GRACE_PERIOD);
+            long lockLease = PersistenceConfigUtil.getLongProperty(INVALID_TOKEN_PURGE_LOCK_LEASE,
+                    DEFAULT_INVALID_TOKEN_PURGE_LOCK_LEASE);
+            boolean singleNode = PersistenceConfigUtil.getBooleanProperty(INVALID_TOKEN_PURGE_SINGLE_NODE, false);
+            log.info(String.format("Invalid token purge enabled with interval: %ss and chunk size: %s.", interval,
+                    chunkSize));
+            invalidTokenPurgeTask = new InvalidTokenPurgeTask(chunkSize, chunkPause,
+                    TimeUnit.SECONDS.toMillis(gracePeriod), TimeUnit.SECONDS.toMillis(lockLease),
+                    ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID(),
+                    hashedInvalidTokensEnabled, singleNode);
+            scheduler.scheduleWithFixedDelay(invalidTokenPurgeTask, interval, interval, TimeUnit.SECONDS);
+        }
+        String readReplicaDataSourceName = getProperty(READ_REPLICA_DATA_SOURCE);
+        if (StringUtils.isNotBlank(readReplicaDataSourceName)) {
+            initReadReplicaRouter(readReplicaDataSourceName.trim());
+        }
+    }
+
+    private void initReadReplicaRouter(String dataSourceName) {
+
+        long lagGuardWindow = PersistenceConfigUtil.getLongProperty(READ_REPLICA_LAG_GUARD_WINDOW,
+                DEFAULT_READ_REPLICA_LAG_GUARD_WINDOW);
+        int maxTrackedWrites = PersistenceConfigUtil.getIntProperty(READ_REPLICA_MAX_TRACKED_WRITES,
+                DEFAULT_READ_REPLICA_MAX_TRACKED_WRITES);
+        try {
+            DataSource dataSource = (DataSource) InitialContext.doLookup(dataSourceName);
+            readReplicaRouter = new ReadReplicaRouter(dataSource, TimeUnit.SECONDS.toMillis(lagGuardWindow),
+                    maxTrackedWrites);
+            log.info(String.format("Revocation lookups are routed to the read replica: %s with a lag guard window "
+                    + "of %ss. Revocations made through the other nodes take effect on this node only after the "
+                    + "replica catches up.", dataSourceName, lagGuardWindow));
+        } catch (NamingException | ClassCastException e) {
+            log.error("Error while looking up the read replica data source: " + dataSourceName + ". Revocation "
+                    + "lookups are routed to the primary database.", e);
+        }
+    }
+
+    /**
+     * Get a connection for a read only revocation lookup. The connection is taken from the read replica when one is
+     * configured and none of the given keys was written through this node within the lag guard window.
+     *
+     * @param keys Keys read by the lookup, built with the key builders of {@link ReadReplicaRouter}.
+     * @return Database connection.
+     * @throws SQLException If an error occurs while obtaining the connection.
+     */
+    private Connection getReadConnection(String... keys) throws SQLException {
+
+        ReadReplicaRouter router = readReplicaRouter;
+        if (router != null) {
+            return router.getReadConnection(keys);
+        }
+        return IdentityDatabaseUtil.getDBConnection(false);
+    }
+
+    private void recordRecentWrite(String key) {
+
+        ReadReplicaRouter router = readReplicaRouter;
+        if (router != null) {
+            router.recordWrite(key);
+        }
+    }
+
+    /**
+     * Stop the background tasks and release the in-memory structures.
+     */
+    public synchronized void destroy() {
+
+        InvalidTokenWriteBehindQueue writeBehindQueue = invalidTokenWriteBehindQueue;
+        if (writeBehindQueue != null) {
+            invalidTokenWriteBehindQueue = null;
+            writeBehindQueue.shutdown();
+        }
+        if (invalidTokenPurgeTask != null) {
+            invalidTokenPurgeTask.stop();
+            invalidTokenPurgeTask = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        invalidTokenFilter = null;
+        rebuildingInvalidTokenFilter = null;
+        consumerKeyRevocationSnapshot = null;
+        subjectEntityRevocationCache = null;
+        readReplicaRouter = null;
+    }
+
+    /**
+     * Get the subject entity revocation cache, to monitor its hit, miss and eviction counts.
+     *
+     * @return Subject entity revocation cache, or {@code null} if the cache is not enabled.
+     */
+    public TinyLfuCache<String, Long> getSubjectEntityRevocationCache() {
+
+        return subjectEntityRevocationCache;
+    }
+
+    /**
+     * Get the task purging the expired invalid tokens, to monitor the number of purged rows and the run duration.
+     *
+     * @return Invalid token purge task, or {@code null} if the purge is not enabled.
+     */
+    public InvalidTokenPurgeTask getInvalidTokenPurgeTask() {
+
+        return invalidTokenPurgeTask;
+    }
+
+    private void logSubjectEntityRevocationCacheStats() {
+
+        TinyLfuCache<String, Long> cache = subjectEntityRevocationCache;
+        if (cache != null && log.isDebugEnabled()) {
+            log.debug("Subject entity revocation cache stats: " + cache);
+        }
+    }
+
+    /**
+     * Rebuild the invalid token filter from the invalid tokens which are not yet expired, or which expired within
+     * the configured retention period.
+     *
+     * @throws IdentityOAuth2Exception If an error occurs while reading the invalid tokens.
+     */
+    public void rebuildInvalidTokenFilter() throws IdentityOAuth2Exception {
+
+        long startTime = System.currentTimeMillis();
+        Timestamp expiryThreshold = new Timestamp(startTime - invalidTokenFilterExpiredTokenRetentionInMillis);
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
+            long invalidTokenCount = 0;
+            if (plainInvalidTokensReadable) {
+                invalidTokenCount += countInvalidTokens(connection, SQLQueries.COUNT_INVALID_TOKENS_EXPIRING_AFTER,
+                        expiryThreshold);
+            }
+            if (hashedInvalidTokensEnabled) {
+                invalidTokenCount += countInvalidTokens(connection,
+                        SQLQueries.COUNT_INVALID_TOKEN_DIGESTS_EXPIRING_AFTER, expiryThreshold);
+            }
+            // Leave room for the tokens invalidated until the next rebuild.
+            InvalidTokenFilter filter = new InvalidTokenFilter(
+                    Math.max(invalidTokenFilterExpectedInsertions, invalidTokenCount * 2),
+                    invalidTokenFilterFalsePositiveProbability);
+            // Tokens invalidated from this point onwards are added to the new filter by addInvalidToken.
+            rebuildingInvalidTokenFilter = filter;
+            if (plainInvalidTokensReadable) {
+                try (PreparedStatement ps =
+                             connection.prepareStatement(SQLQueries.GET_INVALID_TOKENS_EXPIRING_AFTER)) {
+                    ps.setFetchSize(SCAN_FETCH_SIZE);
+                    ps.setTimestamp(1, expiryThreshold, utcCalendar);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next()) {
+                            filter.put(TokenDigestUtil.getTokenKeyDigest(resultSet.getString(1),
+                                    resultSet.getString(2)));
+                        }
+                    }
+                }
+            }
+            if (hashedInvalidTokensEnabled) {
+                // The stored token keys are the same digests used by the filter.
+                try (PreparedStatement ps =
+                             connection.prepareStatement(SQLQueries.GET_INVALID_TOKEN_DIGESTS_EXPIRING_AFTER)) {
+                    ps.setFetchSize(SCAN_FETCH_SIZE);
+                    ps.setTimestamp(1, expiryThreshold, utcCalendar);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next()) {
+                            filter.put(resultSet.getBytes(1));
+                        }
+                    }
+                }
+            }
+            invalidTokenFilter = filter;
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Invalid token filter rebuilt with %s tokens in %sms.", invalidTokenCount,
+                        System.currentTimeMillis() - startTime));
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while building the invalid token filter.", e);
+        } finally {
+            rebuildingInvalidTokenFilter = null;
+        }
+    }
+
+    private static long countInvalidTokens(Connection connection, String query, Timestamp expiryThreshold)
+            throws SQLException {
+
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (PreparedStatement ps = connection.prepareStatement(query)) {
+            ps.setTimestamp(1, expiryThreshold, utcCalendar);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void refreshInvalidTokenFilter() {
+
+        try {
+            rebuildInvalidTokenFilter();
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while refreshing the invalid token filter. The existing filter will be used until the "
+                    + "next refresh.", e);
+        } catch (RuntimeException e) {
+            // Catching the runtime exceptions to keep the scheduled refresh alive.
+            log.error("Unexpected error while refreshing the invalid token filter.", e);
+        }
+    }
+
+    /**
+     * Load the consumer key revocation rules to the snapshot. All the rules are loaded until the snapshot is loaded
+     * successfully, and only the rules revoked after the last seen revocation time are loaded afterwards. The
+     * configured overlap is subtracted from the last seen revocation time to tolerate clock differences between
+     * nodes and rules committed out of order. All the rules are read by the delta loads as well until a rule is
+     * recorded in the snapshot, as the last seen revocation time is 0 until then.
+     *
+     * @throws IdentityOAuth2Exception If an error occurs while reading the consumer key revocation rules.
+     */
+    public void loadConsumerKeyRevocationSnapshot() throws IdentityOAuth2Exception {
+
+        ConsumerKeyRevocationSnapshot snapshot = consumerKeyRevocationSnapshot;
+        if (snapshot == null) {
+            return;
+        }
+        boolean isFullLoad = !snapshot.isLoaded();
+        String query = isFullLoad ? SQLQueries.GET_APP_REVOKED_EVENTS : SQLQueries.GET_APP_REVOKED_EVENTS_AFTER;
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            if (!isFullLoad) {
+                long lastSeenRevocationTime = Math.max(0, snapshot.getLastSeenRevocationTime()
+                        - consumerKeyRevocationSnapshotRefreshOverlapInMillis);
+                ps.setTimestamp(1, new Timestamp(lastSeenRevocationTime), utcCalendar);
+            }
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            int ruleCount = 0;
+            try (ResultSet resultSet = ps.executeQuery()) {
+                while (resultSet.next()) {
+                    Timestamp revocationTime = resultSet.getTimestamp(2, utcCalendar);
+                    if (revocationTime != null) {
+                        snapshot.update(resultSet.getString(1), revocationTime.getTime());
+                        ruleCount++;
+                    }
+                }
+            }
+            snapshot.setLoaded(true);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Loaded %s consumer key revocation rules to the snapshot. Full load: %s",
+                        ruleCount, isFullLoad));
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while loading the consumer key revocation rules.", e);
+        }
+    }
+
+    private void refreshConsumerKeyRevocationSnapshot() {
+
+        try {
+            loadConsumerKeyRevocationSnapshot();
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while refreshing the consumer key revocation snapshot.", e);
+        } catch (RuntimeException e) {
+            // Catching the runtime exceptions to keep the scheduled refresh alive.
+            log.error("Unexpected error while refreshing the consumer key revocation snapshot.", e);
+        }
+    }
+
+    /**
+     * Record a consumer key revocation rule persisted through this node in the snapshot, and restart the read
+     * replica lag guard window of the consumer key.
+     *
+     * @param consumerKey    Consumer key.
+     * @param revocationTime Revocation time in milliseconds.
+     */
+    private void addToConsumerKeyRevocationSnapshot(String consumerKey, long revocationTime) {
+
+        recordRecentWrite(ReadReplicaRouter.getConsumerKeyKey(consumerKey));
+        ConsumerKeyRevocationSnapshot snapshot = consumerKeyRevocationSnapshot;
+        if (snapshot != null) {
+            snapshot.update(consumerKey, revocationTime);
+        }
+    }
+
+    /**
+     * Add the given token to the invalid token filters. The filter under construction is read before the active
+     * filter, so that a token committed while a rebuild is in progress is never lost after the filters are swapped.
+     * The read replica lag guard window of the token is restarted as well, as the token is committed by now.
+     *
+     * @param token       Token identifier.
+     * @param consumerKey Consumer key of the token.
+     */
+    private void addToInvalidTokenFilter(String token, String consumerKey) {
+
+        recordRecentWrite(ReadReplicaRouter.getInvalidTokenKey(token, consumerKey));
+        InvalidTokenFilter rebuildingFilter = rebuildingInvalidTokenFilter;
+        InvalidTokenFilter activeFilter = invalidTokenFilter;
+        if (rebuildingFilter == null && activeFilter == null) {
+            return;
+        }
+        byte[] digest = TokenDigestUtil.getTokenKeyDigest(token, consumerKey);
+        if (rebuildingFilter != null) {
+            rebuildingFilter.put(digest);
+        }
+        if (activeFilter != null) {
+            activeFilter.put(digest);
+        }
+    }
+
+    /**
+     * Check whether the invalid token filter confirms that the given token was never invalidated.
+     *
+     * @param token       Token identifier.
+     * @param consumerKey Consumer key of the token.
+     * @return {@code true} if the token is definitely not an invalid token.
+     */
+    private boolean isNotInInvalidTokenFilter(String token, String consumerKey) {
+
+        InvalidTokenFilter filter = invalidTokenFilter;
+        if (filter != null && !filter.mightContain(TokenDigestUtil.getTokenKeyDigest(token, consumerKey))) {
+            log.debug("Token is not present in the invalid token filter. Skipping the database lookup.");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the given token is invalidated through this node and waiting in the write-behind buffer.
+     *
+     * @param token       Token identifier.
+     * @param consumerKey Consumer key of the token.
+     * @return {@code true} if the token is pending to be written to the database.
+     */
+    private boolean isPendingInvalidToken(String token, String consumerKey) {
+
+        InvalidTokenWriteBehindQueue writeBehindQueue = invalidTokenWriteBehindQueue;
+        return writeBehindQueue != null && writeBehindQueue.isPending(token, consumerKey);
+    }
+
+    /**
+     * Get the queries to look up an invalid token in each of the readable storage formats.
+     *
+     * @param hashedFormatQuery Query of the hashed storage format.
+     * @param plainFormatQuery  Query of the plain storage format.
+     * @return Queries to be combined with UNION ALL.
+     */
+    private List<String> getInvalidTokenLookupQueries(String hashedFormatQuery, String plainFormatQuery) {
+
+        List<String> queries = new ArrayList<>(2);
+        if (hashedInvalidTokensEnabled) {
+            queries.add(hashedFormatQuery);
+        }
+        if (plainInvalidTokensReadable) {
+            queries.add(plainFormatQuery);
+        }
+        return queries;
+    }
+
+    /**
+     * Set the parameters of the queries returned by {@link #getInvalidTokenLookupQueries(String, String)}.
+     *
+     * @return Index of the next parameter.
+     */
+    private int setInvalidTokenLookupParameters(PreparedStatement ps, int parameterIndex, String token,
+                                                String consumerKey) throws SQLException {
+
+        if (hashedInvalidTokensEnabled) {
+            ps.setBytes(parameterIndex++, TokenDigestUtil.getTokenKeyDigest(token, consumerKey));
+        }
+        if (plainInvalidTokensReadable) {
+            ps.setString(parameterIndex++, token);
+            ps.setString(parameterIndex++, consumerKey);
+        }
+        return parameterIndex;
+    }
+
     @Override
     public boolean isInvalidToken(String token, String consumerKey) throws IdentityOAuth2Exception {
 
@@ -71,10 +703,17 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                 log.debug("Validating the token from the database.");
             }
         }
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
-            try (PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.IS_INVALID_TOKEN)) {
-                preparedStatement.setString(1, token);
-                preparedStatement.setString(2, consumerKey);
+        if (isPendingInvalidToken(token, consumerKey)) {
+            return true;
+        }
+        if (isNotInInvalidTokenFilter(token, consumerKey)) {
+            return false;
+        }
+        String query = String.join(SQLQueries.REVOCATION_STATUS_UNION,
+                getInvalidTokenLookupQueries(SQLQueries.IS_INVALID_TOKEN_DIGEST, SQLQueries.IS_INVALID_TOKEN));
+        try (Connection connection = getReadConnection(ReadReplicaRouter.getInvalidTokenKey(token, consumerKey))) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                setInvalidTokenLookupParameters(preparedStatement, 1, token, consumerKey);
                 try (ResultSet resultSet = preparedStatement.executeQuery()) {
                     return resultSet.next();
                 }
@@ -97,24 +736,74 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                         expiryTime));
             }
         }
+        InvalidToken invalidToken = new InvalidToken(token, consumerKey, expiryTime);
+        InvalidTokenWriteBehindQueue writeBehindQueue = invalidTokenWriteBehindQueue;
+        if (writeBehindQueue != null) {
+            writeBehindQueue.add(invalidToken);
+            return;
+        }
+        persistInvalidTokens(Collections.singletonList(invalidToken));
+    }
+
+    /**
+     * Insert the given invalid tokens to the database in a single transaction.
+     *
+     * @param invalidTokens Invalid tokens.
+     * @throws IdentityOAuth2Exception If an error occurs while inserting the invalid tokens.
+     */
+    private void persistInvalidTokens(List<InvalidToken> invalidTokens) throws IdentityOAuth2Exception {
+
+        // Tracked before the insert as well, so that the lookups do not reach the replica right after the commit.
+        for (InvalidToken invalidToken : invalidTokens) {
+            recordRecentWrite(ReadReplicaRouter.getInvalidTokenKey(invalidToken.getToken(),
+                    invalidToken.getConsumerKey()));
+        }
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        String query = hashedInvalidTokensEnabled ? SQLQueries.INSERT_INVALID_TOKEN_DIGEST
+                : SQLQueries.INSERT_INVALID_TOKEN;
         try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
-            try (PreparedStatement preparedStatement = connection.prepareStatement(SQLQueries.INSERT_INVALID_TOKEN)) {
-                preparedStatement.setString(1, UUID.randomUUID().toString());
-                preparedStatement.setString(2, token);
-                preparedStatement.setString(3, consumerKey);
-                preparedStatement.setTimestamp(4, new Timestamp(expiryTime),
-                        Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC)));
-                preparedStatement.executeUpdate();
+            try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+                for (InvalidToken invalidToken : invalidTokens) {
+                    if (hashedInvalidTokensEnabled) {
+                        preparedStatement.setBytes(1, TimeOrderedIdUtil.generateId());
+                        preparedStatement.setBytes(2, TokenDigestUtil.getTokenKeyDigest(invalidToken.getToken(),
+                                invalidToken.getConsumerKey()));
+                        preparedStatement.setTimestamp(3, new Timestamp(invalidToken.getExpiryTime()), utcCalendar);
+                    } else {
+                        preparedStatement.setString(1, generateRowId());
+                        preparedStatement.setString(2, invalidToken.getToken());
+                        preparedStatement.setString(3, invalidToken.getConsumerKey());
+                        preparedStatement.setTimestamp(4, new Timestamp(invalidToken.getExpiryTime()), utcCalendar);
+                    }
+                    if (invalidTokens.size() > 1) {
+                        preparedStatement.addBatch();
+                    }
+                }
+                if (invalidTokens.size() > 1) {
+                    preparedStatement.executeBatch();
+                } else {
+                    preparedStatement.executeUpdate();
+                }
                 IdentityDatabaseUtil.commitTransaction(connection);
+                for (InvalidToken invalidToken : invalidTokens) {
+                    addToInvalidTokenFilter(invalidToken.getToken(), invalidToken.getConsumerKey());
+                }
             } catch (SQLException e) {
                 IdentityDatabaseUtil.rollbackTransaction(connection);
-                throw new IdentityOAuth2Exception(String.format("Failed to add invalid token for consumer key: %s with "
-                        + "expiry time: %s", consumerKey, expiryTime), e);
+                throw new IdentityOAuth2Exception(getInvalidTokenPersistErrorMessage(invalidTokens), e);
             }
         } catch (SQLException e) {
-            throw new IdentityOAuth2Exception(String.format("Failed to add invalid token for consumer key: %s with "
-                    + "expiry time: %s", consumerKey, expiryTime), e);
+            throw new IdentityOAuth2Exception(getInvalidTokenPersistErrorMessage(invalidTokens), e);
+        }
+    }
+
+    private String getInvalidTokenPersistErrorMessage(List<InvalidToken> invalidTokens) {
+
+        if (invalidTokens.size() == 1) {
+            return String.format("Failed to add invalid token for consumer key: %s with expiry time: %s",
+                    invalidTokens.get(0).getConsumerKey(), invalidTokens.get(0).getExpiryTime());
         }
+        return String.format("Failed to add a batch of %s invalid tokens.", invalidTokens.size());
     }
 
     @Override
@@ -129,7 +818,11 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
             log.debug(String.format("Checking whether any internally revoked event is present for the consumer key: %s "
                     + "after issuing the token at: %s", consumerKey, tokenIssuedTime));
         }
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+        ConsumerKeyRevocationSnapshot snapshot = consumerKeyRevocationSnapshot;
+        if (snapshot != null && snapshot.isLoaded()) {
+            return snapshot.isRevoked(consumerKey, tokenIssuedTime.getTime());
+        }
+        try (Connection connection = getReadConnection(ReadReplicaRouter.getConsumerKeyKey(consumerKey));
              PreparedStatement ps = connection.prepareStatement(SQLQueries.IS_APP_REVOKED_EVENT)) {
             ps.setString(1, consumerKey);
             ps.setTimestamp(2, new Timestamp(tokenIssuedTime.getTime()),
@@ -155,7 +848,17 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
             log.debug(String.format("Check whether any internally revoked event is present for the subject entity "
                     + "id: %s after issuing the token at: %s", entityId, tokenIssuedTime));
         }
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+        TinyLfuCache<String, Long> cache = subjectEntityRevocationCache;
+        if (cache != null) {
+            Long latestRevocationTime = cache.get(entityId);
+            if (latestRevocationTime == null) {
+                long invalidationStamp = cache.getInvalidationStamp();
+                latestRevocationTime = getLatestSubjectEntityRevocationTime(entityId);
+                cache.putIfNotInvalidated(entityId, latestRevocationTime, invalidationStamp);
+            }
+            return latestRevocationTime != NO_REVOCATION_RULE && latestRevocationTime >= tokenIssuedTime.getTime();
+        }
+        try (Connection connection = getReadConnection(ReadReplicaRouter.getSubjectEntityKey(entityId));
              PreparedStatement ps = connection.prepareStatement(SQLQueries.IS_SUBJECT_ENTITY_REVOKED_EVENT)) {
             ps.setString(1, entityId);
             ps.setTimestamp(2, new Timestamp(tokenIssuedTime.getTime()),
@@ -169,11 +872,568 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The checks which can be answered from the in-memory structures are resolved without the database, and the
+     * remaining checks are combined into a single UNION ALL query run on one connection.
+     */
+    @Override
+    public RevocationStatus checkRevocationStatus(String token, String consumerKey, String entityId,
+                                                  Date tokenIssuedTime) throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Checking the revocation status of the token issued at: %s for the consumer "
+                    + "key: %s and subject entity id: %s", tokenIssuedTime, consumerKey, entityId));
+        }
+        if (token != null && isPendingInvalidToken(token, consumerKey)) {
+            return new RevocationStatus(true, false, false);
+        }
+        boolean checkInvalidToken = token != null && !isNotInInvalidTokenFilter(token, consumerKey);
+        boolean revokedForConsumerKey = false;
+        boolean checkConsumerKey = true;
+        ConsumerKeyRevocationSnapshot snapshot = consumerKeyRevocationSnapshot;
+        if (snapshot != null && snapshot.isLoaded()) {
+            revokedForConsumerKey = snapshot.isRevoked(consumerKey, tokenIssuedTime.getTime());
+            checkConsumerKey = false;
+        }
+        boolean revokedForSubjectEntity = false;
+        boolean checkSubjectEntity = true;
+        if (subjectEntityRevocationCache != null) {
+            // Resolved through the cache, which loads and caches the latest revocation time of the entity on a miss.
+            revokedForSubjectEntity = isTokenRevokedForSubjectEntity(entityId, tokenIssuedTime);
+            checkSubjectEntity = false;
+        }
+        if (!checkInvalidToken && !checkConsumerKey && !checkSubjectEntity) {
+            return new RevocationStatus(false, revokedForConsumerKey, revokedForSubjectEntity);
+        }
+
+        List<String> subQueries = new ArrayList<>(4);
+        if (checkInvalidToken) {
+            subQueries.addAll(getInvalidTokenLookupQueries(SQLQueries.REVOCATION_STATUS_INVALID_TOKEN_DIGEST,
+                    SQLQueries.REVOCATION_STATUS_INVALID_TOKEN));
+        }
+        if (checkConsumerKey) {
+            subQueries.add(SQLQueries.REVOCATION_STATUS_APP_REVOKED_EVENT);
+        }
+        if (checkSubjectEntity) {
+            subQueries.add(SQLQueries.REVOCATION_STATUS_SUBJECT_ENTITY_REVOKED_EVENT);
+        }
+        String query = String.join(SQLQueries.REVOCATION_STATUS_UNION, subQueries);
+        boolean revokedDirectly = false;
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = getReadConnection(
+                checkInvalidToken ? ReadReplicaRouter.getInvalidTokenKey(token, consumerKey) : null,
+                checkConsumerKey ? ReadReplicaRouter.getConsumerKeyKey(consumerKey) : null,
+                checkSubjectEntity ? ReadReplicaRouter.getSubjectEntityKey(entityId) : null);
+             PreparedStatement ps = connection.prepareStatement(query)) {
+            int parameterIndex = 1;
+            if (checkInvalidToken) {
+                parameterIndex = setInvalidTokenLookupParameters(ps, parameterIndex, token, consumerKey);
+            }
+            if (checkConsumerKey) {
+                ps.setString(parameterIndex++, consumerKey);
+                ps.setTimestamp(parameterIndex++, new Timestamp(tokenIssuedTime.getTime()), utcCalendar);
+            }
+            if (checkSubjectEntity) {
+                ps.setString(parameterIndex++, entityId);
+                ps.setTimestamp(parameterIndex, new Timestamp(tokenIssuedTime.getTime()), utcCalendar);
+            }
+            try (ResultSet resultSet = ps.executeQuery()) {
+                while (resultSet.next()) {
+                    switch (resultSet.getInt(1)) {
+                        case REVOCATION_TYPE_INVALID_TOKEN:
+                            revokedDirectly = true;
+                            break;
+                        case REVOCATION_TYPE_APP_REVOKED_EVENT:
+                            revokedForConsumerKey = true;
+                            break;
+                        case REVOCATION_TYPE_SUBJECT_ENTITY_REVOKED_EVENT:
+                            revokedForSubjectEntity = true;
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while checking the revocation status of the token for consumer "
+                    + "key: " + consumerKey, e);
+        }
+        return new RevocationStatus(revokedDirectly, revokedForConsumerKey, revokedForSubjectEntity);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The checks which can be answered from the in-memory structures are resolved without the database, and the
+     * remaining checks of the batch are resolved with one IN list query per revocation table, run on one connection.
+     */
+    @Override
+    public List<RevocationStatus> checkRevocationStatuses(List<RevocationCheck> revocationChecks)
+            throws IdentityOAuth2Exception {
+
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Checking the revocation status of a batch of %s tokens.",
+                    revocationChecks.size()));
+        }
+        boolean[] pendingInvalidTokens = new boolean[revocationChecks.size()];
+        Map<String, RevocationCheck> invalidTokenLookups = new LinkedHashMap<>();
+        Set<String> consumerKeyLookups = new LinkedHashSet<>();
+        Set<String> subjectEntityLookups = new LinkedHashSet<>();
+        Map<String, Long> latestSubjectEntityRevocationTimes = new HashMap<>();
+        ConsumerKeyRevocationSnapshot snapshot = consumerKeyRevocationSnapshot;
+        boolean snapshotLoaded = snapshot != null && snapshot.isLoaded();
+        TinyLfuCache<String, Long> cache = subjectEntityRevocationCache;
+        long invalidationStamp = cache != null ? cache.getInvalidationStamp() : 0;
+        for (int i = 0; i < revocationChecks.size(); i++) {
+            RevocationCheck revocationCheck = revocationChecks.get(i);
+            String token = revocationCheck.getToken();
+            String consumerKey = revocationCheck.getConsumerKey();
+            if (token != null) {
+                if (isPendingInvalidToken(token, consumerKey)) {
+                    pendingInvalidTokens[i] = true;
+                } else if (!isNotInInvalidTokenFilter(token, consumerKey)) {
+                    invalidTokenLookups.put(ReadReplicaRouter.getInvalidTokenKey(token, consumerKey), revocationCheck);
+                }
+            }
+            if (!snapshotLoaded && consumerKey != null) {
+                consumerKeyLookups.add(consumerKey);
+            }
+            String entityId = revocationCheck.getEntityId();
+            if (entityId != null && !latestSubjectEntityRevocationTimes.containsKey(entityId)) {
+                Long latestRevocationTime = cache != null ? cache.get(entityId) : null;
+                if (latestRevocationTime != null) {
+                    latestSubjectEntityRevocationTimes.put(entityId, latestRevocationTime);
+                } else {
+                    subjectEntityLookups.add(entityId);
+                }
+            }
+        }
+
+        Set<String> invalidTokenKeys = new HashSet<>();
+        Map<String, Long> latestConsumerKeyRevocationTimes = new HashMap<>();
+        if (!invalidTokenLookups.isEmpty() || !consumerKeyLookups.isEmpty() || !subjectEntityLookups.isEmpty()) {
+            List<String> readKeys = new ArrayList<>(invalidTokenLookups.keySet());
+            for (String consumerKey : consumerKeyLookups) {
+                readKeys.add(ReadReplicaRouter.getConsumerKeyKey(consumerKey));
+            }
+            for (String entityId : subjectEntityLookups) {
+                readKeys.add(ReadReplicaRouter.getSubjectEntityKey(entityId));
+            }
+            try (Connection connection = getReadConnection(readKeys.toArray(new String[0]))) {
+                if (!invalidTokenLookups.isEmpty()) {
+                    invalidTokenKeys = getInvalidTokenKeys(connection, invalidTokenLookups.values());
+                }
+                if (!consumerKeyLookups.isEmpty()) {
+                    latestConsumerKeyRevocationTimes = getLatestRevocationTimes(connection,
+                            SQLQueries.GET_LATEST_APP_REVOKED_TIMES_IN, new ArrayList<>(consumerKeyLookups));
+                }
+                if (!subjectEntityLookups.isEmpty()) {
+                    Map<String, Long> latestRevocationTimes = getLatestRevocationTimes(connection,
+                            SQLQueries.GET_LATEST_SUBJECT_ENTITY_REVOKED_TIMES_IN,
+                            new ArrayList<>(subjectEntityLookups));
+                    for (String entityId : subjectEntityLookups) {
+                        Long latestRevocationTime = latestRevocationTimes.get(entityId);
+                        if (latestRevocationTime == null) {
+                            latestRevocationTime = NO_REVOCATION_RULE;
+                        }
+                        latestSubjectEntityRevocationTimes.put(entityId, latestRevocationTime);
+                        if (cache != null) {
+                            cache.putIfNotInvalidated(entityId, latestRevocationTime, invalidationStamp);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IdentityOAuth2Exception("Error while checking the revocation status of a batch of tokens.",
+                        e);
+            }
+        }
+
+        List<RevocationStatus> revocationStatuses = new ArrayList<>(revocationChecks.size());
+        for (int i = 0; i < revocationChecks.size(); i++) {
+            RevocationCheck revocationCheck = revocationChecks.get(i);
+            long tokenIssuedTime = revocationCheck.getTokenIssuedTime().getTime();
+            boolean revokedDirectly = pendingInvalidTokens[i] || (revocationCheck.getToken() != null
+                    && invalidTokenKeys.contains(ReadReplicaRouter.getInvalidTokenKey(revocationCheck.getToken(),
+                    revocationCheck.getConsumerKey())));
+            boolean revokedForConsumerKey;
+            if (snapshotLoaded) {
+                revokedForConsumerKey = snapshot.isRevoked(revocationCheck.getConsumerKey(), tokenIssuedTime);
+            } else {
+                revokedForConsumerKey = isRevokedAfter(
+                        latestConsumerKeyRevocationTimes.get(revocationCheck.getConsumerKey()), tokenIssuedTime);
+            }
+            boolean revokedForSubjectEntity = isRevokedAfter(
+                    latestSubjectEntityRevocationTimes.get(revocationCheck.getEntityId()), tokenIssuedTime);
+            revocationStatuses.add(new RevocationStatus(revokedDirectly, revokedForConsumerKey,
+                    revokedForSubjectEntity));
+        }
+        return revocationStatuses;
+    }
+
+    private static boolean isRevokedAfter(Long latestRevocationTime, long tokenIssuedTime) {
+
+        return latestRevocationTime != null && latestRevocationTime != NO_REVOCATION_RULE
+                && latestRevocationTime >= tokenIssuedTime;
+    }
+
+    /**
+     * Get the keys of the given tokens which are invalid tokens, in each of the readable storage formats.
+     *
+     * @param connection          Connection to read from.
+     * @param invalidTokenLookups Tokens to look up.
+     * @return Keys built with {@link ReadReplicaRouter#getInvalidTokenKey(String, String)} of the invalid tokens.
+     * @throws SQLException If an error occurs while reading the invalid tokens.
+     */
+    private Set<String> getInvalidTokenKeys(Connection connection, Collection<RevocationCheck> invalidTokenLookups)
+            throws SQLException {
+
+        Set<String> invalidTokenKeys = new HashSet<>();
+        List<RevocationCheck> lookups = new ArrayList<>(invalidTokenLookups);
+        for (int from = 0; from < lookups.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<RevocationCheck> chunk = lookups.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, lookups.size()));
+            if (hashedInvalidTokensEnabled) {
+                Map<ByteBuffer, String> digestKeys = new HashMap<>();
+                for (RevocationCheck lookup : chunk) {
+                    digestKeys.put(ByteBuffer.wrap(TokenDigestUtil.getTokenKeyDigest(lookup.getToken(),
+                            lookup.getConsumerKey())), ReadReplicaRouter.getInvalidTokenKey(lookup.getToken(),
+                            lookup.getConsumerKey()));
+                }
+                try (PreparedStatement ps = connection.prepareStatement(
+                        getInListQuery(SQLQueries.GET_INVALID_TOKEN_DIGESTS_IN, digestKeys.size()))) {
+                    int parameterIndex = 1;
+                    for (ByteBuffer digest : digestKeys.keySet()) {
+                        ps.setBytes(parameterIndex++, digest.array());
+                    }
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next()) {
+                            String invalidTokenKey = digestKeys.get(ByteBuffer.wrap(resultSet.getBytes(1)));
+                            if (invalidTokenKey != null) {
+                                invalidTokenKeys.add(invalidTokenKey);
+                            }
+                        }
+                    }
+                }
+            }
+            if (plainInvalidTokensReadable) {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        getInListQuery(SQLQueries.GET_INVALID_TOKENS_IN, chunk.size()))) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        ps.setString(i + 1, chunk.get(i).getToken());
+                    }
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next()) {
+                            invalidTokenKeys.add(ReadReplicaRouter.getInvalidTokenKey(resultSet.getString(1),
+                                    resultSet.getString(2)));
+                        }
+                    }
+                }
+            }
+        }
+        return invalidTokenKeys;
+    }
+
+    /**
+     * Get the latest revocation times of the given consumer keys or subject entities.
+     *
+     * @param connection Connection to read from.
+     * @param query      IN list query returning the id and the latest revocation time of each revoked id.
+     * @param ids        Consumer keys or subject entity ids.
+     * @return Latest revocation times in milliseconds, for the ids which are revoked.
+     * @throws SQLException If an error occurs while reading the revocation rules.
+     */
+    private static Map<String, Long> getLatestRevocationTimes(Connection connection, String query, List<String> ids)
+            throws SQLException {
+
+        Map<String, Long> latestRevocationTimes = new HashMap<>();
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK_SIZE) {
+            List<String> chunk = ids.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, ids.size()));
+            try (PreparedStatement ps = connection.prepareStatement(getInListQuery(query, chunk.size()))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    ps.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet resultSet = ps.executeQuery()) {
+                    while (resultSet.next()) {
+                        Timestamp revocationTime = resultSet.getTimestamp(2, utcCalendar);
+                        if (revocationTime != null) {
+                            latestRevocationTimes.put(resultSet.getString(1), revocationTime.getTime());
+                        }
+                    }
+                }
+            }
+        }
+        return latestRevocationTimes;
+    }
+
+    /**
+     * Generate the UUID of a persisted row. The default identifiers are time ordered, so that the new rows are
+     * appended to the end of the primary key index and the expired rows purged together are stored together.
+     *
+     * @return Row UUID.
+     */
+    private static String generateRowId() {
+
+        return ServiceReferenceHolder.getInstance().getIdentifierGenerator().generateId();
+    }
+
+    private static String getInListQuery(String query, int size) {
+
+        return query.replace(SQLQueries.IN_LIST_PLACEHOLDER, String.join(",", Collections.nCopies(size, "?")));
+    }
+
+    /**
+     * Get the latest revocation time of the given subject entity across all the entity types and organizations.
+     *
+     * @param entityId Subject entity id.
+     * @return Latest revocation time in milliseconds, or {@link #NO_REVOCATION_RULE} if the entity is not revoked.
+     * @throws IdentityOAuth2Exception If an error occurs while reading the revocation rules.
+     */
+    private long getLatestSubjectEntityRevocationTime(String entityId) throws IdentityOAuth2Exception {
+
+        try (Connection connection = getReadConnection(ReadReplicaRouter.getSubjectEntityKey(entityId));
+             PreparedStatement ps = connection.prepareStatement(SQLQueries.GET_LATEST_SUBJECT_ENTITY_REVOKED_TIME)) {
+            ps.setString(1, entityId);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                if (resultSet.next()) {
+                    Timestamp revocationTime = resultSet.getTimestamp(1,
+                            Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC)));
+                    if (revocationTime != null) {
+                        return revocationTime.getTime();
+                    }
+                }
+                return NO_REVOCATION_RULE;
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while reading the latest revocation time of subject entity id: "
+                    + entityId, e);
+        }
+    }
+
+    /**
+     * Remove the cached revocation time of the given subject entity, after a revocation rule of the entity is
+     * persisted through this node. The read replica lag guard window of the entity is restarted as well.
+     *
+     * @param entityId Subject entity id.
+     */
+    private void invalidateSubjectEntityRevocationCache(String entityId) {
+
+        recordRecentWrite(ReadReplicaRouter.getSubjectEntityKey(entityId));
+        TinyLfuCache<String, Long> cache = subjectEntityRevocationCache;
+        if (cache != null) {
+            cache.invalidate(entityId);
+        }
+    }
+
+    /**
+     * Get the dialect of the identity database.
+     *
+     * @param connection Connection to the identity database.
+     * @return Database dialect.
+     * @throws SQLException If an error occurs while reading the connection metadata.
+     */
+    private DatabaseDialect getDatabaseDialect(Connection connection) throws SQLException {
+
+        DatabaseDialect dialect = databaseDialect;
+        if (dialect == null) {
+            dialect = DatabaseDialect.fromConnection(connection);
+            databaseDialect = dialect;
+            if (log.isDebugEnabled()) {
+                log.debug("Resolved the identity database dialect: " + dialect);
+            }
+        }
+        return dialect;
+    }
+
+    /**
+     * Insert or update the given subject entity revocation rules with the dialect specific upsert query, in a single
+     * transaction.
+     *
+     * @param revocationRules Revocation rules.
+     * @return {@code true} if the rules are persisted, {@code false} if the upsert is not supported or failed, in
+     * which case the rules should be persisted with the update and insert queries.
+     */
+    private boolean upsertSubjectEntityRevokedEvents(List<RevocationRule> revocationRules) {
+
+        if (!revocationEventUpsertEnabled) {
+            return false;
+        }
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            DatabaseDialect dialect = getDatabaseDialect(connection);
+            if (dialect.getSubjectEntityRevokedEventUpsertQuery() == null) {
+                revocationEventUpsertEnabled = false;
+                return false;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    dialect.getSubjectEntityRevokedEventUpsertQuery())) {
+                for (RevocationRule revocationRule : revocationRules) {
+                    Timestamp timeRevoked = new Timestamp(revocationRule.getRevocationTime());
+                    if (dialect.isMergeStatement()) {
+                        ps.setString(1, revocationRule.getSubjectId());
+                        ps.setString(2, revocationRule.getSubjectIdType());
+                        ps.setString(3, revocationRule.getOrganization());
+                        ps.setTimestamp(4, timeRevoked, utcCalendar);
+                        ps.setString(5, generateRowId());
+                        ps.setTimestamp(6, timeRevoked, utcCalendar);
+                    } else {
+                        ps.setString(1, generateRowId());
+                        ps.setString(2, revocationRule.getSubjectId());
+                        ps.setString(3, revocationRule.getSubjectIdType());
+                        ps.setTimestamp(4, timeRevoked, utcCalendar);
+                        ps.setString(5, revocationRule.getOrganization());
+                    }
+                    if (revocationRules.size() > 1) {
+                        ps.addBatch();
+                    }
+                }
+                if (revocationRules.size() > 1) {
+                    ps.executeBatch();
+                } else {
+                    ps.executeUpdate();
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("%s user event token revocation rules upserted.", revocationRules.size()));
+                }
+                return true;
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                handleUpsertFailure(e, "CON_SUB_EVT_KEY");
+                return false;
+            }
+        } catch (SQLException e) {
+            log.warn("Error while upserting the user event token revocation rules. Retrying with the update and "
+                    + "insert queries.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Insert or update the consumer key revocation rule with a single dialect specific upsert query.
+     *
+     * @return {@code true} if the rule is persisted, {@code false} if the upsert is not supported or failed, in which
+     * case the rule should be persisted with the update and insert queries.
+     */
+    private boolean upsertAppRevokedEvent(String consumerKey, long revocationTime, String organization) {
+
+        if (!revocationEventUpsertEnabled) {
+            return false;
+        }
+        Timestamp timeRevoked = new Timestamp(revocationTime);
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            DatabaseDialect dialect = getDatabaseDialect(connection);
+            if (dialect.getAppRevokedEventUpsertQuery() == null) {
+                revocationEventUpsertEnabled = false;
+                return false;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(dialect.getAppRevokedEventUpsertQuery())) {
+                if (dialect.isMergeStatement()) {
+                    ps.setString(1, consumerKey);
+                    ps.setString(2, organization);
+                    ps.setTimestamp(3, timeRevoked, utcCalendar);
+                    ps.setString(4, generateRowId());
+                    ps.setTimestamp(5, timeRevoked, utcCalendar);
+                } else {
+                    ps.setString(1, generateRowId());
+                    ps.setString(2, consumerKey);
+                    ps.setTimestamp(3, timeRevoked, utcCalendar);
+                    ps.setString(4, organization);
+                }
+                ps.executeUpdate();
+                IdentityDatabaseUtil.commitTransaction(connection);
+                log.debug("Consumer key event token revocation rule upserted.");
+                return true;
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                handleUpsertFailure(e, "CON_APP_EVT_KEY");
+                return false;
+            }
+        } catch (SQLException e) {
+            log.warn("Error while upserting the consumer key event token revocation rule. Retrying with the update "
+                    + "and insert queries.", e);
+            return false;
+        }
+    }
+
+    /**
+     * Handle a failed upsert. The rule of the failed call is persisted with the update and insert queries in any case.
+     * A constraint violation is expected when two nodes insert the same rule concurrently with a MERGE statement.
+     * The upsert is disabled only if the error shows that the upsert query is not supported by the database, so that
+     * a transient error such as a deadlock, a lock timeout or a dropped connection does not disable it.
+     *
+     * @param e              Error of the upsert.
+     * @param constraintName Unique constraint of the revocation event table.
+     */
+    private void handleUpsertFailure(SQLException e, String constraintName) {
+
+        if (e instanceof SQLIntegrityConstraintViolationException
+                || StringUtils.containsIgnoreCase(e.getMessage(), constraintName)) {
+            log.debug("Revocation rule upsert hit a constraint violation. Retrying with the update and insert "
+                    + "queries.");
+            return;
+        }
+        if (isUnsupportedQueryError(e)) {
+            revocationEventUpsertEnabled = false;
+            log.warn("Revocation rule upsert is not supported by the " + databaseDialect + " database. Falling back "
+                    + "to the update and insert queries.", e);
+            return;
+        }
+        log.warn("Error while upserting the revocation rule. Retrying with the update and insert queries.", e);
+    }
+
+    /**
+     * Check whether the given error, or an error chained to it, is raised because the query is not supported by the
+     * database.
+     *
+     * @param e Error of the query.
+     * @return {@code true} for a syntax error or an unsupported feature.
+     */
+    private static boolean isUnsupportedQueryError(SQLException e) {
+
+        for (SQLException error = e; error != null; error = error.getNextException()) {
+            if (error instanceof SQLSyntaxErrorException || error instanceof SQLFeatureNotSupportedException) {
+                return true;
+            }
+            Throwable cause = error.getCause();
+            if (cause instanceof SQLSyntaxErrorException || cause instanceof SQLFeatureNotSupportedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void revokeTokensByUserEvent(String subjectId, String subjectIdType,
                                         long revocationTime, String organization, int retryAttemptCounter)
             throws IdentityOAuth2Exception {
 
+        recordRecentWrite(ReadReplicaRouter.getSubjectEntityKey(subjectId));
+        if (retryAttemptCounter == 0 && upsertSubjectEntityRevokedEvents(Collections.singletonList(
+                new RevocationRule(subjectId, subjectIdType, revocationTime, organization)))) {
+            invalidateSubjectEntityRevocationCache(subjectId);
+            return;
+        }
+        persistSubjectEntityRevokedEvent(subjectId, subjectIdType, revocationTime, organization, retryAttemptCounter);
+    }
+
+    /**
+     * Persist the subject entity revocation rule with the update query, or with the insert query if the rule does not
+     * exist yet.
+     *
+     * @param subjectId           Subject id
+     * @param subjectIdType       Subject id type
+     * @param revocationTime      Revocation time
+     * @param organization        Organization
+     * @param retryAttemptCounter Retry attempt counter
+     * @throws IdentityOAuth2Exception If an error occurs while persisting the rule.
+     */
+    private void persistSubjectEntityRevokedEvent(String subjectId, String subjectIdType, long revocationTime,
+                                                  String organization, int retryAttemptCounter)
+            throws IdentityOAuth2Exception {
+
         try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
             String updateQuery = SQLQueries.UPDATE_SUBJECT_ENTITY_REVOKED_EVENT;
             try (PreparedStatement ps = connection.prepareStatement(updateQuery)) {
@@ -188,7 +1448,7 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                     IdentityDatabaseUtil.rollbackTransaction(connection);
                     String insertQuery = SQLQueries.INSERT_SUBJECT_ENTITY_REVOKED_EVENT;
                     try (PreparedStatement ps1 = connection.prepareStatement(insertQuery)) {
-                        ps1.setString(1, UUID.randomUUID().toString());
+                        ps1.setString(1, generateRowId());
                         ps1.setString(2, subjectId);
                         ps1.setString(3, subjectIdType);
                         ps1.setTimestamp(4, new Timestamp(revocationTime),
@@ -196,6 +1456,7 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                         ps1.setString(5, organization);
                         ps1.execute();
                         IdentityDatabaseUtil.commitTransaction(connection);
+                        invalidateSubjectEntityRevocationCache(subjectId);
                         if (retryAttemptCounter > 0) {
                             log.info("Successfully recovered CON_SUB_EVT_KEY constraint violation with the attempt : "
                                     + retryAttemptCounter);
@@ -234,6 +1495,7 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                 } else {
                     log.debug("User event token revocation rule updated.");
                     IdentityDatabaseUtil.commitTransaction(connection);
+                    invalidateSubjectEntityRevocationCache(subjectId);
                 }
             } catch (SQLException e) {
                 IdentityDatabaseUtil.rollbackTransaction(connection);
@@ -246,6 +1508,34 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * All the rules are upserted in a single transaction when the database supports upserts. Otherwise, or if the
+     * batch fails, the rules are persisted one by one with the update and insert queries.
+     */
+    @Override
+    public void revokeTokensByUserEvents(List<RevocationRule> revocationRules) throws IdentityOAuth2Exception {
+
+        if (revocationRules.isEmpty()) {
+            return;
+        }
+        for (RevocationRule revocationRule : revocationRules) {
+            recordRecentWrite(ReadReplicaRouter.getSubjectEntityKey(revocationRule.getSubjectId()));
+        }
+        if (upsertSubjectEntityRevokedEvents(revocationRules)) {
+            for (RevocationRule revocationRule : revocationRules) {
+                invalidateSubjectEntityRevocationCache(revocationRule.getSubjectId());
+            }
+            return;
+        }
+        // The upsert already failed or is not supported, so it is not retried for each rule.
+        for (RevocationRule revocationRule : revocationRules) {
+            persistSubjectEntityRevokedEvent(revocationRule.getSubjectId(), revocationRule.getSubjectIdType(),
+                    revocationRule.getRevocationTime(), revocationRule.getOrganization(), 0);
+        }
+    }
+
     /**
      * Retry the user event token revocation event persisting transaction on constraint violation exception.
      *
@@ -268,7 +1558,7 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
             log.error("CON_SUB_EVT_KEY constraint violation retry count exceeds the maximum");
             throw new IdentityOAuth2Exception(errorMessage, exception);
         }
-        revokeTokensByUserEvent(subjectId, subjectIdType, revocationTime, organization,
+        persistSubjectEntityRevokedEvent(subjectId, subjectIdType, revocationTime, organization,
                 retryAttemptCounter + 1);
     }
 
@@ -288,6 +1578,11 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                                                int retryAttemptCounter)
             throws IdentityOAuth2Exception {
 
+        recordRecentWrite(ReadReplicaRouter.getConsumerKeyKey(consumerKey));
+        if (retryAttemptCounter == 0 && upsertAppRevokedEvent(consumerKey, revocationTime, organization)) {
+            addToConsumerKeyRevocationSnapshot(consumerKey, revocationTime);
+            return;
+        }
         try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
             String updateQuery = SQLQueries.UPDATE_APP_REVOKED_EVENT;
             try (PreparedStatement ps = connection.prepareStatement(updateQuery)) {
@@ -301,13 +1596,14 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                     IdentityDatabaseUtil.rollbackTransaction(connection);
                     String insertQuery = SQLQueries.INSERT_APP_REVOKED_EVENT;
                     try (PreparedStatement ps1 = connection.prepareStatement(insertQuery)) {
-                        ps1.setString(1, UUID.randomUUID().toString());
+                        ps1.setString(1, generateRowId());
                         ps1.setString(2, consumerKey);
                         ps1.setTimestamp(3, new Timestamp(revocationTime),
                                 Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC)));
                         ps1.setString(4, organization);
                         ps1.execute();
                         IdentityDatabaseUtil.commitTransaction(connection);
+                        addToConsumerKeyRevocationSnapshot(consumerKey, revocationTime);
                         if (retryAttemptCounter > 0) {
                             log.info("Successfully recovered CON_APP_EVT_KEY constraint violation with the attempt : "
                                     + retryAttemptCounter);
@@ -346,6 +1642,7 @@ public class DBInvalidTokenPersistence implements InvalidTokenPersistenceService
                 } else {
                     log.debug("Consumer key event token revocation rule updated.");
                     IdentityDatabaseUtil.commitTransaction(connection);
+                    addToConsumerKeyRevocationSnapshot(consumerKey, revocationTime);
                 }
             } catch (SQLException e) {
                 IdentityDatabaseUtil.rollbackTransaction(connection);
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Cluster wide lock backed by a row of the IDN_TOKEN_PERSISTENCE_LOCK table. The lock is held for a lease period and
+ * taken over by another node if the owner does not renew it before the lease expires, so a node going down never
+ * blocks the others.
+ * <p>
+ * The lock is never acquired while the lock table is not available in the database, unless the deployment is
+ * declared as a single node, in which case the lock is acquired without any locking. The availability of the table is
+ * checked again on each attempt until the table is found.
+ */
+final class DBLeaseLock {
+
+    private static final Log log = LogFactory.getLog(DBLeaseLock.class);
+    private static final String LOCK_TABLE = "IDN_TOKEN_PERSISTENCE_LOCK";
+
+    private final String lockName;
+    private final String owner;
+    private final long leaseInMillis;
+    private final boolean singleNode;
+    private boolean lockTableAvailable;
+
+    /**
+     * Create a lease lock.
+     *
+     * @param lockName      Name of the lock.
+     * @param owner         Identifier of this node used as the lock owner.
+     * @param leaseInMillis Lease of the lock.
+     * @param singleNode    Whether this node is the only node of the deployment, so that the lock can be acquired
+     *                      without the lock table.
+     */
+    DBLeaseLock(String lockName, String owner, long leaseInMillis, boolean singleNode) {
+
+        this.lockName = lockName;
+        this.owner = owner;
+        this.leaseInMillis = leaseInMillis;
+        this.singleNode = singleNode;
+    }
+
+    /**
+     * Acquire the lock, or renew the lease if the lock is already held by this owner.
+     *
+     * @return {@code true} if the lock is held by this owner. If the lock table is not available in the database,
+     * {@code true} is returned without any locking only for a single node deployment.
+     * @throws SQLException If an error occurs while acquiring the lock.
+     */
+    synchronized boolean tryAcquire() throws SQLException {
+
+        if (!isLockTableAvailable()) {
+            if (singleNode) {
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Table: %s is not available in the identity database. Acquiring lock: "
+                            + "%s without locking as the deployment is a single node.", LOCK_TABLE, lockName));
+                }
+                return true;
+            }
+            log.error(String.format("Table: %s is not available in the identity database. Lock: %s is not acquired "
+                    + "until the table is created with the token persistence database scripts.", LOCK_TABLE,
+                    lockName));
+            return false;
+        }
+        long currentTime = System.currentTimeMillis();
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try (PreparedStatement ps = connection.prepareStatement(SQLQueries.ACQUIRE_LOCK)) {
+                ps.setString(1, owner);
+                ps.setLong(2, currentTime + leaseInMillis);
+                ps.setString(3, lockName);
+                ps.setString(4, owner);
+                ps.setLong(5, currentTime);
+                if (ps.executeUpdate() > 0) {
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                    return true;
+                }
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+            }
+            try (PreparedStatement ps = connection.prepareStatement(SQLQueries.INSERT_LOCK)) {
+                ps.setString(1, lockName);
+                ps.setString(2, owner);
+                ps.setLong(3, currentTime + leaseInMillis);
+                ps.executeUpdate();
+                IdentityDatabaseUtil.commitTransaction(connection);
+                return true;
+            } catch (SQLException e) {
+                // The lock row is already created by another node which holds the lock.
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                if (log.isDebugEnabled()) {
+                    log.debug("Lock: " + lockName + " is held by another node.");
+                }
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Release the lock if it is held by this owner.
+     */
+    synchronized void release() {
+
+        if (!lockTableAvailable) {
+            return;
+        }
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true);
+             PreparedStatement ps = connection.prepareStatement(SQLQueries.RELEASE_LOCK)) {
+            ps.setString(1, lockName);
+            ps.setString(2, owner);
+            ps.executeUpdate();
+            IdentityDatabaseUtil.commitTransaction(connection);
+        } catch (SQLException e) {
+            log.warn("Error while releasing the lock: " + lockName + ". The lock is released once the lease "
+                    + "expires.", e);
+        }
+    }
+
+    /**
+     * Check whether the lock table is available. A missing table is checked again on the next call, so that a table
+     * created after the server start is picked up without a restart.
+     */
+    private boolean isLockTableAvailable() throws SQLException {
+
+        if (!lockTableAvailable) {
+            try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
+                DatabaseMetaData metaData = connection.getMetaData();
+                lockTableAvailable = hasTable(metaData, LOCK_TABLE) || hasTable(metaData, LOCK_TABLE.toLowerCase());
+            }
+        }
+        return lockTableAvailable;
+    }
+
+    private static boolean hasTable(DatabaseMetaData metaData, String tableName) throws SQLException {
+
+        try (ResultSet resultSet = metaData.getTables(null, null, tableName, new String[]{"TABLE"})) {
+            return resultSet.next();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Databases supported by the identity database, along with the dialect specific queries used by the token
+ * persistence layer.
+ */
+public enum DatabaseDialect {
+
+    H2(true, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_H2, SQLQueries.UPSERT_APP_REVOKED_EVENT_H2),
+    MYSQL(false, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_MYSQL, SQLQueries.UPSERT_APP_REVOKED_EVENT_MYSQL),
+    POSTGRESQL(false, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_POSTGRESQL,
+            SQLQueries.UPSERT_APP_REVOKED_EVENT_POSTGRESQL),
+    MSSQL(true, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_MSSQL, SQLQueries.UPSERT_APP_REVOKED_EVENT_MSSQL),
+    ORACLE(true, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_ORACLE, SQLQueries.UPSERT_APP_REVOKED_EVENT_ORACLE),
+    DB2(true, SQLQueries.UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_DB2, SQLQueries.UPSERT_APP_REVOKED_EVENT_DB2),
+    UNKNOWN(false, null, null);
+
+    private final boolean mergeStatement;
+    private final String subjectEntityRevokedEventUpsertQuery;
+    private final String appRevokedEventUpsertQuery;
+
+    DatabaseDialect(boolean mergeStatement, String subjectEntityRevokedEventUpsertQuery,
+                    String appRevokedEventUpsertQuery) {
+
+        this.mergeStatement = mergeStatement;
+        this.subjectEntityRevokedEventUpsertQuery = subjectEntityRevokedEventUpsertQuery;
+        this.appRevokedEventUpsertQuery = appRevokedEventUpsertQuery;
+    }
+
+    /**
+     * Resolve the dialect from the metadata of the given connection.
+     *
+     * @param connection Database connection.
+     * @return Database dialect, or {@link #UNKNOWN} if the database is not recognized.
+     * @throws SQLException If an error occurs while reading the connection metadata.
+     */
+    public static DatabaseDialect fromConnection(Connection connection) throws SQLException {
+
+        String productName = connection.getMetaData().getDatabaseProductName();
+        if (StringUtils.containsIgnoreCase(productName, "H2")) {
+            return H2;
+        } else if (StringUtils.containsIgnoreCase(productName, "MySQL")
+                || StringUtils.containsIgnoreCase(productName, "MariaDB")) {
+            return MYSQL;
+        } else if (StringUtils.containsIgnoreCase(productName, "PostgreSQL")) {
+            return POSTGRESQL;
+        } else if (StringUtils.containsIgnoreCase(productName, "Microsoft SQL Server")) {
+            return MSSQL;
+        } else if (StringUtils.containsIgnoreCase(productName, "Oracle")) {
+            return ORACLE;
+        } else if (StringUtils.containsIgnoreCase(productName, "DB2")) {
+            return DB2;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Whether the upsert queries of the dialect are MERGE statements, which take the key columns before the values.
+     *
+     * @return {@code true} if the upsert queries are MERGE statements.
+     */
+    public boolean isMergeStatement() {
+
+        return mergeStatement;
+    }
+
+    public String getSubjectEntityRevokedEventUpsertQuery() {
+
+        return subjectEntityRevokedEventUpsertQuery;
+    }
+
+    public String getAppRevokedEventUpsertQuery() {
+
+        return appRevokedEventUpsertQuery;
+    }
+}
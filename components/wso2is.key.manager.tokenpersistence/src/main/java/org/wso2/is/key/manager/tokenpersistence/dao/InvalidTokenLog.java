@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of invalid tokens and revocation events, kept in a memory-mapped file. Each record is laid out as
+ * the payload length, the record type, the payload and the CRC32 of the type and the payload. The length is written
+ * last, so a record which was not completely written before a crash reads as the end of the log, and records which
+ * fail the checksum are treated the same way during the replay.
+ * <p>
+ * The log is not thread safe and the writes should be serialized by the caller.
+ */
+final class InvalidTokenLog implements Closeable {
+
+    /**
+     * Handler of the records read while replaying the log.
+     */
+    interface RecordHandler {
+
+        void handle(byte type, ByteBuffer payload);
+    }
+
+    static final byte INVALID_TOKEN = 1;
+    static final byte APP_REVOKED_EVENT = 2;
+    static final byte SUBJECT_ENTITY_REVOKED_EVENT = 3;
+    static final int RECORD_OVERHEAD = Integer.BYTES + 1 + Integer.BYTES;
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final Log log = LogFactory.getLog(InvalidTokenLog.class);
+    private static final int MAGIC = 0x49544C47;
+    private static final int VERSION = 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int position;
+
+    private InvalidTokenLog(Path path, FileChannel channel, MappedByteBuffer buffer) {
+
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open the log at the given path, creating it if it does not exist, and replay its records. A log smaller than the
+     * given capacity is extended to it.
+     *
+     * @param path     Path of the log file.
+     * @param capacity Minimum capacity of the log in bytes.
+     * @param handler  Handler of the replayed records.
+     * @return Opened log, positioned after the last complete record.
+     * @throws IOException If the log could not be opened or is not a valid log.
+     */
+    static InvalidTokenLog open(Path path, int capacity, RecordHandler handler) throws IOException {
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long mappedSize = Math.min(Integer.MAX_VALUE, Math.max(capacity, channel.size()));
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            InvalidTokenLog tokenLog = new InvalidTokenLog(path, channel, buffer);
+            tokenLog.replay(handler);
+            return tokenLog;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void replay(RecordHandler handler) throws IOException {
+
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(Integer.BYTES, VERSION);
+            position = HEADER_SIZE;
+            return;
+        }
+        if (magic != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Unrecognized invalid token log format in: " + path);
+        }
+        int offset = HEADER_SIZE;
+        int recordCount = 0;
+        CRC32 crc = new CRC32();
+        while (offset + RECORD_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > buffer.capacity() - offset - RECORD_OVERHEAD) {
+                break;
+            }
+            ByteBuffer record = buffer.duplicate();
+            record.limit(offset + Integer.BYTES + 1 + length).position(offset + Integer.BYTES);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES + 1 + length)) {
+                break;
+            }
+            byte type = record.get();
+            handler.handle(type, record.slice());
+            recordCount++;
+            offset += RECORD_OVERHEAD + length;
+        }
+        position = offset;
+        if (offset + Integer.BYTES <= buffer.capacity() && buffer.getInt(offset) != 0) {
+            // A torn or corrupted record. Clear the rest of the log so that it is not mistaken for records later.
+            log.warn("Discarding the incomplete records at the end of the invalid token log: " + path);
+            for (int i = offset; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Replayed %s records of the invalid token log: %s", recordCount, path));
+        }
+    }
+
+    /**
+     * Append a record to the log.
+     *
+     * @param type    Record type.
+     * @param payload Payload of the record, read from its position to its limit.
+     * @return {@code false} if there is no room left for the record in the log.
+     */
+    boolean append(byte type, ByteBuffer payload) {
+
+        int length = payload.remaining();
+        if (length <= 0 || position + RECORD_OVERHEAD + length > buffer.capacity()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload.duplicate());
+        int offset = position + Integer.BYTES;
+        buffer.put(offset++, type);
+        for (int i = payload.position(); i < payload.limit(); i++) {
+            buffer.put(offset++, payload.get(i));
+        }
+        buffer.putInt(offset, (int) crc.getValue());
+        buffer.putInt(position, length);
+        position += RECORD_OVERHEAD + length;
+        return true;
+    }
+
+    /**
+     * Write the appended records through to the storage device.
+     */
+    void force() {
+
+        buffer.force();
+    }
+
+    int getPosition() {
+
+        return position;
+    }
+
+    int getCapacity() {
+
+        return buffer.capacity();
+    }
+
+    Path getPath() {
+
+        return path;
+    }
+
+    /**
+     * Close the file channel of the log. The mapping itself is released when the buffer is garbage collected.
+     *
+     * @throws IOException If the channel could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+
+        channel.close();
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Task which deletes the expired rows of IDN_INVALID_TOKENS, and of IDN_INVALID_TOKEN_DIGESTS when the hashed storage
+ * format is in use. Rows are deleted in chunks, each in its own transaction,
+ * with a pause between the chunks to limit the load on the database. Only the node holding the purge lock runs the
+ * purge at a time.
+ */
+public class InvalidTokenPurgeTask implements Runnable {
+
+    private static final Log log = LogFactory.getLog(InvalidTokenPurgeTask.class);
+    private static final String LOCK_NAME = "INVALID_TOKEN_PURGE";
+
+    private final int chunkSize;
+    private final long chunkPauseInMillis;
+    private final long expiryGracePeriodInMillis;
+    private final boolean purgeHashedInvalidTokens;
+    private final DBLeaseLock lock;
+    private volatile boolean running = true;
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong totalDeletedRowCount = new AtomicLong();
+    private volatile long lastRunDeletedRowCount;
+    private volatile long lastRunDurationInMillis;
+
+    /**
+     * Create a purge task.
+     *
+     * @param chunkSize                 Maximum number of rows deleted in a transaction.
+     * @param chunkPauseInMillis        Pause between two chunks.
+     * @param expiryGracePeriodInMillis Time a row is kept after its expiry, to tolerate clock skew.
+     * @param lockLeaseInMillis         Lease of the purge lock. This should be longer than a chunk takes to delete.
+     * @param nodeId                    Identifier of this node used as the lock owner.
+     * @param purgeHashedInvalidTokens  Whether the invalid tokens stored in the hashed format are purged as well.
+     * @param singleNode                Whether this node is the only node of the deployment, so that the purge runs
+     *                                  even if the lock table is not available.
+     */
+    InvalidTokenPurgeTask(int chunkSize, long chunkPauseInMillis, long expiryGracePeriodInMillis,
+                          long lockLeaseInMillis, String nodeId, boolean purgeHashedInvalidTokens,
+                          boolean singleNode) {
+
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPauseInMillis = Math.max(0, chunkPauseInMillis);
+        this.expiryGracePeriodInMillis = Math.max(0, expiryGracePeriodInMillis);
+        this.purgeHashedInvalidTokens = purgeHashedInvalidTokens;
+        this.lock = new DBLeaseLock(LOCK_NAME, nodeId, lockLeaseInMillis, singleNode);
+    }
+
+    @Override
+    public void run() {
+
+        try {
+            purge();
+        } catch (IdentityOAuth2Exception e) {
+            log.error("Error while purging the expired invalid tokens.", e);
+        } catch (RuntimeException e) {
+            // Catching the runtime exceptions to keep the scheduled purge alive.
+            log.error("Unexpected error while purging the expired invalid tokens.", e);
+        }
+    }
+
+    /**
+     * Stop the purge which is in progress after the current chunk.
+     */
+    void stop() {
+
+        running = false;
+    }
+
+    /**
+     * Delete the expired invalid tokens if the purge lock could be acquired.
+     *
+     * @throws IdentityOAuth2Exception If an error occurs while deleting the expired invalid tokens.
+     */
+    public void purge() throws IdentityOAuth2Exception {
+
+        try {
+            if (!lock.tryAcquire()) {
+                log.debug("Skipping the invalid token purge as the purge lock is not acquired.");
+                return;
+            }
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while acquiring the invalid token purge lock.", e);
+        }
+        long startTime = System.currentTimeMillis();
+        Timestamp expiryThreshold = new Timestamp(startTime - expiryGracePeriodInMillis);
+        long deletedRowCount = 0;
+        // The plain format is always purged, as it holds the tokens invalidated before a switch to the hashed format.
+        boolean purgingHashedInvalidTokens = false;
+        try {
+            while (running) {
+                int chunkDeletedRowCount = purgingHashedInvalidTokens ? purgeHashedChunk(expiryThreshold)
+                        : purgeChunk(expiryThreshold);
+                deletedRowCount += chunkDeletedRowCount;
+                if (chunkDeletedRowCount < chunkSize) {
+                    if (purgingHashedInvalidTokens || !purgeHashedInvalidTokens) {
+                        break;
+                    }
+                    purgingHashedInvalidTokens = true;
+                }
+                if (chunkPauseInMillis > 0) {
+                    TimeUnit.MILLISECONDS.sleep(chunkPauseInMillis);
+                }
+                // Renew the lease, and stop if the lock was taken over by another node.
+                if (!lock.tryAcquire()) {
+                    log.warn("Invalid token purge lock was taken over by another node. Stopping the purge.");
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            throw new IdentityOAuth2Exception("Error while purging the expired invalid tokens.", e);
+        } finally {
+            lock.release();
+            long duration = System.currentTimeMillis() - startTime;
+            runCount.incrementAndGet();
+            totalDeletedRowCount.addAndGet(deletedRowCount);
+            lastRunDeletedRowCount = deletedRowCount;
+            lastRunDurationInMillis = duration;
+            if (deletedRowCount > 0) {
+                log.info(String.format("Purged %s expired invalid tokens in %sms.", deletedRowCount, duration));
+            } else if (log.isDebugEnabled()) {
+                log.debug(String.format("No expired invalid tokens to purge. Completed in %sms.", duration));
+            }
+        }
+    }
+
+    private int purgeChunk(Timestamp expiryThreshold) throws SQLException {
+
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try {
+                List<String> ids = new ArrayList<>(chunkSize);
+                try (PreparedStatement ps = connection.prepareStatement(SQLQueries.GET_EXPIRED_INVALID_TOKEN_IDS)) {
+                    ps.setMaxRows(chunkSize);
+                    ps.setFetchSize(chunkSize);
+                    ps.setTimestamp(1, expiryThreshold, utcCalendar);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next() && ids.size() < chunkSize) {
+                            ids.add(resultSet.getString(1));
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                    return 0;
+                }
+                try (PreparedStatement ps = connection.prepareStatement(SQLQueries.DELETE_INVALID_TOKEN_BY_ID)) {
+                    for (String id : ids) {
+                        ps.setString(1, id);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+                return ids.size();
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        }
+    }
+
+    private int purgeHashedChunk(Timestamp expiryThreshold) throws SQLException {
+
+        Calendar utcCalendar = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC));
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try {
+                List<byte[]> ids = new ArrayList<>(chunkSize);
+                try (PreparedStatement ps =
+                             connection.prepareStatement(SQLQueries.GET_EXPIRED_INVALID_TOKEN_DIGEST_IDS)) {
+                    ps.setMaxRows(chunkSize);
+                    ps.setFetchSize(chunkSize);
+                    ps.setTimestamp(1, expiryThreshold, utcCalendar);
+                    try (ResultSet resultSet = ps.executeQuery()) {
+                        while (resultSet.next() && ids.size() < chunkSize) {
+                            ids.add(resultSet.getBytes(1));
+                        }
+                    }
+                }
+                if (ids.isEmpty()) {
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                    return 0;
+                }
+                try (PreparedStatement ps = connection.prepareStatement(SQLQueries.DELETE_INVALID_TOKEN_DIGEST_BY_ID)) {
+                    for (byte[] id : ids) {
+                        ps.setBytes(1, id);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+                return ids.size();
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        }
+    }
+
+    public long getRunCount() {
+
+        return runCount.get();
+    }
+
+    public long getTotalDeletedRowCount() {
+
+        return totalDeletedRowCount.get();
+    }
+
+    public long getLastRunDeletedRowCount() {
+
+        return lastRunDeletedRowCount;
+    }
+
+    public long getLastRunDurationInMillis() {
+
+        return lastRunDurationInMillis;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for invalid tokens. Tokens are queued in a bounded buffer and written to the database in batches
+ * by a background thread once the batch size is reached or the oldest queued token waited for the maximum latency.
+ * Queued tokens are kept in a pending set until they are written, so that the node sees its own revocations before
+ * they reach the database. When the buffer is full, the calling thread writes its token together with a batch of the
+ * queued tokens.
+ * <p>
+ * Tokens which are still in the buffer are lost if the node goes down abruptly.
+ */
+final class InvalidTokenWriteBehindQueue {
+
+    private static final Log log = LogFactory.getLog(InvalidTokenWriteBehindQueue.class);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<InvalidToken> buffer;
+    private final Set<InvalidToken> pendingTokens = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final long maxLatencyInMillis;
+    private final BatchWriter writer;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    /**
+     * Writes a batch of invalid tokens to the database in a single transaction.
+     */
+    interface BatchWriter {
+
+        void write(List<InvalidToken> invalidTokens) throws IdentityOAuth2Exception;
+    }
+
+    InvalidTokenWriteBehindQueue(int bufferSize, int batchSize, long maxLatencyInMillis, BatchWriter writer) {
+
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxLatencyInMillis = Math.max(1, maxLatencyInMillis);
+        this.writer = writer;
+        this.flusher = new Thread(this::run, "InvalidTokenWriteBehindFlusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Queue the given invalid token to be written to the database. If the buffer is full, the token is written
+     * synchronously along with a batch of the queued tokens.
+     *
+     * @param invalidToken Invalid token.
+     * @throws IdentityOAuth2Exception If the buffer is full and the token could not be written to the database.
+     */
+    void add(InvalidToken invalidToken) throws IdentityOAuth2Exception {
+
+        pendingTokens.add(invalidToken);
+        if (running && buffer.offer(invalidToken)) {
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalid token write-behind buffer is full. Writing the invalid tokens synchronously.");
+        }
+        List<InvalidToken> batch = new ArrayList<>(batchSize);
+        batch.add(invalidToken);
+        buffer.drainTo(batch, batchSize - 1);
+        IdentityOAuth2Exception error = flush(batch, invalidToken);
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Check whether the given token is queued and not yet written to the database.
+     *
+     * @param token       Token identifier.
+     * @param consumerKey Consumer key of the token.
+     * @return {@code true} if the token is pending to be written.
+     */
+    boolean isPending(String token, String consumerKey) {
+
+        return !pendingTokens.isEmpty() && pendingTokens.contains(new InvalidToken(token, consumerKey, 0));
+    }
+
+    /**
+     * Stop the background flusher and write the remaining tokens synchronously.
+     */
+    void shutdown() {
+
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<InvalidToken> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch, null);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+
+        List<InvalidToken> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                InvalidToken first = buffer.poll(maxLatencyInMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLatencyInMillis);
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    InvalidToken next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted during the shutdown. The tokens in the batch are written below.
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                flush(batch, null);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Write the given batch to the database. If the batch fails, the tokens are written one by one so that a single
+     * bad record does not fail the others. Failed tokens queued by other threads are queued again to be retried.
+     *
+     * @param batch       Batch of invalid tokens.
+     * @param callerToken Token of the calling thread, if the batch is written synchronously.
+     * @return Error of writing the token of the calling thread, if any.
+     */
+    private IdentityOAuth2Exception flush(List<InvalidToken> batch, InvalidToken callerToken) {
+
+        try {
+            writer.write(batch);
+            pendingTokens.removeAll(batch);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Written a batch of %s invalid tokens to the database.", batch.size()));
+            }
+            return null;
+        } catch (IdentityOAuth2Exception | RuntimeException e) {
+            log.warn(String.format("Error while writing a batch of %s invalid tokens. Retrying the tokens one by one.",
+                    batch.size()), e);
+        }
+        IdentityOAuth2Exception callerError = null;
+        for (InvalidToken invalidToken : batch) {
+            try {
+                writer.write(Collections.singletonList(invalidToken));
+                pendingTokens.remove(invalidToken);
+            } catch (IdentityOAuth2Exception | RuntimeException e) {
+                if (invalidToken == callerToken) {
+                    pendingTokens.remove(invalidToken);
+                    callerError = e instanceof IdentityOAuth2Exception ? (IdentityOAuth2Exception) e
+                            : new IdentityOAuth2Exception("Error while writing the invalid token.", e);
+                } else if (!running || !buffer.offer(invalidToken)) {
+                    pendingTokens.remove(invalidToken);
+                    log.error(String.format("Dropping the invalid token of consumer key: %s after a failed write.",
+                            invalidToken.getConsumerKey()), e);
+                }
+            }
+        }
+        return callerError;
+    }
+}
@@ -0,0 +1,466 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.utils.CarbonUtils;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalid token persistence which keeps the invalid tokens and the revocation events in an append-only,
+ * memory-mapped log on the local file system instead of the identity database. It is meant for single node
+ * deployments, as the log is not shared between the nodes.
+ * <p>
+ * Invalid tokens are looked up from an off-heap hash index keyed by the token key digest, and the latest revocation
+ * time of each consumer key and subject entity is held in memory. Both are rebuilt by replaying the log on startup.
+ * Expired invalid tokens are dropped by compacting the log into a new file, which replaces the log atomically, so a
+ * crash during the compaction leaves the previous log intact.
+ */
+public class MappedLogInvalidTokenPersistence implements InvalidTokenPersistenceService {
+
+    private static final Log log = LogFactory.getLog(MappedLogInvalidTokenPersistence.class);
+
+    private static final String EMBEDDED_STORE_ENABLE = "OAuth.TokenPersistence.EmbeddedStore.Enable";
+    private static final String EMBEDDED_STORE_DIRECTORY = "OAuth.TokenPersistence.EmbeddedStore.Directory";
+    private static final String EMBEDDED_STORE_INITIAL_SIZE = "OAuth.TokenPersistence.EmbeddedStore.InitialSizeInMB";
+    private static final String EMBEDDED_STORE_MAX_SIZE = "OAuth.TokenPersistence.EmbeddedStore.MaxSizeInMB";
+    private static final String EMBEDDED_STORE_SYNC_ON_WRITE = "OAuth.TokenPersistence.EmbeddedStore.SyncOnWrite";
+    private static final String EMBEDDED_STORE_COMPACTION_INTERVAL =
+            "OAuth.TokenPersistence.EmbeddedStore.CompactionIntervalInSeconds";
+    private static final String EMBEDDED_STORE_EXPIRY_GRACE_PERIOD =
+            "OAuth.TokenPersistence.EmbeddedStore.ExpiryGracePeriodInSeconds";
+    private static final int DEFAULT_EMBEDDED_STORE_INITIAL_SIZE = 16;
+    private static final int DEFAULT_EMBEDDED_STORE_MAX_SIZE = 1024;
+    private static final long DEFAULT_EMBEDDED_STORE_COMPACTION_INTERVAL = 300;
+    private static final long DEFAULT_EMBEDDED_STORE_EXPIRY_GRACE_PERIOD = 300;
+    private static final String LOG_FILE_NAME = "invalid-tokens.log";
+    private static final String COMPACTED_LOG_FILE_NAME = "invalid-tokens.log.compact";
+    private static final int BYTES_PER_MB = 1024 * 1024;
+    private static final int INVALID_TOKEN_PAYLOAD_SIZE = TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH + Long.BYTES;
+
+    private final Path directory;
+    private final int initialCapacity;
+    private final int maxCapacity;
+    private final boolean syncOnWrite;
+    private final long compactionIntervalInSeconds;
+    private final long expiryGracePeriodInMillis;
+    private final Object writeLock = new Object();
+    private final OffHeapTokenIndex invalidTokenIndex = new OffHeapTokenIndex(0);
+    private final Map<String, RevocationWatermark> appRevocationWatermarks = new ConcurrentHashMap<>();
+    private final Map<String, RevocationWatermark> subjectEntityRevocationWatermarks = new ConcurrentHashMap<>();
+    private InvalidTokenLog tokenLog;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Latest revocation time of a consumer key or a subject entity, along with the details of the latest event which
+     * are written back to the log on compaction.
+     */
+    private static final class RevocationWatermark {
+
+        private final long revocationTime;
+        private final String entityType;
+        private final String organization;
+
+        private RevocationWatermark(long revocationTime, String entityType, String organization) {
+
+            this.revocationTime = revocationTime;
+            this.entityType = entityType;
+            this.organization = organization;
+        }
+    }
+
+    public MappedLogInvalidTokenPersistence() {
+
+        this(StringUtils.isNotBlank(IdentityUtil.getProperty(EMBEDDED_STORE_DIRECTORY))
+                        ? Paths.get(IdentityUtil.getProperty(EMBEDDED_STORE_DIRECTORY).trim())
+                        : Paths.get(CarbonUtils.getCarbonHome(), "repository", "data", "token-persistence"),
+                PersistenceConfigUtil.getIntProperty(EMBEDDED_STORE_INITIAL_SIZE, DEFAULT_EMBEDDED_STORE_INITIAL_SIZE),
+                PersistenceConfigUtil.getIntProperty(EMBEDDED_STORE_MAX_SIZE, DEFAULT_EMBEDDED_STORE_MAX_SIZE),
+                PersistenceConfigUtil.getBooleanProperty(EMBEDDED_STORE_SYNC_ON_WRITE, false),
+                PersistenceConfigUtil.getLongProperty(EMBEDDED_STORE_COMPACTION_INTERVAL,
+                        DEFAULT_EMBEDDED_STORE_COMPACTION_INTERVAL),
+                PersistenceConfigUtil.getLongProperty(EMBEDDED_STORE_EXPIRY_GRACE_PERIOD,
+                        DEFAULT_EMBEDDED_STORE_EXPIRY_GRACE_PERIOD));
+    }
+
+    MappedLogInvalidTokenPersistence(Path directory, int initialSizeInMB, int maxSizeInMB, boolean syncOnWrite,
+                                     long compactionIntervalInSeconds, long expiryGracePeriodInSeconds) {
+
+        this.directory = directory;
+        // A mapped buffer is limited to 2GB.
+        this.maxCapacity = (int) Math.min(Integer.MAX_VALUE, (long) Math.max(1, maxSizeInMB) * BYTES_PER_MB);
+        this.initialCapacity = (int) Math.min(maxCapacity, (long) Math.max(1, initialSizeInMB) * BYTES_PER_MB);
+        this.syncOnWrite = syncOnWrite;
+        this.compactionIntervalInSeconds = compactionIntervalInSeconds;
+        this.expiryGracePeriodInMillis = TimeUnit.SECONDS.toMillis(Math.max(0, expiryGracePeriodInSeconds));
+    }
+
+    /**
+     * Check whether the embedded store is enabled in the configuration.
+     *
+     * @return {@code true} if the invalid tokens should be kept in the embedded store instead of the database.
+     */
+    public static boolean isEnabled() {
+
+        return PersistenceConfigUtil.getBooleanProperty(EMBEDDED_STORE_ENABLE, false);
+    }
+
+    /**
+     * Open the log, rebuild the index by replaying it and schedule the compaction.
+     *
+     * @throws IOException If the log could not be opened.
+     */
+    public void init() throws IOException {
+
+        synchronized (writeLock) {
+            Files.createDirectories(directory);
+            // Left behind by a compaction which did not complete. The log it was compacting is still intact.
+            Files.deleteIfExists(directory.resolve(COMPACTED_LOG_FILE_NAME));
+            long startTime = System.currentTimeMillis();
+            long expiryThreshold = startTime - expiryGracePeriodInMillis;
+            tokenLog = InvalidTokenLog.open(directory.resolve(LOG_FILE_NAME), initialCapacity,
+                    (type, payload) -> replayRecord(type, payload, expiryThreshold));
+            log.info(String.format("Embedded invalid token store loaded with %s invalid tokens, %s consumer key "
+                            + "and %s subject entity revocation events in %sms.", invalidTokenIndex.size(),
+                    appRevocationWatermarks.size(), subjectEntityRevocationWatermarks.size(),
+                    System.currentTimeMillis() - startTime));
+        }
+        if (compactionIntervalInSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "EmbeddedInvalidTokenStoreCompactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::compactIfRequired, compactionIntervalInSeconds,
+                    compactionIntervalInSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop the compaction and flush and close the log.
+     */
+    public void destroy() {
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        synchronized (writeLock) {
+            if (tokenLog != null) {
+                try {
+                    tokenLog.force();
+                    tokenLog.close();
+                } catch (IOException e) {
+                    log.error("Error while closing the embedded invalid token store.", e);
+                }
+                tokenLog = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isInvalidToken(String token, String consumerKey) throws IdentityOAuth2Exception {
+
+        return invalidTokenIndex.contains(TokenDigestUtil.getTokenKeyDigest(token, consumerKey));
+    }
+
+    @Override
+    public void addInvalidToken(String token, String consumerKey, Long expiryTime) throws IdentityOAuth2Exception {
+
+        byte[] key = TokenDigestUtil.getTokenKeyDigest(token, consumerKey);
+        ByteBuffer payload = ByteBuffer.allocate(INVALID_TOKEN_PAYLOAD_SIZE);
+        payload.put(key).putLong(expiryTime);
+        payload.flip();
+        synchronized (writeLock) {
+            append(InvalidTokenLog.INVALID_TOKEN, payload);
+            invalidTokenIndex.put(key, expiryTime);
+        }
+    }
+
+    @Override
+    public boolean isTokenRevokedForConsumerKey(String consumerKey, Date tokenIssuedTime) {
+
+        return isRevokedAfter(appRevocationWatermarks.get(consumerKey), tokenIssuedTime);
+    }
+
+    @Override
+    public boolean isTokenRevokedForSubjectEntity(String entityId, Date tokenIssuedTime) {
+
+        return isRevokedAfter(subjectEntityRevocationWatermarks.get(entityId), tokenIssuedTime);
+    }
+
+    @Override
+    public RevocationStatus checkRevocationStatus(String token, String consumerKey, String entityId,
+                                                  Date tokenIssuedTime) throws IdentityOAuth2Exception {
+
+        // All the checks are in memory, so resolve them all instead of stopping at the first match.
+        return new RevocationStatus(token != null && isInvalidToken(token, consumerKey),
+                isTokenRevokedForConsumerKey(consumerKey, tokenIssuedTime),
+                isTokenRevokedForSubjectEntity(entityId, tokenIssuedTime));
+    }
+
+    @Override
+    public void revokeTokensByUserEvent(String subjectId, String subjectIdType, long revocationTime,
+                                        String organization, int retryAttemptCounter) throws IdentityOAuth2Exception {
+
+        ByteBuffer payload = encodeRevocationEvent(subjectId, revocationTime, subjectIdType, organization);
+        synchronized (writeLock) {
+            append(InvalidTokenLog.SUBJECT_ENTITY_REVOKED_EVENT, payload);
+            updateWatermark(subjectEntityRevocationWatermarks, subjectId,
+                    new RevocationWatermark(revocationTime, subjectIdType, organization));
+        }
+    }
+
+    @Override
+    public void revokeTokensByConsumerKeyEvent(String consumerKey, long revocationTime, String organization,
+                                               int retryAttemptCounter) throws IdentityOAuth2Exception {
+
+        ByteBuffer payload = encodeRevocationEvent(consumerKey, revocationTime, null, organization);
+        synchronized (writeLock) {
+            append(InvalidTokenLog.APP_REVOKED_EVENT, payload);
+            updateWatermark(appRevocationWatermarks, consumerKey,
+                    new RevocationWatermark(revocationTime, null, organization));
+        }
+    }
+
+    /**
+     * Compact the log if at least half of the invalid tokens in it are expired, or if it is more than three quarters
+     * full.
+     */
+    void compactIfRequired() {
+
+        try {
+            synchronized (writeLock) {
+                if (tokenLog == null) {
+                    return;
+                }
+                int expiredCount = invalidTokenIndex.countExpired(System.currentTimeMillis()
+                        - expiryGracePeriodInMillis);
+                boolean mostlyExpired = expiredCount > 0 && expiredCount * 2L >= invalidTokenIndex.size();
+                boolean nearlyFull = tokenLog.getPosition() * 4L > tokenLog.getCapacity() * 3L;
+                if (mostlyExpired || nearlyFull) {
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error while compacting the embedded invalid token store.", e);
+        } catch (RuntimeException e) {
+            // Catching the runtime exceptions to keep the scheduled compaction alive.
+            log.error("Unexpected error while compacting the embedded invalid token store.", e);
+        }
+    }
+
+    /**
+     * Get the number of invalid tokens in the index, including the expired ones which are not yet compacted.
+     *
+     * @return Number of invalid tokens.
+     */
+    public int getInvalidTokenCount() {
+
+        return invalidTokenIndex.size();
+    }
+
+    private void append(byte type, ByteBuffer payload) throws IdentityOAuth2Exception {
+
+        if (tokenLog == null) {
+            throw new IdentityOAuth2Exception("Embedded invalid token store is not initialized.");
+        }
+        try {
+            if (!tokenLog.append(type, payload)) {
+                compact();
+                if (!tokenLog.append(type, payload)) {
+                    throw new IdentityOAuth2Exception("Embedded invalid token store has reached its maximum size of "
+                            + maxCapacity + " bytes.");
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            throw new IdentityOAuth2Exception("Error while writing to the embedded invalid token store.", e);
+        }
+        if (syncOnWrite) {
+            tokenLog.force();
+        }
+    }
+
+    /**
+     * Rewrite the live invalid tokens and the revocation watermarks into a new log, sized to leave room for as many
+     * records again, and replace the current log with it. Should be called while holding the write lock.
+     */
+    private void compact() throws IOException {
+
+        long startTime = System.currentTimeMillis();
+        int removedCount = invalidTokenIndex.removeExpired(startTime - expiryGracePeriodInMillis);
+        long requiredCapacity = InvalidTokenLog.HEADER_SIZE + (long) invalidTokenIndex.size()
+                * (InvalidTokenLog.RECORD_OVERHEAD + INVALID_TOKEN_PAYLOAD_SIZE)
+                + getWatermarkLogSize(appRevocationWatermarks) + getWatermarkLogSize(subjectEntityRevocationWatermarks);
+        if (requiredCapacity > maxCapacity) {
+            throw new IOException("Live records of the embedded invalid token store exceed its maximum size of "
+                    + maxCapacity + " bytes.");
+        }
+        int capacity = (int) Math.min(maxCapacity, Math.max(initialCapacity, requiredCapacity * 2));
+        Path logPath = directory.resolve(LOG_FILE_NAME);
+        Path compactedLogPath = directory.resolve(COMPACTED_LOG_FILE_NAME);
+        Files.deleteIfExists(compactedLogPath);
+        try (InvalidTokenLog compactedLog = InvalidTokenLog.open(compactedLogPath, capacity, (type, payload) -> {
+        })) {
+            invalidTokenIndex.forEach((key, expiryTime) -> {
+                ByteBuffer payload = ByteBuffer.allocate(INVALID_TOKEN_PAYLOAD_SIZE);
+                payload.put(key).putLong(expiryTime);
+                payload.flip();
+                compactedLog.append(InvalidTokenLog.INVALID_TOKEN, payload);
+            });
+            writeWatermarks(compactedLog, InvalidTokenLog.APP_REVOKED_EVENT, appRevocationWatermarks);
+            writeWatermarks(compactedLog, InvalidTokenLog.SUBJECT_ENTITY_REVOKED_EVENT,
+                    subjectEntityRevocationWatermarks);
+            compactedLog.force();
+        }
+        tokenLog.close();
+        Files.move(compactedLogPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tokenLog = InvalidTokenLog.open(logPath, capacity, (type, payload) -> {
+        });
+        log.info(String.format("Compacted the embedded invalid token store in %sms. Removed %s expired invalid "
+                        + "tokens, and %s remain. Log size: %s bytes.", System.currentTimeMillis() - startTime,
+                removedCount, invalidTokenIndex.size(), tokenLog.getCapacity()));
+    }
+
+    private void replayRecord(byte type, ByteBuffer payload, long expiryThreshold) {
+
+        switch (type) {
+            case InvalidTokenLog.INVALID_TOKEN:
+                byte[] key = new byte[TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH];
+                payload.get(key);
+                long expiryTime = payload.getLong();
+                if (expiryTime >= expiryThreshold) {
+                    invalidTokenIndex.put(key, expiryTime);
+                }
+                break;
+            case InvalidTokenLog.APP_REVOKED_EVENT:
+                replayRevocationEvent(appRevocationWatermarks, payload);
+                break;
+            case InvalidTokenLog.SUBJECT_ENTITY_REVOKED_EVENT:
+                replayRevocationEvent(subjectEntityRevocationWatermarks, payload);
+                break;
+            default:
+                log.warn("Skipping unknown record type " + type + " in the embedded invalid token store.");
+                break;
+        }
+    }
+
+    private static void replayRevocationEvent(Map<String, RevocationWatermark> watermarks, ByteBuffer payload) {
+
+        long revocationTime = payload.getLong();
+        String id = readString(payload);
+        String entityType = readString(payload);
+        String organization = readString(payload);
+        updateWatermark(watermarks, id, new RevocationWatermark(revocationTime, entityType, organization));
+    }
+
+    private static void updateWatermark(Map<String, RevocationWatermark> watermarks, String id,
+                                        RevocationWatermark watermark) {
+
+        watermarks.merge(id, watermark,
+                (current, updated) -> updated.revocationTime >= current.revocationTime ? updated : current);
+    }
+
+    private static boolean isRevokedAfter(RevocationWatermark watermark, Date tokenIssuedTime) {
+
+        return watermark != null && watermark.revocationTime > tokenIssuedTime.getTime();
+    }
+
+    private static void writeWatermarks(InvalidTokenLog targetLog, byte type,
+                                        Map<String, RevocationWatermark> watermarks) {
+
+        for (Map.Entry<String, RevocationWatermark> entry : watermarks.entrySet()) {
+            RevocationWatermark watermark = entry.getValue();
+            targetLog.append(type, encodeRevocationEvent(entry.getKey(), watermark.revocationTime,
+                    watermark.entityType, watermark.organization));
+        }
+    }
+
+    private static long getWatermarkLogSize(Map<String, RevocationWatermark> watermarks) {
+
+        long size = 0;
+        for (Map.Entry<String, RevocationWatermark> entry : watermarks.entrySet()) {
+            RevocationWatermark watermark = entry.getValue();
+            size += InvalidTokenLog.RECORD_OVERHEAD + Long.BYTES + getEncodedLength(entry.getKey())
+                    + getEncodedLength(watermark.entityType) + getEncodedLength(watermark.organization);
+        }
+        return size;
+    }
+
+    private static ByteBuffer encodeRevocationEvent(String id, long revocationTime, String entityType,
+                                                    String organization) {
+
+        ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + getEncodedLength(id) + getEncodedLength(entityType)
+                + getEncodedLength(organization));
+        payload.putLong(revocationTime);
+        writeString(payload, id);
+        writeString(payload, entityType);
+        writeString(payload, organization);
+        payload.flip();
+        return payload;
+    }
+
+    private static int getEncodedLength(String value) {
+
+        return Short.BYTES + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+
+        int length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open addressing hash index of the invalid token keys, held in a direct buffer outside the Java heap. Each slot
+ * holds the 16 byte token key digest followed by the expiry time of the token, and slots with a zero expiry time are
+ * empty. As the keys are digests, the first 8 bytes of a key are used as its hash, and collisions are resolved by
+ * linear probing.
+ * <p>
+ * Lookups are lock free optimistic reads which are retried under the read lock if a write happened meanwhile.
+ * Entries are only removed by rebuilding the index without the expired entries.
+ */
+final class OffHeapTokenIndex {
+
+    interface EntryConsumer {
+
+        void accept(byte[] key, long expiryTime);
+    }
+
+    private static final int KEY_LENGTH = TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH;
+    private static final int SLOT_SIZE = KEY_LENGTH + Long.BYTES;
+    private static final int MIN_CAPACITY = 1 << 10;
+    // Largest power of two number of slots which fit in a single buffer.
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Table table;
+    private int size;
+
+    /**
+     * Slots of the index. The buffer is replaced along with its mask when the index is resized or rebuilt.
+     */
+    private static final class Table {
+
+        private final ByteBuffer buffer;
+        private final int mask;
+
+        private Table(int capacity) {
+
+            this.buffer = ByteBuffer.allocateDirect(capacity * SLOT_SIZE);
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+
+            return mask + 1;
+        }
+    }
+
+    OffHeapTokenIndex(int expectedSize) {
+
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Check whether the index contains the given token key.
+     *
+     * @param key Token key digest.
+     * @return {@code true} if the key is in the index, regardless of whether it is expired.
+     */
+    boolean contains(byte[] key) {
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean found = findSlot(table, key) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return findSlot(table, key) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Add a token key to the index, or extend the expiry time of the key if it is already in the index.
+     *
+     * @param key        Token key digest.
+     * @param expiryTime Expiry time of the token.
+     * @throws IllegalStateException If the index is full.
+     */
+    void put(byte[] key, long expiryTime) {
+
+        long storedExpiryTime = Math.max(1, expiryTime);
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int slot = findSlot(current, key);
+            if (slot >= 0) {
+                int offset = slot * SLOT_SIZE + KEY_LENGTH;
+                if (current.buffer.getLong(offset) < storedExpiryTime) {
+                    current.buffer.putLong(offset, storedExpiryTime);
+                }
+                return;
+            }
+            if (size + 1 > current.capacity() * MAX_LOAD_FACTOR) {
+                if (current.capacity() >= MAX_CAPACITY) {
+                    throw new IllegalStateException("Invalid token index is full with " + size + " entries.");
+                }
+                current = rehash(current, current.capacity() << 1, Long.MIN_VALUE);
+                table = current;
+            }
+            insert(current, key, storedExpiryTime);
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Rebuild the index without the entries which expired before the given time. The index is shrunk if it holds
+     * far less entries than its capacity afterwards.
+     *
+     * @param expiryThreshold Entries expiring before this time are removed.
+     * @return Number of removed entries.
+     */
+    int removeExpired(long expiryThreshold) {
+
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            int liveSize = 0;
+            for (int slot = 0; slot < current.capacity(); slot++) {
+                long expiryTime = current.buffer.getLong(slot * SLOT_SIZE + KEY_LENGTH);
+                if (expiryTime != 0 && expiryTime >= expiryThreshold) {
+                    liveSize++;
+                }
+            }
+            int removed = size - liveSize;
+            if (removed > 0) {
+                table = rehash(current, capacityFor(liveSize), expiryThreshold);
+                size = liveSize;
+            }
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Count the entries which expired before the given time.
+     *
+     * @param expiryThreshold Expiry time threshold.
+     * @return Number of expired entries.
+     */
+    int countExpired(long expiryThreshold) {
+
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            int expired = 0;
+            for (int slot = 0; slot < current.capacity(); slot++) {
+                long expiryTime = current.buffer.getLong(slot * SLOT_SIZE + KEY_LENGTH);
+                if (expiryTime != 0 && expiryTime < expiryThreshold) {
+                    expired++;
+                }
+            }
+            return expired;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Pass each entry of the index to the given consumer, while holding off the writes.
+     *
+     * @param consumer Entry consumer.
+     */
+    void forEach(EntryConsumer consumer) {
+
+        long stamp = lock.readLock();
+        try {
+            Table current = table;
+            for (int slot = 0; slot < current.capacity(); slot++) {
+                int offset = slot * SLOT_SIZE;
+                long expiryTime = current.buffer.getLong(offset + KEY_LENGTH);
+                if (expiryTime != 0) {
+                    byte[] key = new byte[KEY_LENGTH];
+                    for (int i = 0; i < KEY_LENGTH; i++) {
+                        key[i] = current.buffer.get(offset + i);
+                    }
+                    consumer.accept(key, expiryTime);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int size() {
+
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Get the number of bytes held outside the heap by the index.
+     *
+     * @return Size of the index buffer in bytes.
+     */
+    long getOffHeapSize() {
+
+        return (long) table.capacity() * SLOT_SIZE;
+    }
+
+    private static int findSlot(Table table, byte[] key) {
+
+        ByteBuffer buffer = table.buffer;
+        long high = getLong(key, 0);
+        long low = getLong(key, Long.BYTES);
+        int slot = hash(high) & table.mask;
+        // The load factor guarantees an empty slot, which ends the probe.
+        while (true) {
+            int offset = slot * SLOT_SIZE;
+            if (buffer.getLong(offset + KEY_LENGTH) == 0) {
+                return -1;
+            }
+            if (buffer.getLong(offset) == high && buffer.getLong(offset + Long.BYTES) == low) {
+                return slot;
+            }
+            slot = (slot + 1) & table.mask;
+        }
+    }
+
+    private static void insert(Table table, byte[] key, long expiryTime) {
+
+        long high = getLong(key, 0);
+        int slot = hash(high) & table.mask;
+        while (table.buffer.getLong(slot * SLOT_SIZE + KEY_LENGTH) != 0) {
+            slot = (slot + 1) & table.mask;
+        }
+        int offset = slot * SLOT_SIZE;
+        table.buffer.putLong(offset, high);
+        table.buffer.putLong(offset + Long.BYTES, getLong(key, Long.BYTES));
+        // Written last, as a non zero expiry time marks the slot as used.
+        table.buffer.putLong(offset + KEY_LENGTH, expiryTime);
+    }
+
+    private static Table rehash(Table source, int capacity, long expiryThreshold) {
+
+        Table target = new Table(capacity);
+        byte[] key = new byte[KEY_LENGTH];
+        for (int slot = 0; slot < source.capacity(); slot++) {
+            int offset = slot * SLOT_SIZE;
+            long expiryTime = source.buffer.getLong(offset + KEY_LENGTH);
+            if (expiryTime != 0 && expiryTime >= expiryThreshold) {
+                for (int i = 0; i < KEY_LENGTH; i++) {
+                    key[i] = source.buffer.get(offset + i);
+                }
+                insert(target, key, expiryTime);
+            }
+        }
+        return target;
+    }
+
+    private static int capacityFor(int expectedSize) {
+
+        long capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity * MAX_LOAD_FACTOR < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return (int) capacity;
+    }
+
+    private static int hash(long high) {
+
+        return (int) (high ^ (high >>> 32));
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+
+        long value = 0;
+        for (int i = offset; i < offset + Long.BYTES; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
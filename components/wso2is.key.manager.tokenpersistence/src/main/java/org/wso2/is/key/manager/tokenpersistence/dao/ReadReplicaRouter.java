@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes the read only revocation lookups to a read replica of the identity database. As the replica may lag behind
+ * the primary, the keys written through this node are tracked for the lag guard window, and the lookups of those
+ * keys are routed to the primary until the window elapses. If more keys are written within the window than can be
+ * tracked, all the lookups are routed to the primary for the window.
+ * <p>
+ * Only the writes made through this node are tracked. A revocation made through another node is read from the
+ * replica, and hence is not seen by this node for as long as the replica lags behind the primary.
+ */
+final class ReadReplicaRouter {
+
+    private static final Log log = LogFactory.getLog(ReadReplicaRouter.class);
+    private static final String INVALID_TOKEN_KEY_PREFIX = "T:";
+    private static final String CONSUMER_KEY_PREFIX = "A:";
+    private static final String SUBJECT_ENTITY_KEY_PREFIX = "S:";
+
+    private final DataSource readDataSource;
+    private final long lagGuardWindowInMillis;
+    private final int maxTrackedWrites;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private volatile long primaryOnlyUntil;
+
+    ReadReplicaRouter(DataSource readDataSource, long lagGuardWindowInMillis, int maxTrackedWrites) {
+
+        this.readDataSource = readDataSource;
+        this.lagGuardWindowInMillis = lagGuardWindowInMillis;
+        this.maxTrackedWrites = Math.max(1, maxTrackedWrites);
+    }
+
+    static String getInvalidTokenKey(String token, String consumerKey) {
+
+        return INVALID_TOKEN_KEY_PREFIX + consumerKey + ":" + token;
+    }
+
+    static String getConsumerKeyKey(String consumerKey) {
+
+        return CONSUMER_KEY_PREFIX + consumerKey;
+    }
+
+    static String getSubjectEntityKey(String entityId) {
+
+        return SUBJECT_ENTITY_KEY_PREFIX + entityId;
+    }
+
+    /**
+     * Record a write of the given key through this node, which starts the lag guard window of the key.
+     *
+     * @param key Key built with one of the key builders of this class.
+     */
+    void recordWrite(String key) {
+
+        long now = System.currentTimeMillis();
+        recentWrites.put(key, now);
+        if (recentWrites.size() > maxTrackedWrites && evicting.compareAndSet(false, true)) {
+            try {
+                removeElapsedWrites(now);
+                if (recentWrites.size() > maxTrackedWrites) {
+                    primaryOnlyUntil = now + lagGuardWindowInMillis;
+                    recentWrites.clear();
+                    log.warn("Too many writes to track within the read replica lag guard window. Routing all the "
+                            + "revocation lookups to the primary database for the window.");
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * Get a connection for a read only lookup of the given keys. The connection is taken from the primary if any of
+     * the keys was written within the lag guard window, or if the replica is not reachable.
+     *
+     * @param keys Keys read by the lookup.
+     * @return Connection to the replica or to the primary.
+     * @throws SQLException If a connection to the primary could not be obtained.
+     */
+    Connection getReadConnection(String... keys) throws SQLException {
+
+        if (isRecentlyWritten(keys)) {
+            return IdentityDatabaseUtil.getDBConnection(false);
+        }
+        try {
+            return readDataSource.getConnection();
+        } catch (SQLException e) {
+            log.warn("Error while connecting to the read replica. Reading from the primary database.", e);
+            return IdentityDatabaseUtil.getDBConnection(false);
+        }
+    }
+
+    private boolean isRecentlyWritten(String... keys) {
+
+        long now = System.currentTimeMillis();
+        if (now < primaryOnlyUntil) {
+            return true;
+        }
+        for (String key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Long writeTime = recentWrites.get(key);
+            if (writeTime != null) {
+                if (now - writeTime < lagGuardWindowInMillis) {
+                    return true;
+                }
+                recentWrites.remove(key, writeTime);
+            }
+        }
+        return false;
+    }
+
+    private void removeElapsedWrites(long now) {
+
+        Iterator<Map.Entry<String, Long>> iterator = recentWrites.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() >= lagGuardWindowInMillis) {
+                iterator.remove();
+            }
+        }
+    }
+}
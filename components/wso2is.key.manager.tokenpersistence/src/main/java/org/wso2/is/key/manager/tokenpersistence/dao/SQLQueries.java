@@ -27,16 +27,111 @@ public class SQLQueries {
             + "CONSUMER_KEY = ? ";
     public static final String INSERT_INVALID_TOKEN = "INSERT INTO IDN_INVALID_TOKENS (UUID, TOKEN_IDENTIFIER, "
             + "CONSUMER_KEY, EXPIRY_TIMESTAMP) VALUES (?,?,?,?)";
+    public static final String COUNT_INVALID_TOKENS_EXPIRING_AFTER = "SELECT COUNT(*) FROM IDN_INVALID_TOKENS "
+            + "WHERE EXPIRY_TIMESTAMP > ?";
+    public static final String GET_INVALID_TOKENS_EXPIRING_AFTER = "SELECT TOKEN_IDENTIFIER, CONSUMER_KEY "
+            + "FROM IDN_INVALID_TOKENS WHERE EXPIRY_TIMESTAMP > ?";
     public static final String IS_APP_REVOKED_EVENT = "SELECT 1 "
             + "FROM IDN_APP_REVOKED_EVENT WHERE CONSUMER_KEY = ? AND TIME_REVOKED >= ?";
+    public static final String GET_APP_REVOKED_EVENTS = "SELECT CONSUMER_KEY, TIME_REVOKED "
+            + "FROM IDN_APP_REVOKED_EVENT";
+    public static final String GET_APP_REVOKED_EVENTS_AFTER = "SELECT CONSUMER_KEY, TIME_REVOKED "
+            + "FROM IDN_APP_REVOKED_EVENT WHERE TIME_REVOKED > ?";
     public static final String INSERT_APP_REVOKED_EVENT = "INSERT INTO IDN_APP_REVOKED_EVENT "
             + "(EVENT_ID, CONSUMER_KEY, TIME_REVOKED, ORGANIZATION) VALUES (?, ?, ?, ?)";
     public static final String UPDATE_APP_REVOKED_EVENT = "UPDATE IDN_APP_REVOKED_EVENT "
             + "SET TIME_REVOKED = ? WHERE CONSUMER_KEY = ? AND ORGANIZATION = ?";
     public static final String IS_SUBJECT_ENTITY_REVOKED_EVENT = "SELECT 1 "
             + "FROM IDN_SUBJECT_ENTITY_REVOKED_EVENT WHERE ENTITY_ID = ? AND TIME_REVOKED >= ?";
+    public static final String IS_INVALID_TOKEN_DIGEST = "SELECT 1 FROM IDN_INVALID_TOKEN_DIGESTS WHERE TOKEN_KEY = ?";
+    public static final String INSERT_INVALID_TOKEN_DIGEST = "INSERT INTO IDN_INVALID_TOKEN_DIGESTS (ID, TOKEN_KEY, "
+            + "EXPIRY_TIMESTAMP) VALUES (?, ?, ?)";
+    public static final String COUNT_INVALID_TOKEN_DIGESTS_EXPIRING_AFTER = "SELECT COUNT(*) "
+            + "FROM IDN_INVALID_TOKEN_DIGESTS WHERE EXPIRY_TIMESTAMP > ?";
+    public static final String GET_INVALID_TOKEN_DIGESTS_EXPIRING_AFTER = "SELECT TOKEN_KEY "
+            + "FROM IDN_INVALID_TOKEN_DIGESTS WHERE EXPIRY_TIMESTAMP > ?";
+    public static final String GET_EXPIRED_INVALID_TOKEN_DIGEST_IDS = "SELECT ID FROM IDN_INVALID_TOKEN_DIGESTS "
+            + "WHERE EXPIRY_TIMESTAMP < ?";
+    public static final String DELETE_INVALID_TOKEN_DIGEST_BY_ID = "DELETE FROM IDN_INVALID_TOKEN_DIGESTS WHERE ID = ?";
+    public static final String REVOCATION_STATUS_UNION = " UNION ALL ";
+    public static final String REVOCATION_STATUS_INVALID_TOKEN_DIGEST = "SELECT 1 AS REVOCATION_TYPE "
+            + "FROM IDN_INVALID_TOKEN_DIGESTS WHERE TOKEN_KEY = ?";
+    public static final String REVOCATION_STATUS_INVALID_TOKEN = "SELECT 1 AS REVOCATION_TYPE FROM IDN_INVALID_TOKENS "
+            + "WHERE TOKEN_IDENTIFIER = ? AND CONSUMER_KEY = ?";
+    public static final String REVOCATION_STATUS_APP_REVOKED_EVENT = "SELECT 2 AS REVOCATION_TYPE "
+            + "FROM IDN_APP_REVOKED_EVENT WHERE CONSUMER_KEY = ? AND TIME_REVOKED >= ?";
+    public static final String REVOCATION_STATUS_SUBJECT_ENTITY_REVOKED_EVENT = "SELECT 3 AS REVOCATION_TYPE "
+            + "FROM IDN_SUBJECT_ENTITY_REVOKED_EVENT WHERE ENTITY_ID = ? AND TIME_REVOKED >= ?";
+    public static final String GET_LATEST_SUBJECT_ENTITY_REVOKED_TIME = "SELECT MAX(TIME_REVOKED) "
+            + "FROM IDN_SUBJECT_ENTITY_REVOKED_EVENT WHERE ENTITY_ID = ?";
+    public static final String IN_LIST_PLACEHOLDER = "$IN_LIST";
+    public static final String GET_INVALID_TOKENS_IN = "SELECT TOKEN_IDENTIFIER, CONSUMER_KEY FROM IDN_INVALID_TOKENS "
+            + "WHERE TOKEN_IDENTIFIER IN (" + IN_LIST_PLACEHOLDER + ")";
+    public static final String GET_INVALID_TOKEN_DIGESTS_IN = "SELECT TOKEN_KEY FROM IDN_INVALID_TOKEN_DIGESTS "
+            + "WHERE TOKEN_KEY IN (" + IN_LIST_PLACEHOLDER + ")";
+    public static final String GET_LATEST_APP_REVOKED_TIMES_IN = "SELECT CONSUMER_KEY, MAX(TIME_REVOKED) "
+            + "FROM IDN_APP_REVOKED_EVENT WHERE CONSUMER_KEY IN (" + IN_LIST_PLACEHOLDER + ") GROUP BY CONSUMER_KEY";
+    public static final String GET_LATEST_SUBJECT_ENTITY_REVOKED_TIMES_IN = "SELECT ENTITY_ID, MAX(TIME_REVOKED) "
+            + "FROM IDN_SUBJECT_ENTITY_REVOKED_EVENT WHERE ENTITY_ID IN (" + IN_LIST_PLACEHOLDER + ") "
+            + "GROUP BY ENTITY_ID";
     public static final String INSERT_SUBJECT_ENTITY_REVOKED_EVENT = "INSERT INTO IDN_SUBJECT_ENTITY_REVOKED_EVENT "
             + "(EVENT_ID, ENTITY_ID, ENTITY_TYPE, TIME_REVOKED, ORGANIZATION) VALUES (?, ?, ?, ?, ?)";
     public static final String UPDATE_SUBJECT_ENTITY_REVOKED_EVENT = "UPDATE IDN_SUBJECT_ENTITY_REVOKED_EVENT "
             + "SET TIME_REVOKED = ? WHERE ENTITY_ID = ? AND ENTITY_TYPE = ? AND ORGANIZATION = ?";
+    public static final String GET_EXPIRED_INVALID_TOKEN_IDS = "SELECT UUID FROM IDN_INVALID_TOKENS "
+            + "WHERE EXPIRY_TIMESTAMP < ?";
+    public static final String DELETE_INVALID_TOKEN_BY_ID = "DELETE FROM IDN_INVALID_TOKENS WHERE UUID = ?";
+    public static final String ACQUIRE_LOCK = "UPDATE IDN_TOKEN_PERSISTENCE_LOCK SET LOCK_OWNER = ?, "
+            + "LEASE_EXPIRY_TIME = ? WHERE LOCK_NAME = ? AND (LOCK_OWNER = ? OR LEASE_EXPIRY_TIME < ?)";
+    public static final String INSERT_LOCK = "INSERT INTO IDN_TOKEN_PERSISTENCE_LOCK (LOCK_NAME, LOCK_OWNER, "
+            + "LEASE_EXPIRY_TIME) VALUES (?, ?, ?)";
+    public static final String RELEASE_LOCK = "UPDATE IDN_TOKEN_PERSISTENCE_LOCK SET LEASE_EXPIRY_TIME = 0 "
+            + "WHERE LOCK_NAME = ? AND LOCK_OWNER = ?";
+
+    /*
+     * Upsert queries of the revocation events. The MERGE statements take the key columns, the revocation time to
+     * update, the event id and the revocation time to insert. The other statements take the same parameters as the
+     * insert queries.
+     */
+    private static final String MERGE_SUBJECT_ENTITY_REVOKED_EVENT_CONDITION = " ON (T.ENTITY_ID = S.ENTITY_ID "
+            + "AND T.ENTITY_TYPE = S.ENTITY_TYPE AND T.ORGANIZATION = S.ORGANIZATION) "
+            + "WHEN MATCHED THEN UPDATE SET TIME_REVOKED = ? "
+            + "WHEN NOT MATCHED THEN INSERT (EVENT_ID, ENTITY_ID, ENTITY_TYPE, TIME_REVOKED, ORGANIZATION) "
+            + "VALUES (?, S.ENTITY_ID, S.ENTITY_TYPE, ?, S.ORGANIZATION)";
+    private static final String MERGE_APP_REVOKED_EVENT_CONDITION = " ON (T.CONSUMER_KEY = S.CONSUMER_KEY "
+            + "AND T.ORGANIZATION = S.ORGANIZATION) "
+            + "WHEN MATCHED THEN UPDATE SET TIME_REVOKED = ? "
+            + "WHEN NOT MATCHED THEN INSERT (EVENT_ID, CONSUMER_KEY, TIME_REVOKED, ORGANIZATION) "
+            + "VALUES (?, S.CONSUMER_KEY, ?, S.ORGANIZATION)";
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_H2 = "MERGE INTO IDN_SUBJECT_ENTITY_REVOKED_EVENT T "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS ENTITY_ID, CAST(? AS VARCHAR(255)) AS ENTITY_TYPE, "
+            + "CAST(? AS VARCHAR(255)) AS ORGANIZATION) S" + MERGE_SUBJECT_ENTITY_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_ORACLE = "MERGE INTO "
+            + "IDN_SUBJECT_ENTITY_REVOKED_EVENT T USING (SELECT ? AS ENTITY_ID, ? AS ENTITY_TYPE, ? AS ORGANIZATION "
+            + "FROM DUAL) S" + MERGE_SUBJECT_ENTITY_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_MSSQL = "MERGE INTO "
+            + "IDN_SUBJECT_ENTITY_REVOKED_EVENT WITH (HOLDLOCK) T USING (VALUES (?, ?, ?)) "
+            + "AS S (ENTITY_ID, ENTITY_TYPE, ORGANIZATION)" + MERGE_SUBJECT_ENTITY_REVOKED_EVENT_CONDITION + ";";
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_DB2 = "MERGE INTO "
+            + "IDN_SUBJECT_ENTITY_REVOKED_EVENT T USING (VALUES (CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) "
+            + "AS S (ENTITY_ID, ENTITY_TYPE, ORGANIZATION)" + MERGE_SUBJECT_ENTITY_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_POSTGRESQL = INSERT_SUBJECT_ENTITY_REVOKED_EVENT
+            + " ON CONFLICT (ENTITY_ID, ENTITY_TYPE, ORGANIZATION) DO UPDATE SET TIME_REVOKED = EXCLUDED.TIME_REVOKED";
+    public static final String UPSERT_SUBJECT_ENTITY_REVOKED_EVENT_MYSQL = INSERT_SUBJECT_ENTITY_REVOKED_EVENT
+            + " ON DUPLICATE KEY UPDATE TIME_REVOKED = VALUES(TIME_REVOKED)";
+    public static final String UPSERT_APP_REVOKED_EVENT_H2 = "MERGE INTO IDN_APP_REVOKED_EVENT T "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS CONSUMER_KEY, CAST(? AS VARCHAR(255)) AS ORGANIZATION) S"
+            + MERGE_APP_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_APP_REVOKED_EVENT_ORACLE = "MERGE INTO IDN_APP_REVOKED_EVENT T "
+            + "USING (SELECT ? AS CONSUMER_KEY, ? AS ORGANIZATION FROM DUAL) S" + MERGE_APP_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_APP_REVOKED_EVENT_MSSQL = "MERGE INTO IDN_APP_REVOKED_EVENT WITH (HOLDLOCK) T "
+            + "USING (VALUES (?, ?)) AS S (CONSUMER_KEY, ORGANIZATION)" + MERGE_APP_REVOKED_EVENT_CONDITION + ";";
+    public static final String UPSERT_APP_REVOKED_EVENT_DB2 = "MERGE INTO IDN_APP_REVOKED_EVENT T "
+            + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) AS S (CONSUMER_KEY, ORGANIZATION)"
+            + MERGE_APP_REVOKED_EVENT_CONDITION;
+    public static final String UPSERT_APP_REVOKED_EVENT_POSTGRESQL = INSERT_APP_REVOKED_EVENT
+            + " ON CONFLICT (CONSUMER_KEY, ORGANIZATION) DO UPDATE SET TIME_REVOKED = EXCLUDED.TIME_REVOKED";
+    public static final String UPSERT_APP_REVOKED_EVENT_MYSQL = INSERT_APP_REVOKED_EVENT
+            + " ON DUPLICATE KEY UPDATE TIME_REVOKED = VALUES(TIME_REVOKED)";
 }
@@ -22,18 +22,44 @@ import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
 import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAOImpl;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.is.key.manager.tokenpersistence.dao.DBInvalidTokenPersistence;
+import org.wso2.is.key.manager.tokenpersistence.model.IdentifierGenerator;
 import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.utils.TimeOrderedIdGenerator;
 import org.wso2.is.notification.NotificationEventSenderService;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Holder class to hold service references used in non-token persistence.
  */
 public class ServiceReferenceHolder {
     private static final ServiceReferenceHolder instance = new ServiceReferenceHolder();
     private RealmService realmService;
-    private InvalidTokenPersistenceService tokenPersistenceService;
+    // Effective invalid token persistence service, read on every token validation without locking.
+    private volatile InvalidTokenPersistenceService tokenPersistenceService;
+    private InvalidTokenPersistenceService configuredTokenPersistenceService;
+    private final List<RankedTokenPersistenceService> registeredTokenPersistenceServices = new ArrayList<>();
     private AccessTokenDAO migratedAccessTokenDAO;
     private NotificationEventSenderService eventSenderService;
+    private final IdentifierGenerator defaultIdentifierGenerator = new TimeOrderedIdGenerator();
+    // Identifier generator registered in the OSGi service registry, read for every issued token without locking.
+    private volatile IdentifierGenerator identifierGenerator;
+
+    /**
+     * Invalid token persistence service registered in the OSGi service registry, along with its service ranking.
+     */
+    private static final class RankedTokenPersistenceService {
+
+        private final InvalidTokenPersistenceService service;
+        private final int ranking;
+
+        private RankedTokenPersistenceService(InvalidTokenPersistenceService service, int ranking) {
+
+            this.service = service;
+            this.ranking = ranking;
+        }
+    }
 
     private ServiceReferenceHolder() {
 
@@ -54,18 +80,57 @@ public class ServiceReferenceHolder {
         return realmService;
     }
 
-    public synchronized InvalidTokenPersistenceService getInvalidTokenPersistenceService() {
+    /**
+     * Get the invalid token persistence service. The highest ranked service registered in the OSGi service registry
+     * takes precedence over the configured service, which in turn takes precedence over the database backed service.
+     *
+     * @return Invalid token persistence service.
+     */
+    public InvalidTokenPersistenceService getInvalidTokenPersistenceService() {
 
-        if (tokenPersistenceService == null) {
-            tokenPersistenceService = DBInvalidTokenPersistence.getInstance();
-        }
-        return tokenPersistenceService;
+        InvalidTokenPersistenceService service = tokenPersistenceService;
+        return service != null ? service : DBInvalidTokenPersistence.getInstance();
     }
 
     public synchronized void setInvalidTokenPersistenceService(
             InvalidTokenPersistenceService invalidTokenPersistenceService) {
 
-        tokenPersistenceService = invalidTokenPersistenceService;
+        configuredTokenPersistenceService = invalidTokenPersistenceService;
+        refreshInvalidTokenPersistenceService();
+    }
+
+    /**
+     * Add or re-rank an invalid token persistence service registered in the OSGi service registry.
+     *
+     * @param invalidTokenPersistenceService Registered service.
+     * @param ranking                        Service ranking of the registered service.
+     */
+    public synchronized void addInvalidTokenPersistenceService(
+            InvalidTokenPersistenceService invalidTokenPersistenceService, int ranking) {
+
+        registeredTokenPersistenceServices.removeIf(registered -> registered.service == invalidTokenPersistenceService);
+        registeredTokenPersistenceServices.add(
+                new RankedTokenPersistenceService(invalidTokenPersistenceService, ranking));
+        refreshInvalidTokenPersistenceService();
+    }
+
+    public synchronized void removeInvalidTokenPersistenceService(
+            InvalidTokenPersistenceService invalidTokenPersistenceService) {
+
+        registeredTokenPersistenceServices.removeIf(registered -> registered.service == invalidTokenPersistenceService);
+        refreshInvalidTokenPersistenceService();
+    }
+
+    private void refreshInvalidTokenPersistenceService() {
+
+        RankedTokenPersistenceService highestRanked = null;
+        for (RankedTokenPersistenceService registered : registeredTokenPersistenceServices) {
+            // On equal rankings, the service registered first is kept as in the OSGi service ordering.
+            if (highestRanked == null || registered.ranking > highestRanked.ranking) {
+                highestRanked = registered;
+            }
+        }
+        tokenPersistenceService = highestRanked != null ? highestRanked.service : configuredTokenPersistenceService;
     }
 
     public AccessTokenDAO getMigratedAccessTokenDAO() {
@@ -90,4 +155,21 @@ public class ServiceReferenceHolder {
 
         this.eventSenderService = eventSenderService;
     }
+
+    /**
+     * Get the generator of the JWT IDs and of the persisted row identifiers. The generator registered in the OSGi
+     * service registry takes precedence over the default generator of time ordered identifiers.
+     *
+     * @return Identifier generator.
+     */
+    public IdentifierGenerator getIdentifierGenerator() {
+
+        IdentifierGenerator generator = identifierGenerator;
+        return generator != null ? generator : defaultIdentifierGenerator;
+    }
+
+    public void setIdentifierGenerator(IdentifierGenerator identifierGenerator) {
+
+        this.identifierGenerator = identifierGenerator;
+    }
 }
@@ -19,6 +19,7 @@ package org.wso2.is.key.manager.tokenpersistence.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -26,6 +27,7 @@ import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
 import org.wso2.carbon.identity.core.util.IdentityCoreInitializedEvent;
 import org.wso2.carbon.identity.oauth.listener.OAuthApplicationMgtListener;
 import org.wso2.carbon.identity.oauth.tokenprocessor.OAuth2RevocationProcessor;
@@ -33,14 +35,29 @@ import org.wso2.carbon.identity.oauth.tokenprocessor.RefreshTokenGrantProcessor;
 import org.wso2.carbon.identity.oauth.tokenprocessor.TokenProvider;
 import org.wso2.carbon.identity.oauth2.dao.AccessTokenDAO;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
+import org.wso2.carbon.idp.mgt.listener.IdentityProviderMgtListener;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.is.key.manager.tokenpersistence.dao.DBInvalidTokenPersistence;
 import org.wso2.is.key.manager.tokenpersistence.dao.ExtendedAccessTokenDAOImpl;
+import org.wso2.is.key.manager.tokenpersistence.dao.MappedLogInvalidTokenPersistence;
 import org.wso2.is.key.manager.tokenpersistence.listner.APIMOAuthApplicationMgtListener;
+import org.wso2.is.key.manager.tokenpersistence.listner.AuthenticatedUserCacheUserOperationEventListener;
+import org.wso2.is.key.manager.tokenpersistence.listner.SignatureVerifierCacheIdPMgtListener;
+import org.wso2.is.key.manager.tokenpersistence.model.BatchTokenValidationService;
+import org.wso2.is.key.manager.tokenpersistence.model.IdentifierGenerator;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage;
 import org.wso2.is.key.manager.tokenpersistence.processor.InMemoryOAuth2RevocationProcessor;
 import org.wso2.is.key.manager.tokenpersistence.processor.InMemoryRefreshTokenGrantProcessor;
 import org.wso2.is.key.manager.tokenpersistence.processor.InMemoryTokenProvider;
+import org.wso2.is.key.manager.tokenpersistence.processor.TokenValidationPipeline;
+import org.wso2.is.key.manager.tokenpersistence.utils.ConcurrentRevocationChecker;
 import org.wso2.is.notification.NotificationEventSenderService;
 
+import java.io.IOException;
+import java.util.Map;
+
 /**
  * KeyManager persistence component to handle non-token persistence.
  */
@@ -51,6 +68,8 @@ import org.wso2.is.notification.NotificationEventSenderService;
 public class TokenPersistenceServiceComponent {
 
     private static final Log log = LogFactory.getLog(TokenPersistenceServiceComponent.class);
+    private MappedLogInvalidTokenPersistence embeddedInvalidTokenStore;
+    private InMemoryTokenProvider tokenProvider;
 
     @Activate
     protected void activate(ComponentContext cxt) {
@@ -63,15 +82,51 @@ public class TokenPersistenceServiceComponent {
                     new InMemoryOAuth2RevocationProcessor(), null);
             cxt.getBundleContext().registerService(RefreshTokenGrantProcessor.class,
                     new InMemoryRefreshTokenGrantProcessor(), null);
-            cxt.getBundleContext().registerService(TokenProvider.class, new InMemoryTokenProvider(), null);
+            tokenProvider = new InMemoryTokenProvider();
+            cxt.getBundleContext().registerService(TokenProvider.class, tokenProvider, null);
+            cxt.getBundleContext().registerService(BatchTokenValidationService.class, tokenProvider, null);
             cxt.getBundleContext().registerService(OAuthApplicationMgtListener.class,
                     new APIMOAuthApplicationMgtListener(), null);
+            cxt.getBundleContext().registerService(IdentityProviderMgtListener.class,
+                    new SignatureVerifierCacheIdPMgtListener(), null);
+            cxt.getBundleContext().registerService(UserOperationEventListener.class,
+                    new AuthenticatedUserCacheUserOperationEventListener(), null);
+            if (MappedLogInvalidTokenPersistence.isEnabled()) {
+                initEmbeddedInvalidTokenStore();
+            } else {
+                DBInvalidTokenPersistence.getInstance().init();
+            }
+        }
+    }
+
+    private void initEmbeddedInvalidTokenStore() {
+
+        MappedLogInvalidTokenPersistence store = new MappedLogInvalidTokenPersistence();
+        try {
+            store.init();
+        } catch (IOException e) {
+            log.error("Error while initializing the embedded invalid token store. Falling back to the database.", e);
+            DBInvalidTokenPersistence.getInstance().init();
+            return;
         }
+        embeddedInvalidTokenStore = store;
+        ServiceReferenceHolder.getInstance().setInvalidTokenPersistenceService(store);
+        log.info("Embedded invalid token store is enabled. Invalid tokens are not shared with the other nodes.");
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        if (embeddedInvalidTokenStore != null) {
+            embeddedInvalidTokenStore.destroy();
+            embeddedInvalidTokenStore = null;
+        }
+        if (tokenProvider != null) {
+            tokenProvider.destroy();
+            tokenProvider = null;
+        }
+        ConcurrentRevocationChecker.getInstance().destroy();
+        DBInvalidTokenPersistence.getInstance().destroy();
         if (log.isDebugEnabled()) {
             log.debug("KeyManagerCoreService bundle is deactivated");
         }
@@ -112,6 +167,86 @@ public class TokenPersistenceServiceComponent {
          is started */
     }
 
+    @Reference(
+            name = "invalid.token.persistence.service",
+            service = org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY,
+            updated = "updateInvalidTokenPersistenceService",
+            unbind = "unsetInvalidTokenPersistenceService")
+    protected void setInvalidTokenPersistenceService(InvalidTokenPersistenceService invalidTokenPersistenceService,
+                                                     Map<String, Object> properties) {
+
+        int ranking = getServiceRanking(properties);
+        log.info(String.format("Invalid token persistence service %s registered with service ranking %s.",
+                invalidTokenPersistenceService.getClass().getName(), ranking));
+        ServiceReferenceHolder.getInstance().addInvalidTokenPersistenceService(invalidTokenPersistenceService,
+                ranking);
+    }
+
+    protected void updateInvalidTokenPersistenceService(InvalidTokenPersistenceService invalidTokenPersistenceService,
+                                                        Map<String, Object> properties) {
+
+        ServiceReferenceHolder.getInstance().addInvalidTokenPersistenceService(invalidTokenPersistenceService,
+                getServiceRanking(properties));
+    }
+
+    protected void unsetInvalidTokenPersistenceService(InvalidTokenPersistenceService invalidTokenPersistenceService) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Invalid token persistence service " + invalidTokenPersistenceService.getClass().getName()
+                    + " unregistered.");
+        }
+        ServiceReferenceHolder.getInstance().removeInvalidTokenPersistenceService(invalidTokenPersistenceService);
+    }
+
+    @Reference(
+            name = "token.validation.stage",
+            service = org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetTokenValidationStage")
+    protected void setTokenValidationStage(TokenValidationStage tokenValidationStage) {
+
+        TokenValidationPipeline.getInstance().addStage(tokenValidationStage);
+    }
+
+    protected void unsetTokenValidationStage(TokenValidationStage tokenValidationStage) {
+
+        TokenValidationPipeline.getInstance().removeStage(tokenValidationStage);
+    }
+
+    @Reference(
+            name = "identifier.generator",
+            service = org.wso2.is.key.manager.tokenpersistence.model.IdentifierGenerator.class,
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            policyOption = ReferencePolicyOption.GREEDY,
+            unbind = "unsetIdentifierGenerator")
+    protected void setIdentifierGenerator(IdentifierGenerator identifierGenerator) {
+
+        log.info("Identifier generator " + identifierGenerator.getClass().getName() + " registered.");
+        ServiceReferenceHolder.getInstance().setIdentifierGenerator(identifierGenerator);
+    }
+
+    protected void unsetIdentifierGenerator(IdentifierGenerator identifierGenerator) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Identifier generator " + identifierGenerator.getClass().getName() + " unregistered.");
+        }
+        // A greedy reference binds the replacing generator before unbinding the replaced one.
+        if (ServiceReferenceHolder.getInstance().getIdentifierGenerator() == identifierGenerator) {
+            ServiceReferenceHolder.getInstance().setIdentifierGenerator(null);
+        }
+    }
+
+    private static int getServiceRanking(Map<String, Object> properties) {
+
+        Object ranking = properties != null ? properties.get(Constants.SERVICE_RANKING) : null;
+        return ranking instanceof Integer ? (Integer) ranking : 0;
+    }
+
     @Reference(
             name = "wso2.is.notification.service",
             service = org.wso2.is.notification.NotificationEventSenderService.class,
@@ -19,6 +19,7 @@
 package org.wso2.is.key.manager.tokenpersistence.issuer;
 
 import com.nimbusds.jose.Algorithm;
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
@@ -28,6 +29,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.oauth.common.exception.InvalidOAuthClientException;
 import org.wso2.carbon.identity.oauth.config.OAuthServerConfiguration;
 import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
@@ -38,13 +40,18 @@ import org.wso2.carbon.identity.oauth2.token.JWTTokenIssuer;
 import org.wso2.carbon.identity.oauth2.token.OAuthTokenReqMessageContext;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.JWTSignerCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.RefreshTokenClaimTemplateCache;
+import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
 
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
-import java.util.UUID;
 
 /**
  * Extended JWT Token Issuer to extend issuing of refresh token in JWT format.
@@ -119,7 +126,7 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
         if (JWSAlgorithm.NONE.getName().equals(signatureAlgorithm.getName())) {
             return new PlainJWT(jwtClaimsSet).serialize();
         }
-        return signJWT(jwtClaimsSet, null, request);
+        return signRefreshToken(jwtClaimsSet, null, request);
     }
 
     /**
@@ -145,7 +152,77 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
         if (JWSAlgorithm.NONE.getName().equals(signatureAlgorithm.getName())) {
             return new PlainJWT(jwtClaimsSet).serialize();
         }
-        return signJWT(jwtClaimsSet, request, null);
+        return signRefreshToken(jwtClaimsSet, request, null);
+    }
+
+    /**
+     * Sign the refresh token claims. When the JWT signer cache is enabled, the tokens are signed with the cached signer
+     * of the signing tenant, so that the private key and the certificate of the tenant are not resolved from the
+     * keystore for every token. The signer of a tenant can also take its algorithm from the signing key of the tenant,
+     * eg: ES256 or EdDSA. Otherwise, and for the algorithms without a cached signer, the tokens are signed as the other
+     * JWTs issued by the server.
+     *
+     * @param jwtClaimsSet         JWT claims set.
+     * @param tokenContext         Token request message context.
+     * @param authorizationContext Oauth authorization request message context.
+     * @return Signed jwt string.
+     * @throws IdentityOAuth2Exception If an error occurred while signing the jwt token.
+     */
+    protected String signRefreshToken(JWTClaimsSet jwtClaimsSet, OAuthTokenReqMessageContext tokenContext,
+                                      OAuthAuthzReqMessageContext authorizationContext)
+            throws IdentityOAuth2Exception {
+
+        JWTSignerCache signerCache = JWTSignerCache.getInstance();
+        if (!signerCache.isEnabled() || !isCacheableSignatureAlgorithm()) {
+            return signJWT(jwtClaimsSet, tokenContext, authorizationContext);
+        }
+        String tenantDomain = getSigningTenantDomain(tokenContext, authorizationContext);
+        TenantJWTSigner signer = signerCache.get(tenantDomain, signatureAlgorithm.getName());
+        try {
+            if (signer == null) {
+                long invalidationStamp = signerCache.getInvalidationStamp();
+                int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+                Key privateKey = OAuth2Util.getPrivateKey(tenantDomain, tenantId);
+                Certificate certificate = OAuth2Util.getCertificate(tenantDomain, tenantId);
+                JWSAlgorithm algorithm = (JWSAlgorithm) signatureAlgorithm;
+                if (signerCache.isAlgorithmFromSigningKey()) {
+                    algorithm = TenantJWTSigner.getSigningAlgorithm((PrivateKey) privateKey, algorithm);
+                }
+                signer = new TenantJWTSigner(algorithm, (PrivateKey) privateKey,
+                        OAuth2Util.getKID(certificate, algorithm, tenantDomain), OAuth2Util.getThumbPrint(certificate),
+                        signerCache.getPoolSize());
+                signerCache.put(tenantDomain, signatureAlgorithm.getName(), signer, invalidationStamp);
+            }
+            return signer.sign(jwtClaimsSet);
+        } catch (JOSEException e) {
+            throw new IdentityOAuth2Exception("Error occurred while signing the refresh token of tenant: "
+                    + tenantDomain, e);
+        }
+    }
+
+    /**
+     * Get the tenant whose key signs the token, which is the tenant of the app if the JWTs are signed with the key of
+     * the service provider, and the tenant of the user otherwise.
+     *
+     * @param tokenContext         Token request message context.
+     * @param authorizationContext Oauth authorization request message context.
+     * @return Signing tenant domain.
+     */
+    private String getSigningTenantDomain(OAuthTokenReqMessageContext tokenContext,
+                                          OAuthAuthzReqMessageContext authorizationContext) {
+
+        if (OAuthServerConfiguration.getInstance().isJWTSignedWithSPKey()) {
+            return tokenContext != null ? tokenContext.getOauth2AccessTokenReqDTO().getTenantDomain()
+                    : authorizationContext.getAuthorizationReqDTO().getTenantDomain();
+        }
+        return tokenContext != null ? tokenContext.getAuthorizedUser().getTenantDomain()
+                : authorizationContext.getAuthorizationReqDTO().getUser().getTenantDomain();
+    }
+
+    private boolean isCacheableSignatureAlgorithm() {
+
+        return signatureAlgorithm instanceof JWSAlgorithm && (JWSAlgorithm.Family.RSA.contains(signatureAlgorithm)
+                || JWSAlgorithm.Family.EC.contains(signatureAlgorithm));
     }
 
     /**
@@ -161,57 +238,78 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
                                                              OAuthTokenReqMessageContext tokenReqMessageContext,
                                                              String consumerKey) throws IdentityOAuth2Exception {
 
-        // loading the stored application data.
-        OAuthAppDO oAuthAppDO;
         String spTenantDomain;
         long refreshTokenLifeTimeInMillis;
-        try {
-            if (authAuthzReqMessageContext != null) {
-                spTenantDomain = authAuthzReqMessageContext.getAuthorizationReqDTO().getTenantDomain();
-            } else {
-                spTenantDomain = tokenReqMessageContext.getOauth2AccessTokenReqDTO().getTenantDomain();
-            }
-            oAuthAppDO = OAuth2Util.getAppInformationByClientId(consumerKey);
-        } catch (InvalidOAuthClientException e) {
-            throw new IdentityOAuth2Exception("Error while retrieving app information for clientId: " + consumerKey, e);
+        if (authAuthzReqMessageContext != null) {
+            spTenantDomain = authAuthzReqMessageContext.getAuthorizationReqDTO().getTenantDomain();
+        } else {
+            spTenantDomain = tokenReqMessageContext.getOauth2AccessTokenReqDTO().getTenantDomain();
         }
-        String issuer = OAuth2Util.getIdTokenIssuer(spTenantDomain);
+        RefreshTokenClaimTemplate claimTemplate = getRefreshTokenClaimTemplate(consumerKey, spTenantDomain);
         AuthenticatedUser authenticatedUser = getAuthenticatedUser(authAuthzReqMessageContext, tokenReqMessageContext);
         String sub = getSubjectClaim(authenticatedUser);
-        // Set the default claims.
-        JWTClaimsSet.Builder jwtClaimsSetBuilder = new JWTClaimsSet.Builder();
-        jwtClaimsSetBuilder.issuer(issuer);
+        // Set the default claims on top of the invariant claims of the app.
+        JWTClaimsSet.Builder jwtClaimsSetBuilder = claimTemplate.newClaimsSetBuilder();
         jwtClaimsSetBuilder.subject(sub);
-        jwtClaimsSetBuilder.claim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY, consumerKey);
         if (tokenReqMessageContext != null) {
-            refreshTokenLifeTimeInMillis = getRefreshTokenLifeTimeInMillis(oAuthAppDO, tokenReqMessageContext);
+            refreshTokenLifeTimeInMillis = getRefreshTokenLifeTimeInMillis(claimTemplate, tokenReqMessageContext);
         } else {
-            refreshTokenLifeTimeInMillis = getRefreshTokenLifeTimeInMillis(oAuthAppDO, authAuthzReqMessageContext);
+            refreshTokenLifeTimeInMillis = getRefreshTokenLifeTimeInMillis(claimTemplate, authAuthzReqMessageContext);
         }
         long curTimeInMillis = Calendar.getInstance(TimeZone.getTimeZone(PersistenceConstants.UTC)).getTimeInMillis();
         Date issuedTime = new Date(curTimeInMillis);
-        jwtClaimsSetBuilder.issueTime(getRefreshTokenIssuedTime(tokenReqMessageContext, oAuthAppDO, issuedTime));
+        jwtClaimsSetBuilder.issueTime(getRefreshTokenIssuedTime(tokenReqMessageContext, claimTemplate, issuedTime));
         jwtClaimsSetBuilder.expirationTime(
                 calculateRefreshTokenExpiryTime(refreshTokenLifeTimeInMillis, curTimeInMillis));
-        jwtClaimsSetBuilder.jwtID(UUID.randomUUID().toString());
-        jwtClaimsSetBuilder.claim(PersistenceConstants.JWTClaim.CLIENT_ID, consumerKey);
+        jwtClaimsSetBuilder.jwtID(ServiceReferenceHolder.getInstance().getIdentifierGenerator().generateId());
         String scope = getScope(authAuthzReqMessageContext, tokenReqMessageContext, sub);
         if (StringUtils.isNotEmpty(scope)) {
             jwtClaimsSetBuilder.claim(PersistenceConstants.JWTClaim.SCOPE, scope);
         }
-        // claim to identify the JWT as a refresh token.
-        jwtClaimsSetBuilder.claim(PersistenceConstants.JWTClaim.TOKEN_TYPE_ELEM, PersistenceConstants.REFRESH_TOKEN);
-        /*
-         * This is a spec (openid-connect-core-1_0:2.0) requirement for ID tokens. But we are keeping this in JWT as
-         * well.
-         */
-        List<String> audience = OAuth2Util.getOIDCAudience(consumerKey, oAuthAppDO);
-        jwtClaimsSetBuilder.audience(audience);
         setClaimsForNonPersistence(jwtClaimsSetBuilder, authAuthzReqMessageContext, tokenReqMessageContext,
-                authenticatedUser, oAuthAppDO);
+                authenticatedUser, claimTemplate.getOAuthAppDO());
         return jwtClaimsSetBuilder.build();
     }
 
+    /**
+     * Get the claim template of the refresh tokens of the given client, from the cache if it is enabled.
+     *
+     * @param consumerKey    Consumer key of the application.
+     * @param spTenantDomain Tenant domain of the application.
+     * @return Refresh token claim template.
+     * @throws IdentityOAuth2Exception If an error occurred while loading the application.
+     */
+    private RefreshTokenClaimTemplate getRefreshTokenClaimTemplate(String consumerKey, String spTenantDomain)
+            throws IdentityOAuth2Exception {
+
+        RefreshTokenClaimTemplateCache templateCache = RefreshTokenClaimTemplateCache.getInstance();
+        RefreshTokenClaimTemplate claimTemplate = templateCache.get(consumerKey, spTenantDomain);
+        if (claimTemplate == null) {
+            long invalidationStamp = templateCache.getInvalidationStamp();
+            claimTemplate = buildRefreshTokenClaimTemplate(consumerKey, spTenantDomain);
+            templateCache.put(consumerKey, spTenantDomain, claimTemplate, invalidationStamp);
+        }
+        return claimTemplate;
+    }
+
+    private RefreshTokenClaimTemplate buildRefreshTokenClaimTemplate(String consumerKey, String spTenantDomain)
+            throws IdentityOAuth2Exception {
+
+        // loading the stored application data.
+        OAuthAppDO oAuthAppDO;
+        try {
+            oAuthAppDO = OAuth2Util.getAppInformationByClientId(consumerKey);
+        } catch (InvalidOAuthClientException e) {
+            throw new IdentityOAuth2Exception("Error while retrieving app information for clientId: " + consumerKey, e);
+        }
+        String issuer = OAuth2Util.getIdTokenIssuer(spTenantDomain);
+        List<String> audience = OAuth2Util.getOIDCAudience(consumerKey, oAuthAppDO);
+        boolean retainRenewedTokenExpiry = isRenewRefreshToken(oAuthAppDO.getRenewRefreshTokenEnabled())
+                && !OAuthServerConfiguration.getInstance().isExtendRenewedTokenExpiryTimeEnabled();
+        return new RefreshTokenClaimTemplate(oAuthAppDO, issuer, audience,
+                getRefreshTokenLifeTimeInMillisFromConfig(oAuthAppDO), retainRenewedTokenExpiry);
+    }
+
     /**
      * Get token validity period for the Self contained JWT Access Token from OAuthApp or OAuthServer Configuration.
      *
@@ -239,14 +337,14 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
     /**
      * Get token validity period for the Self contained JWT Access Token.
      *
-     * @param oAuthAppDO             OAuthApp
+     * @param claimTemplate          Refresh token claim template of the OAuthApp
      * @param tokenReqMessageContext TokenRequestMessageContext
      * @return Refresh Token Life Time in milliseconds
      */
-    private long getRefreshTokenLifeTimeInMillis(OAuthAppDO oAuthAppDO,
+    private long getRefreshTokenLifeTimeInMillis(RefreshTokenClaimTemplate claimTemplate,
                                                  OAuthTokenReqMessageContext tokenReqMessageContext) {
 
-        String consumerKey = oAuthAppDO.getOauthConsumerKey();
+        String consumerKey = claimTemplate.getConsumerKey();
         long refreshTokenValidityPeriodInMillis = 0;
         long validityPeriodFromMsgContext = tokenReqMessageContext.getRefreshTokenvalidityPeriod();
         if (validityPeriodFromMsgContext > 0) {
@@ -261,15 +359,14 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
             RefreshTokenValidationDataDO validationBean =
                     (RefreshTokenValidationDataDO) tokenReqMessageContext.getProperty(
                             PersistenceConstants.PREV_ACCESS_TOKEN);
-            if (isRenewRefreshToken(oAuthAppDO.getRenewRefreshTokenEnabled())
-                    && !OAuthServerConfiguration.getInstance().isExtendRenewedTokenExpiryTimeEnabled()) {
+            if (claimTemplate.isRetainRenewedTokenExpiry()) {
                 // If refresh token renewal enabled and extend token expiry disabled, set the old token issued and
                 // validity.
                 refreshTokenValidityPeriodInMillis = validationBean.getValidityPeriodInMillis();
             }
         }
         if (refreshTokenValidityPeriodInMillis == 0) {
-            refreshTokenValidityPeriodInMillis = getRefreshTokenLifeTimeInMillisFromConfig(oAuthAppDO);
+            refreshTokenValidityPeriodInMillis = claimTemplate.getRefreshTokenLifeTimeInMillis();
         }
         if (log.isDebugEnabled()) {
             log.debug("JWT Self Signed Refresh Token Life time set to : " + refreshTokenValidityPeriodInMillis + "ms.");
@@ -280,11 +377,11 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
     /**
      * Get token validity period for the Self contained JWT Access Token.
      *
-     * @param oAuthAppBean     OAuthApp
+     * @param claimTemplate    Refresh token claim template of the OAuthApp
      * @param oauthAuthzMsgCtx OAuthAuthhorizationRequestMessageContext
      * @return Refresh Token Life Time in milliseconds
      */
-    private long getRefreshTokenLifeTimeInMillis(OAuthAppDO oAuthAppBean,
+    private long getRefreshTokenLifeTimeInMillis(RefreshTokenClaimTemplate claimTemplate,
                                                  OAuthAuthzReqMessageContext oauthAuthzMsgCtx) {
 
         long refreshTokenValidityPeriodInMillis = 0;
@@ -293,13 +390,13 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
             refreshTokenValidityPeriodInMillis = oauthAuthzMsgCtx.getRefreshTokenvalidityPeriod() *
                     PersistenceConstants.SECONDS_TO_MILLISECONDS_FACTOR;
             if (log.isDebugEnabled()) {
-                log.debug("OAuth application id : " + oAuthAppBean.getOauthConsumerKey() + ", using refresh token " +
+                log.debug("OAuth application id : " + claimTemplate.getConsumerKey() + ", using refresh token " +
                         "validity period configured from OAuthAuthzReqMessageContext: " +
                         refreshTokenValidityPeriodInMillis + " ms");
             }
         }
         if (refreshTokenValidityPeriodInMillis == 0) {
-            refreshTokenValidityPeriodInMillis = getRefreshTokenLifeTimeInMillisFromConfig(oAuthAppBean);
+            refreshTokenValidityPeriodInMillis = claimTemplate.getRefreshTokenLifeTimeInMillis();
         }
         if (log.isDebugEnabled()) {
             log.debug("JWT Self Signed Refresh Token Life time set to : " + refreshTokenValidityPeriodInMillis + "ms.");
@@ -308,7 +405,7 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
     }
 
     private Date getRefreshTokenIssuedTime(OAuthTokenReqMessageContext tokenReqMessageContext,
-                                           OAuthAppDO oAuthAppDO, Date currentTime) {
+                                           RefreshTokenClaimTemplate claimTemplate, Date currentTime) {
 
         Date refreshTokenIssuedTime = currentTime;
         if (tokenReqMessageContext != null &&
@@ -316,8 +413,7 @@ public class ExtendedJWTTokenIssuer extends JWTTokenIssuer {
             RefreshTokenValidationDataDO validationBean =
                     (RefreshTokenValidationDataDO) tokenReqMessageContext.getProperty(
                             PersistenceConstants.PREV_ACCESS_TOKEN);
-            if (isRenewRefreshToken(oAuthAppDO.getRenewRefreshTokenEnabled()) &&
-                    !OAuthServerConfiguration.getInstance().isExtendRenewedTokenExpiryTimeEnabled()) {
+            if (claimTemplate.isRetainRenewedTokenExpiry()) {
                 // If refresh token renewal enabled and extend token expiry disabled, set the old token issued and
                 // validity.
                 refreshTokenIssuedTime = validationBean.getIssuedTime();
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.issuer;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.wso2.carbon.identity.oauth.dao.OAuthAppDO;
+import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Claims of the refresh tokens issued to a client app of a tenant which do not change from one token to another,
+ * i.e. the issuer, the audience, the authorized party, the client ID and the token type, along with the refresh token
+ * lifetime policy of the app. The per-token claims are added to the builder returned by {@link #newClaimsSetBuilder()}.
+ */
+public final class RefreshTokenClaimTemplate {
+
+    private final OAuthAppDO oAuthAppDO;
+    private final String issuer;
+    private final List<String> audience;
+    private final long refreshTokenLifeTimeInMillis;
+    private final boolean retainRenewedTokenExpiry;
+
+    /**
+     * @param oAuthAppDO                   App of the client.
+     * @param issuer                       Issuer of the tokens of the tenant.
+     * @param audience                     Audience of the tokens of the app.
+     * @param refreshTokenLifeTimeInMillis Refresh token lifetime configured for the app, or the server default.
+     * @param retainRenewedTokenExpiry     Whether a renewed refresh token keeps the issued time and the validity
+     *                                     period of the token it replaces.
+     */
+    public RefreshTokenClaimTemplate(OAuthAppDO oAuthAppDO, String issuer, List<String> audience,
+                                     long refreshTokenLifeTimeInMillis, boolean retainRenewedTokenExpiry) {
+
+        this.oAuthAppDO = oAuthAppDO;
+        this.issuer = issuer;
+        this.audience = audience != null ? Collections.unmodifiableList(new ArrayList<>(audience)) : null;
+        this.refreshTokenLifeTimeInMillis = refreshTokenLifeTimeInMillis;
+        this.retainRenewedTokenExpiry = retainRenewedTokenExpiry;
+    }
+
+    public OAuthAppDO getOAuthAppDO() {
+
+        return oAuthAppDO;
+    }
+
+    public String getConsumerKey() {
+
+        return oAuthAppDO.getOauthConsumerKey();
+    }
+
+    public long getRefreshTokenLifeTimeInMillis() {
+
+        return refreshTokenLifeTimeInMillis;
+    }
+
+    public boolean isRetainRenewedTokenExpiry() {
+
+        return retainRenewedTokenExpiry;
+    }
+
+    /**
+     * Create a claims set builder holding the invariant claims of the template.
+     *
+     * @return JWT claims set builder.
+     */
+    public JWTClaimsSet.Builder newClaimsSetBuilder() {
+
+        String consumerKey = getConsumerKey();
+        return new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .claim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY, consumerKey)
+                .claim(PersistenceConstants.JWTClaim.CLIENT_ID, consumerKey)
+                // claim to identify the JWT as a refresh token.
+                .claim(PersistenceConstants.JWTClaim.TOKEN_TYPE_ELEM, PersistenceConstants.REFRESH_TOKEN)
+                /*
+                 * This is a spec (openid-connect-core-1_0:2.0) requirement for ID tokens. But we are keeping this in
+                 * JWT as well.
+                 */
+                .audience(audience);
+    }
+}
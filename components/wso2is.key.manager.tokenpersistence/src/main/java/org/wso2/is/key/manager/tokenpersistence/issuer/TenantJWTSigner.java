@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.issuer;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.wso2.is.key.manager.tokenpersistence.utils.EdDSASignatureVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Signer of the JWTs issued with the signing key of a tenant. The JWS header is constant for a key, and so it is
+ * encoded once, and the tokens are signed with initialized JCA signatures taken from a bounded pool, as a signature
+ * object can be reused but not shared between threads. The algorithms without a pooled JCA signature are signed with
+ * a Nimbus signer, which is thread safe.
+ * <p>
+ * Ed25519 keys (EdDSA) are signed with the JCA signature of the runtime, which is available from Java 15 onwards, as
+ * the Nimbus EdDSA signer depends on the Tink library.
+ */
+public final class TenantJWTSigner {
+
+    private final JWSAlgorithm algorithm;
+    private final PrivateKey privateKey;
+    private final String keyId;
+    private final JWSHeader header;
+    private final String encodedHeader;
+    // This is null for the algorithms signed with the Nimbus signer.
+    private final String jcaAlgorithm;
+    private final BlockingQueue<Signature> signaturePool;
+    // This is null for the algorithms signed with the pooled JCA signatures.
+    private final JWSSigner signer;
+
+    /**
+     * Create a signer for the given key.
+     *
+     * @param algorithm  Signature algorithm.
+     * @param privateKey Signing key of the tenant.
+     * @param keyId      Key ID (kid) of the signing key.
+     * @param thumbprint Thumbprint (x5t) of the certificate of the signing key, or {@code null} if not known.
+     * @param poolSize   Maximum number of idle signatures kept for reuse.
+     * @throws JOSEException If the algorithm is not supported for the key.
+     */
+    @SuppressWarnings("deprecation")
+    public TenantJWTSigner(JWSAlgorithm algorithm, PrivateKey privateKey, String keyId, String thumbprint,
+                           int poolSize) throws JOSEException {
+
+        this.algorithm = algorithm;
+        this.privateKey = privateKey;
+        this.keyId = keyId;
+        JWSHeader.Builder headerBuilder = new JWSHeader.Builder(algorithm).keyID(keyId);
+        if (thumbprint != null) {
+            headerBuilder.x509CertThumbprint(new Base64URL(thumbprint));
+        }
+        header = headerBuilder.build();
+        encodedHeader = header.toBase64URL().toString();
+        jcaAlgorithm = getJcaAlgorithm(algorithm);
+        signaturePool = new ArrayBlockingQueue<>(Math.max(poolSize, 1));
+        if (jcaAlgorithm != null) {
+            // Fail on an unsupported key before the signer is cached, and keep the signature for the first token.
+            signaturePool.offer(createSignature());
+            signer = null;
+        } else {
+            signer = createSigner(algorithm, privateKey);
+        }
+    }
+
+    /**
+     * Get the algorithm of the JWTs signed with the given key. An EC key is signed with the ECDSA algorithm of its
+     * curve and an Ed25519 key with EdDSA, so that the algorithm of a tenant follows its signing key. An RSA key is
+     * signed with the configured algorithm if it is an RSA algorithm, and with RS256 otherwise.
+     *
+     * @param privateKey          Signing key of the tenant.
+     * @param configuredAlgorithm Signature algorithm configured for the server.
+     * @return Signature algorithm for the key.
+     * @throws JOSEException If the key type is not supported.
+     */
+    public static JWSAlgorithm getSigningAlgorithm(PrivateKey privateKey, JWSAlgorithm configuredAlgorithm)
+            throws JOSEException {
+
+        if ("RSA".equals(privateKey.getAlgorithm())) {
+            return JWSAlgorithm.Family.RSA.contains(configuredAlgorithm) ? configuredAlgorithm : JWSAlgorithm.RS256;
+        } else if (privateKey instanceof ECPrivateKey) {
+            int fieldSize = ((ECPrivateKey) privateKey).getParams().getCurve().getField().getFieldSize();
+            if (fieldSize == 256) {
+                return JWSAlgorithm.ES256;
+            } else if (fieldSize == 384) {
+                return JWSAlgorithm.ES384;
+            } else if (fieldSize == 521) {
+                return JWSAlgorithm.ES512;
+            }
+        } else if (EdDSASignatureVerifier.isEdDSAKey(privateKey)) {
+            return JWSAlgorithm.EdDSA;
+        }
+        throw new JOSEException("Unsupported signing key: " + privateKey.getAlgorithm());
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+
+        return algorithm;
+    }
+
+    public String getKeyId() {
+
+        return keyId;
+    }
+
+    /**
+     * Sign the given claims.
+     *
+     * @param claimsSet JWT claims.
+     * @return Signed JWT in the compact serialization.
+     * @throws JOSEException If an error occurs while signing the claims.
+     */
+    public String sign(JWTClaimsSet claimsSet) throws JOSEException {
+
+        String signingInput = encodedHeader + '.' + Base64URL.encode(claimsSet.toString());
+        byte[] signingInputBytes = signingInput.getBytes(StandardCharsets.US_ASCII);
+        Base64URL signature = jcaAlgorithm != null ? Base64URL.encode(signWithPooledSignature(signingInputBytes))
+                : signer.sign(header, signingInputBytes);
+        return signingInput + '.' + signature;
+    }
+
+    private byte[] signWithPooledSignature(byte[] signingInput) throws JOSEException {
+
+        try {
+            Signature signature = signaturePool.poll();
+            if (signature == null) {
+                signature = createSignature();
+            }
+            signature.update(signingInput);
+            byte[] signatureBytes = signature.sign();
+            // A signature is reset to its initialized state once signed, hence it can be reused for the next token.
+            signaturePool.offer(signature);
+            if (JWSAlgorithm.Family.EC.contains(algorithm)) {
+                // JCA produces DER encoded ECDSA signatures, while JWS uses the concatenated R and S values.
+                return ECDSA.transcodeSignatureToConcat(signatureBytes, ECDSA.getSignatureByteArrayLength(algorithm));
+            }
+            return signatureBytes;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Error while signing the JWT with algorithm: " + algorithm, e);
+        }
+    }
+
+    private Signature createSignature() throws JOSEException {
+
+        try {
+            Signature signature = Signature.getInstance(jcaAlgorithm);
+            signature.initSign(privateKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Unsupported signature algorithm: " + algorithm + " for key: "
+                    + privateKey.getAlgorithm(), e);
+        }
+    }
+
+    private static String getJcaAlgorithm(JWSAlgorithm algorithm) {
+
+        if (JWSAlgorithm.RS256.equals(algorithm)) {
+            return "SHA256withRSA";
+        } else if (JWSAlgorithm.RS384.equals(algorithm)) {
+            return "SHA384withRSA";
+        } else if (JWSAlgorithm.RS512.equals(algorithm)) {
+            return "SHA512withRSA";
+        } else if (JWSAlgorithm.ES256.equals(algorithm)) {
+            return "SHA256withECDSA";
+        } else if (JWSAlgorithm.ES384.equals(algorithm)) {
+            return "SHA384withECDSA";
+        } else if (JWSAlgorithm.ES512.equals(algorithm)) {
+            return "SHA512withECDSA";
+        } else if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            return EdDSASignatureVerifier.JCA_ALGORITHM;
+        }
+        return null;
+    }
+
+    private static JWSSigner createSigner(JWSAlgorithm algorithm, PrivateKey privateKey) throws JOSEException {
+
+        if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+            return new RSASSASigner(privateKey);
+        } else if (JWSAlgorithm.Family.EC.contains(algorithm) && privateKey instanceof ECPrivateKey) {
+            return new ECDSASigner((ECPrivateKey) privateKey);
+        }
+        throw new JOSEException("Unsupported signature algorithm: " + algorithm + " for key: "
+                + privateKey.getAlgorithm());
+    }
+}
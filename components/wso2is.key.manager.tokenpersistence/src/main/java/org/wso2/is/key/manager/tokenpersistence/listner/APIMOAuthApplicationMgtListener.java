@@ -27,6 +27,8 @@ import org.wso2.carbon.identity.oauth.listener.OAuthApplicationMgtListener;
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.is.key.manager.tokenpersistence.cache.AuthenticatedUserCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.RefreshTokenClaimTemplateCache;
 import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
 import org.wso2.is.notification.event.ConsumerAppRevocationEvent;
 
@@ -35,7 +37,7 @@ import java.util.Properties;
 
 /**
  * This class listens to OAuth application management events. It is used to revoke tokens when an app of a given
- * consumer key is updated.
+ * consumer key is updated, and to remove the refresh token claim templates cached for the app.
  */
 public class APIMOAuthApplicationMgtListener implements OAuthApplicationMgtListener {
 
@@ -54,22 +56,28 @@ public class APIMOAuthApplicationMgtListener implements OAuthApplicationMgtListe
     @Override
     public void doPreUpdateConsumerApplication(OAuthConsumerAppDTO oAuthConsumerAppDTO) {
 
+        RefreshTokenClaimTemplateCache.getInstance().invalidate(oAuthConsumerAppDTO.getOauthConsumerKey());
     }
 
     @Override
-    public void doPreUpdateConsumerApplicationState(String s, String s1) {
+    public void doPreUpdateConsumerApplicationState(String consumerKey, String newState) {
 
+        RefreshTokenClaimTemplateCache.getInstance().invalidate(consumerKey);
     }
 
     @Override
-    public void doPreRemoveOAuthApplicationData(String s) {
+    public void doPreRemoveOAuthApplicationData(String consumerKey) {
 
+        RefreshTokenClaimTemplateCache.getInstance().invalidate(consumerKey);
     }
 
     @Override
     public void doPostTokenRevocationOnClientAppEvent(String consumerKey, Properties properties)
             throws IdentityOAuthAdminException {
 
+        // The claim templates are removed again after the app is updated, in case a template was rebuilt from the app
+        // before the update was committed.
+        RefreshTokenClaimTemplateCache.getInstance().invalidate(consumerKey);
         if (!OAuth2Util.isTokenPersistenceEnabled()) {
             long revocationTime = Calendar.getInstance().getTimeInMillis();
             String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
@@ -77,6 +85,7 @@ public class APIMOAuthApplicationMgtListener implements OAuthApplicationMgtListe
                 org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder.getInstance()
                         .getInvalidTokenPersistenceService()
                         .revokeTokensByConsumerKeyEvent(consumerKey, revocationTime, tenantDomain, 0);
+                AuthenticatedUserCache.getInstance().invalidate(consumerKey);
             } catch (IdentityOAuth2Exception e) {
                 log.error("Error while persisting revoking access tokens by consumer key event.", e);
                 throw new IdentityOAuthAdminException(e.getMessage(), e);
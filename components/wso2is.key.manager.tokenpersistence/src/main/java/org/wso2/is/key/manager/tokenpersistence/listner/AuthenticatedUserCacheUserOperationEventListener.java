@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.listner;
+
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.common.AbstractUserOperationEventListener;
+import org.wso2.is.key.manager.tokenpersistence.cache.AuthenticatedUserCache;
+
+import java.util.Map;
+
+/**
+ * This class listens to user changes, and removes the cached authenticated users of a user whose username is updated
+ * or who is deleted, as the cached users are keyed by the user ID which does not change with the username.
+ */
+public class AuthenticatedUserCacheUserOperationEventListener extends AbstractUserOperationEventListener {
+
+    private static final String USERNAME_CLAIM_URI = "http://wso2.org/claims/username";
+
+    @Override
+    public int getExecutionOrderId() {
+
+        return 1600;
+    }
+
+    @Override
+    public boolean doPostDeleteUserWithID(String userID, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        AuthenticatedUserCache.getInstance().invalidate(userID);
+        return true;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValueWithID(String userID, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        // The updated claim is not known here, so the user is removed in case the username was updated.
+        AuthenticatedUserCache.getInstance().invalidate(userID);
+        return true;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValuesWithID(String userID, Map<String, String> claims, String profileName,
+                                                  UserStoreManager userStoreManager) throws UserStoreException {
+
+        if (claims != null && claims.containsKey(USERNAME_CLAIM_URI)) {
+            AuthenticatedUserCache.getInstance().invalidate(userID);
+        }
+        return true;
+    }
+}
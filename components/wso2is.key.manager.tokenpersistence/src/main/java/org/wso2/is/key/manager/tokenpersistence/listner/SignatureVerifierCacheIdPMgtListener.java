@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.listner;
+
+import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
+import org.wso2.carbon.idp.mgt.listener.AbstractIdentityProviderMgtListener;
+import org.wso2.is.key.manager.tokenpersistence.cache.JWTSignerCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.SignatureVerifierCache;
+
+/**
+ * This class listens to resident identity provider updates, and removes the cached signature verifiers and JWT signers
+ * of the tenant as the signer certificate of the resident identity provider may have changed.
+ */
+public class SignatureVerifierCacheIdPMgtListener extends AbstractIdentityProviderMgtListener {
+
+    @Override
+    public int getDefaultOrderId() {
+
+        return 210;
+    }
+
+    @Override
+    public boolean doPostUpdateResidentIdP(IdentityProvider identityProvider, String tenantDomain)
+            throws IdentityProviderManagementException {
+
+        SignatureVerifierCache.getInstance().invalidate(tenantDomain);
+        JWTSignerCache.getInstance().invalidate(tenantDomain);
+        return true;
+    }
+}
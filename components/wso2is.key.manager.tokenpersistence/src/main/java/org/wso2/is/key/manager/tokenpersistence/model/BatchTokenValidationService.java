@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.model.AccessTokenDO;
+
+import java.util.List;
+
+/**
+ * Service to validate a batch of access tokens at once, for the callers which validate many tokens together such as a
+ * batched introspection or the cache warm up of a restarted gateway.
+ */
+public interface BatchTokenValidationService {
+
+    /**
+     * Validate the given access tokens. A token which is not active, is revoked or could not be validated does not
+     * fail the batch, and is returned as {@code null}.
+     *
+     * @param tokens Access tokens to validate.
+     * @return Access token data of the active tokens, and {@code null} for the rest, in the order of the given tokens.
+     * @throws IdentityOAuth2Exception If the batch is larger than the maximum batch size, or if an error occurs while
+     *                                 checking the revocation status of the batch.
+     */
+    List<AccessTokenDO> getVerifiedAccessTokens(List<String> tokens) throws IdentityOAuth2Exception;
+
+    /**
+     * Get the maximum number of tokens accepted in a batch.
+     *
+     * @return Maximum batch size.
+     */
+    int getMaxBatchSize();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+/**
+ * Generator of the JWT IDs of the issued tokens and of the identifiers of the persisted invalid tokens and revocation
+ * rules. A generator registered as an OSGi service replaces the default generator of time ordered identifiers.
+ */
+public interface IdentifierGenerator {
+
+    /**
+     * Generate a unique identifier. The identifiers are stored in the UUID columns of the identity database, hence
+     * they should not be longer than 36 characters.
+     *
+     * @return Identifier.
+     */
+    String generateId();
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import java.util.Objects;
+
+/**
+ * Token marked as invalid due to a direct token revocation. Two instances are equal when they refer to the same token
+ * identifier and consumer key, regardless of the expiry time.
+ */
+public class InvalidToken {
+
+    private final String token;
+    private final String consumerKey;
+    private final long expiryTime;
+
+    public InvalidToken(String token, String consumerKey, long expiryTime) {
+
+        this.token = token;
+        this.consumerKey = consumerKey;
+        this.expiryTime = expiryTime;
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public String getConsumerKey() {
+
+        return consumerKey;
+    }
+
+    public long getExpiryTime() {
+
+        return expiryTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InvalidToken)) {
+            return false;
+        }
+        InvalidToken that = (InvalidToken) o;
+        return Objects.equals(token, that.token) && Objects.equals(consumerKey, that.consumerKey);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(token, consumerKey);
+    }
+}
@@ -20,7 +20,9 @@ package org.wso2.is.key.manager.tokenpersistence.model;
 
 import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Interface to access and manage invalid token information.
@@ -71,6 +73,53 @@ public interface InvalidTokenPersistenceService {
      */
     boolean isTokenRevokedForSubjectEntity(String entityId, Date tokenIssuedTime) throws IdentityOAuth2Exception;
 
+    /**
+     * Check a token against the direct revocations and the consumer app and subject entity revocation rules at once.
+     * Implementations may override this to resolve all the checks with a single round trip to the store. The default
+     * implementation runs the checks one after the other and stops at the first match.
+     *
+     * @param token           The token to check. The direct revocation check is skipped when this is {@code null}.
+     * @param consumerKey     The consumer key for which token was issued.
+     * @param entityId        The entity/subject principle ID for which the token was issued for.
+     * @param tokenIssuedTime The timestamp at which token was issued.
+     * @return Revocation status of the token.
+     * @throws IdentityOAuth2Exception If an error occurs during the check.
+     */
+    default RevocationStatus checkRevocationStatus(String token, String consumerKey, String entityId,
+                                                   Date tokenIssuedTime) throws IdentityOAuth2Exception {
+
+        if (token != null && isInvalidToken(token, consumerKey)) {
+            return new RevocationStatus(true, false, false);
+        }
+        if (isTokenRevokedForConsumerKey(consumerKey, tokenIssuedTime)) {
+            return new RevocationStatus(false, true, false);
+        }
+        if (isTokenRevokedForSubjectEntity(entityId, tokenIssuedTime)) {
+            return new RevocationStatus(false, false, true);
+        }
+        return RevocationStatus.NOT_REVOKED;
+    }
+
+    /**
+     * Check a batch of tokens against the direct revocations and the consumer app and subject entity revocation
+     * rules. Implementations may override this to resolve the whole batch with a few round trips to the store. The
+     * default implementation checks the tokens one after the other.
+     *
+     * @param revocationChecks Tokens to check.
+     * @return Revocation statuses of the tokens, in the order of the given checks.
+     * @throws IdentityOAuth2Exception If an error occurs during the checks.
+     */
+    default List<RevocationStatus> checkRevocationStatuses(List<RevocationCheck> revocationChecks)
+            throws IdentityOAuth2Exception {
+
+        List<RevocationStatus> revocationStatuses = new ArrayList<>(revocationChecks.size());
+        for (RevocationCheck revocationCheck : revocationChecks) {
+            revocationStatuses.add(checkRevocationStatus(revocationCheck.getToken(), revocationCheck.getConsumerKey(),
+                    revocationCheck.getEntityId(), revocationCheck.getTokenIssuedTime()));
+        }
+        return revocationStatuses;
+    }
+
     /**
      * Revoke access tokens based on a user event.
      *
@@ -84,6 +133,21 @@ public interface InvalidTokenPersistenceService {
     void revokeTokensByUserEvent(String subjectId, String subjectIdType, long revocationTime, String organization,
                                  int retryAttemptCounter) throws IdentityOAuth2Exception;
 
+    /**
+     * Revoke access tokens based on a batch of user events. Implementations may override this to persist all the
+     * rules in a single transaction. The default implementation persists the rules one by one.
+     *
+     * @param revocationRules Revocation rules of the subject entities.
+     * @throws IdentityOAuth2Exception If an error occurs during access token revocation.
+     */
+    default void revokeTokensByUserEvents(List<RevocationRule> revocationRules) throws IdentityOAuth2Exception {
+
+        for (RevocationRule revocationRule : revocationRules) {
+            revokeTokensByUserEvent(revocationRule.getSubjectId(), revocationRule.getSubjectIdType(),
+                    revocationRule.getRevocationTime(), revocationRule.getOrganization(), 0);
+        }
+    }
+
     /**
      * Revoke access tokens based on a consumer key event.
      *
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import java.util.Date;
+
+/**
+ * Token to be checked against the direct and indirect revocation rules, as one of the checks of a batch.
+ */
+public class RevocationCheck {
+
+    private final String token;
+    private final String consumerKey;
+    private final String entityId;
+    private final Date tokenIssuedTime;
+
+    public RevocationCheck(String token, String consumerKey, String entityId, Date tokenIssuedTime) {
+
+        this.token = token;
+        this.consumerKey = consumerKey;
+        this.entityId = entityId;
+        this.tokenIssuedTime = tokenIssuedTime;
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public String getConsumerKey() {
+
+        return consumerKey;
+    }
+
+    public String getEntityId() {
+
+        return entityId;
+    }
+
+    public Date getTokenIssuedTime() {
+
+        return tokenIssuedTime;
+    }
+}
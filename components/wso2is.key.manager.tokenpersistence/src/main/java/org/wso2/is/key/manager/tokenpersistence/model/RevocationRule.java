@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+/**
+ * Rule revoking the tokens issued for a subject entity before the revocation time.
+ */
+public class RevocationRule {
+
+    private final String subjectId;
+    private final String subjectIdType;
+    private final long revocationTime;
+    private final String organization;
+
+    public RevocationRule(String subjectId, String subjectIdType, long revocationTime, String organization) {
+
+        this.subjectId = subjectId;
+        this.subjectIdType = subjectIdType;
+        this.revocationTime = revocationTime;
+        this.organization = organization;
+    }
+
+    public String getSubjectId() {
+
+        return subjectId;
+    }
+
+    public String getSubjectIdType() {
+
+        return subjectIdType;
+    }
+
+    public long getRevocationTime() {
+
+        return revocationTime;
+    }
+
+    public String getOrganization() {
+
+        return organization;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+/**
+ * Result of checking a token against the direct and indirect revocation rules.
+ */
+public class RevocationStatus {
+
+    public static final RevocationStatus NOT_REVOKED = new RevocationStatus(false, false, false);
+
+    private final boolean revokedDirectly;
+    private final boolean revokedForConsumerKey;
+    private final boolean revokedForSubjectEntity;
+
+    public RevocationStatus(boolean revokedDirectly, boolean revokedForConsumerKey, boolean revokedForSubjectEntity) {
+
+        this.revokedDirectly = revokedDirectly;
+        this.revokedForConsumerKey = revokedForConsumerKey;
+        this.revokedForSubjectEntity = revokedForSubjectEntity;
+    }
+
+    /**
+     * Whether the token is marked as invalid due to a direct token revocation.
+     *
+     * @return {@code true} if the token is revoked directly.
+     */
+    public boolean isRevokedDirectly() {
+
+        return revokedDirectly;
+    }
+
+    /**
+     * Whether the token is revoked due to a change in the consumer app after the token was issued.
+     *
+     * @return {@code true} if the token is revoked for the consumer key.
+     */
+    public boolean isRevokedForConsumerKey() {
+
+        return revokedForConsumerKey;
+    }
+
+    /**
+     * Whether the token is revoked due to a change in the subject entity after the token was issued.
+     *
+     * @return {@code true} if the token is revoked for the subject entity.
+     */
+    public boolean isRevokedForSubjectEntity() {
+
+        return revokedForSubjectEntity;
+    }
+
+    /**
+     * Whether the token is revoked through a consumer app or subject entity change.
+     *
+     * @return {@code true} if the token is revoked indirectly.
+     */
+    public boolean isRevokedIndirectly() {
+
+        return revokedForConsumerKey || revokedForSubjectEntity;
+    }
+
+    /**
+     * Whether the token is revoked either directly or indirectly.
+     *
+     * @return {@code true} if the token is revoked.
+     */
+    public boolean isRevoked() {
+
+        return revokedDirectly || isRevokedIndirectly();
+    }
+
+    @Override
+    public String toString() {
+
+        return "RevocationStatus{" +
+                "revokedDirectly=" + revokedDirectly +
+                ", revokedForConsumerKey=" + revokedForConsumerKey +
+                ", revokedForSubjectEntity=" + revokedForSubjectEntity +
+                '}';
+    }
+}
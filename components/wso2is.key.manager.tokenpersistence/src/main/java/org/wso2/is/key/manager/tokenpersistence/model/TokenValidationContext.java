@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenMgtUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of a JWT access token passed through the stages of the token validation pipeline. The user of the token is
+ * resolved on the first request, so that the tokens rejected by the earlier stages do not resolve it.
+ */
+public class TokenValidationContext {
+
+    private final String token;
+    private final SignedJWT signedJWT;
+    private final JWTClaimsSet claimsSet;
+    private final String tokenIdentifier;
+    private final boolean includeExpired;
+    private final Map<String, Object> properties = new HashMap<>();
+    private AuthenticatedUser authenticatedUser;
+    private boolean active = true;
+    private boolean rejected;
+    private boolean revocationCheckDeferred;
+
+    public TokenValidationContext(String token, SignedJWT signedJWT, JWTClaimsSet claimsSet, String tokenIdentifier,
+                                  boolean includeExpired) {
+
+        this.token = token;
+        this.signedJWT = signedJWT;
+        this.claimsSet = claimsSet;
+        this.tokenIdentifier = tokenIdentifier;
+        this.includeExpired = includeExpired;
+    }
+
+    public TokenValidationContext(String token, SignedJWT signedJWT, JWTClaimsSet claimsSet, String tokenIdentifier,
+                                  boolean includeExpired, AuthenticatedUser authenticatedUser) {
+
+        this(token, signedJWT, claimsSet, tokenIdentifier, includeExpired);
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public SignedJWT getSignedJWT() {
+
+        return signedJWT;
+    }
+
+    public JWTClaimsSet getClaimsSet() {
+
+        return claimsSet;
+    }
+
+    public String getTokenIdentifier() {
+
+        return tokenIdentifier;
+    }
+
+    /**
+     * Whether the expired tokens are requested, in which case an expired token is marked inactive instead of being
+     * rejected.
+     *
+     * @return {@code true} if the expired tokens are requested.
+     */
+    public boolean isIncludeExpired() {
+
+        return includeExpired;
+    }
+
+    /**
+     * Get the user of the token, resolving it on the first call.
+     *
+     * @return Authenticated user.
+     * @throws IdentityOAuth2Exception If the user could not be resolved.
+     */
+    public AuthenticatedUser getAuthenticatedUser() throws IdentityOAuth2Exception {
+
+        if (authenticatedUser == null) {
+            authenticatedUser = TokenMgtUtil.getAuthenticatedUser(claimsSet);
+        }
+        return authenticatedUser;
+    }
+
+    public boolean isActive() {
+
+        return active;
+    }
+
+    public void setActive(boolean active) {
+
+        this.active = active;
+    }
+
+    /**
+     * Reject the token. No further stages are run for a rejected token.
+     */
+    public void reject() {
+
+        this.rejected = true;
+    }
+
+    public boolean isRejected() {
+
+        return rejected;
+    }
+
+    /**
+     * Whether the revocation check is made by the caller after the pipeline, as in the batch validations which check
+     * the revocations of the whole batch at once.
+     *
+     * @return {@code true} if the revocation check is deferred.
+     */
+    public boolean isRevocationCheckDeferred() {
+
+        return revocationCheckDeferred;
+    }
+
+    public void setRevocationCheckDeferred(boolean revocationCheckDeferred) {
+
+        this.revocationCheckDeferred = revocationCheckDeferred;
+    }
+
+    /**
+     * Get a property set by an earlier stage.
+     *
+     * @param name Property name.
+     * @return Property value, or {@code null} if the property is not set.
+     */
+    public Object getProperty(String name) {
+
+        return properties.get(name);
+    }
+
+    public void setProperty(String name, Object value) {
+
+        properties.put(name, value);
+    }
+}
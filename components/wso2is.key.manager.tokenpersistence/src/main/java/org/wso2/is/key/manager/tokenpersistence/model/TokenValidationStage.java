@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+
+/**
+ * Stage of the JWT access token validation pipeline. The stages run in the ascending order of their order values,
+ * after the token is parsed and before the access token data is built from it. Additional stages can be registered
+ * as OSGi services of this interface.
+ * <p>
+ * The built in stages check the expiry and not before times (100), the signature (200) and the revocations (300).
+ * A stage should be placed after the cheaper stages which reject more tokens.
+ * <p>
+ * A token which passed the pipeline is kept in the verified access token cache until it expires, and a token found in
+ * the cache is not validated by the built in stages again, apart from the revocation check. The additional stages are
+ * run for every cached token as well, with the user resolved when the token was first validated. Hence, a rejection of
+ * an additional stage is not cached, and a stage whose checks depend on the request sees every request for the token.
+ */
+public interface TokenValidationStage {
+
+    /**
+     * Get the name of the stage, under which its metrics are reported.
+     *
+     * @return Stage name.
+     */
+    String getName();
+
+    /**
+     * Get the order of the stage in the pipeline.
+     *
+     * @return Order of the stage.
+     */
+    int getOrder();
+
+    /**
+     * Validate the token of the given context. A stage which finds the token not valid rejects it through
+     * {@link TokenValidationContext#reject()}.
+     *
+     * @param context Validation context of the token.
+     * @throws IdentityOAuth2Exception If the token could not be validated.
+     */
+    void validate(TokenValidationContext context) throws IdentityOAuth2Exception;
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.model;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+
+/**
+ * JWT access token of which the signature, expiry and not before time are already verified, along with the user
+ * resolved from it.
+ */
+public class VerifiedAccessToken {
+
+    private final String tokenIdentifier;
+    private final JWTClaimsSet claimsSet;
+    private final AuthenticatedUser authenticatedUser;
+
+    public VerifiedAccessToken(String tokenIdentifier, JWTClaimsSet claimsSet, AuthenticatedUser authenticatedUser) {
+
+        this.tokenIdentifier = tokenIdentifier;
+        this.claimsSet = claimsSet;
+        this.authenticatedUser = authenticatedUser;
+    }
+
+    public String getTokenIdentifier() {
+
+        return tokenIdentifier;
+    }
+
+    public JWTClaimsSet getClaimsSet() {
+
+        return claimsSet;
+    }
+
+    public AuthenticatedUser getAuthenticatedUser() {
+
+        return authenticatedUser;
+    }
+}
@@ -46,11 +46,15 @@ import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.AuthenticatedUserCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.VerifiedAccessTokenCache;
 import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationRule;
 import org.wso2.is.key.manager.tokenpersistence.utils.OpaqueTokenUtil;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -96,6 +100,7 @@ public class InMemoryOAuth2RevocationProcessor implements OAuth2RevocationProces
             ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService().addInvalidToken(
                     accessTokenDO.getAccessToken(), accessTokenDO.getConsumerKey(),
                     accessTokenDO.getIssuedTime().getTime() + accessTokenDO.getValidityPeriodInMillis());
+            VerifiedAccessTokenCache.getInstance().invalidateByTokenIdentifier(accessTokenDO.getAccessToken());
         }
     }
 
@@ -151,6 +156,7 @@ public class InMemoryOAuth2RevocationProcessor implements OAuth2RevocationProces
         try {
             ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService().revokeTokensByUserEvent(userUUID,
                     PersistenceConstants.ENTITY_ID_TYPE_USER_ID, revocationTime, tenantDomain, 0);
+            AuthenticatedUserCache.getInstance().invalidate(userUUID);
             revokeAppTokensOfUser(params);
         } catch (IdentityOAuth2Exception e) {
             log.error("Error while persisting revoke rules for tokens by user event.", e);
@@ -176,8 +182,17 @@ public class InMemoryOAuth2RevocationProcessor implements OAuth2RevocationProces
         try {
             OAuthAppDO[] oAuthAppDOs = oAuthAppDAO
                     .getOAuthConsumerAppsOfUser((String) params.get(PersistenceConstants.USERNAME), tenantId);
+            if (oAuthAppDOs == null || oAuthAppDOs.length == 0) {
+                return;
+            }
+            List<String> consumerKeys = new ArrayList<>(oAuthAppDOs.length);
             for (OAuthAppDO oAuthAppDO : oAuthAppDOs) {
-                String consumerKey = oAuthAppDO.getOauthConsumerKey();
+                consumerKeys.add(oAuthAppDO.getOauthConsumerKey());
+            }
+            List<String> revocationBatch = Collections.unmodifiableList(consumerKeys);
+            List<RevocationRule> revocationRules = new ArrayList<>(consumerKeys.size());
+            List<Map<String, Object>> revokeAppTokenParamsList = new ArrayList<>(consumerKeys.size());
+            for (String consumerKey : consumerKeys) {
                 Map<String, Object> revokeAppTokenParams = new HashMap<>();
                 revokeAppTokenParams.put(PersistenceConstants.ENTITY_ID, consumerKey);
                 revokeAppTokenParams.put(PersistenceConstants.ENTITY_TYPE,
@@ -185,11 +200,17 @@ public class InMemoryOAuth2RevocationProcessor implements OAuth2RevocationProces
                 revokeAppTokenParams.put(PersistenceConstants.REVOCATION_TIME, revocationTime);
                 revokeAppTokenParams.put(PersistenceConstants.TENANT_DOMAIN, tenantDomain);
                 revokeAppTokenParams.put(PersistenceConstants.TENANT_ID, tenantId);
+                // Listeners can read the whole batch from any of the invocations.
+                revokeAppTokenParams.put(PersistenceConstants.REVOCATION_BATCH_ENTITY_IDS, revocationBatch);
+                revokeAppTokenParamsList.add(revokeAppTokenParams);
+                revocationRules.add(new RevocationRule(consumerKey, PersistenceConstants.ENTITY_ID_TYPE_CLIENT_ID,
+                        revocationTime, tenantDomain));
                 OAuthUtil.invokePreRevocationBySystemListeners(consumerKey, revokeAppTokenParams);
-                ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService()
-                        .revokeTokensByUserEvent(consumerKey, PersistenceConstants.ENTITY_ID_TYPE_CLIENT_ID,
-                                revocationTime, tenantDomain, 0);
-                OAuthUtil.invokePostRevocationBySystemListeners(consumerKey, revokeAppTokenParams);
+            }
+            ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService()
+                    .revokeTokensByUserEvents(revocationRules);
+            for (int i = 0; i < consumerKeys.size(); i++) {
+                OAuthUtil.invokePostRevocationBySystemListeners(consumerKeys.get(i), revokeAppTokenParamsList.get(i));
             }
         } catch (IdentityOAuthAdminException | IdentityOAuth2Exception e) {
             log.error("Error while persisting revoke rules for app tokens by user event.", e);
@@ -23,6 +23,7 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -38,12 +39,27 @@ import org.wso2.carbon.identity.oauth2.util.OAuth2Util;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.InvalidAccessTokenCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.VerifiedAccessTokenCache;
 import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+import org.wso2.is.key.manager.tokenpersistence.model.BatchTokenValidationService;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationCheck;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationContext;
+import org.wso2.is.key.manager.tokenpersistence.model.VerifiedAccessToken;
+import org.wso2.is.key.manager.tokenpersistence.utils.JWTClaimsReader;
 import org.wso2.is.key.manager.tokenpersistence.utils.OpaqueTokenUtil;
+import org.wso2.is.key.manager.tokenpersistence.utils.PersistenceConfigUtil;
 import org.wso2.is.key.manager.tokenpersistence.utils.TokenMgtUtil;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Token Validation processor is supposed to be used during token introspection and user info endpoints where you need
@@ -54,9 +70,17 @@ import java.util.Optional;
  * - Validating refresh tokens, including JWT tokens, and checking their expiration and revocation status.
  * The class also handles the caching of validated tokens for improved performance.
  */
-public class InMemoryTokenProvider implements TokenProvider {
+public class InMemoryTokenProvider implements TokenProvider, BatchTokenValidationService {
 
     private static final Log log = LogFactory.getLog(InMemoryTokenProvider.class);
+    private static final String BATCH_VALIDATION_MAX_BATCH_SIZE = "OAuth.TokenPersistence.BatchValidation.MaxBatchSize";
+    private static final String BATCH_VALIDATION_PARALLELISM = "OAuth.TokenPersistence.BatchValidation.Parallelism";
+    private static final int DEFAULT_BATCH_VALIDATION_MAX_BATCH_SIZE = 100;
+
+    private final int maxBatchSize = PersistenceConfigUtil.getIntProperty(BATCH_VALIDATION_MAX_BATCH_SIZE,
+            DEFAULT_BATCH_VALIDATION_MAX_BATCH_SIZE);
+    // Created on the first batch validation.
+    private volatile ForkJoinPool batchValidationPool;
 
     /**
      * Retrieves and verifies JWT access token based on the JWT claims with an option to include expired tokens
@@ -79,10 +103,31 @@ public class InMemoryTokenProvider implements TokenProvider {
             // assume this is a migrated access token, validate and get the token from the database in the old way.
             return getMigratedAccessToken(token, includeExpired);
         }
-        SignedJWT signedJWT = TokenMgtUtil.parseJWT(token);
-        JWTClaimsSet claimsSet = TokenMgtUtil.getTokenJWTClaims(signedJWT);
-        // get JTI of the token.
-        String accessTokenIdentifier = TokenMgtUtil.getTokenIdentifier(claimsSet);
+        VerifiedAccessTokenCache verifiedAccessTokenCache = VerifiedAccessTokenCache.getInstance();
+        VerifiedAccessToken verifiedAccessToken = verifiedAccessTokenCache.get(token);
+        if (verifiedAccessToken != null) {
+            return getCachedVerifiedAccessToken(token, verifiedAccessToken, includeExpired);
+        }
+        // reject the tokens which were rejected recently without validating them again.
+        handleRejectedToken(token, includeExpired);
+        long verificationStartTime = System.currentTimeMillis();
+        // reject the tokens which fail the cheap checks before parsing the token.
+        JWTClaimsReader.Claims unverifiedClaims = JWTClaimsReader.read(token);
+        if (unverifiedClaims != null && isRejectedBeforeParsing(unverifiedClaims, includeExpired)) {
+            return null;
+        }
+        SignedJWT signedJWT;
+        JWTClaimsSet claimsSet;
+        String accessTokenIdentifier;
+        try {
+            signedJWT = TokenMgtUtil.parseJWT(token);
+            claimsSet = TokenMgtUtil.getTokenJWTClaims(signedJWT);
+            // get JTI of the token.
+            accessTokenIdentifier = TokenMgtUtil.getTokenIdentifier(claimsSet);
+        } catch (IdentityOAuth2Exception e) {
+            recordInvalidToken(token);
+            throw e;
+        }
         /*
          * No need to validate the consumer key in the token with the consumer key in the verification request, as
          * it is done by the calling functions. eg: OAuth2Service.revokeTokenByOAuthClient().
@@ -102,77 +147,37 @@ public class InMemoryTokenProvider implements TokenProvider {
                     log.debug(String.format("Validating JWT access token with expiry: %s", includeExpired));
                 }
             }
-            AuthenticatedUser authenticatedUser = TokenMgtUtil.getAuthenticatedUser(claimsSet);
-            // validate JWT token signature.
-            TokenMgtUtil.validateJWTSignature(signedJWT, claimsSet, authenticatedUser);
-            // expiry time verification.
-            boolean isTokenActive = true;
-            if (!JWTUtils.checkExpirationTime(claimsSet.getExpirationTime())) {
-                if (!includeExpired) {
-                    // this means the token is not active, so we can't proceed further.
-                    handleInvalidAccessTokenError(accessTokenIdentifier);
-                }
-                isTokenActive = false;
-            }
-            // not before time verification.
-            JWTUtils.checkNotBeforeTime(claimsSet.getNotBeforeTime());
             /*
-             * check whether the token is already revoked through direct revocations and through following indirect
-             * revocation events.
+             * run the validation stages, which check the expiry and not before times, the signature, and whether the
+             * token is already revoked through direct revocations and through following indirect revocation events.
              * 1. check if consumer app was changed.
              * 2. check if user was changed.
              */
-            if (TokenMgtUtil.isTokenRevokedDirectly(accessTokenIdentifier, consumerKey)
-                    || TokenMgtUtil.isTokenRevokedIndirectly(claimsSet, authenticatedUser)) {
+            TokenValidationContext context = new TokenValidationContext(token, signedJWT, claimsSet,
+                    accessTokenIdentifier, includeExpired);
+            try {
+                TokenValidationPipeline.getInstance().validate(context);
+            } catch (IdentityOAuth2Exception e) {
+                if (TokenMgtUtil.INVALID_SIGNATURE_ERROR_MESSAGE.equals(e.getMessage())) {
+                    recordInvalidToken(token);
+                }
+                throw e;
+            }
+            if (context.isRejected()) {
                 if (!includeExpired) {
                     handleInvalidAccessTokenError(accessTokenIdentifier);
                 }
                 return null; // even if the token is invalid/revoked, we return null if includeExpired is true.
             }
-            Optional<AccessTokenDO> accessTokenDO = TokenMgtUtil.getTokenDOFromCache(accessTokenIdentifier);
-            if (accessTokenDO.isPresent()) {
-                validationDataDO = accessTokenDO.get();
-                if (log.isDebugEnabled()) {
-                    if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
-                        log.debug(String.format("Retrieved access token(hashed): %s from OAuthCache to verify.",
-                                DigestUtils.sha256Hex(validationDataDO.getAccessToken())));
-                    } else {
-                        log.debug("Retrieved access token from cache to verify.");
-                    }
-                }
-            } else {
-                // create new AccessTokenDO with validated token information.
-                validationDataDO = new AccessTokenDO();
-                validationDataDO.setAccessToken(accessTokenIdentifier);
-                validationDataDO.setConsumerKey(consumerKey);
-                validationDataDO.setIssuedTime(new Timestamp(claimsSet.getIssueTime().getTime()));
-                validationDataDO.setValidityPeriodInMillis(claimsSet.getExpirationTime().getTime()
-                        - claimsSet.getIssueTime().getTime());
-                Object scopes = claimsSet.getClaim(PersistenceConstants.JWTClaim.SCOPE);
-                validationDataDO.setScope(TokenMgtUtil.getScopes(scopes));
-                validationDataDO.setAuthzUser(authenticatedUser);
-                RealmService realmService = ServiceReferenceHolder.getInstance().getRealmService();
-                try {
-                    int tenantId = realmService.getTenantManager().getTenantId(authenticatedUser.getTenantDomain());
-                    validationDataDO.setTenantID(tenantId);
-                } catch (UserStoreException e) {
-                    throw new IdentityOAuth2Exception("Error while getting tenant ID from tenant domain:"
-                            + authenticatedUser.getTenantDomain(), e);
-                }
-                if (isTokenActive) {
-                    validationDataDO.setTokenState(OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
-                } else {
-                    validationDataDO.setTokenState(OAuthConstants.TokenStates.TOKEN_STATE_EXPIRED);
-                }
-                if (OAuth2ServiceComponentHolder.isConsentedTokenColumnEnabled()) {
-                    // claim can only be null for migrated tokens, which are already handled above.Hence, no null check.
-                    validationDataDO.setIsConsentedToken(
-                            (boolean) claimsSet.getClaim(PersistenceConstants.JWTClaim.IS_CONSENTED));
-                }
-                validationDataDO.setTokenId(TokenMgtUtil.getTokenId(claimsSet));
-                // Add the token back to the cache in the case of a cache miss.
-                TokenMgtUtil.addTokenToCache(accessTokenIdentifier, validationDataDO);
+            boolean isTokenActive = context.isActive();
+            AuthenticatedUser authenticatedUser = context.getAuthenticatedUser();
+            if (isTokenActive) {
+                verifiedAccessTokenCache.put(token,
+                        new VerifiedAccessToken(accessTokenIdentifier, claimsSet, authenticatedUser),
+                        claimsSet.getExpirationTime().getTime(), verificationStartTime);
             }
+            validationDataDO = getAccessTokenDO(accessTokenIdentifier, consumerKey, claimsSet, authenticatedUser,
+                    isTokenActive);
         } else {
             // not a valid access token.
             if (!includeExpired) {
@@ -182,6 +187,203 @@ public class InMemoryTokenProvider implements TokenProvider {
         return validationDataDO;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tokens are parsed and their signatures are verified in parallel, on a pool bounded by the configured
+     * parallelism. The revocation status of the whole batch is then resolved at once.
+     */
+    @Override
+    public List<AccessTokenDO> getVerifiedAccessTokens(List<String> tokens) throws IdentityOAuth2Exception {
+
+        if (tokens.size() > maxBatchSize) {
+            throw new IdentityOAuth2Exception(String.format("The batch of %s tokens exceeds the maximum batch size: %s",
+                    tokens.size(), maxBatchSize));
+        }
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        String tenantDomain = carbonContext.getTenantDomain();
+        int tenantId = carbonContext.getTenantId();
+        ForkJoinPool pool = getBatchValidationPool();
+        List<ForkJoinTask<BatchValidationEntry>> tasks = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            tasks.add(pool.submit(() -> verifyBatchAccessToken(token, tenantDomain, tenantId)));
+        }
+        List<BatchValidationEntry> entries = new ArrayList<>(tokens.size());
+        List<RevocationCheck> revocationChecks = new ArrayList<>(tokens.size());
+        for (ForkJoinTask<BatchValidationEntry> task : tasks) {
+            BatchValidationEntry entry = task.join();
+            entries.add(entry);
+            if (entry != null && entry.verifiedAccessToken != null) {
+                JWTClaimsSet claimsSet = entry.verifiedAccessToken.getClaimsSet();
+                revocationChecks.add(new RevocationCheck(entry.verifiedAccessToken.getTokenIdentifier(),
+                        (String) claimsSet.getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY),
+                        (String) claimsSet.getClaim(OAuth2Constants.ENTITY_ID), claimsSet.getIssueTime()));
+            }
+        }
+        List<RevocationStatus> revocationStatuses = revocationChecks.isEmpty() ? Collections.emptyList()
+                : ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService()
+                .checkRevocationStatuses(revocationChecks);
+
+        List<AccessTokenDO> accessTokenDOs = new ArrayList<>(tokens.size());
+        int revocationStatusIndex = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            BatchValidationEntry entry = entries.get(i);
+            if (entry == null || entry.verifiedAccessToken == null) {
+                accessTokenDOs.add(entry != null ? entry.accessTokenDO : null);
+                continue;
+            }
+            VerifiedAccessToken verifiedAccessToken = entry.verifiedAccessToken;
+            JWTClaimsSet claimsSet = verifiedAccessToken.getClaimsSet();
+            if (TokenMgtUtil.isTokenRevoked(revocationStatuses.get(revocationStatusIndex++), claimsSet,
+                    verifiedAccessToken.getAuthenticatedUser())) {
+                accessTokenDOs.add(null);
+                continue;
+            }
+            if (!entry.cached) {
+                VerifiedAccessTokenCache.getInstance().put(tokens.get(i), verifiedAccessToken,
+                        claimsSet.getExpirationTime().getTime(), entry.verificationStartTime);
+            }
+            accessTokenDOs.add(getAccessTokenDO(verifiedAccessToken.getTokenIdentifier(),
+                    (String) claimsSet.getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY), claimsSet,
+                    verifiedAccessToken.getAuthenticatedUser(), true));
+        }
+        return accessTokenDOs;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+
+        return maxBatchSize;
+    }
+
+    /**
+     * Shut down the pool used for the batch validations.
+     */
+    public void destroy() {
+
+        ForkJoinPool pool = batchValidationPool;
+        if (pool != null) {
+            pool.shutdown();
+            batchValidationPool = null;
+        }
+    }
+
+    private ForkJoinPool getBatchValidationPool() {
+
+        ForkJoinPool pool = batchValidationPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = batchValidationPool;
+                if (pool == null) {
+                    int parallelism = Math.max(1, PersistenceConfigUtil.getIntProperty(BATCH_VALIDATION_PARALLELISM,
+                            Runtime.getRuntime().availableProcessors()));
+                    pool = new ForkJoinPool(parallelism);
+                    batchValidationPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Verify a token of a batch in the tenant flow of the batch, up to the revocation check which is made for the
+     * whole batch.
+     *
+     * @param token        Access token.
+     * @param tenantDomain Tenant domain of the batch validation request.
+     * @param tenantId     Tenant id of the batch validation request.
+     * @return Verified token, or null if the token is not active or could not be verified.
+     */
+    private BatchValidationEntry verifyBatchAccessToken(String token, String tenantDomain, int tenantId) {
+
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(tenantDomain);
+            carbonContext.setTenantId(tenantId);
+            return verifyBatchAccessToken(token);
+        } catch (IdentityOAuth2Exception | IllegalArgumentException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Failed to validate an access token of the batch.", e);
+            }
+            return null;
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private BatchValidationEntry verifyBatchAccessToken(String token) throws IdentityOAuth2Exception {
+
+        VerifiedAccessTokenCache verifiedAccessTokenCache = VerifiedAccessTokenCache.getInstance();
+        VerifiedAccessToken verifiedAccessToken = verifiedAccessTokenCache.get(token);
+        if (verifiedAccessToken != null) {
+            TokenValidationContext context = validateAdditionalStages(token, verifiedAccessToken, false, true);
+            if (context != null && (context.isRejected() || !context.isActive())) {
+                return null;
+            }
+            return new BatchValidationEntry(verifiedAccessToken, 0, true);
+        }
+        if (!JWTUtils.isJWT(token)) {
+            return new BatchValidationEntry(getMigratedAccessToken(token, false));
+        }
+        if (InvalidAccessTokenCache.getInstance().get(token) != null) {
+            return null;
+        }
+        long verificationStartTime = System.currentTimeMillis();
+        JWTClaimsReader.Claims unverifiedClaims = JWTClaimsReader.read(token);
+        if (unverifiedClaims != null && isRejectedBeforeParsing(unverifiedClaims, false)) {
+            return null;
+        }
+        SignedJWT signedJWT = TokenMgtUtil.parseJWT(token);
+        JWTClaimsSet claimsSet = TokenMgtUtil.getTokenJWTClaims(signedJWT);
+        String accessTokenIdentifier = TokenMgtUtil.getTokenIdentifier(claimsSet);
+        if (claimsSet.getClaim(OAuth2Constants.ENTITY_ID) == null) {
+            return new BatchValidationEntry(getMigratedAccessToken(accessTokenIdentifier, false));
+        }
+        if (TokenMgtUtil.isRefreshTokenType(claimsSet)) {
+            return null;
+        }
+        TokenValidationContext context = new TokenValidationContext(token, signedJWT, claimsSet, accessTokenIdentifier,
+                false);
+        context.setRevocationCheckDeferred(true);
+        TokenValidationPipeline.getInstance().validate(context);
+        if (context.isRejected()) {
+            return null;
+        }
+        return new BatchValidationEntry(new VerifiedAccessToken(accessTokenIdentifier, claimsSet,
+                context.getAuthenticatedUser()), verificationStartTime, false);
+    }
+
+    /**
+     * Reject the given token if it was rejected recently. A token rejected as expired is only rejected if the expired
+     * tokens are not requested.
+     *
+     * @param token          The access token JWT.
+     * @param includeExpired Whether the expired tokens are requested.
+     * @throws IdentityOAuth2Exception If the token was rejected as invalid.
+     */
+    private void handleRejectedToken(String token, boolean includeExpired) throws IdentityOAuth2Exception {
+
+        InvalidAccessTokenCache.Rejection rejection = InvalidAccessTokenCache.getInstance().get(token);
+        if (rejection == InvalidAccessTokenCache.Rejection.INVALID) {
+            throw new IdentityOAuth2Exception("The token was rejected earlier as invalid.");
+        }
+        if (rejection == InvalidAccessTokenCache.Rejection.EXPIRED && !includeExpired) {
+            handleInvalidAccessTokenError(token);
+        }
+    }
+
+    /**
+     * Record a token which was rejected as malformed or badly signed, so that it is rejected without validating it
+     * again if it is presented again.
+     *
+     * @param token The access token JWT.
+     */
+    private void recordInvalidToken(String token) {
+
+        InvalidAccessTokenCache.getInstance().put(token, InvalidAccessTokenCache.Rejection.INVALID);
+    }
+
     /**
      * Retrieves and verifies a refresh token.
      *
@@ -268,6 +470,173 @@ public class InMemoryTokenProvider implements TokenProvider {
         return accessTokenDO;
     }
 
+    /**
+     * Get the AccessTokenDO of a verified JWT access token from the OAuthCache, or build it from the token claims
+     * and add it to the cache on a cache miss.
+     *
+     * @param accessTokenIdentifier Token identifier (JTI) of the JWT
+     * @param consumerKey           Consumer key of the token
+     * @param claimsSet             JWT claims set
+     * @param authenticatedUser     Authenticated user of the token
+     * @param isTokenActive         Whether the token is not expired
+     * @return AccessTokenDO
+     * @throws IdentityOAuth2Exception If an error occurs while resolving the tenant of the user.
+     */
+    private AccessTokenDO getAccessTokenDO(String accessTokenIdentifier, String consumerKey, JWTClaimsSet claimsSet,
+                                           AuthenticatedUser authenticatedUser, boolean isTokenActive)
+            throws IdentityOAuth2Exception {
+
+        AccessTokenDO validationDataDO;
+        Optional<AccessTokenDO> accessTokenDO = TokenMgtUtil.getTokenDOFromCache(accessTokenIdentifier);
+        if (accessTokenDO.isPresent()) {
+            validationDataDO = accessTokenDO.get();
+            if (log.isDebugEnabled()) {
+                if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.ACCESS_TOKEN)) {
+                    log.debug(String.format("Retrieved access token(hashed): %s from OAuthCache to verify.",
+                            DigestUtils.sha256Hex(validationDataDO.getAccessToken())));
+                } else {
+                    log.debug("Retrieved access token from cache to verify.");
+                }
+            }
+        } else {
+            // create new AccessTokenDO with validated token information.
+            validationDataDO = new AccessTokenDO();
+            validationDataDO.setAccessToken(accessTokenIdentifier);
+            validationDataDO.setConsumerKey(consumerKey);
+            validationDataDO.setIssuedTime(new Timestamp(claimsSet.getIssueTime().getTime()));
+            validationDataDO.setValidityPeriodInMillis(claimsSet.getExpirationTime().getTime()
+                    - claimsSet.getIssueTime().getTime());
+            Object scopes = claimsSet.getClaim(PersistenceConstants.JWTClaim.SCOPE);
+            validationDataDO.setScope(TokenMgtUtil.getScopes(scopes));
+            validationDataDO.setAuthzUser(authenticatedUser);
+            RealmService realmService = ServiceReferenceHolder.getInstance().getRealmService();
+            try {
+                int tenantId = realmService.getTenantManager().getTenantId(authenticatedUser.getTenantDomain());
+                validationDataDO.setTenantID(tenantId);
+            } catch (UserStoreException e) {
+                throw new IdentityOAuth2Exception("Error while getting tenant ID from tenant domain:"
+                        + authenticatedUser.getTenantDomain(), e);
+            }
+            if (isTokenActive) {
+                validationDataDO.setTokenState(OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
+            } else {
+                validationDataDO.setTokenState(OAuthConstants.TokenStates.TOKEN_STATE_EXPIRED);
+            }
+            if (OAuth2ServiceComponentHolder.isConsentedTokenColumnEnabled()) {
+                // claim can only be null for migrated tokens, which are already handled above.Hence, no null check.
+                validationDataDO.setIsConsentedToken(
+                        (boolean) claimsSet.getClaim(PersistenceConstants.JWTClaim.IS_CONSENTED));
+            }
+            validationDataDO.setTokenId(TokenMgtUtil.getTokenId(claimsSet));
+            // Add the token back to the cache in the case of a cache miss.
+            TokenMgtUtil.addTokenToCache(accessTokenIdentifier, validationDataDO);
+        }
+        return validationDataDO;
+    }
+
+    /**
+     * Get the AccessTokenDO of a JWT access token found in the verified access token cache. Direct revocations
+     * remove the token from the cache, hence only the indirect revocations are checked, along with the validation
+     * stages registered in addition to the built in stages.
+     *
+     * @param token               Raw JWT access token
+     * @param verifiedAccessToken Verified access token found in the cache
+     * @param includeExpired      Whether to return null instead of throwing an error for an inactive token
+     * @return AccessTokenDO, or null if the token is revoked or rejected and includeExpired is true
+     * @throws IdentityOAuth2Exception If an error occurs while checking the revocation status of the token.
+     */
+    private AccessTokenDO getCachedVerifiedAccessToken(String token, VerifiedAccessToken verifiedAccessToken,
+                                                       boolean includeExpired) throws IdentityOAuth2Exception {
+
+        String accessTokenIdentifier = verifiedAccessToken.getTokenIdentifier();
+        JWTClaimsSet claimsSet = verifiedAccessToken.getClaimsSet();
+        AuthenticatedUser authenticatedUser = verifiedAccessToken.getAuthenticatedUser();
+        log.debug("Verified JWT access token found in the cache. Checking only the indirect revocations.");
+        if (TokenMgtUtil.isTokenRevokedIndirectly(claimsSet, authenticatedUser)) {
+            VerifiedAccessTokenCache.getInstance().invalidate(token);
+            if (!includeExpired) {
+                handleInvalidAccessTokenError(accessTokenIdentifier);
+            }
+            return null;
+        }
+        TokenValidationContext context = validateAdditionalStages(token, verifiedAccessToken, includeExpired, false);
+        if (context != null && context.isRejected()) {
+            if (!includeExpired) {
+                handleInvalidAccessTokenError(accessTokenIdentifier);
+            }
+            return null;
+        }
+        // The cached entry expires along with the token, hence the token is active unless an additional stage
+        // marked it inactive.
+        return getAccessTokenDO(accessTokenIdentifier,
+                (String) claimsSet.getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY), claimsSet,
+                authenticatedUser, context == null || context.isActive());
+    }
+
+    /**
+     * Run the validation stages registered in addition to the built in stages for a token found in the verified access
+     * token cache, as a cached token does not go through the validation pipeline.
+     *
+     * @param token                   The access token JWT.
+     * @param verifiedAccessToken     Cached verified token.
+     * @param includeExpired          Whether the expired tokens are requested.
+     * @param revocationCheckDeferred Whether the revocation check is made for a whole batch.
+     * @return Validation context after the additional stages, or null if no additional stages are registered.
+     * @throws IdentityOAuth2Exception If a stage could not validate the token.
+     */
+    private TokenValidationContext validateAdditionalStages(String token, VerifiedAccessToken verifiedAccessToken,
+                                                            boolean includeExpired, boolean revocationCheckDeferred)
+            throws IdentityOAuth2Exception {
+
+        TokenValidationPipeline pipeline = TokenValidationPipeline.getInstance();
+        if (!pipeline.hasAdditionalStages()) {
+            return null;
+        }
+        TokenValidationContext context = new TokenValidationContext(token, TokenMgtUtil.parseJWT(token),
+                verifiedAccessToken.getClaimsSet(), verifiedAccessToken.getTokenIdentifier(), includeExpired,
+                verifiedAccessToken.getAuthenticatedUser());
+        context.setRevocationCheckDeferred(revocationCheckDeferred);
+        pipeline.validateAdditionalStages(context);
+        return context;
+    }
+
+    /**
+     * Checks the claims read from an unverified JWT access token, for the token type, expiry and not before time checks
+     * which would fail in the full verification too. The checks which can not be made from the read claims are left to
+     * the full verification.
+     *
+     * @param claims         Claims read from the unverified token.
+     * @param includeExpired Whether expired tokens are included in the verification.
+     * @return True if the token is rejected, in which case null should be returned.
+     * @throws IdentityOAuth2Exception If the token is not valid yet.
+     */
+    private boolean isRejectedBeforeParsing(JWTClaimsReader.Claims claims, boolean includeExpired)
+            throws IdentityOAuth2Exception {
+
+        String accessTokenIdentifier = claims.getTokenIdentifier();
+        if (accessTokenIdentifier == null || claims.getEntityId() == null) {
+            return false;
+        }
+        if (claims.getTokenType() != null) {
+            if (!PersistenceConstants.REFRESH_TOKEN.equals(claims.getTokenType())) {
+                return false;
+            }
+            // not a valid access token.
+            if (!includeExpired) {
+                handleInvalidAccessTokenError(accessTokenIdentifier);
+            }
+            return true;
+        }
+        if (!includeExpired && claims.getExpirationTime() != null
+                && !JWTUtils.checkExpirationTime(new Date(claims.getExpirationTime()))) {
+            handleInvalidAccessTokenError(accessTokenIdentifier);
+        }
+        if (claims.getNotBeforeTime() != null) {
+            JWTUtils.checkNotBeforeTime(new Date(claims.getNotBeforeTime()));
+        }
+        return false;
+    }
+
     /**
      * Handles throwing of error when active or valid access token not found.
      *
@@ -298,8 +667,6 @@ public class InMemoryTokenProvider implements TokenProvider {
             throws IdentityOAuth2Exception {
 
         RefreshTokenValidationDataDO validationDataDO = new RefreshTokenValidationDataDO();
-        String consumerKey = (String) claimsSet
-                .getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY);
         String refreshTokenIdentifier = TokenMgtUtil.getTokenIdentifier(claimsSet);
         if (log.isDebugEnabled()) {
             if (IdentityUtil.isTokenLoggable(IdentityConstants.IdentityTokens.REFRESH_TOKEN)) {
@@ -319,8 +686,7 @@ public class InMemoryTokenProvider implements TokenProvider {
              * 1. check if consumer app was changed.
              * 2. check if user was changed.
              */
-            if (TokenMgtUtil.isTokenRevokedDirectly(refreshTokenIdentifier, consumerKey)
-                    || TokenMgtUtil.isTokenRevokedIndirectly(claimsSet, authenticatedUser)) {
+            if (TokenMgtUtil.isTokenRevoked(refreshTokenIdentifier, claimsSet, authenticatedUser)) {
                 validationDataDO.setRefreshTokenState(OAuthConstants.TokenStates.TOKEN_STATE_REVOKED);
             } else {
                 validationDataDO.setRefreshTokenState(OAuthConstants.TokenStates.TOKEN_STATE_ACTIVE);
@@ -366,4 +732,32 @@ public class InMemoryTokenProvider implements TokenProvider {
         }
         return accessTokenDO;
     }
+
+    /**
+     * Token of a batch, either resolved to its final access token data or verified up to the revocation check.
+     */
+    private static final class BatchValidationEntry {
+
+        private final AccessTokenDO accessTokenDO;
+        private final VerifiedAccessToken verifiedAccessToken;
+        private final long verificationStartTime;
+        private final boolean cached;
+
+        private BatchValidationEntry(AccessTokenDO accessTokenDO) {
+
+            this.accessTokenDO = accessTokenDO;
+            this.verifiedAccessToken = null;
+            this.verificationStartTime = 0;
+            this.cached = false;
+        }
+
+        private BatchValidationEntry(VerifiedAccessToken verifiedAccessToken, long verificationStartTime,
+                                     boolean cached) {
+
+            this.accessTokenDO = null;
+            this.verifiedAccessToken = verifiedAccessToken;
+            this.verificationStartTime = verificationStartTime;
+            this.cached = cached;
+        }
+    }
 }
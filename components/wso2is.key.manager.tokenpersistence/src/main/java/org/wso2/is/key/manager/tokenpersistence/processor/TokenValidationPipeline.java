@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.processor;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationContext;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage;
+import org.wso2.is.key.manager.tokenpersistence.processor.stage.RevocationValidationStage;
+import org.wso2.is.key.manager.tokenpersistence.processor.stage.SignatureValidationStage;
+import org.wso2.is.key.manager.tokenpersistence.processor.stage.TemporalValidationStage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ordered stages which validate a parsed JWT access token. The stages run in the ascending order of their order
+ * values, and the pipeline stops at the first stage which rejects the token. The number of runs, rejections and
+ * failures and the time spent are recorded for each stage.
+ */
+public class TokenValidationPipeline {
+
+    private static final Log log = LogFactory.getLog(TokenValidationPipeline.class);
+    private static final TokenValidationPipeline instance = new TokenValidationPipeline();
+
+    // Replaced as a whole when a stage is added or removed, as it is read on every token validation without locking.
+    private volatile List<RegisteredStage> stages = Collections.emptyList();
+
+    private TokenValidationPipeline() {
+
+        addStage(new TemporalValidationStage(), true);
+        addStage(new SignatureValidationStage(), true);
+        addStage(new RevocationValidationStage(), true);
+    }
+
+    public static TokenValidationPipeline getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Run the stages of the pipeline for the given token.
+     *
+     * @param context Validation context of the token.
+     * @throws IdentityOAuth2Exception If a stage could not validate the token.
+     */
+    public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+        validate(context, false);
+    }
+
+    /**
+     * Run only the stages registered in addition to the built in stages, for a token whose expiry, signature and
+     * revocations are already validated, such as a token found in the verified access token cache.
+     *
+     * @param context Validation context of the token.
+     * @throws IdentityOAuth2Exception If a stage could not validate the token.
+     */
+    public void validateAdditionalStages(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+        validate(context, true);
+    }
+
+    /**
+     * Check whether any stages are registered in addition to the built in stages.
+     *
+     * @return {@code true} if additional stages are registered.
+     */
+    public boolean hasAdditionalStages() {
+
+        for (RegisteredStage registeredStage : stages) {
+            if (!registeredStage.builtIn) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void validate(TokenValidationContext context, boolean additionalStagesOnly)
+            throws IdentityOAuth2Exception {
+
+        for (RegisteredStage registeredStage : stages) {
+            if (additionalStagesOnly && registeredStage.builtIn) {
+                continue;
+            }
+            long startTime = System.nanoTime();
+            try {
+                registeredStage.stage.validate(context);
+            } catch (IdentityOAuth2Exception | RuntimeException e) {
+                registeredStage.metrics.record(System.nanoTime() - startTime, false, true);
+                throw e;
+            }
+            registeredStage.metrics.record(System.nanoTime() - startTime, context.isRejected(), false);
+            if (context.isRejected()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Token rejected by the validation stage: " + registeredStage.stage.getName());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add a stage to the pipeline. A stage is placed after the stages with the same order.
+     *
+     * @param stage Validation stage.
+     */
+    public void addStage(TokenValidationStage stage) {
+
+        addStage(stage, false);
+    }
+
+    private synchronized void addStage(TokenValidationStage stage, boolean builtIn) {
+
+        List<RegisteredStage> updatedStages = new ArrayList<>(stages);
+        updatedStages.add(new RegisteredStage(stage, builtIn));
+        // The sort is stable, so the stages with the same order are kept in the order they were added.
+        updatedStages.sort(Comparator.comparingInt(registeredStage -> registeredStage.stage.getOrder()));
+        stages = Collections.unmodifiableList(updatedStages);
+        log.info(String.format("Token validation stage %s added with order %s.", stage.getName(), stage.getOrder()));
+    }
+
+    /**
+     * Remove a stage from the pipeline.
+     *
+     * @param stage Validation stage.
+     */
+    public synchronized void removeStage(TokenValidationStage stage) {
+
+        List<RegisteredStage> updatedStages = new ArrayList<>(stages);
+        if (updatedStages.removeIf(registeredStage -> registeredStage.stage == stage)) {
+            stages = Collections.unmodifiableList(updatedStages);
+            log.info("Token validation stage removed: " + stage.getName());
+        }
+    }
+
+    /**
+     * Get the metrics of the stages of the pipeline, in the order of the stages.
+     *
+     * @return Metrics of the stages.
+     */
+    public List<StageMetrics> getStageMetrics() {
+
+        List<StageMetrics> stageMetrics = new ArrayList<>(stages.size());
+        for (RegisteredStage registeredStage : stages) {
+            stageMetrics.add(registeredStage.metrics);
+        }
+        return stageMetrics;
+    }
+
+    @Override
+    public String toString() {
+
+        return "TokenValidationPipeline{stages=" + getStageMetrics() + '}';
+    }
+
+    private static final class RegisteredStage {
+
+        private final TokenValidationStage stage;
+        private final boolean builtIn;
+        private final StageMetrics metrics;
+
+        private RegisteredStage(TokenValidationStage stage, boolean builtIn) {
+
+            this.stage = stage;
+            this.builtIn = builtIn;
+            this.metrics = new StageMetrics(stage.getName(), stage.getOrder());
+        }
+    }
+
+    /**
+     * Runs, rejections, failures and the time spent of a stage, since the stage was added.
+     */
+    public static final class StageMetrics {
+
+        private final String name;
+        private final int order;
+        private final LongAdder runCount = new LongAdder();
+        private final LongAdder rejectionCount = new LongAdder();
+        private final LongAdder failureCount = new LongAdder();
+        private final LongAdder totalTimeInNanos = new LongAdder();
+
+        private StageMetrics(String name, int order) {
+
+            this.name = name;
+            this.order = order;
+        }
+
+        private void record(long timeInNanos, boolean rejected, boolean failed) {
+
+            runCount.increment();
+            totalTimeInNanos.add(timeInNanos);
+            if (rejected) {
+                rejectionCount.increment();
+            }
+            if (failed) {
+                failureCount.increment();
+            }
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public int getOrder() {
+
+            return order;
+        }
+
+        public long getRunCount() {
+
+            return runCount.sum();
+        }
+
+        public long getRejectionCount() {
+
+            return rejectionCount.sum();
+        }
+
+        public long getFailureCount() {
+
+            return failureCount.sum();
+        }
+
+        public long getTotalTimeInNanos() {
+
+            return totalTimeInNanos.sum();
+        }
+
+        /**
+         * Get the mean time of a run of the stage.
+         *
+         * @return Mean time in microseconds, or 0 if the stage has not run.
+         */
+        public double getMeanTimeInMicros() {
+
+            long runs = runCount.sum();
+            return runs == 0 ? 0 : (double) totalTimeInNanos.sum() / runs / TimeUnit.MICROSECONDS.toNanos(1);
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format("%s{order=%s, runs=%s, rejections=%s, failures=%s, meanTime=%.1fus}", name, order,
+                    getRunCount(), getRejectionCount(), getFailureCount(), getMeanTimeInMicros());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.processor.stage;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationContext;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenMgtUtil;
+
+/**
+ * Verifies the signature of the token. The signing tenant is read from the claims of the token where possible, so that
+ * the user of the token is only resolved when the token is signed with the key of the tenant of the user.
+ */
+public class SignatureValidationStage implements TokenValidationStage {
+
+    public static final int ORDER = 200;
+
+    @Override
+    public String getName() {
+
+        return "Signature";
+    }
+
+    @Override
+    public int getOrder() {
+
+        return ORDER;
+    }
+
+    @Override
+    public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+        String tenantDomain = TokenMgtUtil.getSigningTenantDomain(context.getClaimsSet());
+        if (tenantDomain == null) {
+            tenantDomain = context.getAuthenticatedUser().getTenantDomain();
+        }
+        TokenMgtUtil.validateJWTSignature(context.getSignedJWT(), context.getClaimsSet(), tenantDomain);
+    }
+}
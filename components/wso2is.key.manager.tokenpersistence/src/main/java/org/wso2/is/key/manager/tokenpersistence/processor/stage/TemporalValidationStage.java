@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.processor.stage;
+
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.JWTUtils;
+import org.wso2.is.key.manager.tokenpersistence.cache.InvalidAccessTokenCache;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationContext;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage;
+
+/**
+ * Checks the expiry and not before times of the token.
+ */
+public class TemporalValidationStage implements TokenValidationStage {
+
+    public static final int ORDER = 100;
+
+    @Override
+    public String getName() {
+
+        return "Temporal";
+    }
+
+    @Override
+    public int getOrder() {
+
+        return ORDER;
+    }
+
+    @Override
+    public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+        if (!JWTUtils.checkExpirationTime(context.getClaimsSet().getExpirationTime())) {
+            if (!context.isIncludeExpired()) {
+                // this means the token is not active, so we can't proceed further.
+                InvalidAccessTokenCache.getInstance().put(context.getToken(),
+                        InvalidAccessTokenCache.Rejection.EXPIRED);
+                context.reject();
+                return;
+            }
+            context.setActive(false);
+        }
+        JWTUtils.checkNotBeforeTime(context.getClaimsSet().getNotBeforeTime());
+    }
+}
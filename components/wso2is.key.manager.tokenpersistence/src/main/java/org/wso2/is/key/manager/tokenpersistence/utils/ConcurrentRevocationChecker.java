@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the direct, consumer app and subject entity revocation checks of a token concurrently, instead of one after
+ * the other, and returns as soon as any of the checks finds the token revoked. The latency of a revocation check is
+ * then bounded by the slowest single check rather than the sum of the checks.
+ * <p>
+ * This is meant for the invalid token persistence services which resolve each check with its own round trip. The
+ * database backed service already resolves all the checks with a single query, and each concurrent check takes a
+ * connection of its own from the pool. The checks run on a bounded pool, and run on the calling thread when the pool
+ * is saturated.
+ */
+public final class ConcurrentRevocationChecker {
+
+    private static final Log log = LogFactory.getLog(ConcurrentRevocationChecker.class);
+    private static final String CONCURRENT_REVOCATION_CHECK_ENABLE =
+            "OAuth.TokenPersistence.ConcurrentRevocationCheck.Enable";
+    private static final String CONCURRENT_REVOCATION_CHECK_POOL_SIZE =
+            "OAuth.TokenPersistence.ConcurrentRevocationCheck.PoolSize";
+    private static final String CONCURRENT_REVOCATION_CHECK_QUEUE_SIZE =
+            "OAuth.TokenPersistence.ConcurrentRevocationCheck.QueueSize";
+    private static final int DEFAULT_CONCURRENT_REVOCATION_CHECK_QUEUE_SIZE = 1000;
+    private static final long POOL_THREAD_KEEP_ALIVE = 60;
+    private static final int NOT_REVOKED = 0;
+    private static final int REVOKED_DIRECTLY = 1;
+    private static final int REVOKED_FOR_CONSUMER_KEY = 2;
+    private static final int REVOKED_FOR_SUBJECT_ENTITY = 3;
+    private static final ConcurrentRevocationChecker instance = new ConcurrentRevocationChecker();
+
+    // This is null when the concurrent checks are not enabled.
+    private final ThreadPoolExecutor executor;
+
+    private ConcurrentRevocationChecker() {
+
+        if (PersistenceConfigUtil.getBooleanProperty(CONCURRENT_REVOCATION_CHECK_ENABLE, false)) {
+            int poolSize = Math.max(1, PersistenceConfigUtil.getIntProperty(CONCURRENT_REVOCATION_CHECK_POOL_SIZE,
+                    Runtime.getRuntime().availableProcessors() * 2));
+            int queueSize = Math.max(1, PersistenceConfigUtil.getIntProperty(CONCURRENT_REVOCATION_CHECK_QUEUE_SIZE,
+                    DEFAULT_CONCURRENT_REVOCATION_CHECK_QUEUE_SIZE));
+            log.info(String.format("Concurrent revocation checks enabled with pool size: %s and queue size: %s.",
+                    poolSize, queueSize));
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "ConcurrentRevocationChecker-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = new ThreadPoolExecutor(poolSize, poolSize, POOL_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueSize), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+        } else {
+            executor = null;
+        }
+    }
+
+    public static ConcurrentRevocationChecker getInstance() {
+
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return executor != null;
+    }
+
+    /**
+     * Check a token against the direct revocations and the consumer app and subject entity revocation rules, with the
+     * checks run concurrently. Only the check which found the token revoked is reflected in the returned status.
+     *
+     * @param service         Invalid token persistence service to check against.
+     * @param token           The token to check. The direct revocation check is skipped when this is {@code null}.
+     * @param consumerKey     The consumer key for which token was issued.
+     * @param entityId        The entity/subject principle ID for which the token was issued for.
+     * @param tokenIssuedTime The timestamp at which token was issued.
+     * @return Revocation status of the token.
+     * @throws IdentityOAuth2Exception If an error occurs during any of the checks.
+     */
+    public RevocationStatus checkRevocationStatus(InvalidTokenPersistenceService service, String token,
+                                                  String consumerKey, String entityId, Date tokenIssuedTime)
+            throws IdentityOAuth2Exception {
+
+        BlockingQueue<RevocationCheckTask> completedChecks = new LinkedBlockingQueue<>();
+        List<RevocationCheckTask> checks = new ArrayList<>(3);
+        checks.add(new RevocationCheckTask(() -> service.isTokenRevokedForConsumerKey(consumerKey, tokenIssuedTime)
+                ? REVOKED_FOR_CONSUMER_KEY : NOT_REVOKED, completedChecks));
+        checks.add(new RevocationCheckTask(() -> service.isTokenRevokedForSubjectEntity(entityId, tokenIssuedTime)
+                ? REVOKED_FOR_SUBJECT_ENTITY : NOT_REVOKED, completedChecks));
+        if (token != null) {
+            checks.add(new RevocationCheckTask(() -> service.isInvalidToken(token, consumerKey)
+                    ? REVOKED_DIRECTLY : NOT_REVOKED, completedChecks));
+        }
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        String tenantDomain = carbonContext.getTenantDomain();
+        int tenantId = carbonContext.getTenantId();
+        // The last check runs on the calling thread, which would otherwise be idle.
+        for (int i = 0; i < checks.size() - 1; i++) {
+            RevocationCheckTask check = checks.get(i);
+            try {
+                executor.execute(() -> runInTenantFlow(check, tenantDomain, tenantId));
+            } catch (RejectedExecutionException e) {
+                check.run();
+            }
+        }
+        checks.get(checks.size() - 1).run();
+
+        try {
+            for (int i = 0; i < checks.size(); i++) {
+                int result = getResult(completedChecks.take());
+                if (result != NOT_REVOKED) {
+                    return new RevocationStatus(result == REVOKED_DIRECTLY, result == REVOKED_FOR_CONSUMER_KEY,
+                            result == REVOKED_FOR_SUBJECT_ENTITY);
+                }
+            }
+            return RevocationStatus.NOT_REVOKED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityOAuth2Exception("Interrupted while checking the revocation status of the token for "
+                    + "consumer key: " + consumerKey, e);
+        } finally {
+            // The remaining checks are not interrupted, as interrupting a thread blocked on the database may close
+            // the connection. Their results are ignored.
+            for (RevocationCheckTask check : checks) {
+                check.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Shut down the pool of the concurrent checks.
+     */
+    public void destroy() {
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static void runInTenantFlow(RevocationCheckTask check, String tenantDomain, int tenantId) {
+
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(tenantDomain);
+            carbonContext.setTenantId(tenantId);
+            check.run();
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private static int getResult(RevocationCheckTask check) throws IdentityOAuth2Exception, InterruptedException {
+
+        try {
+            return check.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IdentityOAuth2Exception) {
+                throw (IdentityOAuth2Exception) e.getCause();
+            }
+            throw new IdentityOAuth2Exception("Error while checking the revocation status of the token.",
+                    e.getCause());
+        }
+    }
+
+    /**
+     * Revocation check which adds itself to the given queue once it is completed.
+     */
+    private static final class RevocationCheckTask extends FutureTask<Integer> {
+
+        private final BlockingQueue<RevocationCheckTask> completedChecks;
+
+        private RevocationCheckTask(Callable<Integer> check, BlockingQueue<RevocationCheckTask> completedChecks) {
+
+            super(check);
+            this.completedChecks = completedChecks;
+        }
+
+        @Override
+        protected void done() {
+
+            completedChecks.offer(this);
+        }
+    }
+}
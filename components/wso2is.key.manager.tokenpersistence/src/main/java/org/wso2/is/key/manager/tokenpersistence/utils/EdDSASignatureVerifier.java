@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Verifier of the JWTs signed with an Ed25519 key (EdDSA), backed by the Ed25519 signature of the JCA provider of the
+ * runtime. Nimbus verifies EdDSA signatures only with the Tink library, which is not available in the server, while
+ * the Java runtime provides Ed25519 from Java 15 onwards.
+ */
+public class EdDSASignatureVerifier implements JWSVerifier {
+
+    public static final String JCA_ALGORITHM = "Ed25519";
+    private static final Set<JWSAlgorithm> SUPPORTED_ALGORITHMS = Collections.singleton(JWSAlgorithm.EdDSA);
+
+    private final PublicKey publicKey;
+    private final JCAContext jcaContext = new JCAContext();
+
+    /**
+     * @param publicKey Ed25519 public key of the signer.
+     * @throws JOSEException If the runtime does not support Ed25519 signatures or the key is not an Ed25519 key.
+     */
+    public EdDSASignatureVerifier(PublicKey publicKey) throws JOSEException {
+
+        try {
+            Signature.getInstance(JCA_ALGORITHM).initVerify(publicKey);
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Ed25519 signatures are not supported for key: " + publicKey.getAlgorithm(), e);
+        }
+        this.publicKey = publicKey;
+    }
+
+    /**
+     * Check whether the given key is an EdDSA key.
+     *
+     * @param key Public or private key.
+     * @return {@code true} if the key is an EdDSA key.
+     */
+    public static boolean isEdDSAKey(Key key) {
+
+        return "EdDSA".equals(key.getAlgorithm()) || JCA_ALGORITHM.equals(key.getAlgorithm());
+    }
+
+    @Override
+    public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+
+        if (!JWSAlgorithm.EdDSA.equals(header.getAlgorithm())) {
+            throw new JOSEException("Unsupported signature algorithm: " + header.getAlgorithm());
+        }
+        try {
+            // Signatures are not thread safe, and are cheap to create compared to the verification.
+            Signature verifier = Signature.getInstance(JCA_ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(signingInput);
+            return verifier.verify(signature.decode());
+        } catch (SignatureException e) {
+            // Malformed signatures, eg: of an unexpected length, do not verify.
+            return false;
+        } catch (GeneralSecurityException e) {
+            throw new JOSEException("Error while verifying the Ed25519 signature.", e);
+        }
+    }
+
+    @Override
+    public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+
+        return SUPPORTED_ALGORITHMS;
+    }
+
+    @Override
+    public JCAContext getJCAContext() {
+
+        return jcaContext;
+    }
+}
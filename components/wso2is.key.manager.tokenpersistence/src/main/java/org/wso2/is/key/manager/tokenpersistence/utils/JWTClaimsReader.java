@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.wso2.carbon.identity.oauth2.OAuth2Constants;
+import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the claims needed to reject a JWT early (jti, exp, nbf, iat, azp, entity_id and token_type) from the payload of
+ * a signed JWT, without parsing the token into a claims set. The payload is decoded into a reusable per thread buffer
+ * and scanned once, skipping the values of the other claims.
+ * <p>
+ * The claims are read from an unverified token, and should only be used to reject tokens which the full verification
+ * would reject too. A payload which is not read exactly as the full parser would read it (an escaped claim name, or a
+ * claim of an unexpected type) is not read at all, and the token is left to the full verification.
+ */
+public final class JWTClaimsReader {
+
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_NUMERIC_DATE_DIGITS = 15;
+    private static final byte[] DECODE_TABLE = new byte[128];
+    private static final byte[] JTI = name("jti");
+    private static final byte[] EXP = name("exp");
+    private static final byte[] NBF = name("nbf");
+    private static final byte[] IAT = name("iat");
+    private static final byte[] AZP = name(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY);
+    private static final byte[] ENTITY_ID = name(OAuth2Constants.ENTITY_ID);
+    private static final byte[] TOKEN_TYPE = name(PersistenceConstants.JWTClaim.TOKEN_TYPE_ELEM);
+    private static final ThreadLocal<byte[]> payloadBuffer =
+            ThreadLocal.withInitial(() -> new byte[INITIAL_BUFFER_SIZE]);
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE_TABLE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final byte[] buffer;
+    private final int length;
+    private int position;
+
+    private JWTClaimsReader(byte[] buffer, int length) {
+
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    /**
+     * Claims read from the payload of a JWT. The times are in milliseconds, and a claim which is not present in the
+     * payload is {@code null}.
+     */
+    public static final class Claims {
+
+        private String tokenIdentifier;
+        private Long expirationTime;
+        private Long notBeforeTime;
+        private Long issueTime;
+        private String authorizedParty;
+        private String entityId;
+        private String tokenType;
+
+        private Claims() {
+
+        }
+
+        public String getTokenIdentifier() {
+
+            return tokenIdentifier;
+        }
+
+        public Long getExpirationTime() {
+
+            return expirationTime;
+        }
+
+        public Long getNotBeforeTime() {
+
+            return notBeforeTime;
+        }
+
+        public Long getIssueTime() {
+
+            return issueTime;
+        }
+
+        public String getAuthorizedParty() {
+
+            return authorizedParty;
+        }
+
+        public String getEntityId() {
+
+            return entityId;
+        }
+
+        public String getTokenType() {
+
+            return tokenType;
+        }
+    }
+
+    /**
+     * Read the claims of the given signed JWT.
+     *
+     * @param token Signed JWT in the compact serialization.
+     * @return Claims of the token, or {@code null} if the claims could not be read without parsing the token.
+     */
+    public static Claims read(String token) {
+
+        if (token == null) {
+            return null;
+        }
+        int payloadStart = token.indexOf('.') + 1;
+        int payloadEnd = payloadStart > 0 ? token.indexOf('.', payloadStart) : -1;
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return null;
+        }
+        while (payloadEnd > payloadStart && token.charAt(payloadEnd - 1) == '=') {
+            payloadEnd--;
+        }
+        int decodedLength = (payloadEnd - payloadStart) * 3 / 4;
+        if (decodedLength == 0 || decodedLength > MAX_BUFFER_SIZE) {
+            return null;
+        }
+        byte[] buffer = payloadBuffer.get();
+        if (buffer.length < decodedLength) {
+            buffer = new byte[Math.max(decodedLength, buffer.length * 2)];
+            payloadBuffer.set(buffer);
+        }
+        if (!decode(token, payloadStart, payloadEnd, buffer)) {
+            return null;
+        }
+        return new JWTClaimsReader(buffer, decodedLength).readClaims();
+    }
+
+    private static boolean decode(String token, int start, int end, byte[] out) {
+
+        int bits = 0;
+        int bitCount = 0;
+        int outPosition = 0;
+        for (int i = start; i < end; i++) {
+            char c = token.charAt(i);
+            int value = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                out[outPosition++] = (byte) (bits >> bitCount);
+            }
+        }
+        // A single trailing character can not hold a byte.
+        return bitCount < 6;
+    }
+
+    private Claims readClaims() {
+
+        Claims claims = new Claims();
+        skipWhitespace();
+        if (!consume('{')) {
+            return null;
+        }
+        skipWhitespace();
+        if (consume('}')) {
+            return claims;
+        }
+        while (true) {
+            skipWhitespace();
+            if (!consume('"')) {
+                return null;
+            }
+            int nameStart = position;
+            int nameEnd = skipString();
+            if (nameEnd < 0) {
+                return null;
+            }
+            skipWhitespace();
+            if (!consume(':')) {
+                return null;
+            }
+            skipWhitespace();
+            if (!readClaim(claims, nameStart, nameEnd)) {
+                return null;
+            }
+            skipWhitespace();
+            if (consume('}')) {
+                return claims;
+            }
+            if (!consume(',')) {
+                return null;
+            }
+        }
+    }
+
+    private boolean readClaim(Claims claims, int nameStart, int nameEnd) {
+
+        if (indexOf('\\', nameStart, nameEnd) >= 0) {
+            // An escaped name could be one of the read claims.
+            return false;
+        }
+        if (matches(JTI, nameStart, nameEnd)) {
+            return (claims.tokenIdentifier = readString()) != null;
+        } else if (matches(AZP, nameStart, nameEnd)) {
+            return (claims.authorizedParty = readString()) != null;
+        } else if (matches(ENTITY_ID, nameStart, nameEnd)) {
+            return (claims.entityId = readString()) != null;
+        } else if (matches(TOKEN_TYPE, nameStart, nameEnd)) {
+            return (claims.tokenType = readString()) != null;
+        } else if (matches(EXP, nameStart, nameEnd)) {
+            return (claims.expirationTime = readNumericDate()) != null;
+        } else if (matches(NBF, nameStart, nameEnd)) {
+            return (claims.notBeforeTime = readNumericDate()) != null;
+        } else if (matches(IAT, nameStart, nameEnd)) {
+            return (claims.issueTime = readNumericDate()) != null;
+        }
+        return skipValue();
+    }
+
+    private String readString() {
+
+        if (!consume('"')) {
+            return null;
+        }
+        int start = position;
+        int end = skipString();
+        if (end < 0 || indexOf('\\', start, end) >= 0) {
+            return null;
+        }
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private Long readNumericDate() {
+
+        long seconds = 0;
+        int start = position;
+        while (position < length && buffer[position] >= '0' && buffer[position] <= '9') {
+            seconds = seconds * 10 + (buffer[position++] - '0');
+        }
+        int digits = position - start;
+        if (digits == 0 || digits > MAX_NUMERIC_DATE_DIGITS) {
+            return null;
+        }
+        if (position < length && (buffer[position] == '.' || buffer[position] == 'e' || buffer[position] == 'E')) {
+            // Fractional and exponent forms are left to the full parser.
+            return null;
+        }
+        return seconds * 1000;
+    }
+
+    /**
+     * Skip the rest of a string whose opening quote was consumed.
+     *
+     * @return Position of the closing quote, or -1 if the string is not terminated.
+     */
+    private int skipString() {
+
+        while (position < length) {
+            byte b = buffer[position++];
+            if (b == '"') {
+                return position - 1;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        return -1;
+    }
+
+    private boolean skipValue() {
+
+        int depth = 0;
+        while (position < length) {
+            byte b = buffer[position];
+            if (b == '"') {
+                position++;
+                if (skipString() < 0) {
+                    return false;
+                }
+            } else if (b == '{' || b == '[') {
+                depth++;
+                position++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return true;
+                }
+                depth--;
+                position++;
+            } else if (b == ',' && depth == 0) {
+                return true;
+            } else {
+                position++;
+            }
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+
+        while (position < length && (buffer[position] == ' ' || buffer[position] == '\n'
+                || buffer[position] == '\r' || buffer[position] == '\t')) {
+            position++;
+        }
+    }
+
+    private boolean consume(char c) {
+
+        if (position < length && buffer[position] == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private int indexOf(char c, int start, int end) {
+
+        for (int i = start; i < end; i++) {
+            if (buffer[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matches(byte[] name, int start, int end) {
+
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] name(String claimName) {
+
+        return claimName.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+/**
+ * Util class to read the optional token persistence configurations defined in identity.xml.
+ */
+public class PersistenceConfigUtil {
+
+    private static final Log log = LogFactory.getLog(PersistenceConfigUtil.class);
+
+    private PersistenceConfigUtil() {
+
+    }
+
+    /**
+     * Read a boolean configuration.
+     *
+     * @param key          Configuration key.
+     * @param defaultValue Value to be used when the configuration is not defined.
+     * @return Configured value or the default value.
+     */
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+
+        String value = IdentityUtil.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Read an integer configuration.
+     *
+     * @param key          Configuration key.
+     * @param defaultValue Value to be used when the configuration is not defined or invalid.
+     * @return Configured value or the default value.
+     */
+    public static int getIntProperty(String key, int defaultValue) {
+
+        String value = IdentityUtil.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn(String.format("Invalid value: %s configured for: %s. Using the default value: %s", value, key,
+                    defaultValue));
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read a long configuration.
+     *
+     * @param key          Configuration key.
+     * @param defaultValue Value to be used when the configuration is not defined or invalid.
+     * @return Configured value or the default value.
+     */
+    public static long getLongProperty(String key, long defaultValue) {
+
+        String value = IdentityUtil.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn(String.format("Invalid value: %s configured for: %s. Using the default value: %s", value, key,
+                    defaultValue));
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Read a decimal configuration.
+     *
+     * @param key          Configuration key.
+     * @param defaultValue Value to be used when the configuration is not defined or invalid.
+     * @return Configured value or the default value.
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+
+        String value = IdentityUtil.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn(String.format("Invalid value: %s configured for: %s. Using the default value: %s", value, key,
+                    defaultValue));
+            return defaultValue;
+        }
+    }
+}
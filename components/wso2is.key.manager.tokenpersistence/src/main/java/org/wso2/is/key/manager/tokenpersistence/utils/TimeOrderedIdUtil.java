@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Util class to generate 16 byte identifiers which are ordered by their creation time. The first 6 bytes hold the
+ * creation time in milliseconds and the remaining bytes are random, following the layout of a version 7 UUID. Rows
+ * keyed by these identifiers are appended to the end of a clustered index instead of being spread across it.
+ * <p>
+ * The random bytes are drawn in batches from a secure random generator owned by the calling thread, so that threads
+ * issuing identifiers concurrently do not contend on a shared generator.
+ */
+public class TimeOrderedIdUtil {
+
+    public static final int ID_LENGTH = 16;
+    private static final int TIMESTAMP_LENGTH = 6;
+    private static final int RANDOM_LENGTH = ID_LENGTH - TIMESTAMP_LENGTH;
+    // Random bytes of 64 identifiers are drawn at once.
+    private static final int RANDOM_BUFFER_SIZE = RANDOM_LENGTH * 64;
+    private static final String RANDOM_ALGORITHM = "SHA1PRNG";
+    private static final ThreadLocal<RandomBuffer> RANDOM_BUFFER = ThreadLocal.withInitial(RandomBuffer::new);
+
+    private TimeOrderedIdUtil() {
+
+    }
+
+    /**
+     * Generate a time ordered identifier.
+     *
+     * @return 16 byte identifier.
+     */
+    public static byte[] generateId() {
+
+        byte[] id = new byte[ID_LENGTH];
+        long currentTime = System.currentTimeMillis();
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            id[i] = (byte) (currentTime >>> (40 - i * 8));
+        }
+        RANDOM_BUFFER.get().nextBytes(id, TIMESTAMP_LENGTH, RANDOM_LENGTH);
+        // Version 7 and the IETF variant.
+        id[6] = (byte) ((id[6] & 0x0F) | 0x70);
+        id[8] = (byte) ((id[8] & 0x3F) | 0x80);
+        return id;
+    }
+
+    /**
+     * Generate a time ordered identifier in the canonical UUID format. The identifiers sort by their creation time in
+     * both their string and binary forms.
+     *
+     * @return Version 7 UUID string.
+     */
+    public static String generateUUID() {
+
+        byte[] id = generateId();
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        for (int i = 0; i < 8; i++) {
+            mostSignificantBits = (mostSignificantBits << 8) | (id[i] & 0xFF);
+            leastSignificantBits = (leastSignificantBits << 8) | (id[i + 8] & 0xFF);
+        }
+        return new UUID(mostSignificantBits, leastSignificantBits).toString();
+    }
+
+    /**
+     * Random bytes of a thread, refilled from the secure random generator of the thread once consumed.
+     */
+    private static final class RandomBuffer {
+
+        private final SecureRandom secureRandom;
+        private final byte[] buffer = new byte[RANDOM_BUFFER_SIZE];
+        private int position = RANDOM_BUFFER_SIZE;
+
+        private RandomBuffer() {
+
+            SecureRandom random;
+            try {
+                // Seeded from the system entropy source on first use, and not shared with the other threads.
+                random = SecureRandom.getInstance(RANDOM_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                random = new SecureRandom();
+            }
+            secureRandom = random;
+        }
+
+        private void nextBytes(byte[] bytes, int offset, int length) {
+
+            if (position + length > buffer.length) {
+                secureRandom.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, bytes, offset, length);
+            position += length;
+        }
+    }
+}
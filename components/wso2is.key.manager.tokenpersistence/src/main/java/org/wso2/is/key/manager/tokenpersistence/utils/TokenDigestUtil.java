@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Util class to derive fixed width digests used to key invalid tokens in memory.
+ */
+public class TokenDigestUtil {
+
+    /**
+     * Length of the truncated digest in bytes.
+     */
+    public static final int TOKEN_KEY_DIGEST_LENGTH = 16;
+    private static final byte SEPARATOR = 0;
+
+    private TokenDigestUtil() {
+
+    }
+
+    /**
+     * Get the truncated SHA-256 digest of the given token identifier and consumer key pair.
+     *
+     * @param tokenIdentifier Token identifier (JTI in JWT case, token in opaque case).
+     * @param consumerKey     Consumer key the token was issued for.
+     * @return 16 byte digest of the pair.
+     */
+    public static byte[] getTokenKeyDigest(String tokenIdentifier, String consumerKey) {
+
+        MessageDigest messageDigest = DigestUtils.getSha256Digest();
+        messageDigest.update(tokenIdentifier.getBytes(StandardCharsets.UTF_8));
+        messageDigest.update(SEPARATOR);
+        if (consumerKey != null) {
+            messageDigest.update(consumerKey.getBytes(StandardCharsets.UTF_8));
+        }
+        return Arrays.copyOf(messageDigest.digest(), TOKEN_KEY_DIGEST_LENGTH);
+    }
+}
@@ -19,6 +19,9 @@
 package org.wso2.is.key.manager.tokenpersistence.utils;
 
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -30,7 +33,9 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.authentication.framework.exception.UserSessionException;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.store.UserSessionStore;
+import org.wso2.carbon.identity.application.common.model.CertificateInfo;
 import org.wso2.carbon.identity.application.common.model.IdentityProvider;
+import org.wso2.carbon.identity.application.common.util.IdentityApplicationManagementUtil;
 import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.oauth.OAuthUtil;
@@ -51,8 +56,13 @@ import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.is.key.manager.tokenpersistence.PersistenceConstants;
+import org.wso2.is.key.manager.tokenpersistence.cache.AuthenticatedUserCache;
+import org.wso2.is.key.manager.tokenpersistence.cache.SignatureVerifierCache;
 import org.wso2.is.key.manager.tokenpersistence.internal.ServiceReferenceHolder;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidTokenPersistenceService;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
 
+import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.text.ParseException;
 import java.util.Date;
@@ -66,6 +76,7 @@ import java.util.Optional;
 public class TokenMgtUtil {
 
     private static final Log log = LogFactory.getLog(TokenMgtUtil.class);
+    public static final String INVALID_SIGNATURE_ERROR_MESSAGE = "Invalid signature.";
 
     /**
      * Get token identifier (JTI) for JWT.
@@ -136,10 +147,29 @@ public class TokenMgtUtil {
                                             AuthenticatedUser authenticatedUser)
             throws IdentityOAuth2Exception {
 
+        validateJWTSignature(signedJWT, claimsSet, getSigningTenantDomain(claimsSet, authenticatedUser));
+    }
+
+    /**
+     * Validate the JWT signature with the certificate of the given signing tenant.
+     *
+     * @param signedJWT    Signed JWT
+     * @param claimsSet    JWT claims set
+     * @param tenantDomain Signing tenant domain
+     * @throws IdentityOAuth2Exception If signature verification fails or if an error occurs while
+     *                                 validating the JWT signature.
+     */
+    public static void validateJWTSignature(SignedJWT signedJWT, JWTClaimsSet claimsSet, String tenantDomain)
+            throws IdentityOAuth2Exception {
+
         try {
             X509Certificate x509Certificate;
             JWTClaimsSet jwtClaimsSet = signedJWT.getJWTClaimsSet();
-            String tenantDomain = TokenMgtUtil.getSigningTenantDomain(claimsSet, authenticatedUser);
+            SignatureVerifierCache verifierCache = SignatureVerifierCache.getInstance();
+            if (verifierCache.isEnabled() && !JWTUtils.getCertificateFromClaims(jwtClaimsSet).isPresent()) {
+                validateJWTSignature(signedJWT, claimsSet, tenantDomain, verifierCache);
+                return;
+            }
             IdentityProvider idp = JWTUtils.getResidentIDPForIssuer(claimsSet, tenantDomain);
             // Get certificate from tenant if available in claims.
             Optional<X509Certificate> certificate = JWTUtils.getCertificateFromClaims(jwtClaimsSet);
@@ -153,14 +183,125 @@ public class TokenMgtUtil {
                         + idp.getDisplayName());
             }
             String algorithm = JWTUtils.verifyAlgorithm(signedJWT);
-            if (!JWTUtils.verifySignature(signedJWT, x509Certificate, algorithm)) {
-                throw new IdentityOAuth2Exception(("Invalid signature."));
+            if (!verifySignature(signedJWT, x509Certificate, algorithm)) {
+                throw new IdentityOAuth2Exception(INVALID_SIGNATURE_ERROR_MESSAGE);
             }
         } catch (JOSEException | ParseException e) {
             throw new IdentityOAuth2Exception("Error while validating Token.", e);
         }
     }
 
+    /**
+     * Validate the JWT signature with the cached verifier of the signer certificate of the resident identity provider,
+     * resolving the certificate and caching its verifier if it is not cached.
+     *
+     * @param signedJWT     Signed JWT
+     * @param claimsSet     JWT claims set
+     * @param tenantDomain  Signing tenant domain
+     * @param verifierCache Signature verifier cache
+     * @throws IdentityOAuth2Exception If signature verification fails or if an error occurs while
+     *                                 resolving the signer certificate.
+     * @throws JOSEException           If an error occurs while verifying the signature.
+     */
+    private static void validateJWTSignature(SignedJWT signedJWT, JWTClaimsSet claimsSet, String tenantDomain,
+                                             SignatureVerifierCache verifierCache)
+            throws IdentityOAuth2Exception, JOSEException {
+
+        String algorithm = JWTUtils.verifyAlgorithm(signedJWT);
+        String keyId = SignatureVerifierCache.getKeyId(signedJWT.getHeader());
+        JWSVerifier verifier = verifierCache.get(tenantDomain, claimsSet.getIssuer(), keyId, algorithm);
+        if (verifier == null) {
+            long invalidationStamp = verifierCache.getInvalidationStamp();
+            IdentityProvider idp = JWTUtils.getResidentIDPForIssuer(claimsSet, tenantDomain);
+            X509Certificate x509Certificate = resolveSignerCertificate(idp, signedJWT.getHeader(), algorithm,
+                    tenantDomain);
+            if (x509Certificate == null) {
+                throw new IdentityOAuth2Exception("Unable to locate certificate for Identity Provider: "
+                        + idp.getDisplayName());
+            }
+            verifier = SignatureVerifierCache.createVerifier(x509Certificate, algorithm);
+            if (verifier == null) {
+                // Algorithms without a cacheable verifier are verified as before.
+                if (!verifySignature(signedJWT, x509Certificate, algorithm)) {
+                    throw new IdentityOAuth2Exception(INVALID_SIGNATURE_ERROR_MESSAGE);
+                }
+                return;
+            }
+            verifierCache.put(tenantDomain, claimsSet.getIssuer(), keyId, algorithm, verifier, invalidationStamp);
+        }
+        if (!signedJWT.verify(verifier)) {
+            throw new IdentityOAuth2Exception(INVALID_SIGNATURE_ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Verify the JWT signature with the given signer certificate. The RSA signatures are verified as by the server,
+     * while the ECDSA and EdDSA signatures are verified with the verifiers of the signature verifier cache, as the
+     * server verifies only RSA signatures.
+     *
+     * @param signedJWT   Signed JWT
+     * @param certificate Signer certificate
+     * @param algorithm   Signature algorithm of the token
+     * @return Whether the signature is valid.
+     * @throws IdentityOAuth2Exception If an error occurs while verifying the signature.
+     * @throws JOSEException           If an error occurs while verifying the signature.
+     */
+    private static boolean verifySignature(SignedJWT signedJWT, X509Certificate certificate, String algorithm)
+            throws IdentityOAuth2Exception, JOSEException {
+
+        if (!JWSAlgorithm.Family.RSA.contains(JWSAlgorithm.parse(algorithm))) {
+            JWSVerifier verifier = SignatureVerifierCache.createVerifier(certificate, algorithm);
+            if (verifier != null) {
+                return signedJWT.verify(verifier);
+            }
+        }
+        return JWTUtils.verifySignature(signedJWT, certificate, algorithm);
+    }
+
+    /**
+     * Resolve the signer certificate of the resident identity provider for the key of the given token. While a
+     * signing key is rolled over, the identity provider lists both the current and the previous certificate, and the
+     * certificate whose key ID matches the key ID of the token is returned, so that the tokens signed with the
+     * previous key stay valid until they expire.
+     *
+     * @param idp          Resident identity provider
+     * @param header       JWS header of the token
+     * @param algorithm    Signature algorithm of the token
+     * @param tenantDomain Signing tenant domain
+     * @return Signer certificate, or {@code null} if the identity provider has no certificate.
+     * @throws IdentityOAuth2Exception If an error occurs while resolving the certificate.
+     */
+    private static X509Certificate resolveSignerCertificate(IdentityProvider idp, JWSHeader header, String algorithm,
+                                                            String tenantDomain) throws IdentityOAuth2Exception {
+
+        X509Certificate certificate = JWTUtils.resolveSignerCertificate(idp);
+        CertificateInfo[] certificateInfos = idp.getCertificateInfoArray();
+        String keyId = header.getKeyID();
+        if (keyId == null || certificateInfos == null || certificateInfos.length < 2) {
+            return certificate;
+        }
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        if (certificate != null && keyId.equals(OAuth2Util.getKID(certificate, jwsAlgorithm, tenantDomain))) {
+            return certificate;
+        }
+        for (CertificateInfo certificateInfo : certificateInfos) {
+            try {
+                X509Certificate candidate = (X509Certificate) IdentityApplicationManagementUtil.decodeCertificate(
+                        certificateInfo.getCertValue());
+                if (keyId.equals(OAuth2Util.getKID(candidate, jwsAlgorithm, tenantDomain))) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Using the certificate of key: " + keyId + " of Identity Provider: "
+                                + idp.getDisplayName() + " to verify the token.");
+                    }
+                    return candidate;
+                }
+            } catch (CertificateException e) {
+                log.warn("Error while decoding a certificate of Identity Provider: " + idp.getDisplayName(), e);
+            }
+        }
+        return certificate;
+    }
+
     /**
      * Get Scope array from the scopes string object.
      *
@@ -208,18 +349,27 @@ public class TokenMgtUtil {
         } else {
             userTenantDomain = TokenMgtUtil.getTenantDomain();
         }
-        authenticatedUser = resolveAuthenticatedUserFromEntityId((String) claimsSet.getClaim(OAuth2Constants.ENTITY_ID),
-                appTenantDomain, userTenantDomain, isFederated, claimsSet.getSubject());
-        if (isFederated) {
+        String entityId = (String) claimsSet.getClaim(OAuth2Constants.ENTITY_ID);
+        AuthenticatedUserCache authenticatedUserCache = AuthenticatedUserCache.getInstance();
+        authenticatedUser = authenticatedUserCache.get(entityId, appTenantDomain, userTenantDomain, isFederated,
+                claimsSet.getSubject());
+        if (authenticatedUser == null) {
+            long invalidationStamp = authenticatedUserCache.getInvalidationStamp();
+            authenticatedUser = resolveAuthenticatedUserFromEntityId(entityId, appTenantDomain, userTenantDomain,
+                    isFederated, claimsSet.getSubject());
+            if (isFederated) {
+                if (authenticatedUser == null) {
+                    authenticatedUser = createFederatedAuthenticatedUser(entityId);
+                } else {
+                    authenticatedUser.setFederatedUser(true);
+                }
+            }
             if (authenticatedUser == null) {
-                authenticatedUser =
-                        createFederatedAuthenticatedUser((String) claimsSet.getClaim(OAuth2Constants.ENTITY_ID));
-            } else {
-                authenticatedUser.setFederatedUser(true);
+                throw new IdentityOAuth2Exception(
+                        "Error while getting authenticated user. Authenticated user not found.");
             }
-        }
-        if (authenticatedUser == null) {
-            throw new IdentityOAuth2Exception("Error while getting authenticated user. Authenticated user not found.");
+            authenticatedUserCache.put(entityId, appTenantDomain, userTenantDomain, isFederated,
+                    claimsSet.getSubject(), authenticatedUser, invalidationStamp);
         }
         authenticatedUser.setAuthenticatedSubjectIdentifier(claimsSet.getSubject());
         return authenticatedUser;
@@ -307,15 +457,70 @@ public class TokenMgtUtil {
     public static boolean isTokenRevokedIndirectly(JWTClaimsSet claimsSet, AuthenticatedUser authenticatedUser)
             throws IdentityOAuth2Exception {
 
+        return isTokenRevoked(null, claimsSet, authenticatedUser);
+    }
+
+    /**
+     * Check if token is directly revoked by calling revoked token endpoint, or in-directly revoked through a user
+     * related or client application related change action. All the checks are resolved with a single call to the
+     * invalid token persistence service, or run concurrently when the concurrent revocation checks are enabled.
+     *
+     * @param tokenIdentifier   Token Identifier. Direct revocations are not checked when this is null.
+     * @param claimsSet         JWTClaimsSet of the parsed token.
+     * @param authenticatedUser Authenticated User
+     * @return True if token is directly or in-directly revoked.
+     * @throws IdentityOAuth2Exception If failed to check the revocation status of the token.
+     */
+    public static boolean isTokenRevoked(String tokenIdentifier, JWTClaimsSet claimsSet,
+                                         AuthenticatedUser authenticatedUser) throws IdentityOAuth2Exception {
+
+        return isTokenRevoked(getRevocationStatus(tokenIdentifier, claimsSet), claimsSet, authenticatedUser);
+    }
+
+    /**
+     * Get the revocation status of a token against the direct revocations and the user related and client
+     * application related change actions.
+     *
+     * @param tokenIdentifier Token Identifier. Direct revocations are not checked when this is null.
+     * @param claimsSet       JWTClaimsSet of the parsed token.
+     * @return Revocation status of the token.
+     * @throws IdentityOAuth2Exception If failed to check the revocation status of the token.
+     */
+    public static RevocationStatus getRevocationStatus(String tokenIdentifier, JWTClaimsSet claimsSet)
+            throws IdentityOAuth2Exception {
+
         Date tokenIssuedTime = claimsSet.getIssueTime();
         String entityId = (String) claimsSet.getClaim(OAuth2Constants.ENTITY_ID);
         String consumerKey = (String) claimsSet.getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY);
-        boolean isRevoked = isTokenRevokedIndirectlyFromApp(consumerKey, tokenIssuedTime);
-        if (!isRevoked) {
-            isRevoked = ServiceReferenceHolder.getInstance().getInvalidTokenPersistenceService()
-                    .isTokenRevokedForSubjectEntity(entityId, tokenIssuedTime);
+        InvalidTokenPersistenceService service = ServiceReferenceHolder.getInstance()
+                .getInvalidTokenPersistenceService();
+        ConcurrentRevocationChecker concurrentRevocationChecker = ConcurrentRevocationChecker.getInstance();
+        if (concurrentRevocationChecker.isEnabled()) {
+            return concurrentRevocationChecker.checkRevocationStatus(service, tokenIdentifier, consumerKey, entityId,
+                    tokenIssuedTime);
         }
-        if (isRevoked) {
+        return service.checkRevocationStatus(tokenIdentifier, consumerKey, entityId, tokenIssuedTime);
+    }
+
+    /**
+     * Check if token is revoked as per the given revocation status, clearing the cached token information if the
+     * token is in-directly revoked.
+     *
+     * @param revocationStatus  Revocation status of the token.
+     * @param claimsSet         JWTClaimsSet of the parsed token.
+     * @param authenticatedUser Authenticated User
+     * @return True if token is directly or in-directly revoked.
+     * @throws IdentityOAuth2Exception If the JTI claim is not present in the token.
+     */
+    public static boolean isTokenRevoked(RevocationStatus revocationStatus, JWTClaimsSet claimsSet,
+                                         AuthenticatedUser authenticatedUser) throws IdentityOAuth2Exception {
+
+        /*
+         * Clearing of cache is already handled when direct revocation happens through oauth2 revocation service.
+         * Hence, cache is cleared only for in-direct revocations.
+         */
+        if (!revocationStatus.isRevokedDirectly() && revocationStatus.isRevokedIndirectly()) {
+            String consumerKey = (String) claimsSet.getClaim(PersistenceConstants.JWTClaim.AUTHORIZATION_PARTY);
             String tenantDomain = null;
             if (authenticatedUser != null) {
                 String[] scopes = TokenMgtUtil.getScopes(claimsSet.getClaim(PersistenceConstants.JWTClaim.SCOPE));
@@ -331,7 +536,7 @@ public class TokenMgtUtil {
             OAuthCacheKey cacheKey = new OAuthCacheKey(accessTokenIdentifier);
             OAuthCache.getInstance().clearCacheEntry(cacheKey, tenantDomain);
         }
-        return isRevoked;
+        return revocationStatus.isRevoked();
     }
 
     /**
@@ -539,10 +744,31 @@ public class TokenMgtUtil {
      * @return The signing tenant domain based on the provided claims and AccessTokenDO.
      * @throws IdentityOAuth2Exception If an error occurs in OAuth2-related functionality.
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static String getSigningTenantDomain(JWTClaimsSet claimsSet, AuthenticatedUser authenticatedUser)
             throws IdentityOAuth2Exception {
 
+        String tenantDomain = getSigningTenantDomain(claimsSet);
+        if (tenantDomain != null) {
+            return tenantDomain;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Getting signing tenant domain from authenticated user.");
+        }
+        return authenticatedUser.getTenantDomain();
+    }
+
+    /**
+     * Retrieves the signing tenant domain from the given JWT claims set without the authenticated user, from the
+     * 'realm' claim, or from the OAuth application when the tokens are signed with the key of the application.
+     *
+     * @param claimsSet The JWTClaimsSet containing the claims of the JWT, including the 'realm' claim.
+     * @return The signing tenant domain, or null if the tenant domain of the authenticated user is the signing
+     * tenant domain.
+     * @throws IdentityOAuth2Exception If an error occurs in OAuth2-related functionality.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static String getSigningTenantDomain(JWTClaimsSet claimsSet) throws IdentityOAuth2Exception {
+
         Map<String, String> realm = (HashMap) claimsSet.getClaim(OAuthConstants.OIDCClaims.REALM);
         if (MapUtils.isNotEmpty(realm)) {
             if (realm.get(OAuthConstants.OIDCClaims.SIGNING_TENANT) != null) {
@@ -572,11 +798,7 @@ public class TokenMgtUtil {
                 throw new IdentityOAuth2Exception("Error while getting tenant domain from OAuth app with consumer key: "
                         + consumerKey);
             }
-        } else {
-            if (log.isDebugEnabled()) {
-                log.debug("Getting signing tenant domain from authenticated user.");
-            }
-            return authenticatedUser.getTenantDomain();
         }
+        return null;
     }
 }
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Tests that {@link InvalidAccessTokenCache} rejects only the tokens which were rejected before, so that the tokens
+ * forged on behalf of a client can not cause the valid tokens of the client or of other clients to be rejected.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(IdentityUtil.class)
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityUtil")
+@PowerMockIgnore("javax.management.*")
+public class InvalidAccessTokenCacheTest {
+
+    private static final int FORGED_TOKEN_COUNT = 1000;
+
+    private InvalidAccessTokenCache cache;
+
+    @Before
+    public void init() {
+
+        PowerMockito.mockStatic(IdentityUtil.class);
+        PowerMockito.when(IdentityUtil.getProperty(Mockito.anyString())).thenReturn(null);
+        PowerMockito.when(IdentityUtil.getProperty("OAuth.TokenPersistence.InvalidAccessTokenCache.Enable"))
+                .thenReturn("true");
+        cache = InvalidAccessTokenCache.getInstance();
+    }
+
+    @Test
+    public void testRejectedTokenCached() {
+
+        String token = token("jti-1", "clientA", "forged-signature");
+        Assert.assertNull(cache.get(token));
+
+        cache.put(token, InvalidAccessTokenCache.Rejection.INVALID);
+        cache.put(token("jti-2", "clientA", "signature"), InvalidAccessTokenCache.Rejection.EXPIRED);
+
+        Assert.assertEquals(InvalidAccessTokenCache.Rejection.INVALID, cache.get(token));
+        Assert.assertEquals(InvalidAccessTokenCache.Rejection.EXPIRED,
+                cache.get(token("jti-2", "clientA", "signature")));
+    }
+
+    @Test
+    public void testForgedTokensDoNotRejectValidTokensOfOtherClients() {
+
+        for (int i = 0; i < FORGED_TOKEN_COUNT; i++) {
+            cache.put(token("forged-" + i, "clientA", "forged-signature"), InvalidAccessTokenCache.Rejection.INVALID);
+        }
+
+        Assert.assertNull(cache.get(token("valid", "clientB", "signature")));
+    }
+
+    @Test
+    public void testForgedTokensDoNotRejectValidTokensOfTheClaimedClient() {
+
+        // Tokens forged with the client of a victim, including one with the claims of a valid token of the client.
+        for (int i = 0; i < FORGED_TOKEN_COUNT; i++) {
+            cache.put(token("forged-" + i, "clientB", "forged-signature"), InvalidAccessTokenCache.Rejection.INVALID);
+        }
+        cache.put(token("valid", "clientB", "forged-signature"), InvalidAccessTokenCache.Rejection.INVALID);
+
+        Assert.assertNull(cache.get(token("valid", "clientB", "signature")));
+        Assert.assertNull(cache.get(token("other", "clientB", "signature")));
+    }
+
+    private static String token(String tokenIdentifier, String clientId, String signature) {
+
+        String header = "{\"alg\":\"RS256\",\"typ\":\"at+jwt\"}";
+        String payload = "{\"jti\":\"" + tokenIdentifier + "\",\"azp\":\"" + clientId + "\",\"exp\":1700003600}";
+        return encode(header) + "." + encode(payload) + "." + encode(signature);
+    }
+
+    private static String encode(String value) {
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the admission, eviction, expiry and invalidation of {@link TinyLfuCache}.
+ */
+public class TinyLfuCacheTest {
+
+    private static final long TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(10);
+
+    @Test
+    public void testGetAndPut() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        Assert.assertNull(cache.get("key"));
+        cache.put("key", "value");
+        Assert.assertEquals("value", cache.get("key"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveMaximumSize() {
+
+        new TinyLfuCache<String, String>("test", 0, TIME_TO_LIVE);
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        for (int i = 0; i < 10000; i++) {
+            cache.put("key-" + i, "value-" + i);
+        }
+        Assert.assertTrue("Cache size: " + cache.size(), cache.size() <= 100);
+        Assert.assertTrue(cache.getEvictionCount() >= 10000 - 100);
+    }
+
+    @Test
+    public void testFrequentKeysSurviveScan() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot-" + i, "value");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                Assert.assertNotNull(cache.get("hot-" + i));
+            }
+        }
+        // A scan of keys which are never read again should not flush the frequently read keys, as it would with LRU.
+        for (int i = 0; i < 10000; i++) {
+            cache.put("cold-" + i, "value");
+        }
+        for (int i = 0; i < 50; i++) {
+            Assert.assertNotNull("Evicted: hot-" + i, cache.get("hot-" + i));
+        }
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        cache.put("short", "value", 1);
+        cache.put("long", "value");
+        Thread.sleep(20);
+        Assert.assertNull(cache.get("short"));
+        Assert.assertEquals("value", cache.get("long"));
+    }
+
+    @Test
+    public void testNonPositiveTimeToLiveIsNotCached() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        cache.put("key", "value", 0);
+        cache.putIfNotInvalidated("key", "value", -1, cache.getInvalidationStamp());
+        Assert.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testTimeToLiveIsCapped() throws InterruptedException {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, 1);
+        cache.put("key", "value", TIME_TO_LIVE);
+        Thread.sleep(20);
+        Assert.assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        cache.put("tenant1:a", "value-a");
+        cache.put("tenant1:b", "value-b");
+        cache.put("tenant2:c", "value-c");
+        cache.invalidate("tenant1:a");
+        Assert.assertNull(cache.get("tenant1:a"));
+        cache.invalidateAll(key -> key.startsWith("tenant1:"));
+        Assert.assertNull(cache.get("tenant1:b"));
+        Assert.assertEquals("value-c", cache.get("tenant2:c"));
+        cache.put("key", "value");
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoadRacingWithInvalidationIsNotCached() {
+
+        TinyLfuCache<String, String> cache = new TinyLfuCache<>("test", 100, TIME_TO_LIVE);
+        // A loader takes the stamp and reads the store, and the entry is invalidated before the loader caches it.
+        long invalidationStamp = cache.getInvalidationStamp();
+        cache.invalidate("key");
+        cache.putIfNotInvalidated("key", "stale", invalidationStamp);
+        Assert.assertNull(cache.get("key"));
+        // Another invalidation of an unrelated key also makes the loaded value unsafe to cache.
+        invalidationStamp = cache.getInvalidationStamp();
+        cache.invalidateAll(key -> key.equals("other"));
+        cache.putIfNotInvalidated("key", "stale", TIME_TO_LIVE, invalidationStamp);
+        Assert.assertNull(cache.get("key"));
+        // A load without a concurrent invalidation is cached.
+        cache.putIfNotInvalidated("key", "fresh", cache.getInvalidationStamp());
+        Assert.assertEquals("fresh", cache.get("key"));
+    }
+
+    @Test
+    public void testConcurrentLoadsAndInvalidations() throws InterruptedException {
+
+        TinyLfuCache<Integer, Long> cache = new TinyLfuCache<>("test", 1000, TIME_TO_LIVE);
+        long[] version = new long[1];
+        Thread[] loaders = new Thread[4];
+        for (int t = 0; t < loaders.length; t++) {
+            loaders[t] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    long invalidationStamp = cache.getInvalidationStamp();
+                    long loaded;
+                    synchronized (version) {
+                        loaded = version[0];
+                    }
+                    cache.putIfNotInvalidated(i % 10, loaded, invalidationStamp);
+                }
+            });
+            loaders[t].start();
+        }
+        for (int i = 0; i < 2000; i++) {
+            synchronized (version) {
+                version[0]++;
+            }
+            cache.invalidateAll();
+        }
+        for (Thread loader : loaders) {
+            loader.join();
+        }
+        long latest;
+        synchronized (version) {
+            latest = version[0];
+        }
+        // Values loaded before the last invalidation are never cached after it.
+        for (int key = 0; key < 10; key++) {
+            Long cached = cache.get(key);
+            Assert.assertTrue("Stale value: " + cached, cached == null || cached == latest);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.cache;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.is.key.manager.tokenpersistence.model.VerifiedAccessToken;
+
+/**
+ * Tests the lookups, the time to live and the revocations of {@link VerifiedAccessTokenCache}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(IdentityUtil.class)
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityUtil")
+@PowerMockIgnore("javax.management.*")
+public class VerifiedAccessTokenCacheTest {
+
+    private static final long MAX_TIME_TO_LIVE = 60 * 1000L;
+    private static final long TOKEN_VALIDITY = 3600 * 1000L;
+    private static final long SHORT_TIME_TO_LIVE = 50;
+
+    private VerifiedAccessTokenCache cache;
+    private long now;
+
+    @Before
+    public void init() {
+
+        PowerMockito.mockStatic(IdentityUtil.class);
+        PowerMockito.when(IdentityUtil.getProperty(Mockito.anyString())).thenReturn(null);
+        PowerMockito.when(IdentityUtil.getProperty("OAuth.TokenPersistence.VerifiedAccessTokenCache.Enable"))
+                .thenReturn("true");
+        cache = VerifiedAccessTokenCache.getInstance();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    public void testLookup() {
+
+        Assert.assertTrue(cache.isEnabled());
+        VerifiedAccessToken verifiedToken = new VerifiedAccessToken("lookup-jti", null, null);
+        Assert.assertNull(cache.get("lookup-token"));
+
+        cache.put("lookup-token", verifiedToken, now + TOKEN_VALIDITY, now);
+
+        Assert.assertSame(verifiedToken, cache.get("lookup-token"));
+        Assert.assertNull(cache.get("lookup-token-other"));
+        cache.invalidate("lookup-token");
+        Assert.assertNull(cache.get("lookup-token"));
+    }
+
+    @Test
+    public void testExpiredTokenNotCached() {
+
+        cache.put("expired-token", new VerifiedAccessToken("expired-jti", null, null), now - 1, now);
+
+        Assert.assertNull(cache.get("expired-token"));
+    }
+
+    @Test
+    public void testTimeToLiveCappedByTokenExpiry() throws InterruptedException {
+
+        cache.put("expiring-token", new VerifiedAccessToken("expiring-jti", null, null), now + SHORT_TIME_TO_LIVE,
+                now);
+        Assert.assertNotNull(cache.get("expiring-token"));
+
+        Thread.sleep(SHORT_TIME_TO_LIVE * 2);
+        Assert.assertNull(cache.get("expiring-token"));
+    }
+
+    @Test
+    public void testTimeToLiveCountedFromVerificationStart() throws InterruptedException {
+
+        // Verification started just before the maximum time to live elapses from now.
+        long verificationStartTime = now - MAX_TIME_TO_LIVE + SHORT_TIME_TO_LIVE;
+        cache.put("slow-token", new VerifiedAccessToken("slow-jti", null, null), now + TOKEN_VALIDITY,
+                verificationStartTime);
+        Assert.assertNotNull(cache.get("slow-token"));
+
+        Thread.sleep(SHORT_TIME_TO_LIVE * 2);
+        Assert.assertNull(cache.get("slow-token"));
+    }
+
+    @Test
+    public void testRevokedTokenNotServed() {
+
+        VerifiedAccessToken revokedToken = new VerifiedAccessToken("revoked-jti", null, null);
+        VerifiedAccessToken otherToken = new VerifiedAccessToken("not-revoked-jti", null, null);
+        cache.put("revoked-token", revokedToken, now + TOKEN_VALIDITY, now);
+        cache.put("not-revoked-token", otherToken, now + TOKEN_VALIDITY, now);
+
+        cache.invalidateByTokenIdentifier("revoked-jti");
+
+        Assert.assertNull(cache.get("revoked-token"));
+        // The revocation of a token does not affect the other cached tokens.
+        Assert.assertSame(otherToken, cache.get("not-revoked-token"));
+        cache.invalidateByTokenIdentifier(null);
+        Assert.assertSame(otherToken, cache.get("not-revoked-token"));
+    }
+
+    @Test
+    public void testTokenVerifiedBeforeRevocationNotCached() {
+
+        // The token is verified, and revoked before the verified token is cached.
+        long verificationStartTime = System.currentTimeMillis();
+        cache.invalidateByTokenIdentifier("racing-jti");
+        cache.put("racing-token", new VerifiedAccessToken("racing-jti", null, null), now + TOKEN_VALIDITY,
+                verificationStartTime);
+
+        Assert.assertNull(cache.get("racing-token"));
+    }
+
+    @Test
+    public void testRevocationsDoNotDropUnrelatedVerifications() {
+
+        // A token being verified while many other tokens are revoked is still cached.
+        long verificationStartTime = System.currentTimeMillis();
+        for (int i = 0; i < 5000; i++) {
+            cache.invalidateByTokenIdentifier("burst-jti-" + i);
+        }
+        VerifiedAccessToken verifiedToken = new VerifiedAccessToken("unrelated-jti", null, null);
+        cache.put("unrelated-token", verifiedToken, now + TOKEN_VALIDITY, verificationStartTime);
+
+        Assert.assertSame(verifiedToken, cache.get("unrelated-token"));
+    }
+}
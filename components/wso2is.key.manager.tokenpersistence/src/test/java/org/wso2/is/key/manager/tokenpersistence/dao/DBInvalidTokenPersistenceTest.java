@@ -0,0 +1,669 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.cache.ConsumerKeyRevocationSnapshot;
+import org.wso2.is.key.manager.tokenpersistence.cache.InvalidTokenFilter;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationCheck;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationRule;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class tests the revocation lookups of DBInvalidTokenPersistence against an in-memory H2 database.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({IdentityDatabaseUtil.class, IdentityUtil.class})
+@SuppressStaticInitializationFor({"org.wso2.carbon.identity.core.util.IdentityDatabaseUtil",
+        "org.wso2.carbon.identity.core.util.IdentityUtil"})
+@PowerMockIgnore({"javax.management.*", "org.h2.*"})
+public class DBInvalidTokenPersistenceTest {
+
+    private static final String CONSUMER_KEY = "testConsumerKey";
+    private static final String ENTITY_ID = "testUserId";
+    private static final String ENTITY_TYPE = "USER_ID";
+    private static final String ORGANIZATION = "carbon.super";
+    private static final String INVALID_TOKENS_TABLE = "IDN_INVALID_TOKENS";
+    private static final String INVALID_TOKEN_DIGESTS_TABLE = "IDN_INVALID_TOKEN_DIGESTS";
+    private static final String APP_REVOKED_EVENT_TABLE = "IDN_APP_REVOKED_EVENT";
+    private static final String SUBJECT_ENTITY_REVOKED_EVENT_TABLE = "IDN_SUBJECT_ENTITY_REVOKED_EVENT";
+    private static final long TOKEN_VALIDITY = 3600 * 1000L;
+    private static final int BATCH_SIZE = 1200;
+    private static final long SNAPSHOT_REFRESH_OVERLAP = 60 * 1000L;
+    private static final long FILTER_EXPECTED_INSERTIONS = 1000;
+    private static final double FILTER_FALSE_POSITIVE_PROBABILITY = 0.001;
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+
+    private TestDatabase database;
+    private DBInvalidTokenPersistence persistence;
+    private long now;
+
+    @Before
+    public void init() throws Exception {
+
+        System.setProperty("carbon.home", "1234");
+        database = TestDatabase.create();
+        PowerMockito.mockStatic(IdentityUtil.class);
+        PowerMockito.mockStatic(IdentityDatabaseUtil.class);
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean()))
+                .thenAnswer(invocation -> database.getConnection());
+        persistence = DBInvalidTokenPersistence.getInstance();
+        Whitebox.setInternalState(persistence, "revocationEventUpsertEnabled", true);
+        setInvalidTokenStorageFormats(false, true);
+        now = System.currentTimeMillis();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+
+        persistence.destroy();
+        database.shutdown();
+    }
+
+    @Test
+    public void testNotRevoked() throws Exception {
+
+        RevocationStatus status = persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID, new Date(now));
+
+        Assert.assertFalse(status.isRevoked());
+    }
+
+    @Test
+    public void testRevokedDirectly() throws Exception {
+
+        database.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        RevocationStatus status = persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID, new Date(now));
+        Assert.assertTrue(status.isRevokedDirectly());
+        Assert.assertFalse(status.isRevokedIndirectly());
+        Assert.assertFalse(persistence.checkRevocationStatus("token", "otherConsumerKey", ENTITY_ID,
+                new Date(now)).isRevoked());
+        Assert.assertFalse(persistence.checkRevocationStatus("otherToken", CONSUMER_KEY, ENTITY_ID,
+                new Date(now)).isRevoked());
+    }
+
+    @Test
+    public void testRevokedForConsumerKey() throws Exception {
+
+        database.addAppRevokedEvent(CONSUMER_KEY, now);
+
+        RevocationStatus status = persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 1000));
+        Assert.assertTrue(status.isRevokedForConsumerKey());
+        Assert.assertFalse(status.isRevokedDirectly());
+        Assert.assertFalse(status.isRevokedForSubjectEntity());
+        // Tokens issued after the revocation are not affected.
+        Assert.assertFalse(persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now + 1000)).isRevoked());
+    }
+
+    @Test
+    public void testRevokedForSubjectEntity() throws Exception {
+
+        database.addSubjectEntityRevokedEvent(ENTITY_ID, ENTITY_TYPE, now);
+
+        RevocationStatus status = persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 1000));
+        Assert.assertTrue(status.isRevokedForSubjectEntity());
+        Assert.assertFalse(status.isRevokedDirectly());
+        Assert.assertFalse(status.isRevokedForConsumerKey());
+        Assert.assertFalse(persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now + 1000)).isRevoked());
+        Assert.assertFalse(persistence.checkRevocationStatus("token", CONSUMER_KEY, "otherUserId",
+                new Date(now - 1000)).isRevoked());
+    }
+
+    @Test
+    public void testAllChecksResolvedInOneRoundTrip() throws Exception {
+
+        database.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        database.addAppRevokedEvent(CONSUMER_KEY, now);
+        database.addSubjectEntityRevokedEvent(ENTITY_ID, ENTITY_TYPE, now);
+
+        RevocationStatus status = persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 1000));
+        Assert.assertTrue(status.isRevokedDirectly());
+        Assert.assertTrue(status.isRevokedForConsumerKey());
+        Assert.assertTrue(status.isRevokedForSubjectEntity());
+        PowerMockito.verifyStatic(IdentityDatabaseUtil.class, Mockito.times(1));
+        IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testBatchCheckedInChunks() throws Exception {
+
+        // Revoked items on both sides of the boundaries of the IN list chunks of 500.
+        Set<Integer> revokedDirectly = new HashSet<>(Arrays.asList(0, 499, 500, 1199));
+        Set<Integer> revokedForConsumerKey = new HashSet<>(Arrays.asList(1, 498, 501, 999));
+        Set<Integer> revokedForSubjectEntity = new HashSet<>(Arrays.asList(2, 999, 1000, 1198));
+        List<RevocationCheck> revocationChecks = new ArrayList<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            revocationChecks.add(new RevocationCheck("token" + i, "consumerKey" + i, "user" + i, new Date(now - 1000)));
+            if (revokedDirectly.contains(i)) {
+                database.addInvalidToken("token" + i, "consumerKey" + i, now + TOKEN_VALIDITY);
+            }
+            if (revokedForConsumerKey.contains(i)) {
+                database.addAppRevokedEvent("consumerKey" + i, now);
+            }
+            if (revokedForSubjectEntity.contains(i)) {
+                database.addSubjectEntityRevokedEvent("user" + i, ENTITY_TYPE, now);
+            }
+        }
+        Connection connection = database.getConnection();
+        Connection countingConnection = Mockito.mock(Connection.class, AdditionalAnswers.delegatesTo(connection));
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean())).thenReturn(countingConnection);
+
+        List<RevocationStatus> statuses = persistence.checkRevocationStatuses(revocationChecks);
+
+        Assert.assertEquals(BATCH_SIZE, statuses.size());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            RevocationStatus status = statuses.get(i);
+            Assert.assertEquals("Direct revocation of check " + i, revokedDirectly.contains(i),
+                    status.isRevokedDirectly());
+            Assert.assertEquals("Consumer key revocation of check " + i, revokedForConsumerKey.contains(i),
+                    status.isRevokedForConsumerKey());
+            Assert.assertEquals("Subject entity revocation of check " + i, revokedForSubjectEntity.contains(i),
+                    status.isRevokedForSubjectEntity());
+        }
+        // One connection, with three chunks for each of the three revocation tables.
+        PowerMockito.verifyStatic(IdentityDatabaseUtil.class, Mockito.times(1));
+        IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean());
+        Mockito.verify(countingConnection, Mockito.times(9)).prepareStatement(Mockito.anyString());
+    }
+
+    @Test
+    public void testBatchWithDuplicateChecks() throws Exception {
+
+        database.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        database.addSubjectEntityRevokedEvent(ENTITY_ID, ENTITY_TYPE, now);
+
+        List<RevocationStatus> statuses = persistence.checkRevocationStatuses(Arrays.asList(
+                new RevocationCheck("token", CONSUMER_KEY, ENTITY_ID, new Date(now - 1000)),
+                new RevocationCheck("otherToken", CONSUMER_KEY, ENTITY_ID, new Date(now + 1000)),
+                new RevocationCheck("token", CONSUMER_KEY, ENTITY_ID, new Date(now + 1000))));
+
+        Assert.assertTrue(statuses.get(0).isRevokedDirectly());
+        Assert.assertTrue(statuses.get(0).isRevokedForSubjectEntity());
+        Assert.assertFalse(statuses.get(1).isRevoked());
+        Assert.assertTrue(statuses.get(2).isRevokedDirectly());
+        Assert.assertFalse(statuses.get(2).isRevokedForSubjectEntity());
+    }
+
+    @Test
+    public void testHashedFormatWrittenAndPlainFormatReadDuringMigration() throws Exception {
+
+        setInvalidTokenStorageFormats(true, true);
+        database.addInvalidToken("plainToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        persistence.addInvalidToken("hashedToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        Assert.assertEquals(0, database.count(INVALID_TOKENS_TABLE, "TOKEN_IDENTIFIER = ?", "hashedToken"));
+        Assert.assertEquals(1, database.count(INVALID_TOKEN_DIGESTS_TABLE, "TOKEN_KEY = ?",
+                TokenDigestUtil.getTokenKeyDigest("hashedToken", CONSUMER_KEY)));
+        // Both formats are read through a single UNION ALL lookup.
+        Assert.assertTrue(persistence.isInvalidToken("plainToken", CONSUMER_KEY));
+        Assert.assertTrue(persistence.isInvalidToken("hashedToken", CONSUMER_KEY));
+        Assert.assertFalse(persistence.isInvalidToken("hashedToken", "otherConsumerKey"));
+        Assert.assertFalse(persistence.isInvalidToken("otherToken", CONSUMER_KEY));
+        Assert.assertTrue(persistence.checkRevocationStatus("plainToken", CONSUMER_KEY, ENTITY_ID,
+                new Date(now)).isRevokedDirectly());
+        Assert.assertTrue(persistence.checkRevocationStatus("hashedToken", CONSUMER_KEY, ENTITY_ID,
+                new Date(now)).isRevokedDirectly());
+        List<RevocationStatus> statuses = persistence.checkRevocationStatuses(Arrays.asList(
+                new RevocationCheck("plainToken", CONSUMER_KEY, ENTITY_ID, new Date(now)),
+                new RevocationCheck("hashedToken", CONSUMER_KEY, ENTITY_ID, new Date(now)),
+                new RevocationCheck("otherToken", CONSUMER_KEY, ENTITY_ID, new Date(now))));
+        Assert.assertTrue(statuses.get(0).isRevokedDirectly());
+        Assert.assertTrue(statuses.get(1).isRevokedDirectly());
+        Assert.assertFalse(statuses.get(2).isRevoked());
+    }
+
+    @Test
+    public void testPlainFormatNotReadAfterMigration() throws Exception {
+
+        setInvalidTokenStorageFormats(true, false);
+        database.addInvalidToken("plainToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        database.addInvalidTokenDigest("hashedToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        Assert.assertFalse(persistence.isInvalidToken("plainToken", CONSUMER_KEY));
+        Assert.assertTrue(persistence.isInvalidToken("hashedToken", CONSUMER_KEY));
+        Assert.assertFalse(persistence.checkRevocationStatus("plainToken", CONSUMER_KEY, ENTITY_ID,
+                new Date(now)).isRevoked());
+        Assert.assertTrue(persistence.checkRevocationStatus("hashedToken", CONSUMER_KEY, ENTITY_ID,
+                new Date(now)).isRevokedDirectly());
+        List<RevocationStatus> statuses = persistence.checkRevocationStatuses(Arrays.asList(
+                new RevocationCheck("plainToken", CONSUMER_KEY, ENTITY_ID, new Date(now)),
+                new RevocationCheck("hashedToken", CONSUMER_KEY, ENTITY_ID, new Date(now))));
+        Assert.assertFalse(statuses.get(0).isRevoked());
+        Assert.assertTrue(statuses.get(1).isRevokedDirectly());
+    }
+
+    @Test
+    public void testHashedFormatNotReadWithoutHashing() throws Exception {
+
+        database.addInvalidToken("plainToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        database.addInvalidTokenDigest("hashedToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        persistence.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        Assert.assertEquals(1, database.count(INVALID_TOKENS_TABLE, "TOKEN_IDENTIFIER = ?", "token"));
+        Assert.assertTrue(persistence.isInvalidToken("plainToken", CONSUMER_KEY));
+        Assert.assertTrue(persistence.isInvalidToken("token", CONSUMER_KEY));
+        Assert.assertFalse(persistence.isInvalidToken("hashedToken", CONSUMER_KEY));
+    }
+
+    @Test
+    public void testUpsertSubjectEntityRevokedEvent() throws Exception {
+
+        persistence.revokeTokensByUserEvent(ENTITY_ID, ENTITY_TYPE, now - 1000, ORGANIZATION, 0);
+        persistence.revokeTokensByUserEvent(ENTITY_ID, ENTITY_TYPE, now, ORGANIZATION, 0);
+
+        Assert.assertEquals(1, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "ENTITY_ID = ?", ENTITY_ID));
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(SUBJECT_ENTITY_REVOKED_EVENT_TABLE,
+                "ENTITY_ID = ? AND ENTITY_TYPE = ?", ENTITY_ID, ENTITY_TYPE));
+        Assert.assertTrue(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testUpsertSubjectEntityRevokedEvents() throws Exception {
+
+        database.addSubjectEntityRevokedEvent("user1", ENTITY_TYPE, now - 1000);
+
+        persistence.revokeTokensByUserEvents(Arrays.asList(
+                new RevocationRule("user1", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", "USERNAME", now, ORGANIZATION)));
+
+        Assert.assertEquals(1, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "ENTITY_ID = ?", "user1"));
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(SUBJECT_ENTITY_REVOKED_EVENT_TABLE,
+                "ENTITY_ID = ?", "user1"));
+        Assert.assertEquals(2, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "ENTITY_ID = ?", "user2"));
+        Assert.assertTrue(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testSubjectEntityRevokedEventsUpsertedInOneStatement() throws Exception {
+
+        List<String> queries = recordPreparedQueries(null);
+
+        persistence.revokeTokensByUserEvents(Arrays.asList(
+                new RevocationRule("user1", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", ENTITY_TYPE, now, ORGANIZATION)));
+
+        Assert.assertEquals(Collections.singletonList(queries.get(0)), queries);
+        Assert.assertTrue(queries.get(0).startsWith("MERGE"));
+        Assert.assertEquals(2, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "TIME_REVOKED IS NOT NULL"));
+    }
+
+    @Test
+    public void testFailedBatchUpsertFallsBackToUpdateAndInsert() throws Exception {
+
+        database.addSubjectEntityRevokedEvent("user1", ENTITY_TYPE, now - 1000);
+        List<String> queries = recordPreparedQueries(new SQLTransactionRollbackException("Deadlock detected."));
+
+        persistence.revokeTokensByUserEvents(Arrays.asList(
+                new RevocationRule("user1", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", "USERNAME", now, ORGANIZATION)));
+
+        // The rules are not upserted one by one after the batch upsert failed.
+        Assert.assertEquals(1, countQueries(queries, "MERGE"));
+        Assert.assertEquals(3, countQueries(queries, "UPDATE"));
+        Assert.assertEquals(2, countQueries(queries, "INSERT"));
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(SUBJECT_ENTITY_REVOKED_EVENT_TABLE,
+                "ENTITY_ID = ?", "user1"));
+        Assert.assertEquals(2, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "ENTITY_ID = ?", "user2"));
+        Assert.assertTrue(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testUnsupportedBatchUpsertFallsBackToUpdateAndInsert() throws Exception {
+
+        List<String> queries = recordPreparedQueries(new SQLSyntaxErrorException("Syntax error in SQL statement."));
+
+        persistence.revokeTokensByUserEvents(Arrays.asList(
+                new RevocationRule("user1", ENTITY_TYPE, now, ORGANIZATION),
+                new RevocationRule("user2", ENTITY_TYPE, now, ORGANIZATION)));
+        persistence.revokeTokensByUserEvents(Collections.singletonList(
+                new RevocationRule("user3", ENTITY_TYPE, now, ORGANIZATION)));
+
+        Assert.assertEquals(1, countQueries(queries, "MERGE"));
+        Assert.assertEquals(3, countQueries(queries, "INSERT"));
+        Assert.assertEquals(3, database.count(SUBJECT_ENTITY_REVOKED_EVENT_TABLE, "TIME_REVOKED IS NOT NULL"));
+        Assert.assertFalse(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testUpsertAppRevokedEvent() throws Exception {
+
+        persistence.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now - 1000, ORGANIZATION, 0);
+        persistence.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now, ORGANIZATION, 0);
+
+        Assert.assertEquals(1, database.count(APP_REVOKED_EVENT_TABLE, "CONSUMER_KEY = ?", CONSUMER_KEY));
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(APP_REVOKED_EVENT_TABLE,
+                "CONSUMER_KEY = ?", CONSUMER_KEY));
+        Assert.assertTrue(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testUpsertKeptEnabledAfterTransientError() throws Exception {
+
+        failNextUpsert(new SQLTransactionRollbackException("Deadlock detected."));
+
+        persistence.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now, ORGANIZATION, 0);
+
+        // The failed call is persisted with the update and insert queries, and the upsert is used for the next calls.
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(APP_REVOKED_EVENT_TABLE,
+                "CONSUMER_KEY = ?", CONSUMER_KEY));
+        Assert.assertTrue(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testUpsertDisabledWhenNotSupported() throws Exception {
+
+        failNextUpsert(new SQLSyntaxErrorException("Syntax error in SQL statement."));
+
+        persistence.revokeTokensByUserEvent(ENTITY_ID, ENTITY_TYPE, now, ORGANIZATION, 0);
+
+        Assert.assertEquals(Long.valueOf(now), database.getRevocationTime(SUBJECT_ENTITY_REVOKED_EVENT_TABLE,
+                "ENTITY_ID = ?", ENTITY_ID));
+        Assert.assertFalse(isRevocationEventUpsertEnabled());
+    }
+
+    @Test
+    public void testConsumerKeyRevocationSnapshotRefreshedAfterEmptyLoad() throws Exception {
+
+        enableConsumerKeyRevocationSnapshot();
+        persistence.loadConsumerKeyRevocationSnapshot();
+        Assert.assertFalse(persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 1000)).isRevoked());
+
+        // Persisted through another node after the snapshot is loaded from the empty table.
+        database.addAppRevokedEvent(CONSUMER_KEY, now);
+        persistence.loadConsumerKeyRevocationSnapshot();
+
+        Assert.assertTrue(persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 1000)).isRevokedForConsumerKey());
+        Assert.assertEquals(now, getConsumerKeyRevocationSnapshot().getLastSeenRevocationTime());
+    }
+
+    @Test
+    public void testConsumerKeyRevocationSnapshotAdvancedByLocalWrites() throws Exception {
+
+        enableConsumerKeyRevocationSnapshot();
+        persistence.loadConsumerKeyRevocationSnapshot();
+
+        persistence.revokeTokensByConsumerKeyEvent("localConsumerKey", now, ORGANIZATION, 0);
+        Assert.assertEquals(now, getConsumerKeyRevocationSnapshot().getLastSeenRevocationTime());
+        Assert.assertTrue(persistence.checkRevocationStatus("token", "localConsumerKey", ENTITY_ID,
+                new Date(now - 1000)).isRevokedForConsumerKey());
+
+        // Persisted through another node slightly before the local write, which is within the refresh overlap.
+        database.addAppRevokedEvent(CONSUMER_KEY, now - 1000);
+        persistence.loadConsumerKeyRevocationSnapshot();
+
+        Assert.assertTrue(persistence.checkRevocationStatus("token", CONSUMER_KEY, ENTITY_ID,
+                new Date(now - 2000)).isRevokedForConsumerKey());
+        Assert.assertEquals(now, getConsumerKeyRevocationSnapshot().getLastSeenRevocationTime());
+    }
+
+    @Test
+    public void testInvalidTokenFilterNotEnabledWithoutSingleNode() throws Exception {
+
+        PowerMockito.when(IdentityUtil.getProperty("OAuth.TokenPersistence.InvalidTokenFilter.Enable"))
+                .thenReturn("true");
+
+        persistence.init();
+
+        ScheduledThreadPoolExecutor scheduler = Whitebox.getInternalState(persistence, "scheduler");
+        Assert.assertTrue(scheduler.getQueue().isEmpty());
+        Assert.assertNull(getInvalidTokenFilter());
+    }
+
+    @Test
+    public void testInvalidTokenFilterEnabledOnSingleNode() throws Exception {
+
+        PowerMockito.when(IdentityUtil.getProperty("OAuth.TokenPersistence.InvalidTokenFilter.Enable"))
+                .thenReturn("true");
+        PowerMockito.when(IdentityUtil.getProperty("OAuth.TokenPersistence.InvalidTokenFilter.SingleNode"))
+                .thenReturn("true");
+        database.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+
+        persistence.init();
+
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (getInvalidTokenFilter() == null) {
+            Assert.assertTrue("Timed out waiting for the invalid token filter to be built.",
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(getInvalidTokenFilter().mightContain(TokenDigestUtil.getTokenKeyDigest("token",
+                CONSUMER_KEY)));
+    }
+
+    @Test
+    public void testInvalidTokenFilter() throws Exception {
+
+        configureInvalidTokenFilter();
+        database.addInvalidToken("token", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        database.addInvalidToken("expiredToken", CONSUMER_KEY, now - 1000);
+
+        persistence.rebuildInvalidTokenFilter();
+
+        InvalidTokenFilter filter = getInvalidTokenFilter();
+        Assert.assertTrue(filter.mightContain(TokenDigestUtil.getTokenKeyDigest("token", CONSUMER_KEY)));
+        Assert.assertFalse(filter.mightContain(TokenDigestUtil.getTokenKeyDigest("expiredToken", CONSUMER_KEY)));
+        Assert.assertTrue(persistence.isInvalidToken("token", CONSUMER_KEY));
+        // The tokens which are not in the filter are accepted without a database lookup.
+        Assert.assertFalse(persistence.isInvalidToken("otherToken", CONSUMER_KEY));
+        Assert.assertFalse(persistence.isInvalidToken("token", "otherConsumerKey"));
+        PowerMockito.verifyStatic(IdentityDatabaseUtil.class, Mockito.times(2));
+        IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean());
+
+        // Tokens invalidated through this node are added to the filter.
+        persistence.addInvalidToken("localToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        Assert.assertTrue(persistence.isInvalidToken("localToken", CONSUMER_KEY));
+        // Tokens invalidated through another node are added to the filter when it is rebuilt.
+        database.addInvalidToken("remoteToken", CONSUMER_KEY, now + TOKEN_VALIDITY);
+        Assert.assertFalse(persistence.isInvalidToken("remoteToken", CONSUMER_KEY));
+        persistence.rebuildInvalidTokenFilter();
+        Assert.assertNotSame(filter, getInvalidTokenFilter());
+        Assert.assertTrue(persistence.isInvalidToken("remoteToken", CONSUMER_KEY));
+        Assert.assertTrue(persistence.isInvalidToken("localToken", CONSUMER_KEY));
+    }
+
+    @Test
+    public void testTokenInvalidatedDuringRebuildKeptAfterSwap() throws Exception {
+
+        configureInvalidTokenFilter();
+        persistence.rebuildInvalidTokenFilter();
+        InvalidTokenFilter previousFilter = getInvalidTokenFilter();
+        AtomicReference<InvalidTokenFilter> rebuildingFilter = new AtomicReference<>();
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean())).thenAnswer(invocation -> {
+            Connection connection = database.getConnection();
+            Connection hookedConnection = Mockito.mock(Connection.class, AdditionalAnswers.delegatesTo(connection));
+            Mockito.doAnswer(prepare -> {
+                // A token committed after the rebuild has read the invalid tokens.
+                rebuildingFilter.set(Whitebox.getInternalState(persistence, "rebuildingInvalidTokenFilter"));
+                Whitebox.invokeMethod(persistence, "addToInvalidTokenFilter", "racingToken", CONSUMER_KEY);
+                return connection.prepareStatement(prepare.getArgument(0));
+            }).when(hookedConnection).prepareStatement(SQLQueries.GET_INVALID_TOKENS_EXPIRING_AFTER);
+            return hookedConnection;
+        });
+
+        persistence.rebuildInvalidTokenFilter();
+
+        byte[] digest = TokenDigestUtil.getTokenKeyDigest("racingToken", CONSUMER_KEY);
+        Assert.assertNotNull(rebuildingFilter.get());
+        Assert.assertSame(rebuildingFilter.get(), getInvalidTokenFilter());
+        Assert.assertTrue(getInvalidTokenFilter().mightContain(digest));
+        Assert.assertTrue(previousFilter.mightContain(digest));
+        Assert.assertNull(Whitebox.getInternalState(persistence, "rebuildingInvalidTokenFilter"));
+    }
+
+    @Test
+    public void testFailedRebuildKeepsExistingFilter() throws Exception {
+
+        configureInvalidTokenFilter();
+        persistence.rebuildInvalidTokenFilter();
+        InvalidTokenFilter previousFilter = getInvalidTokenFilter();
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean())).thenAnswer(invocation -> {
+            Connection connection = database.getConnection();
+            Connection failingConnection = Mockito.mock(Connection.class, AdditionalAnswers.delegatesTo(connection));
+            Mockito.doThrow(new SQLException("Connection reset.")).when(failingConnection)
+                    .prepareStatement(SQLQueries.GET_INVALID_TOKENS_EXPIRING_AFTER);
+            return failingConnection;
+        });
+
+        try {
+            persistence.rebuildInvalidTokenFilter();
+            Assert.fail("Expected the rebuild to fail.");
+        } catch (IdentityOAuth2Exception e) {
+            Assert.assertSame(previousFilter, getInvalidTokenFilter());
+            Assert.assertNull(Whitebox.getInternalState(persistence, "rebuildingInvalidTokenFilter"));
+        }
+    }
+
+    /**
+     * Set the storage formats of the invalid tokens, which are otherwise read from the configuration when the
+     * persistence is created.
+     */
+    private void setInvalidTokenStorageFormats(boolean hashedFormatEnabled, boolean plainFormatReadable)
+            throws Exception {
+
+        setFinalField("hashedInvalidTokensEnabled", hashedFormatEnabled);
+        setFinalField("plainInvalidTokensReadable", plainFormatReadable);
+    }
+
+    private void setFinalField(String fieldName, Object value) throws Exception {
+
+        Field field = DBInvalidTokenPersistence.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(persistence, value);
+    }
+
+    private void configureInvalidTokenFilter() {
+
+        Whitebox.setInternalState(persistence, "invalidTokenFilterExpectedInsertions", FILTER_EXPECTED_INSERTIONS);
+        Whitebox.setInternalState(persistence, "invalidTokenFilterFalsePositiveProbability",
+                FILTER_FALSE_POSITIVE_PROBABILITY);
+        Whitebox.setInternalState(persistence, "invalidTokenFilterExpiredTokenRetentionInMillis", 0L);
+    }
+
+    private InvalidTokenFilter getInvalidTokenFilter() {
+
+        return Whitebox.getInternalState(persistence, "invalidTokenFilter");
+    }
+
+    private void enableConsumerKeyRevocationSnapshot() {
+
+        Whitebox.setInternalState(persistence, "consumerKeyRevocationSnapshotRefreshOverlapInMillis",
+                SNAPSHOT_REFRESH_OVERLAP);
+        Whitebox.setInternalState(persistence, "consumerKeyRevocationSnapshot", new ConsumerKeyRevocationSnapshot());
+    }
+
+    private ConsumerKeyRevocationSnapshot getConsumerKeyRevocationSnapshot() {
+
+        return Whitebox.getInternalState(persistence, "consumerKeyRevocationSnapshot");
+    }
+
+    private boolean isRevocationEventUpsertEnabled() {
+
+        return Whitebox.getInternalState(persistence, "revocationEventUpsertEnabled");
+    }
+
+    /**
+     * Make the next upsert query fail with the given error while preparing the statement.
+     */
+    private void failNextUpsert(SQLException error) throws Exception {
+
+        recordPreparedQueries(error);
+    }
+
+    /**
+     * Record the queries prepared through the connections of the persistence.
+     *
+     * @param upsertError Error to fail the first upsert query with, or {@code null} to not fail any query.
+     * @return Prepared queries.
+     */
+    private List<String> recordPreparedQueries(SQLException upsertError) throws Exception {
+
+        List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean failed = new AtomicBoolean(upsertError == null);
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean())).thenAnswer(invocation -> {
+            Connection connection = database.getConnection();
+            Connection recordingConnection = Mockito.mock(Connection.class,
+                    AdditionalAnswers.delegatesTo(connection));
+            Mockito.doAnswer(prepare -> {
+                String query = prepare.getArgument(0);
+                queries.add(query);
+                if (query.startsWith("MERGE") && failed.compareAndSet(false, true)) {
+                    throw upsertError;
+                }
+                return connection.prepareStatement(query);
+            }).when(recordingConnection).prepareStatement(Mockito.anyString());
+            return recordingConnection;
+        });
+        return queries;
+    }
+
+    private static int countQueries(List<String> queries, String prefix) {
+
+        int count = 0;
+        for (String query : queries) {
+            if (query.startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+/**
+ * This class tests the cluster wide lease lock used by the invalid token purge against an in-memory H2 database.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({IdentityDatabaseUtil.class})
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityDatabaseUtil")
+@PowerMockIgnore({"javax.management.*", "org.h2.*"})
+public class DBLeaseLockTest {
+
+    private static final String LOCK_NAME = "TEST_LOCK";
+    private static final long LEASE_IN_MILLIS = 60000;
+
+    private TestDatabase database;
+
+    @Before
+    public void init() throws Exception {
+
+        database = TestDatabase.create();
+        PowerMockito.mockStatic(IdentityDatabaseUtil.class);
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean()))
+                .thenAnswer(invocation -> database.getConnection());
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+
+        database.shutdown();
+    }
+
+    @Test
+    public void testLockHeldByOneOwner() throws Exception {
+
+        DBLeaseLock node1 = new DBLeaseLock(LOCK_NAME, "node1", LEASE_IN_MILLIS, false);
+        DBLeaseLock node2 = new DBLeaseLock(LOCK_NAME, "node2", LEASE_IN_MILLIS, false);
+
+        Assert.assertTrue(node1.tryAcquire());
+        Assert.assertFalse(node2.tryAcquire());
+        // The owner renews its lease.
+        Assert.assertTrue(node1.tryAcquire());
+        Assert.assertFalse(node2.tryAcquire());
+
+        node1.release();
+        Assert.assertTrue(node2.tryAcquire());
+        Assert.assertFalse(node1.tryAcquire());
+    }
+
+    @Test
+    public void testLockTakenOverAfterLeaseExpiry() throws Exception {
+
+        DBLeaseLock node1 = new DBLeaseLock(LOCK_NAME, "node1", 1, false);
+        DBLeaseLock node2 = new DBLeaseLock(LOCK_NAME, "node2", LEASE_IN_MILLIS, false);
+
+        Assert.assertTrue(node1.tryAcquire());
+        Thread.sleep(10);
+        Assert.assertTrue(node2.tryAcquire());
+        Assert.assertFalse(node1.tryAcquire());
+    }
+
+    @Test
+    public void testLockNotAcquiredWithoutLockTable() throws Exception {
+
+        database.executeUpdate("DROP TABLE IDN_TOKEN_PERSISTENCE_LOCK");
+        DBLeaseLock node1 = new DBLeaseLock(LOCK_NAME, "node1", LEASE_IN_MILLIS, false);
+        DBLeaseLock node2 = new DBLeaseLock(LOCK_NAME, "node2", LEASE_IN_MILLIS, false);
+
+        Assert.assertFalse(node1.tryAcquire());
+        Assert.assertFalse(node2.tryAcquire());
+        node1.release();
+
+        // The table created later is picked up by the next attempt.
+        database.executeUpdate("RUNSCRIPT FROM 'classpath:/dbscripts/token-persistence/h2.sql'");
+        Assert.assertTrue(node1.tryAcquire());
+        Assert.assertFalse(node2.tryAcquire());
+    }
+
+    @Test
+    public void testSingleNodeLockAcquiredWithoutLockTable() throws Exception {
+
+        database.executeUpdate("DROP TABLE IDN_TOKEN_PERSISTENCE_LOCK");
+        DBLeaseLock lock = new DBLeaseLock(LOCK_NAME, "node1", LEASE_IN_MILLIS, true);
+
+        Assert.assertTrue(lock.tryAcquire());
+        lock.release();
+        Assert.assertTrue(lock.tryAcquire());
+    }
+}
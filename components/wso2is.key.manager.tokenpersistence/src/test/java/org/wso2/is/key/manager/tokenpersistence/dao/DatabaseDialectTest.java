@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Tests the resolution of {@link DatabaseDialect} from the connection metadata.
+ */
+public class DatabaseDialectTest {
+
+    @Test
+    public void testFromConnection() throws Exception {
+
+        Assert.assertEquals(DatabaseDialect.H2, fromProductName("H2"));
+        Assert.assertEquals(DatabaseDialect.MYSQL, fromProductName("MySQL"));
+        Assert.assertEquals(DatabaseDialect.MYSQL, fromProductName("MariaDB"));
+        Assert.assertEquals(DatabaseDialect.POSTGRESQL, fromProductName("PostgreSQL"));
+        Assert.assertEquals(DatabaseDialect.MSSQL, fromProductName("Microsoft SQL Server"));
+        Assert.assertEquals(DatabaseDialect.ORACLE, fromProductName("Oracle"));
+        Assert.assertEquals(DatabaseDialect.DB2, fromProductName("DB2/LINUXX8664"));
+        Assert.assertEquals(DatabaseDialect.UNKNOWN, fromProductName("Apache Derby"));
+    }
+
+    @Test
+    public void testFromH2Connection() throws Exception {
+
+        TestDatabase database = TestDatabase.create();
+        try (Connection connection = database.getConnection()) {
+            Assert.assertEquals(DatabaseDialect.H2, DatabaseDialect.fromConnection(connection));
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    @Test
+    public void testUpsertQueries() {
+
+        for (DatabaseDialect dialect : DatabaseDialect.values()) {
+            if (dialect == DatabaseDialect.UNKNOWN) {
+                Assert.assertNull(dialect.getSubjectEntityRevokedEventUpsertQuery());
+                Assert.assertNull(dialect.getAppRevokedEventUpsertQuery());
+                continue;
+            }
+            Assert.assertNotNull(dialect.getSubjectEntityRevokedEventUpsertQuery());
+            Assert.assertNotNull(dialect.getAppRevokedEventUpsertQuery());
+            Assert.assertEquals(dialect.getAppRevokedEventUpsertQuery().startsWith("MERGE"),
+                    dialect.isMergeStatement());
+        }
+    }
+
+    private static DatabaseDialect fromProductName(String productName) throws Exception {
+
+        Connection connection = Mockito.mock(Connection.class);
+        DatabaseMetaData metaData = Mockito.mock(DatabaseMetaData.class);
+        Mockito.when(connection.getMetaData()).thenReturn(metaData);
+        Mockito.when(metaData.getDatabaseProductName()).thenReturn(productName);
+        return DatabaseDialect.fromConnection(connection);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the append and replay of {@link InvalidTokenLog}, including the recovery from torn and corrupted records.
+ */
+public class InvalidTokenLogTest {
+
+    private static final int CAPACITY = 4096;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path path;
+    private final List<String> replayedRecords = new ArrayList<>();
+
+    @Before
+    public void init() throws IOException {
+
+        path = temporaryFolder.getRoot().toPath().resolve("invalid-tokens.log");
+    }
+
+    @Test
+    public void testAppendAndReplay() throws Exception {
+
+        int position;
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            Assert.assertTrue(replayedRecords.isEmpty());
+            Assert.assertEquals(InvalidTokenLog.HEADER_SIZE, tokenLog.getPosition());
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "one");
+            append(tokenLog, InvalidTokenLog.APP_REVOKED_EVENT, "two");
+            append(tokenLog, InvalidTokenLog.SUBJECT_ENTITY_REVOKED_EVENT, "three");
+            position = tokenLog.getPosition();
+            tokenLog.force();
+        }
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            Assert.assertEquals(Arrays.asList("1:one", "2:two", "3:three"), replayedRecords);
+            Assert.assertEquals(position, tokenLog.getPosition());
+        }
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws Exception {
+
+        int position;
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "one");
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "two");
+            position = tokenLog.getPosition();
+        }
+        // A record which was cut off before its length was written.
+        write(position + Integer.BYTES, new byte[]{InvalidTokenLog.INVALID_TOKEN, 't', 'h'});
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            Assert.assertEquals(Arrays.asList("1:one", "1:two"), replayedRecords);
+            Assert.assertEquals(position, tokenLog.getPosition());
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "three");
+        }
+        replayedRecords.clear();
+        try (InvalidTokenLog ignored = open(CAPACITY)) {
+            Assert.assertEquals(Arrays.asList("1:one", "1:two", "1:three"), replayedRecords);
+        }
+    }
+
+    @Test
+    public void testRecordWithChecksumMismatchDiscarded() throws Exception {
+
+        int secondRecordPosition;
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "one");
+            secondRecordPosition = tokenLog.getPosition();
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "two");
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "three");
+        }
+        // Corrupt the first payload byte of the second record.
+        write(secondRecordPosition + Integer.BYTES + 1, new byte[]{'x'});
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            // The log ends at the corrupted record, and the records after it are cleared.
+            Assert.assertEquals(Arrays.asList("1:one"), replayedRecords);
+            Assert.assertEquals(secondRecordPosition, tokenLog.getPosition());
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "four");
+        }
+        replayedRecords.clear();
+        try (InvalidTokenLog ignored = open(CAPACITY)) {
+            Assert.assertEquals(Arrays.asList("1:one", "1:four"), replayedRecords);
+        }
+    }
+
+    @Test
+    public void testRecordLengthBeyondCapacityDiscarded() throws Exception {
+
+        int position;
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "one");
+            position = tokenLog.getPosition();
+        }
+        write(position, ByteBuffer.allocate(Integer.BYTES).putInt(CAPACITY).array());
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            Assert.assertEquals(Arrays.asList("1:one"), replayedRecords);
+            Assert.assertEquals(position, tokenLog.getPosition());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnrecognizedFormat() throws Exception {
+
+        write(0, "not a log".getBytes(StandardCharsets.UTF_8));
+
+        open(CAPACITY).close();
+    }
+
+    @Test
+    public void testAppendWhenFull() throws Exception {
+
+        try (InvalidTokenLog tokenLog = open(64)) {
+            Assert.assertTrue(tokenLog.append(InvalidTokenLog.INVALID_TOKEN, payload(new String(new char[40]))));
+            Assert.assertFalse(tokenLog.append(InvalidTokenLog.INVALID_TOKEN, payload("overflow")));
+            Assert.assertFalse(tokenLog.append(InvalidTokenLog.INVALID_TOKEN, ByteBuffer.allocate(0)));
+        }
+    }
+
+    @Test
+    public void testCapacityExtendedOnOpen() throws Exception {
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            append(tokenLog, InvalidTokenLog.INVALID_TOKEN, "one");
+        }
+
+        try (InvalidTokenLog tokenLog = open(CAPACITY * 2)) {
+            Assert.assertEquals(CAPACITY * 2, tokenLog.getCapacity());
+            Assert.assertEquals(Arrays.asList("1:one"), replayedRecords);
+        }
+        // A smaller capacity does not shrink the log.
+        try (InvalidTokenLog tokenLog = open(CAPACITY)) {
+            Assert.assertEquals(CAPACITY * 2, tokenLog.getCapacity());
+        }
+    }
+
+    private InvalidTokenLog open(int capacity) throws IOException {
+
+        return InvalidTokenLog.open(path, capacity, (type, payload) -> {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            replayedRecords.add(type + ":" + new String(bytes, StandardCharsets.UTF_8));
+        });
+    }
+
+    private static void append(InvalidTokenLog tokenLog, byte type, String payload) {
+
+        Assert.assertTrue(tokenLog.append(type, payload(payload)));
+    }
+
+    private static ByteBuffer payload(String payload) {
+
+        return ByteBuffer.wrap(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void write(int position, byte[] bytes) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), position);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Timestamp;
+
+/**
+ * This class tests the purge of the expired invalid tokens against an in-memory H2 database.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({IdentityDatabaseUtil.class})
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityDatabaseUtil")
+@PowerMockIgnore({"javax.management.*", "org.h2.*"})
+public class InvalidTokenPurgeTaskTest {
+
+    private static final String CONSUMER_KEY = "testConsumerKey";
+    private static final String INVALID_TOKENS_TABLE = "IDN_INVALID_TOKENS";
+    private static final String INVALID_TOKEN_DIGESTS_TABLE = "IDN_INVALID_TOKEN_DIGESTS";
+    private static final int CHUNK_SIZE = 2;
+    private static final long LEASE_IN_MILLIS = 60000;
+    private static final long TOKEN_VALIDITY = 3600 * 1000L;
+
+    private TestDatabase database;
+    private long now;
+
+    @Before
+    public void init() throws Exception {
+
+        database = TestDatabase.create();
+        PowerMockito.mockStatic(IdentityDatabaseUtil.class);
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(Mockito.anyBoolean()))
+                .thenAnswer(invocation -> database.getConnection());
+        now = System.currentTimeMillis();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+
+        database.shutdown();
+    }
+
+    @Test
+    public void testPlainFormatPurged() throws Exception {
+
+        addInvalidTokens(5, 2);
+        InvalidTokenPurgeTask task = createPurgeTask(false);
+
+        task.purge();
+
+        Assert.assertEquals(2, countRows(INVALID_TOKENS_TABLE));
+        Assert.assertEquals(0, database.count(INVALID_TOKENS_TABLE, "TOKEN_IDENTIFIER LIKE ?", "expired%"));
+        // The hashed format is left untouched when it is not in use.
+        Assert.assertEquals(7, countRows(INVALID_TOKEN_DIGESTS_TABLE));
+        Assert.assertEquals(5, task.getLastRunDeletedRowCount());
+        Assert.assertEquals(1, task.getRunCount());
+    }
+
+    @Test
+    public void testHashedFormatPurged() throws Exception {
+
+        addInvalidTokens(5, 2);
+        InvalidTokenPurgeTask task = createPurgeTask(true);
+
+        task.purge();
+
+        // The plain format is purged first, as it holds the tokens invalidated before the switch to hashing.
+        Assert.assertEquals(2, countRows(INVALID_TOKENS_TABLE));
+        Assert.assertEquals(0, database.count(INVALID_TOKENS_TABLE, "TOKEN_IDENTIFIER LIKE ?", "expired%"));
+        Assert.assertEquals(2, countRows(INVALID_TOKEN_DIGESTS_TABLE));
+        Assert.assertEquals(0, database.count(INVALID_TOKEN_DIGESTS_TABLE, "EXPIRY_TIMESTAMP < ?",
+                new Timestamp(now)));
+        Assert.assertEquals(10, task.getLastRunDeletedRowCount());
+        Assert.assertEquals(10, task.getTotalDeletedRowCount());
+
+        task.purge();
+        Assert.assertEquals(0, task.getLastRunDeletedRowCount());
+        Assert.assertEquals(10, task.getTotalDeletedRowCount());
+    }
+
+    @Test
+    public void testHashedFormatPurgedWithoutPlainFormatRows() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            database.addInvalidTokenDigest("expired" + i, CONSUMER_KEY, now - TOKEN_VALIDITY);
+        }
+        InvalidTokenPurgeTask task = createPurgeTask(true);
+
+        task.purge();
+
+        Assert.assertEquals(0, countRows(INVALID_TOKEN_DIGESTS_TABLE));
+        Assert.assertEquals(3, task.getLastRunDeletedRowCount());
+    }
+
+    @Test
+    public void testPurgeSkippedWithoutLock() throws Exception {
+
+        addInvalidTokens(1, 0);
+        Assert.assertTrue(new DBLeaseLock("INVALID_TOKEN_PURGE", "node2", LEASE_IN_MILLIS, false).tryAcquire());
+        InvalidTokenPurgeTask task = createPurgeTask(true);
+
+        task.purge();
+
+        Assert.assertEquals(1, countRows(INVALID_TOKENS_TABLE));
+        Assert.assertEquals(1, countRows(INVALID_TOKEN_DIGESTS_TABLE));
+        Assert.assertEquals(0, task.getRunCount());
+    }
+
+    private InvalidTokenPurgeTask createPurgeTask(boolean purgeHashedInvalidTokens) {
+
+        return new InvalidTokenPurgeTask(CHUNK_SIZE, 0, 0, LEASE_IN_MILLIS, "node1", purgeHashedInvalidTokens, false);
+    }
+
+    /**
+     * Add the given number of expired and active invalid tokens in each of the storage formats.
+     */
+    private void addInvalidTokens(int expiredCount, int activeCount) throws Exception {
+
+        for (int i = 0; i < expiredCount; i++) {
+            database.addInvalidToken("expired" + i, CONSUMER_KEY, now - TOKEN_VALIDITY);
+            database.addInvalidTokenDigest("expired" + i, CONSUMER_KEY, now - TOKEN_VALIDITY);
+        }
+        for (int i = 0; i < activeCount; i++) {
+            database.addInvalidToken("active" + i, CONSUMER_KEY, now + TOKEN_VALIDITY);
+            database.addInvalidTokenDigest("active" + i, CONSUMER_KEY, now + TOKEN_VALIDITY);
+        }
+    }
+
+    private int countRows(String table) throws Exception {
+
+        return database.count(table, "1 = ?", 1);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.is.key.manager.tokenpersistence.model.InvalidToken;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the batching, retries and read-your-writes of {@link InvalidTokenWriteBehindQueue}.
+ */
+public class InvalidTokenWriteBehindQueueTest {
+
+    private static final String CONSUMER_KEY = "testConsumerKey";
+    private static final long WAIT_TIMEOUT_MILLIS = 5000;
+    private static final long NO_LATENCY_FLUSH = 60000;
+
+    private final List<List<InvalidToken>> writtenBatches = new ArrayList<>();
+    private InvalidTokenWriteBehindQueue queue;
+
+    @After
+    public void cleanUp() {
+
+        if (queue != null) {
+            queue.shutdown();
+        }
+    }
+
+    @Test
+    public void testPendingUntilWritten() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new InvalidTokenWriteBehindQueue(10, 10, 10, batch -> {
+            await(release);
+            record(batch);
+        });
+
+        queue.add(token("token1"));
+        queue.add(token("token2"));
+        // Visible to this node while the write is still in progress.
+        Assert.assertTrue(queue.isPending("token1", CONSUMER_KEY));
+        Assert.assertTrue(queue.isPending("token2", CONSUMER_KEY));
+        Assert.assertFalse(queue.isPending("token1", "otherConsumerKey"));
+        Assert.assertFalse(queue.isPending("token3", CONSUMER_KEY));
+
+        release.countDown();
+        waitUntilNotPending("token1");
+        waitUntilNotPending("token2");
+        Assert.assertEquals(2, getWrittenTokens().size());
+    }
+
+    @Test
+    public void testFlushAfterMaxLatency() throws Exception {
+
+        queue = new InvalidTokenWriteBehindQueue(10, 100, 20, this::record);
+
+        queue.add(token("token1"));
+        queue.add(token("token2"));
+        queue.add(token("token3"));
+
+        waitForWrittenTokens(3);
+        Assert.assertEquals(Arrays.asList(token("token1"), token("token2"), token("token3")), getWrittenTokens());
+    }
+
+    @Test
+    public void testFlushOnBatchSize() throws Exception {
+
+        queue = new InvalidTokenWriteBehindQueue(10, 2, NO_LATENCY_FLUSH, this::record);
+
+        queue.add(token("token1"));
+        queue.add(token("token2"));
+
+        // Written without waiting for the maximum latency, as the batch is full.
+        waitForWrittenTokens(2);
+        synchronized (writtenBatches) {
+            Assert.assertEquals(1, writtenBatches.size());
+        }
+    }
+
+    @Test
+    public void testFailedBatchRetriedOneByOne() throws Exception {
+
+        AtomicInteger badTokenFailures = new AtomicInteger();
+        CountDownLatch queued = new CountDownLatch(1);
+        queue = new InvalidTokenWriteBehindQueue(10, 3, 50, batch -> {
+            await(queued);
+            for (InvalidToken invalidToken : batch) {
+                if ("bad".equals(invalidToken.getToken()) && badTokenFailures.incrementAndGet() <= 2) {
+                    throw new IdentityOAuth2Exception("Simulated write failure.");
+                }
+            }
+            record(batch);
+        });
+
+        queue.add(token("token1"));
+        queue.add(token("bad"));
+        queue.add(token("token2"));
+        queued.countDown();
+
+        // The good tokens are written one by one, and the bad token is queued again until it is written.
+        waitUntilNotPending("token1");
+        waitUntilNotPending("bad");
+        waitUntilNotPending("token2");
+        Assert.assertTrue(getWrittenTokens().containsAll(Arrays.asList(token("token1"), token("bad"),
+                token("token2"))));
+        Assert.assertEquals(3, badTokenFailures.get());
+    }
+
+    @Test
+    public void testSynchronousWriteWhenBufferFull() throws Exception {
+
+        CountDownLatch flusherBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new InvalidTokenWriteBehindQueue(1, 10, 10, batch -> {
+            if (batch.contains(token("token1"))) {
+                flusherBlocked.countDown();
+                await(release);
+            }
+            record(batch);
+        });
+
+        queue.add(token("token1"));
+        Assert.assertTrue(flusherBlocked.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        queue.add(token("token2"));
+        // The buffer is full, so the calling thread writes its token along with the queued token.
+        queue.add(token("token3"));
+
+        Assert.assertEquals(Arrays.asList(token("token3"), token("token2")), getWrittenTokens());
+        Assert.assertFalse(queue.isPending("token3", CONSUMER_KEY));
+        Assert.assertFalse(queue.isPending("token2", CONSUMER_KEY));
+        Assert.assertTrue(queue.isPending("token1", CONSUMER_KEY));
+        release.countDown();
+        waitForWrittenTokens(3);
+    }
+
+    @Test
+    public void testSynchronousWriteFailureReturnedToCaller() throws Exception {
+
+        CountDownLatch flusherBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new InvalidTokenWriteBehindQueue(1, 10, 10, batch -> {
+            if (batch.contains(token("token1"))) {
+                flusherBlocked.countDown();
+                await(release);
+            } else if (batch.contains(token("token3"))) {
+                throw new IdentityOAuth2Exception("Simulated write failure.");
+            }
+            record(batch);
+        });
+
+        queue.add(token("token1"));
+        Assert.assertTrue(flusherBlocked.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        queue.add(token("token2"));
+        try {
+            queue.add(token("token3"));
+            Assert.fail("Expected the write failure of the calling thread to be thrown.");
+        } catch (IdentityOAuth2Exception e) {
+            Assert.assertEquals("Simulated write failure.", e.getMessage());
+        }
+        Assert.assertFalse(queue.isPending("token3", CONSUMER_KEY));
+        // The queued token of the batch is still written.
+        Assert.assertEquals(Arrays.asList(token("token2")), getWrittenTokens());
+        release.countDown();
+    }
+
+    @Test
+    public void testShutdownWritesQueuedTokens() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        queue = new InvalidTokenWriteBehindQueue(10, 100, NO_LATENCY_FLUSH, batch -> {
+            await(release);
+            record(batch);
+        });
+        queue.add(token("token1"));
+        queue.add(token("token2"));
+
+        release.countDown();
+        queue.shutdown();
+        queue = null;
+
+        Assert.assertEquals(2, getWrittenTokens().size());
+    }
+
+    private void record(List<InvalidToken> batch) {
+
+        synchronized (writtenBatches) {
+            writtenBatches.add(new ArrayList<>(batch));
+            writtenBatches.notifyAll();
+        }
+    }
+
+    private List<InvalidToken> getWrittenTokens() {
+
+        List<InvalidToken> writtenTokens = new ArrayList<>();
+        synchronized (writtenBatches) {
+            for (List<InvalidToken> batch : writtenBatches) {
+                writtenTokens.addAll(batch);
+            }
+        }
+        return writtenTokens;
+    }
+
+    private void waitForWrittenTokens(int count) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        synchronized (writtenBatches) {
+            while (getWrittenTokens().size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                Assert.assertTrue("Timed out waiting for the invalid tokens to be written.", remaining > 0);
+                writtenBatches.wait(remaining);
+            }
+        }
+    }
+
+    private void waitUntilNotPending(String token) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while (queue.isPending(token, CONSUMER_KEY)) {
+            Assert.assertTrue("Timed out waiting for the invalid token to be written.",
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await(WAIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static InvalidToken token(String token) {
+
+        return new InvalidToken(token, CONSUMER_KEY, 0);
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+/**
+ * Tests the replay and compaction of the embedded invalid token store, {@link MappedLogInvalidTokenPersistence}.
+ */
+public class MappedLogInvalidTokenPersistenceTest {
+
+    private static final String CONSUMER_KEY = "testConsumerKey";
+    private static final String ENTITY_ID = "testUserId";
+    private static final String ORGANIZATION = "carbon.super";
+    private static final String LOG_FILE_NAME = "invalid-tokens.log";
+    private static final String COMPACTED_LOG_FILE_NAME = "invalid-tokens.log.compact";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path directory;
+    private MappedLogInvalidTokenPersistence store;
+    private long now;
+
+    @Before
+    public void init() throws Exception {
+
+        directory = temporaryFolder.getRoot().toPath().resolve("token-persistence");
+        now = System.currentTimeMillis();
+        store = open(1, 4);
+    }
+
+    @After
+    public void cleanUp() {
+
+        store.destroy();
+    }
+
+    @Test
+    public void testReplayAfterRestart() throws Exception {
+
+        store.addInvalidToken("token", CONSUMER_KEY, now + 60000);
+        store.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now - 2000, ORGANIZATION, 0);
+        store.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now, ORGANIZATION, 0);
+        store.revokeTokensByUserEvent(ENTITY_ID, "USER_ID", now, ORGANIZATION, 0);
+
+        restart();
+
+        Assert.assertTrue(store.isInvalidToken("token", CONSUMER_KEY));
+        Assert.assertFalse(store.isInvalidToken("token", "otherConsumerKey"));
+        // The latest revocation event of the consumer key is restored.
+        Assert.assertTrue(store.isTokenRevokedForConsumerKey(CONSUMER_KEY, new Date(now - 1000)));
+        Assert.assertFalse(store.isTokenRevokedForConsumerKey(CONSUMER_KEY, new Date(now)));
+        Assert.assertTrue(store.isTokenRevokedForSubjectEntity(ENTITY_ID, new Date(now - 1000)));
+        Assert.assertFalse(store.isTokenRevokedForSubjectEntity("otherUserId", new Date(now - 1000)));
+    }
+
+    @Test
+    public void testExpiredTokensSkippedOnReplay() throws Exception {
+
+        store.addInvalidToken("expiredToken", CONSUMER_KEY, now - 1000);
+        store.addInvalidToken("token", CONSUMER_KEY, now + 60000);
+
+        restart();
+
+        Assert.assertFalse(store.isInvalidToken("expiredToken", CONSUMER_KEY));
+        Assert.assertTrue(store.isInvalidToken("token", CONSUMER_KEY));
+        Assert.assertEquals(1, store.getInvalidTokenCount());
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+
+        for (int i = 0; i < 10; i++) {
+            store.addInvalidToken("expiredToken" + i, CONSUMER_KEY, now - 1000);
+        }
+        for (int i = 0; i < 5; i++) {
+            store.addInvalidToken("token" + i, CONSUMER_KEY, now + 60000);
+        }
+        store.revokeTokensByConsumerKeyEvent(CONSUMER_KEY, now, ORGANIZATION, 0);
+        store.revokeTokensByUserEvent(ENTITY_ID, "USER_ID", now, ORGANIZATION, 0);
+        Assert.assertEquals(15, store.getInvalidTokenCount());
+
+        store.compactIfRequired();
+
+        Assert.assertEquals(5, store.getInvalidTokenCount());
+        Assert.assertFalse(Files.exists(directory.resolve(COMPACTED_LOG_FILE_NAME)));
+        store.addInvalidToken("token5", CONSUMER_KEY, now + 60000);
+        restart();
+        Assert.assertEquals(6, store.getInvalidTokenCount());
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(store.isInvalidToken("token" + i, CONSUMER_KEY));
+        }
+        Assert.assertFalse(store.isInvalidToken("expiredToken0", CONSUMER_KEY));
+        Assert.assertTrue(store.isTokenRevokedForConsumerKey(CONSUMER_KEY, new Date(now - 1000)));
+        Assert.assertTrue(store.isTokenRevokedForSubjectEntity(ENTITY_ID, new Date(now - 1000)));
+    }
+
+    @Test
+    public void testCompactionSkippedWhenMostTokensAreLive() throws Exception {
+
+        store.addInvalidToken("expiredToken", CONSUMER_KEY, now - 1000);
+        store.addInvalidToken("token1", CONSUMER_KEY, now + 60000);
+        store.addInvalidToken("token2", CONSUMER_KEY, now + 60000);
+
+        store.compactIfRequired();
+
+        Assert.assertEquals(3, store.getInvalidTokenCount());
+    }
+
+    @Test
+    public void testCompactionWhenLogIsFull() throws Exception {
+
+        store.destroy();
+        store = open(1, 1);
+        // Fill the log with tokens which expire before it is full, followed by live tokens.
+        int tokenCount = 1024 * 1024 / 33 + 100;
+        for (int i = 0; i < tokenCount; i++) {
+            long expiryTime = i < tokenCount - 100 ? now - 1000 : now + 60000;
+            store.addInvalidToken("token" + i, CONSUMER_KEY, expiryTime);
+        }
+
+        Assert.assertTrue(store.getInvalidTokenCount() < tokenCount);
+        Assert.assertTrue(store.isInvalidToken("token" + (tokenCount - 1), CONSUMER_KEY));
+        restart();
+        Assert.assertTrue(store.isInvalidToken("token" + (tokenCount - 1), CONSUMER_KEY));
+    }
+
+    @Test
+    public void testIncompleteCompactionDiscardedOnStartup() throws Exception {
+
+        store.addInvalidToken("token", CONSUMER_KEY, now + 60000);
+        store.destroy();
+        Files.write(directory.resolve(COMPACTED_LOG_FILE_NAME), "partial".getBytes(StandardCharsets.UTF_8));
+
+        store = open(1, 4);
+
+        Assert.assertFalse(Files.exists(directory.resolve(COMPACTED_LOG_FILE_NAME)));
+        Assert.assertTrue(Files.exists(directory.resolve(LOG_FILE_NAME)));
+        Assert.assertTrue(store.isInvalidToken("token", CONSUMER_KEY));
+    }
+
+    private MappedLogInvalidTokenPersistence open(int initialSizeInMB, int maxSizeInMB) throws Exception {
+
+        MappedLogInvalidTokenPersistence persistence = new MappedLogInvalidTokenPersistence(directory,
+                initialSizeInMB, maxSizeInMB, false, 0, 0);
+        persistence.init();
+        return persistence;
+    }
+
+    private void restart() throws Exception {
+
+        store.destroy();
+        store = open(1, 4);
+    }
+}
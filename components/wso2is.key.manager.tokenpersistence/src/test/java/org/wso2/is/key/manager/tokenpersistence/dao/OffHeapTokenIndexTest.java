@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests the lookups, growth and expiry of {@link OffHeapTokenIndex}.
+ */
+public class OffHeapTokenIndexTest {
+
+    private static final String CONSUMER_KEY = "testConsumerKey";
+
+    @Test
+    public void testPutAndContains() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+
+        index.put(key("token1"), 1000);
+        index.put(key("token2"), 2000);
+
+        Assert.assertTrue(index.contains(key("token1")));
+        Assert.assertTrue(index.contains(key("token2")));
+        Assert.assertFalse(index.contains(key("token3")));
+        Assert.assertFalse(index.contains(TokenDigestUtil.getTokenKeyDigest("token1", "otherConsumerKey")));
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testPutExtendsExpiryTime() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+
+        index.put(key("token"), 1000);
+        index.put(key("token"), 3000);
+        // An earlier expiry time does not shorten the entry.
+        index.put(key("token"), 2000);
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(0, index.countExpired(3000));
+        Assert.assertEquals(1, index.countExpired(3001));
+    }
+
+    @Test
+    public void testCollidingKeys() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+        byte[] key1 = new byte[TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH];
+        byte[] key2 = new byte[TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH];
+        // Same hash, as the hash is taken from the first 8 bytes only.
+        key1[15] = 1;
+        key2[15] = 2;
+
+        index.put(key1, 1000);
+        index.put(key2, 1000);
+
+        Assert.assertTrue(index.contains(key1));
+        Assert.assertTrue(index.contains(key2));
+        Assert.assertFalse(index.contains(new byte[TokenDigestUtil.TOKEN_KEY_DIGEST_LENGTH]));
+        Assert.assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+        long initialSize = index.getOffHeapSize();
+
+        for (int i = 0; i < 5000; i++) {
+            index.put(key("token" + i), 1000 + i);
+        }
+
+        Assert.assertEquals(5000, index.size());
+        Assert.assertTrue(index.getOffHeapSize() > initialSize);
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertTrue(index.contains(key("token" + i)));
+        }
+    }
+
+    @Test
+    public void testRemoveExpired() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+        for (int i = 0; i < 3000; i++) {
+            index.put(key("token" + i), i < 2000 ? 1000 : 5000);
+        }
+        long grownSize = index.getOffHeapSize();
+
+        Assert.assertEquals(2000, index.countExpired(2000));
+        Assert.assertEquals(2000, index.removeExpired(2000));
+        Assert.assertEquals(0, index.removeExpired(2000));
+
+        Assert.assertEquals(1000, index.size());
+        Assert.assertEquals(0, index.countExpired(2000));
+        Assert.assertTrue(index.getOffHeapSize() < grownSize);
+        Assert.assertFalse(index.contains(key("token0")));
+        Assert.assertTrue(index.contains(key("token2999")));
+    }
+
+    @Test
+    public void testForEach() {
+
+        OffHeapTokenIndex index = new OffHeapTokenIndex(0);
+        index.put(key("token1"), 1000);
+        index.put(key("token2"), 2000);
+
+        Map<String, Long> entries = new HashMap<>();
+        index.forEach((key, expiryTime) -> entries.put(new String(key, StandardCharsets.ISO_8859_1), expiryTime));
+
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals(Long.valueOf(1000), entries.get(new String(key("token1"), StandardCharsets.ISO_8859_1)));
+        Assert.assertEquals(Long.valueOf(2000), entries.get(new String(key("token2"), StandardCharsets.ISO_8859_1)));
+    }
+
+    private static byte[] key(String token) {
+
+        return TokenDigestUtil.getTokenKeyDigest(token, CONSUMER_KEY);
+    }
+}
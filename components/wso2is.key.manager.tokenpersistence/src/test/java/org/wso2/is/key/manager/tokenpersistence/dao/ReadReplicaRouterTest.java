@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * This class tests the routing of the revocation lookups between the read replica and the primary database.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({IdentityDatabaseUtil.class})
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityDatabaseUtil")
+@PowerMockIgnore("javax.management.*")
+public class ReadReplicaRouterTest {
+
+    private static final long LAG_GUARD_WINDOW_MILLIS = 60000;
+    private static final long SHORT_LAG_GUARD_WINDOW_MILLIS = 50;
+    private static final int MAX_TRACKED_WRITES = 100;
+    private static final String TOKEN_KEY = ReadReplicaRouter.getInvalidTokenKey("token", "consumerKey");
+    private static final String CONSUMER_KEY_KEY = ReadReplicaRouter.getConsumerKeyKey("consumerKey");
+    private static final String SUBJECT_ENTITY_KEY = ReadReplicaRouter.getSubjectEntityKey("user");
+
+    private DataSource replica;
+    private Connection replicaConnection;
+    private Connection primaryConnection;
+
+    @Before
+    public void init() throws Exception {
+
+        replica = Mockito.mock(DataSource.class);
+        replicaConnection = Mockito.mock(Connection.class);
+        primaryConnection = Mockito.mock(Connection.class);
+        Mockito.when(replica.getConnection()).thenReturn(replicaConnection);
+        PowerMockito.mockStatic(IdentityDatabaseUtil.class);
+        PowerMockito.when(IdentityDatabaseUtil.getDBConnection(false)).thenReturn(primaryConnection);
+    }
+
+    @Test
+    public void testLookupRoutedToReplica() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, LAG_GUARD_WINDOW_MILLIS, MAX_TRACKED_WRITES);
+
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY, CONSUMER_KEY_KEY));
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY, null));
+    }
+
+    @Test
+    public void testRecentlyWrittenKeyRoutedToPrimary() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, LAG_GUARD_WINDOW_MILLIS, MAX_TRACKED_WRITES);
+
+        router.recordWrite(CONSUMER_KEY_KEY);
+
+        Assert.assertSame(primaryConnection, router.getReadConnection(CONSUMER_KEY_KEY));
+        Assert.assertSame(primaryConnection, router.getReadConnection(TOKEN_KEY, null, CONSUMER_KEY_KEY));
+        // The window is tracked per key, so the lookups of the other keys still reach the replica.
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY, SUBJECT_ENTITY_KEY));
+    }
+
+    @Test
+    public void testWrittenKeyRoutedToReplicaAfterWindow() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, SHORT_LAG_GUARD_WINDOW_MILLIS, MAX_TRACKED_WRITES);
+
+        router.recordWrite(TOKEN_KEY);
+        Assert.assertSame(primaryConnection, router.getReadConnection(TOKEN_KEY));
+        Thread.sleep(SHORT_LAG_GUARD_WINDOW_MILLIS * 2);
+
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY));
+        // The elapsed write is no longer tracked.
+        Assert.assertTrue(getRecentWrites(router).isEmpty());
+    }
+
+    @Test
+    public void testTooManyWritesRouteAllLookupsToPrimary() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, LAG_GUARD_WINDOW_MILLIS, 2);
+
+        router.recordWrite(TOKEN_KEY);
+        router.recordWrite(CONSUMER_KEY_KEY);
+        Assert.assertSame(replicaConnection, router.getReadConnection(SUBJECT_ENTITY_KEY));
+        router.recordWrite(ReadReplicaRouter.getConsumerKeyKey("otherConsumerKey"));
+
+        Assert.assertSame(primaryConnection, router.getReadConnection(SUBJECT_ENTITY_KEY));
+        Assert.assertSame(primaryConnection, router.getReadConnection());
+        Assert.assertTrue(getRecentWrites(router).isEmpty());
+    }
+
+    @Test
+    public void testPrimaryOnlyRoutingEndsAfterWindow() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, SHORT_LAG_GUARD_WINDOW_MILLIS, 1);
+
+        router.recordWrite(TOKEN_KEY);
+        router.recordWrite(CONSUMER_KEY_KEY);
+        Assert.assertSame(primaryConnection, router.getReadConnection(SUBJECT_ENTITY_KEY));
+        Thread.sleep(SHORT_LAG_GUARD_WINDOW_MILLIS * 2);
+
+        Assert.assertSame(replicaConnection, router.getReadConnection(SUBJECT_ENTITY_KEY));
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY, CONSUMER_KEY_KEY));
+    }
+
+    @Test
+    public void testElapsedWritesNotCountedTowardsLimit() throws Exception {
+
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, SHORT_LAG_GUARD_WINDOW_MILLIS, 2);
+
+        router.recordWrite(TOKEN_KEY);
+        router.recordWrite(CONSUMER_KEY_KEY);
+        Thread.sleep(SHORT_LAG_GUARD_WINDOW_MILLIS * 2);
+        router.recordWrite(SUBJECT_ENTITY_KEY);
+
+        // The elapsed writes are evicted instead of routing all the lookups to the primary.
+        Assert.assertSame(replicaConnection, router.getReadConnection(TOKEN_KEY));
+        Assert.assertSame(primaryConnection, router.getReadConnection(SUBJECT_ENTITY_KEY));
+        Assert.assertEquals(1, getRecentWrites(router).size());
+    }
+
+    @Test
+    public void testPrimaryUsedWhenReplicaUnavailable() throws Exception {
+
+        Mockito.when(replica.getConnection()).thenThrow(new SQLException("Connection refused."));
+        ReadReplicaRouter router = new ReadReplicaRouter(replica, LAG_GUARD_WINDOW_MILLIS, MAX_TRACKED_WRITES);
+
+        Assert.assertSame(primaryConnection, router.getReadConnection(TOKEN_KEY));
+        Mockito.verify(replica).getConnection();
+    }
+
+    private Map<String, Long> getRecentWrites(ReadReplicaRouter router) {
+
+        return Whitebox.getInternalState(router, "recentWrites");
+    }
+}
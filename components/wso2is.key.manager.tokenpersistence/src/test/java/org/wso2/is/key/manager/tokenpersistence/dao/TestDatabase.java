@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.dao;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.wso2.is.key.manager.tokenpersistence.utils.TimeOrderedIdUtil;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenDigestUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/**
+ * In-memory H2 identity database of the tests, created from the revocation tables of the identity database scripts
+ * and the token persistence scripts shipped with the distribution.
+ */
+public final class TestDatabase {
+
+    private static final String[] SCHEMA_SCRIPTS = {"dbscripts/identity-h2.sql", "dbscripts/token-persistence/h2.sql"};
+
+    private final JdbcConnectionPool dataSource;
+
+    private TestDatabase(JdbcConnectionPool dataSource) {
+
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Create a new empty database with the token persistence schema.
+     *
+     * @return Test database.
+     * @throws SQLException If an error occurs while creating the schema.
+     */
+    public static TestDatabase create() throws SQLException {
+
+        JdbcConnectionPool dataSource = JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";DB_CLOSE_DELAY=-1", "wso2carbon", "wso2carbon");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String script : SCHEMA_SCRIPTS) {
+                statement.execute("RUNSCRIPT FROM 'classpath:/" + script + "'");
+            }
+        }
+        return new TestDatabase(dataSource);
+    }
+
+    public Connection getConnection() throws SQLException {
+
+        return dataSource.getConnection();
+    }
+
+    public void addInvalidToken(String token, String consumerKey, long expiryTime) throws SQLException {
+
+        executeUpdate("INSERT INTO IDN_INVALID_TOKENS (UUID, TOKEN_IDENTIFIER, CONSUMER_KEY, EXPIRY_TIMESTAMP) "
+                + "VALUES (?, ?, ?, ?)", UUID.randomUUID().toString(), token, consumerKey, new Timestamp(expiryTime));
+    }
+
+    /**
+     * Add an invalid token in the hashed storage format.
+     */
+    public void addInvalidTokenDigest(String token, String consumerKey, long expiryTime) throws SQLException {
+
+        executeUpdate("INSERT INTO IDN_INVALID_TOKEN_DIGESTS (ID, TOKEN_KEY, EXPIRY_TIMESTAMP) VALUES (?, ?, ?)",
+                TimeOrderedIdUtil.generateId(), TokenDigestUtil.getTokenKeyDigest(token, consumerKey),
+                new Timestamp(expiryTime));
+    }
+
+    public void addAppRevokedEvent(String consumerKey, long revocationTime) throws SQLException {
+
+        executeUpdate("INSERT INTO IDN_APP_REVOKED_EVENT (EVENT_ID, CONSUMER_KEY, TIME_REVOKED, ORGANIZATION) "
+                + "VALUES (?, ?, ?, ?)", UUID.randomUUID().toString(), consumerKey, new Timestamp(revocationTime),
+                "carbon.super");
+    }
+
+    public void addSubjectEntityRevokedEvent(String entityId, String entityType, long revocationTime)
+            throws SQLException {
+
+        executeUpdate("INSERT INTO IDN_SUBJECT_ENTITY_REVOKED_EVENT (EVENT_ID, ENTITY_ID, ENTITY_TYPE, TIME_REVOKED, "
+                + "ORGANIZATION) VALUES (?, ?, ?, ?, ?)", UUID.randomUUID().toString(), entityId, entityType,
+                new Timestamp(revocationTime), "carbon.super");
+    }
+
+    /**
+     * Count the rows of the given table matching the given condition.
+     *
+     * @param table      Table name.
+     * @param condition  WHERE clause, with the parameters as placeholders.
+     * @param parameters Parameters of the condition.
+     * @return Number of matching rows.
+     * @throws SQLException If an error occurs while reading the table.
+     */
+    public int count(String table, String condition, Object... parameters) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE "
+                     + condition)) {
+            setParameters(ps, parameters);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                resultSet.next();
+                return resultSet.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Get the latest revocation time of the rules of the given revocation event table matching the given condition.
+     *
+     * @param table      IDN_APP_REVOKED_EVENT or IDN_SUBJECT_ENTITY_REVOKED_EVENT.
+     * @param condition  WHERE clause, with the parameters as placeholders.
+     * @param parameters Parameters of the condition.
+     * @return Revocation time in milliseconds, or {@code null} if there is no matching rule.
+     * @throws SQLException If an error occurs while reading the table.
+     */
+    public Long getRevocationTime(String table, String condition, Object... parameters) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT MAX(TIME_REVOKED) FROM " + table + " WHERE "
+                     + condition)) {
+            setParameters(ps, parameters);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                Timestamp revocationTime = resultSet.next() ? resultSet.getTimestamp(1, getUTCCalendar()) : null;
+                return revocationTime != null ? revocationTime.getTime() : null;
+            }
+        }
+    }
+
+    public void executeUpdate(String sql, Object... parameters) throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            setParameters(ps, parameters);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Drop the database and close the pooled connections.
+     *
+     * @throws SQLException If an error occurs while dropping the database.
+     */
+    public void shutdown() throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } finally {
+            dataSource.dispose();
+        }
+    }
+
+    private static void setParameters(PreparedStatement ps, Object... parameters) throws SQLException {
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] instanceof Timestamp) {
+                // Stored in UTC, as done by the token persistence.
+                ps.setTimestamp(i + 1, (Timestamp) parameters[i], getUTCCalendar());
+            } else {
+                ps.setObject(i + 1, parameters[i]);
+            }
+        }
+    }
+
+    private static Calendar getUTCCalendar() {
+
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.issuer;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.is.key.manager.tokenpersistence.cache.SignatureVerifierCache;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Date;
+
+/**
+ * Tests signing JWTs with {@link TenantJWTSigner} and verifying them with the verifiers built by
+ * {@link SignatureVerifierCache#createVerifier(java.security.PublicKey, String)}.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(IdentityUtil.class)
+@SuppressStaticInitializationFor("org.wso2.carbon.identity.core.util.IdentityUtil")
+@PowerMockIgnore("javax.management.*")
+public class TenantJWTSignerTest {
+
+    private static final String KEY_ID = "testKeyId";
+    private static final int POOL_SIZE = 2;
+
+    @Before
+    public void init() {
+
+        PowerMockito.mockStatic(IdentityUtil.class);
+        PowerMockito.when(IdentityUtil.getProperty(Mockito.anyString())).thenReturn(null);
+    }
+
+    @Test
+    public void testES256RoundTrip() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        JWSAlgorithm algorithm = TenantJWTSigner.getSigningAlgorithm(keyPair.getPrivate(), JWSAlgorithm.RS256);
+        Assert.assertEquals(JWSAlgorithm.ES256, algorithm);
+        TenantJWTSigner signer = new TenantJWTSigner(algorithm, keyPair.getPrivate(), KEY_ID, null, POOL_SIZE);
+        JWSVerifier verifier = SignatureVerifierCache.createVerifier(keyPair.getPublic(), "ES256");
+        Assert.assertNotNull(verifier);
+
+        assertRoundTrip(signer, verifier, JWSAlgorithm.ES256);
+        // The signature is in the concatenated R and S form of JWS, which Nimbus verifies too.
+        SignedJWT signedJWT = SignedJWT.parse(signer.sign(getClaims("token-id")));
+        Assert.assertEquals(64, signedJWT.getSignature().decode().length);
+        Assert.assertTrue(signedJWT.verify(new ECDSAVerifier((ECPublicKey) keyPair.getPublic())));
+        // A verifier of a different key does not verify the token.
+        KeyPair otherKeyPair = keyPairGenerator.generateKeyPair();
+        Assert.assertFalse(signedJWT.verify(SignatureVerifierCache.createVerifier(otherKeyPair.getPublic(),
+                "ES256")));
+    }
+
+    @Test
+    public void testEdDSARoundTrip() throws Exception {
+
+        KeyPair keyPair;
+        try {
+            keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            Assume.assumeNoException("Ed25519 is not supported by the runtime.", e);
+            return;
+        }
+
+        JWSAlgorithm algorithm = TenantJWTSigner.getSigningAlgorithm(keyPair.getPrivate(), JWSAlgorithm.RS256);
+        Assert.assertEquals(JWSAlgorithm.EdDSA, algorithm);
+        TenantJWTSigner signer = new TenantJWTSigner(algorithm, keyPair.getPrivate(), KEY_ID, null, POOL_SIZE);
+        JWSVerifier verifier = SignatureVerifierCache.createVerifier(keyPair.getPublic(), "EdDSA");
+        Assert.assertNotNull(verifier);
+
+        assertRoundTrip(signer, verifier, JWSAlgorithm.EdDSA);
+        SignedJWT signedJWT = SignedJWT.parse(signer.sign(getClaims("token-id")));
+        Assert.assertEquals(64, signedJWT.getSignature().decode().length);
+        KeyPair otherKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        Assert.assertFalse(signedJWT.verify(SignatureVerifierCache.createVerifier(otherKeyPair.getPublic(),
+                "EdDSA")));
+    }
+
+    @Test
+    public void testVerifierNotCreatedForMismatchedKey() throws Exception {
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+
+        Assert.assertNull(SignatureVerifierCache.createVerifier(keyPair.getPublic(), "EdDSA"));
+        Assert.assertNull(SignatureVerifierCache.createVerifier(keyPair.getPublic(), "RS256"));
+    }
+
+    /**
+     * Sign more tokens than the size of the signature pool, and verify each of them along with a tampered copy.
+     */
+    private static void assertRoundTrip(TenantJWTSigner signer, JWSVerifier verifier, JWSAlgorithm algorithm)
+            throws Exception {
+
+        for (int i = 0; i < POOL_SIZE * 2; i++) {
+            String token = signer.sign(getClaims("token-id-" + i));
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            Assert.assertEquals(algorithm, signedJWT.getHeader().getAlgorithm());
+            Assert.assertEquals(KEY_ID, signedJWT.getHeader().getKeyID());
+            Assert.assertEquals("token-id-" + i, signedJWT.getJWTClaimsSet().getJWTID());
+            Assert.assertTrue(signedJWT.verify(verifier));
+
+            String[] parts = token.split("\\.");
+            String tamperedToken = parts[0] + "." + Base64URL.encode(getClaims("other-token-id").toString()) + "."
+                    + parts[2];
+            Assert.assertFalse(SignedJWT.parse(tamperedToken).verify(verifier));
+        }
+    }
+
+    private static JWTClaimsSet getClaims(String tokenIdentifier) {
+
+        return new JWTClaimsSet.Builder()
+                .jwtID(tokenIdentifier)
+                .subject("admin")
+                .issuer("https://localhost:9443/oauth2/token")
+                .expirationTime(new Date(System.currentTimeMillis() + 3600000L))
+                .build();
+    }
+}
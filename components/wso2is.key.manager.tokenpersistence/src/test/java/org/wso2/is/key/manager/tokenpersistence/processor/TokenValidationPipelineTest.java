@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.processor;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.oauth2.IdentityOAuth2Exception;
+import org.wso2.carbon.identity.oauth2.util.JWTUtils;
+import org.wso2.is.key.manager.tokenpersistence.model.RevocationStatus;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationContext;
+import org.wso2.is.key.manager.tokenpersistence.model.TokenValidationStage;
+import org.wso2.is.key.manager.tokenpersistence.utils.TokenMgtUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tests the ordering, rejections, failures and metrics of the stages of {@link TokenValidationPipeline}, along with
+ * the built in stages and the additional stages run for the cached tokens.
+ */
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({TokenMgtUtil.class, JWTUtils.class, IdentityUtil.class})
+@SuppressStaticInitializationFor({"org.wso2.is.key.manager.tokenpersistence.utils.TokenMgtUtil",
+        "org.wso2.carbon.identity.oauth2.util.JWTUtils", "org.wso2.carbon.identity.core.util.IdentityUtil"})
+@PowerMockIgnore("javax.management.*")
+public class TokenValidationPipelineTest {
+
+    private static final String TOKEN_IDENTIFIER = "testTokenId";
+    private static final String SIGNING_TENANT_DOMAIN = "signing.com";
+    private static final String USER_TENANT_DOMAIN = "user.com";
+
+    private final TokenValidationPipeline pipeline = TokenValidationPipeline.getInstance();
+    private final List<TokenValidationStage> addedStages = new ArrayList<>();
+    private final List<String> executedStages = new ArrayList<>();
+    private JWTClaimsSet claimsSet;
+    private AuthenticatedUser authenticatedUser;
+
+    @Before
+    public void init() throws Exception {
+
+        PowerMockito.mockStatic(IdentityUtil.class);
+        PowerMockito.mockStatic(JWTUtils.class);
+        PowerMockito.mockStatic(TokenMgtUtil.class);
+        claimsSet = new JWTClaimsSet.Builder().jwtID(TOKEN_IDENTIFIER)
+                .expirationTime(new Date(System.currentTimeMillis() + 3600000L)).build();
+        authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setTenantDomain(USER_TENANT_DOMAIN);
+        PowerMockito.when(JWTUtils.checkExpirationTime(Mockito.any())).thenReturn(true);
+        PowerMockito.when(TokenMgtUtil.getSigningTenantDomain(claimsSet)).thenReturn(SIGNING_TENANT_DOMAIN);
+        PowerMockito.when(TokenMgtUtil.getAuthenticatedUser(claimsSet)).thenReturn(authenticatedUser);
+        PowerMockito.when(TokenMgtUtil.getRevocationStatus(TOKEN_IDENTIFIER, claimsSet))
+                .thenReturn(RevocationStatus.NOT_REVOKED);
+    }
+
+    @After
+    public void cleanUp() {
+
+        for (TokenValidationStage stage : addedStages) {
+            pipeline.removeStage(stage);
+        }
+    }
+
+    @Test
+    public void testBuiltInStages() {
+
+        Assert.assertEquals(Arrays.asList("Temporal", "Signature", "Revocation"), getStageNames());
+        Assert.assertEquals(Arrays.asList(100, 200, 300), getStageOrders());
+        Assert.assertFalse(pipeline.hasAdditionalStages());
+    }
+
+    @Test
+    public void testStagesRunInOrder() throws Exception {
+
+        addStage(new RecordingStage("Late", 400));
+        addStage(new RecordingStage("Middle", 250));
+        addStage(new RecordingStage("Early", 50));
+        addStage(new RecordingStage("AlsoMiddle", 250));
+
+        Assert.assertEquals(Arrays.asList("Early", "Temporal", "Signature", "Middle", "AlsoMiddle", "Revocation",
+                "Late"), getStageNames());
+        TokenValidationContext context = newContext(false);
+        pipeline.validate(context);
+
+        Assert.assertFalse(context.isRejected());
+        Assert.assertTrue(context.isActive());
+        // Stages with the same order run in the order they were added.
+        Assert.assertEquals(Arrays.asList("Early", "Middle", "AlsoMiddle", "Late"), executedStages);
+    }
+
+    @Test
+    public void testSigningTenantFromClaimsDoesNotResolveUser() throws Exception {
+
+        pipeline.validate(newContext(false));
+
+        PowerMockito.verifyStatic(TokenMgtUtil.class);
+        TokenMgtUtil.validateJWTSignature(null, claimsSet, SIGNING_TENANT_DOMAIN);
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.getAuthenticatedUser(Mockito.any());
+    }
+
+    @Test
+    public void testUserResolvedOnceWhenSigningTenantNotInClaims() throws Exception {
+
+        PowerMockito.when(TokenMgtUtil.getSigningTenantDomain(claimsSet)).thenReturn(null);
+        addStage(new RecordingStage("UserStage", 250) {
+            @Override
+            public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+                Assert.assertSame(authenticatedUser, context.getAuthenticatedUser());
+            }
+        });
+        TokenValidationContext context = newContext(false);
+
+        pipeline.validate(context);
+
+        Assert.assertSame(authenticatedUser, context.getAuthenticatedUser());
+        PowerMockito.verifyStatic(TokenMgtUtil.class);
+        TokenMgtUtil.validateJWTSignature(null, claimsSet, USER_TENANT_DOMAIN);
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.times(1));
+        TokenMgtUtil.getAuthenticatedUser(claimsSet);
+    }
+
+    @Test
+    public void testExpiredTokenRejected() throws Exception {
+
+        PowerMockito.when(JWTUtils.checkExpirationTime(Mockito.any())).thenReturn(false);
+        RecordingStage laterStage = addStage(new RecordingStage("AfterTemporal", 150));
+        TokenValidationPipeline.StageMetrics temporalMetrics = getStageMetrics("Temporal");
+        long rejectionCount = temporalMetrics.getRejectionCount();
+        TokenValidationContext context = newContext(false);
+
+        pipeline.validate(context);
+
+        Assert.assertTrue(context.isRejected());
+        Assert.assertEquals(rejectionCount + 1, temporalMetrics.getRejectionCount());
+        Assert.assertEquals(0, getStageMetrics(laterStage.getName()).getRunCount());
+        Assert.assertTrue(executedStages.isEmpty());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.validateJWTSignature(Mockito.any(), Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    public void testExpiredTokenInactiveWhenExpiredTokensRequested() throws Exception {
+
+        PowerMockito.when(JWTUtils.checkExpirationTime(Mockito.any())).thenReturn(false);
+        TokenValidationContext context = newContext(true);
+
+        pipeline.validate(context);
+
+        Assert.assertFalse(context.isRejected());
+        Assert.assertFalse(context.isActive());
+        PowerMockito.verifyStatic(TokenMgtUtil.class);
+        TokenMgtUtil.validateJWTSignature(null, claimsSet, SIGNING_TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testRevokedDirectly() throws Exception {
+
+        RevocationStatus revocationStatus = new RevocationStatus(true, false, false);
+        PowerMockito.when(TokenMgtUtil.getRevocationStatus(TOKEN_IDENTIFIER, claimsSet)).thenReturn(revocationStatus);
+        RecordingStage laterStage = addStage(new RecordingStage("AfterRevocation", 400));
+        TokenValidationContext context = newContext(false);
+
+        pipeline.validate(context);
+
+        Assert.assertTrue(context.isRejected());
+        Assert.assertEquals(0, getStageMetrics(laterStage.getName()).getRunCount());
+        // The user is not resolved for a token revoked directly.
+        PowerMockito.verifyStatic(TokenMgtUtil.class);
+        TokenMgtUtil.isTokenRevoked(revocationStatus, claimsSet, null);
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.getAuthenticatedUser(Mockito.any());
+    }
+
+    @Test
+    public void testRevokedIndirectly() throws Exception {
+
+        RevocationStatus revocationStatus = new RevocationStatus(false, false, true);
+        PowerMockito.when(TokenMgtUtil.getRevocationStatus(TOKEN_IDENTIFIER, claimsSet)).thenReturn(revocationStatus);
+        TokenValidationContext context = newContext(false);
+
+        pipeline.validate(context);
+
+        Assert.assertTrue(context.isRejected());
+        PowerMockito.verifyStatic(TokenMgtUtil.class);
+        TokenMgtUtil.isTokenRevoked(revocationStatus, claimsSet, authenticatedUser);
+    }
+
+    @Test
+    public void testRevocationCheckDeferred() throws Exception {
+
+        TokenValidationContext context = newContext(false);
+        context.setRevocationCheckDeferred(true);
+
+        pipeline.validate(context);
+
+        Assert.assertFalse(context.isRejected());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.getRevocationStatus(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    public void testStageFailure() throws Exception {
+
+        RecordingStage failingStage = addStage(new RecordingStage("Failing", 150) {
+            @Override
+            public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+                throw new IdentityOAuth2Exception("Simulated stage failure.");
+            }
+        });
+        RecordingStage brokenStage = addStage(new RecordingStage("Broken", 150) {
+            @Override
+            public void validate(TokenValidationContext context) {
+
+                throw new IllegalStateException("Simulated stage error.");
+            }
+        });
+
+        try {
+            pipeline.validate(newContext(false));
+            Assert.fail("Expected the failure of the stage to be thrown.");
+        } catch (IdentityOAuth2Exception e) {
+            Assert.assertEquals("Simulated stage failure.", e.getMessage());
+        }
+        pipeline.removeStage(failingStage);
+        try {
+            pipeline.validate(newContext(false));
+            Assert.fail("Expected the error of the stage to be thrown.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("Simulated stage error.", e.getMessage());
+        }
+
+        TokenValidationPipeline.StageMetrics brokenStageMetrics = getStageMetrics(brokenStage.getName());
+        Assert.assertEquals(1, brokenStageMetrics.getRunCount());
+        Assert.assertEquals(1, brokenStageMetrics.getFailureCount());
+        Assert.assertEquals(0, brokenStageMetrics.getRejectionCount());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.validateJWTSignature(Mockito.any(), Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    public void testStageMetrics() throws Exception {
+
+        RecordingStage stage = addStage(new RecordingStage("Rejecting", 250) {
+            @Override
+            public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+                super.validate(context);
+                if (executedStages.size() > 1) {
+                    context.reject();
+                }
+            }
+        });
+
+        pipeline.validate(newContext(false));
+        pipeline.validate(newContext(false));
+
+        TokenValidationPipeline.StageMetrics metrics = getStageMetrics(stage.getName());
+        Assert.assertEquals(250, metrics.getOrder());
+        Assert.assertEquals(2, metrics.getRunCount());
+        Assert.assertEquals(1, metrics.getRejectionCount());
+        Assert.assertEquals(0, metrics.getFailureCount());
+        Assert.assertTrue(metrics.getMeanTimeInMicros() >= 0);
+        Assert.assertTrue(pipeline.toString().contains("Rejecting{order=250, runs=2, rejections=1, failures=0"));
+    }
+
+    @Test
+    public void testAdditionalStagesOfCachedToken() throws Exception {
+
+        addStage(new RecordingStage("Additional", 250));
+        RecordingStage rejectingStage = addStage(new RecordingStage("RejectingAdditional", 260) {
+            @Override
+            public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+                super.validate(context);
+                Assert.assertSame(authenticatedUser, context.getAuthenticatedUser());
+                context.reject();
+            }
+        });
+        addStage(new RecordingStage("AfterRejection", 270));
+        Assert.assertTrue(pipeline.hasAdditionalStages());
+        // The user resolved when the token was first validated is passed to the additional stages.
+        TokenValidationContext context = new TokenValidationContext("token", null, claimsSet, TOKEN_IDENTIFIER,
+                false, authenticatedUser);
+
+        pipeline.validateAdditionalStages(context);
+
+        Assert.assertTrue(context.isRejected());
+        Assert.assertEquals(Arrays.asList("Additional", rejectingStage.getName()), executedStages);
+        PowerMockito.verifyStatic(JWTUtils.class, Mockito.never());
+        JWTUtils.checkExpirationTime(Mockito.any());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.validateJWTSignature(Mockito.any(), Mockito.any(), Mockito.anyString());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.getRevocationStatus(Mockito.anyString(), Mockito.any());
+        PowerMockito.verifyStatic(TokenMgtUtil.class, Mockito.never());
+        TokenMgtUtil.getAuthenticatedUser(Mockito.any());
+    }
+
+    @Test
+    public void testStageRegistrationAndRemoval() throws Exception {
+
+        RecordingStage stage = new RecordingStage("Registered", 250);
+        RecordingStage sameNamedStage = new RecordingStage("Registered", 250);
+        pipeline.addStage(stage);
+        addStage(sameNamedStage);
+        Assert.assertTrue(pipeline.hasAdditionalStages());
+
+        // Stages are removed by identity, so a stage with the same name stays registered.
+        pipeline.removeStage(stage);
+        pipeline.validate(newContext(false));
+        Assert.assertEquals(Arrays.asList("Temporal", "Signature", "Registered", "Revocation"), getStageNames());
+        Assert.assertEquals(1, executedStages.size());
+
+        pipeline.removeStage(sameNamedStage);
+        pipeline.removeStage(sameNamedStage);
+        Assert.assertEquals(Arrays.asList("Temporal", "Signature", "Revocation"), getStageNames());
+        Assert.assertFalse(pipeline.hasAdditionalStages());
+    }
+
+    private <T extends TokenValidationStage> T addStage(T stage) {
+
+        pipeline.addStage(stage);
+        addedStages.add(stage);
+        return stage;
+    }
+
+    private TokenValidationContext newContext(boolean includeExpired) {
+
+        return new TokenValidationContext("token", null, claimsSet, TOKEN_IDENTIFIER, includeExpired);
+    }
+
+    private List<String> getStageNames() {
+
+        List<String> names = new ArrayList<>();
+        for (TokenValidationPipeline.StageMetrics metrics : pipeline.getStageMetrics()) {
+            names.add(metrics.getName());
+        }
+        return names;
+    }
+
+    private List<Integer> getStageOrders() {
+
+        List<Integer> orders = new ArrayList<>();
+        for (TokenValidationPipeline.StageMetrics metrics : pipeline.getStageMetrics()) {
+            orders.add(metrics.getOrder());
+        }
+        return orders;
+    }
+
+    private TokenValidationPipeline.StageMetrics getStageMetrics(String name) {
+
+        for (TokenValidationPipeline.StageMetrics metrics : pipeline.getStageMetrics()) {
+            if (metrics.getName().equals(name)) {
+                return metrics;
+            }
+        }
+        throw new AssertionError("Stage not found: " + name);
+    }
+
+    /**
+     * Stage which records its runs in the order they happen.
+     */
+    private class RecordingStage implements TokenValidationStage {
+
+        private final String name;
+        private final int order;
+
+        RecordingStage(String name, int order) {
+
+            this.name = name;
+            this.order = order;
+        }
+
+        @Override
+        public String getName() {
+
+            return name;
+        }
+
+        @Override
+        public int getOrder() {
+
+            return order;
+        }
+
+        @Override
+        public void validate(TokenValidationContext context) throws IdentityOAuth2Exception {
+
+            executedStages.add(name);
+        }
+    }
+}
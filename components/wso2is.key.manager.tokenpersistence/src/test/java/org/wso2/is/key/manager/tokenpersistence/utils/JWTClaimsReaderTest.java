@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Tests reading the claims of a JWT payload with {@link JWTClaimsReader}.
+ */
+public class JWTClaimsReaderTest {
+
+    private static final String HEADER = "{\"alg\":\"RS256\",\"typ\":\"at+jwt\"}";
+    private static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    @Test
+    public void testReadClaims() {
+
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\"sub\":\"admin\",\"jti\":\"token-id\","
+                + "\"exp\":1700003600,\"nbf\":1700000000,\"iat\":1700000001,\"azp\":\"client\","
+                + "\"entity_id\":\"user-id\",\"token_type\":\"JWT\"}"));
+
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("token-id", claims.getTokenIdentifier());
+        Assert.assertEquals(Long.valueOf(1700003600000L), claims.getExpirationTime());
+        Assert.assertEquals(Long.valueOf(1700000000000L), claims.getNotBeforeTime());
+        Assert.assertEquals(Long.valueOf(1700000001000L), claims.getIssueTime());
+        Assert.assertEquals("client", claims.getAuthorizedParty());
+        Assert.assertEquals("user-id", claims.getEntityId());
+        Assert.assertEquals("JWT", claims.getTokenType());
+    }
+
+    @Test
+    public void testMissingClaims() {
+
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\"exp\":1700003600}"));
+
+        Assert.assertNotNull(claims);
+        Assert.assertEquals(Long.valueOf(1700003600000L), claims.getExpirationTime());
+        Assert.assertNull(claims.getTokenIdentifier());
+        Assert.assertNull(claims.getNotBeforeTime());
+        Assert.assertNull(claims.getAuthorizedParty());
+        Assert.assertNotNull(JWTClaimsReader.read(token("{}")));
+        Assert.assertNotNull(JWTClaimsReader.read(token(" { } ")));
+    }
+
+    @Test
+    public void testWhitespaceAndOtherClaimsSkipped() {
+
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\n  \"aud\" : [\"a\", \"b]}\"],\n"
+                + "  \"realm\" : {\"signing_tenant\" : \"carbon.super\", \"nested\" : {\"jti\" : \"inner\"}},\n"
+                + "  \"active\" : true,\n  \"scope\" : null,\n  \"ratio\" : 1.5e3,\n"
+                + "  \"note\" : \"a \\\"quoted\\\" } value\",\n  \"jti\" : \"token-id\"\n}"));
+
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("token-id", claims.getTokenIdentifier());
+    }
+
+    @Test
+    public void testEscapes() {
+
+        // An escaped name could be one of the read claims, and is left to the full parser.
+        Assert.assertNull(JWTClaimsReader.read(token("{\"\\u006ati\":\"token-id\"}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"na\\\"me\":\"value\"}")));
+        // So is an escaped value of a read claim.
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":\"token\\u002did\"}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"azp\":\"client\\\"\"}")));
+        // Escaped values of the other claims are skipped.
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\"name\":\"val\\\\ue\\\"\",\"azp\":\"client\"}"));
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("client", claims.getAuthorizedParty());
+    }
+
+    @Test
+    public void testNonAsciiValue() {
+
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\"entity_id\":\"usér-ü\"}"));
+
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("usér-ü", claims.getEntityId());
+    }
+
+    @Test
+    public void testNumbers() {
+
+        Assert.assertEquals(Long.valueOf(0L), JWTClaimsReader.read(token("{\"exp\":0}")).getExpirationTime());
+        Assert.assertEquals(Long.valueOf(999999999999999000L),
+                JWTClaimsReader.read(token("{\"exp\":999999999999999}")).getExpirationTime());
+        // Numbers which are not read exactly as the full parser would read them are left to it.
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":1700003600.5}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":17e8}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":1E9}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":-1}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":1000000000000000}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"exp\":\"1700003600\"}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"nbf\":null}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":1}")));
+    }
+
+    @Test
+    public void testMalformedJson() {
+
+        Assert.assertNull(JWTClaimsReader.read(token("[]")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":\"token-id\"")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":\"token-id}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\" \"token-id\"}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":\"token-id\" \"exp\":1}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"jti\":\"token-id\",}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{jti:\"token-id\"}")));
+        Assert.assertNull(JWTClaimsReader.read(token("{\"aud\":[\"a\"")));
+    }
+
+    @Test
+    public void testMalformedToken() {
+
+        String payload = encode("{\"jti\":\"token-id\"}");
+        Assert.assertNull(JWTClaimsReader.read(null));
+        Assert.assertNull(JWTClaimsReader.read(""));
+        Assert.assertNull(JWTClaimsReader.read("opaque-token"));
+        Assert.assertNull(JWTClaimsReader.read(encode(HEADER) + "." + payload));
+        Assert.assertNull(JWTClaimsReader.read(encode(HEADER) + ".." + SIGNATURE));
+        Assert.assertNull(JWTClaimsReader.read(encode(HEADER) + "." + payload + "." + SIGNATURE + ".extra"));
+        // Characters outside the base64url alphabet.
+        Assert.assertNull(JWTClaimsReader.read(encode(HEADER) + "." + payload.replace('-', '+').substring(1) + "+."
+                + SIGNATURE));
+        // A single trailing character can not hold a byte.
+        Assert.assertNull(JWTClaimsReader.read(encode(HEADER) + "." + payload + "A." + SIGNATURE));
+    }
+
+    @Test
+    public void testPaddedPayload() {
+
+        String payload = Base64.getUrlEncoder().encodeToString("{\"jti\":\"token-i\"}"
+                .getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(payload.endsWith("="));
+
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(encode(HEADER) + "." + payload + "." + SIGNATURE);
+
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("token-i", claims.getTokenIdentifier());
+    }
+
+    @Test
+    public void testLargePayload() {
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 8 * 1024; i++) {
+            value.append('x');
+        }
+        // Larger than the initial buffer, which grows to hold it.
+        JWTClaimsReader.Claims claims = JWTClaimsReader.read(token("{\"data\":\"" + value
+                + "\",\"jti\":\"token-id\"}"));
+        Assert.assertNotNull(claims);
+        Assert.assertEquals("token-id", claims.getTokenIdentifier());
+        Assert.assertEquals("token-id", JWTClaimsReader.read(token("{\"jti\":\"token-id\"}")).getTokenIdentifier());
+
+        for (int i = 0; i < 64 * 1024; i++) {
+            value.append('x');
+        }
+        Assert.assertNull(JWTClaimsReader.read(token("{\"data\":\"" + value + "\",\"jti\":\"token-id\"}")));
+    }
+
+    private static String token(String payload) {
+
+        return encode(HEADER) + "." + encode(payload) + "." + SIGNATURE;
+    }
+
+    private static String encode(String json) {
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.is.key.manager.tokenpersistence.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tests the layout, ordering and uniqueness of the identifiers generated by {@link TimeOrderedIdUtil}.
+ */
+public class TimeOrderedIdUtilTest {
+
+    private static final int ID_COUNT = 100000;
+    private static final int THREAD_COUNT = 8;
+
+    @Test
+    public void testLayout() {
+
+        long startTime = System.currentTimeMillis();
+        byte[] id = TimeOrderedIdUtil.generateId();
+        long endTime = System.currentTimeMillis();
+
+        Assert.assertEquals(TimeOrderedIdUtil.ID_LENGTH, id.length);
+        Assert.assertEquals("Version", 7, (id[6] & 0xF0) >>> 4);
+        Assert.assertEquals("Variant", 2, (id[8] & 0xC0) >>> 6);
+        long timestamp = getTimestamp(id);
+        Assert.assertTrue(timestamp >= startTime && timestamp <= endTime);
+    }
+
+    @Test
+    public void testUUIDFormat() {
+
+        long startTime = System.currentTimeMillis();
+        String id = TimeOrderedIdUtil.generateUUID();
+        long endTime = System.currentTimeMillis();
+
+        Assert.assertTrue(id, id.matches("[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}"));
+        UUID uuid = UUID.fromString(id);
+        Assert.assertEquals(7, uuid.version());
+        Assert.assertEquals(2, uuid.variant());
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        Assert.assertTrue(timestamp >= startTime && timestamp <= endTime);
+    }
+
+    @Test
+    public void testOrderedByCreationTime() throws Exception {
+
+        List<byte[]> ids = new ArrayList<>();
+        List<String> uuids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(TimeOrderedIdUtil.generateId());
+            uuids.add(TimeOrderedIdUtil.generateUUID());
+            // The identifiers created within the same millisecond are not ordered.
+            Thread.sleep(2);
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            Assert.assertTrue(compareUnsigned(ids.get(i - 1), ids.get(i)) < 0);
+            Assert.assertTrue(uuids.get(i - 1).compareTo(uuids.get(i)) < 0);
+        }
+        List<String> sortedUUIDs = new ArrayList<>(uuids);
+        Collections.sort(sortedUUIDs);
+        Assert.assertEquals(uuids, sortedUUIDs);
+    }
+
+    @Test
+    public void testUnique() throws Exception {
+
+        Set<String> ids = Collections.synchronizedSet(new HashSet<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < ID_COUNT / THREAD_COUNT; j++) {
+                    ids.add(TimeOrderedIdUtil.generateUUID());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(ID_COUNT, ids.size());
+    }
+
+    @Test
+    public void testGenerator() {
+
+        String id = new TimeOrderedIdGenerator().generateId();
+
+        Assert.assertEquals(7, UUID.fromString(id).version());
+    }
+
+    private static long getTimestamp(byte[] id) {
+
+        long timestamp = 0;
+        for (int i = 0; i < 6; i++) {
+            timestamp = (timestamp << 8) | (id[i] & 0xFF);
+        }
+        return timestamp;
+    }
+
+    private static int compareUnsigned(byte[] first, byte[] second) {
+
+        for (int i = 0; i < first.length; i++) {
+            int comparison = Integer.compare(first[i] & 0xFF, second[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
+    }
+}
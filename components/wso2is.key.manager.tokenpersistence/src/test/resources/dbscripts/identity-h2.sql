@@ -0,0 +1,46 @@
+-- Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+--
+-- WSO2 LLC. licenses this file to you under the Apache License,
+-- Version 2.0 (the "License"); you may not use this file except
+-- in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+
+-- Revocation tables of the identity database scripts of WSO2 Identity Server, which the token persistence scripts
+-- are applied on top of.
+
+CREATE TABLE IF NOT EXISTS IDN_INVALID_TOKENS (
+    UUID VARCHAR(255) NOT NULL,
+    TOKEN_IDENTIFIER VARCHAR(2048) NOT NULL,
+    CONSUMER_KEY VARCHAR(255) NOT NULL,
+    EXPIRY_TIMESTAMP TIMESTAMP NOT NULL,
+    PRIMARY KEY (UUID)
+);
+CREATE INDEX IF NOT EXISTS IDX_TOKEN_IDENTIFIER ON IDN_INVALID_TOKENS (TOKEN_IDENTIFIER);
+
+CREATE TABLE IF NOT EXISTS IDN_SUBJECT_ENTITY_REVOKED_EVENT (
+    EVENT_ID VARCHAR(255) NOT NULL,
+    ENTITY_ID VARCHAR(255) NOT NULL,
+    ENTITY_TYPE VARCHAR(100) NOT NULL,
+    TIME_REVOKED TIMESTAMP NOT NULL,
+    ORGANIZATION VARCHAR(100),
+    PRIMARY KEY (EVENT_ID),
+    CONSTRAINT CON_SUB_EVT_KEY UNIQUE (ENTITY_ID, ENTITY_TYPE, ORGANIZATION)
+);
+
+CREATE TABLE IF NOT EXISTS IDN_APP_REVOKED_EVENT (
+    EVENT_ID VARCHAR(255) NOT NULL,
+    CONSUMER_KEY VARCHAR(255) NOT NULL,
+    TIME_REVOKED TIMESTAMP NOT NULL,
+    ORGANIZATION VARCHAR(100),
+    PRIMARY KEY (EVENT_ID),
+    CONSTRAINT CON_APP_EVT_KEY UNIQUE (CONSUMER_KEY, ORGANIZATION)
+);
@@ -0,0 +1,42 @@
+-- Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+--
+-- WSO2 LLC. licenses this file to you under the Apache License,
+-- Version 2.0 (the "License"); you may not use this file except
+-- in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+
+-- Additional tables and indexes used by the token persistence extension of the key manager. These are applied on
+-- top of the identity database scripts of WSO2 Identity Server.
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[IDN_TOKEN_PERSISTENCE_LOCK]') AND TYPE IN (N'U'))
+CREATE TABLE IDN_TOKEN_PERSISTENCE_LOCK (
+    LOCK_NAME VARCHAR(64) NOT NULL,
+    LOCK_OWNER VARCHAR(255) NOT NULL,
+    LEASE_EXPIRY_TIME BIGINT NOT NULL,
+    PRIMARY KEY (LOCK_NAME)
+);
+
+IF NOT EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_INVALID_TOKENS_EXPIRY' AND OBJECT_ID = OBJECT_ID(N'[DBO].[IDN_INVALID_TOKENS]'))
+CREATE INDEX IDX_INVALID_TOKENS_EXPIRY ON IDN_INVALID_TOKENS (EXPIRY_TIMESTAMP);
+
+IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[IDN_INVALID_TOKEN_DIGESTS]') AND TYPE IN (N'U'))
+CREATE TABLE IDN_INVALID_TOKEN_DIGESTS (
+    ID BINARY(16) NOT NULL,
+    TOKEN_KEY BINARY(16) NOT NULL,
+    EXPIRY_TIMESTAMP DATETIME NOT NULL,
+    PRIMARY KEY (ID)
+);
+-- The invalid token lookups only read TOKEN_KEY, so they are resolved from this index without reading the rows.
+IF NOT EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_INVALID_TOKEN_DIGESTS_KEY' AND OBJECT_ID = OBJECT_ID(N'[DBO].[IDN_INVALID_TOKEN_DIGESTS]'))
+CREATE INDEX IDX_INVALID_TOKEN_DIGESTS_KEY ON IDN_INVALID_TOKEN_DIGESTS (TOKEN_KEY);
+IF NOT EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_INVALID_TOKEN_DIGESTS_EXPIRY' AND OBJECT_ID = OBJECT_ID(N'[DBO].[IDN_INVALID_TOKEN_DIGESTS]'))
+CREATE INDEX IDX_INVALID_TOKEN_DIGESTS_EXPIRY ON IDN_INVALID_TOKEN_DIGESTS (EXPIRY_TIMESTAMP);
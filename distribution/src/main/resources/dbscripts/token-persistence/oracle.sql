@@ -0,0 +1,75 @@
+-- Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+--
+-- WSO2 LLC. licenses this file to you under the Apache License,
+-- Version 2.0 (the "License"); you may not use this file except
+-- in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+
+-- Additional tables and indexes used by the token persistence extension of the key manager. These are applied on
+-- top of the identity database scripts of WSO2 Identity Server.
+-- Each table and index is created only when it is not found in the schema, so that the script is safe to run again.
+
+DECLARE
+    OBJECT_COUNT NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO OBJECT_COUNT FROM USER_TABLES WHERE TABLE_NAME = 'IDN_TOKEN_PERSISTENCE_LOCK';
+    IF OBJECT_COUNT = 0 THEN
+        EXECUTE IMMEDIATE 'CREATE TABLE IDN_TOKEN_PERSISTENCE_LOCK (
+            LOCK_NAME VARCHAR2(64) NOT NULL,
+            LOCK_OWNER VARCHAR2(255) NOT NULL,
+            LEASE_EXPIRY_TIME NUMBER(19) NOT NULL,
+            PRIMARY KEY (LOCK_NAME))';
+    END IF;
+END;
+/
+DECLARE
+    OBJECT_COUNT NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO OBJECT_COUNT FROM USER_INDEXES WHERE INDEX_NAME = 'IDX_INVALID_TOKENS_EXPIRY';
+    IF OBJECT_COUNT = 0 THEN
+        EXECUTE IMMEDIATE 'CREATE INDEX IDX_INVALID_TOKENS_EXPIRY ON IDN_INVALID_TOKENS (EXPIRY_TIMESTAMP)';
+    END IF;
+END;
+/
+
+DECLARE
+    OBJECT_COUNT NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO OBJECT_COUNT FROM USER_TABLES WHERE TABLE_NAME = 'IDN_INVALID_TOKEN_DIGESTS';
+    IF OBJECT_COUNT = 0 THEN
+        EXECUTE IMMEDIATE 'CREATE TABLE IDN_INVALID_TOKEN_DIGESTS (
+            ID RAW(16) NOT NULL,
+            TOKEN_KEY RAW(16) NOT NULL,
+            EXPIRY_TIMESTAMP TIMESTAMP NOT NULL,
+            PRIMARY KEY (ID))';
+    END IF;
+END;
+/
+-- The invalid token lookups only read TOKEN_KEY, so they are resolved from this index without reading the rows.
+DECLARE
+    OBJECT_COUNT NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO OBJECT_COUNT FROM USER_INDEXES WHERE INDEX_NAME = 'IDX_INVALID_TOKEN_DIGESTS_KEY';
+    IF OBJECT_COUNT = 0 THEN
+        EXECUTE IMMEDIATE 'CREATE INDEX IDX_INVALID_TOKEN_DIGESTS_KEY ON IDN_INVALID_TOKEN_DIGESTS (TOKEN_KEY)';
+    END IF;
+END;
+/
+DECLARE
+    OBJECT_COUNT NUMBER;
+BEGIN
+    SELECT COUNT(*) INTO OBJECT_COUNT FROM USER_INDEXES WHERE INDEX_NAME = 'IDX_INVALID_TOKEN_DIGESTS_EXPIRY';
+    IF OBJECT_COUNT = 0 THEN
+        EXECUTE IMMEDIATE 'CREATE INDEX IDX_INVALID_TOKEN_DIGESTS_EXPIRY ON IDN_INVALID_TOKEN_DIGESTS (EXPIRY_TIMESTAMP)';
+    END IF;
+END;
+/
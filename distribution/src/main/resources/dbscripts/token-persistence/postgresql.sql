@@ -0,0 +1,37 @@
+-- Copyright (c) 2026, WSO2 LLC. (https://www.wso2.com)
+--
+-- WSO2 LLC. licenses this file to you under the Apache License,
+-- Version 2.0 (the "License"); you may not use this file except
+-- in compliance with the License.
+-- You may obtain a copy of the License at
+--
+-- http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied. See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+
+-- Additional tables and indexes used by the token persistence extension of the key manager. These are applied on
+-- top of the identity database scripts of WSO2 Identity Server.
+
+CREATE TABLE IF NOT EXISTS IDN_TOKEN_PERSISTENCE_LOCK (
+    LOCK_NAME VARCHAR(64) NOT NULL,
+    LOCK_OWNER VARCHAR(255) NOT NULL,
+    LEASE_EXPIRY_TIME BIGINT NOT NULL,
+    PRIMARY KEY (LOCK_NAME)
+);
+
+CREATE INDEX IF NOT EXISTS IDX_INVALID_TOKENS_EXPIRY ON IDN_INVALID_TOKENS (EXPIRY_TIMESTAMP);
+
+CREATE TABLE IF NOT EXISTS IDN_INVALID_TOKEN_DIGESTS (
+    ID BYTEA NOT NULL,
+    TOKEN_KEY BYTEA NOT NULL,
+    EXPIRY_TIMESTAMP TIMESTAMP NOT NULL,
+    PRIMARY KEY (ID)
+);
+-- The invalid token lookups only read TOKEN_KEY, so they are resolved from this index without reading the rows.
+CREATE INDEX IF NOT EXISTS IDX_INVALID_TOKEN_DIGESTS_KEY ON IDN_INVALID_TOKEN_DIGESTS (TOKEN_KEY);
+CREATE INDEX IF NOT EXISTS IDX_INVALID_TOKEN_DIGESTS_EXPIRY ON IDN_INVALID_TOKEN_DIGESTS (EXPIRY_TIMESTAMP);